@@ -0,0 +1,72 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.service.ai.AiAnalysisService;
+import adriangarciao.ai_job_app_assistant.service.ai.CachingParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.ParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link AiAnalysisService#analyze} (parse both documents + score), with and without the parse cache.
+ * The cached variant replays the same request, so it measures the hit path; {@code mode} compares
+ * sequential parsing with the parallel (virtual thread) mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+
+    @Param
+    public CorpusGenerator.Shape shape;
+
+    @Param({"false", "true"})
+    public boolean parseCache;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private AiAnalysisService service;
+    private SubmitAnalysisRequest request;
+
+    @Setup
+    public void setUp() {
+        ParserService parser = new SimpleParserService();
+        if (parseCache) {
+            parser = new CachingParserService(parser, 64L * 1024 * 1024);
+        }
+        service = new AiAnalysisService(parser, new FakeLLMService(), new SimpleMeterRegistry(), mode, Duration.ofSeconds(30));
+        request = new SubmitAnalysisRequest(
+                CorpusGenerator.resume(shape, 42), CorpusGenerator.jobPosting(shape, 43), false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public FeedbackDTO analyze() {
+        return service.analyze(request);
+    }
+}
@@ -0,0 +1,154 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import java.util.Random;
+
+/**
+ * Deterministic resume / job posting generator for the benchmarks.
+ *
+ * The same seed always produces the same text, so runs on different machines (and before/after a
+ * change) measure identical input. Shapes cover the normal range up to the 20000-char limit of
+ * {@code SubmitAnalysisRequest} plus a few pathological layouts the parser has to survive.
+ */
+public final class CorpusGenerator {
+
+    /** Input layouts exercised by every benchmark. */
+    public enum Shape {
+        /** Realistic document of about 1k characters. */
+        SMALL,
+        /** Realistic document of about 5k characters. */
+        MEDIUM,
+        /** Realistic document at the 20k request limit. */
+        LARGE,
+        /** 20k characters with no line breaks at all. */
+        GIANT_LINE,
+        /** 20k characters made of thousands of short bullet lines. */
+        MANY_BULLETS
+    }
+
+    public static final int MAX_CHARS = 20_000;
+
+    private static final String[] SKILLS = {
+        "Java", "Spring Boot", "Python", "Go", "Kotlin", "TypeScript", "React", "Node.js",
+        "PostgreSQL", "MySQL", "Redis", "Kafka", "RabbitMQ", "Docker", "Kubernetes", "AWS",
+        "GCP", "Terraform", "GraphQL", "REST APIs", "gRPC", "CI/CD", "Jenkins", "Linux",
+        "Elasticsearch", "Spark", "Airflow", "PyTorch", "microservices", "distributed systems"
+    };
+    private static final String[] VERBS = {
+        "Built", "Designed", "Led", "Migrated", "Optimized", "Maintained", "Shipped", "Automated"
+    };
+    private static final String[] OBJECTS = {
+        "a payments service", "the search pipeline", "internal tooling", "a data platform",
+        "customer-facing APIs", "the deployment process", "event-driven workflows", "monitoring dashboards"
+    };
+    private static final String[] COMPANIES = {"Acme Corp", "Globex", "Initech", "Umbrella", "Hooli", "Stark Industries"};
+    private static final String[] CITIES = {"Austin, TX", "Seattle, WA", "New York, NY", "Denver, CO", "Remote"};
+    private static final String[] FILLER = {
+        "We value ownership and clear communication across teams.",
+        "Our customers rely on us for reliable, low-latency systems.",
+        "You will collaborate with product, design and data science.",
+        "We offer flexible hours, learning budgets and a generous parental leave policy."
+    };
+
+    private CorpusGenerator() {
+    }
+
+    public static int targetChars(Shape shape) {
+        return switch (shape) {
+            case SMALL -> 1_000;
+            case MEDIUM -> 5_000;
+            case LARGE, GIANT_LINE, MANY_BULLETS -> MAX_CHARS;
+        };
+    }
+
+    public static String resume(Shape shape, long seed) {
+        Random random = new Random(seed);
+        int target = targetChars(shape);
+        return switch (shape) {
+            case GIANT_LINE -> giantLine(random, target);
+            case MANY_BULLETS -> bullets(random, target, "Skills:\n");
+            default -> realisticResume(random, target);
+        };
+    }
+
+    public static String jobPosting(Shape shape, long seed) {
+        Random random = new Random(seed);
+        int target = targetChars(shape);
+        return switch (shape) {
+            case GIANT_LINE -> giantLine(random, target);
+            case MANY_BULLETS -> bullets(random, target, "Title: Software Engineer\nRequirements:\n");
+            default -> realisticPosting(random, target);
+        };
+    }
+
+    private static String realisticResume(Random random, int target) {
+        StringBuilder sb = new StringBuilder(target + 256);
+        sb.append("Jane Doe\njane.doe@example.com | (555) 123-4567 | ").append(pick(random, CITIES)).append("\n\n");
+        sb.append("Skills:\n");
+        for (int i = 0; i < 12; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(pick(random, SKILLS));
+        }
+        sb.append("\n\nExperience:\n");
+        while (sb.length() < target - 120) {
+            sb.append("Software Engineer at ").append(pick(random, COMPANIES))
+                    .append(" (").append(2015 + random.nextInt(9)).append(" - Present)\n");
+            int bullets = 2 + random.nextInt(4);
+            for (int b = 0; b < bullets && sb.length() < target - 120; b++) {
+                sb.append("- ").append(pick(random, VERBS)).append(' ').append(pick(random, OBJECTS))
+                        .append(" using ").append(pick(random, SKILLS)).append(" and ").append(pick(random, SKILLS))
+                        .append(", cutting latency by ").append(10 + random.nextInt(80)).append("%\n");
+            }
+            sb.append('\n');
+        }
+        sb.append("Education:\nB.S. Computer Science, State University\n");
+        return truncate(sb, target);
+    }
+
+    private static String realisticPosting(Random random, int target) {
+        StringBuilder sb = new StringBuilder(target + 256);
+        sb.append("Title: Senior Backend Engineer\n");
+        sb.append("Location: ").append(pick(random, CITIES)).append("\n");
+        sb.append("Compensation: $").append(120 + random.nextInt(40)).append("k - $")
+                .append(170 + random.nextInt(60)).append("k + equity\n\n");
+        sb.append("About us:\n").append(pick(random, FILLER)).append("\n\n");
+        sb.append("Requirements:\n");
+        int section = 0;
+        while (sb.length() < target - 200) {
+            sb.append("- ").append(2 + random.nextInt(6)).append("+ years of experience with ")
+                    .append(pick(random, SKILLS)).append(" and ").append(pick(random, SKILLS)).append('\n');
+            sb.append("- Experience with ").append(pick(random, SKILLS)).append(", ")
+                    .append(pick(random, SKILLS)).append(" or ").append(pick(random, SKILLS)).append('\n');
+            if (++section % 6 == 0) {
+                sb.append("\nNice to have:\n- Knowledge of ").append(pick(random, SKILLS)).append('\n')
+                        .append("\nBENEFITS\n").append(pick(random, FILLER)).append("\n\nRequirements:\n");
+            }
+        }
+        sb.append("\nEqual opportunity employer.\n");
+        return truncate(sb, target);
+    }
+
+    private static String giantLine(Random random, int target) {
+        StringBuilder sb = new StringBuilder(target + 64);
+        while (sb.length() < target) {
+            sb.append(pick(random, SKILLS)).append(", ").append(pick(random, VERBS)).append(' ')
+                    .append(pick(random, OBJECTS)).append(" $").append(random.nextInt(200)).append("k ");
+        }
+        return truncate(sb, target);
+    }
+
+    private static String bullets(Random random, int target, String header) {
+        StringBuilder sb = new StringBuilder(target + 64).append(header);
+        while (sb.length() < target) {
+            sb.append("- ").append(pick(random, SKILLS)).append('\n');
+        }
+        return truncate(sb, target);
+    }
+
+    private static String truncate(StringBuilder sb, int target) {
+        return sb.length() > target ? sb.substring(0, target) : sb.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,113 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import adriangarciao.ai_job_app_assistant.service.TextExtractionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resume extraction cold vs warm: {@code cold} builds the Tika configuration for every document,
+ * as each upload used to; {@code warm} reuses one {@link TextExtractionService}. Documents are
+ * the generated MEDIUM resume written out as a PDF or a DOCX.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    @Param({"pdf", "docx"})
+    public String format;
+
+    private byte[] document;
+    private String contentType;
+    private TextExtractionService warm;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String text = CorpusGenerator.resume(CorpusGenerator.Shape.MEDIUM, 42);
+        boolean pdf = format.equals("pdf");
+        document = pdf ? pdf(text) : docx(text);
+        contentType = pdf ? TextExtractionService.PDF_CONTENT_TYPE : TextExtractionService.DOCX_CONTENT_TYPE;
+        warm = new TextExtractionService(new SimpleMeterRegistry(), true);
+        warm.warmUp();
+    }
+
+    @Benchmark
+    public String cold() {
+        TextExtractionService cold = new TextExtractionService(new SimpleMeterRegistry(), false);
+        try {
+            return cold.extract(new ByteArrayInputStream(document), contentType).text();
+        } finally {
+            cold.shutdown();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        warm.shutdown();
+    }
+
+    @Benchmark
+    public String warm() {
+        return warm.extract(new ByteArrayInputStream(document), contentType).text();
+    }
+
+    private static byte[] pdf(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String[] lines = text.split("\n");
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int first = 0; first < lines.length; first += 50) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int i = first; i < Math.min(lines.length, first + 50); i++) {
+                        content.showText(lines[i]);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] docx(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            for (String line : text.split("\n")) document.createParagraph().createRun().setText(line);
+            document.write(out);
+        }
+        return out.toByteArray();
+    }
+}
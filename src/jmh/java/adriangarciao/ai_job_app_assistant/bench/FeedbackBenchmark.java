@@ -0,0 +1,55 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FakeLLMService#generateFeedback} scoring cost on pre-parsed documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedbackBenchmark {
+
+    @Param
+    public CorpusGenerator.Shape shape;
+
+    @Param({"false", "true"})
+    public boolean includeCoverLetter;
+
+    private FakeLLMService llm;
+    private ParsedResumeDTO resume;
+    private ParsedJobDTO job;
+
+    @Setup
+    public void setUp() {
+        SimpleParserService parser = new SimpleParserService();
+        llm = new FakeLLMService();
+        resume = parser.parseResume(CorpusGenerator.resume(shape, 42));
+        job = parser.parseJob(CorpusGenerator.jobPosting(shape, 43));
+    }
+
+    @Benchmark
+    public FeedbackDTO generateFeedback() {
+        return llm.generateFeedback(resume, job, includeCoverLetter);
+    }
+}
@@ -0,0 +1,81 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.OpenAiLLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.StubLlmServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OpenAiLLMService} against the local stand-in server: client-side overhead, throughput
+ * and tail latency (SampleTime reports p50..p99.99) with 32 concurrent callers sharing one client.
+ * Server latency is simulated, so results measure the client and its connection handling only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(32)
+@Fork(1)
+public class LlmBackendBenchmark {
+
+    @Param({"0", "20"})
+    public int serverLatencyMillis;
+
+    @Param({"false", "true"})
+    public boolean stream;
+
+    private StubLlmServer server;
+    private OpenAiLLMService llm;
+    private ParsedResumeDTO resume;
+    private ParsedJobDTO job;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StubLlmServer.start()
+                .latency(Duration.ofMillis(serverLatencyMillis))
+                .streamChunks(16, Duration.ZERO);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        llm = new OpenAiLLMService(http, new ObjectMapper(), new OpenAiLLMService.Settings(
+                server.baseUri(), "", "bench", Duration.ofSeconds(10), 6000, 800, stream));
+
+        SimpleParserService parser = new SimpleParserService();
+        resume = parser.parseResume(CorpusGenerator.resume(CorpusGenerator.Shape.MEDIUM, 42));
+        job = parser.parseJob(CorpusGenerator.jobPosting(CorpusGenerator.Shape.MEDIUM, 43));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public FeedbackDTO generateFeedback() {
+        return llm.generateFeedback(resume, job, false);
+    }
+}
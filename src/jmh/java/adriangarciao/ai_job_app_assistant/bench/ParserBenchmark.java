@@ -0,0 +1,54 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached {@link SimpleParserService} cost per document shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param
+    public CorpusGenerator.Shape shape;
+
+    private SimpleParserService parser;
+    private String resume;
+    private String posting;
+
+    @Setup
+    public void setUp() {
+        parser = new SimpleParserService();
+        resume = CorpusGenerator.resume(shape, 42);
+        posting = CorpusGenerator.jobPosting(shape, 43);
+    }
+
+    @Benchmark
+    public ParsedResumeDTO parseResume() {
+        return parser.parseResume(resume);
+    }
+
+    @Benchmark
+    public ParsedJobDTO parseJob() {
+        return parser.parseJob(posting);
+    }
+}
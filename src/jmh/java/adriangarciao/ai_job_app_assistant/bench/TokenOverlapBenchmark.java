@@ -0,0 +1,81 @@
+package adriangarciao.ai_job_app_assistant.bench;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LongHashSet;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.TokenOverlap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Text-overlap token sets: the original stream/regex/String pipeline against hashed long sets.
+ * Both build the resume and posting sets and count the shared tokens; run with {@code -prof gc}
+ * to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenOverlapBenchmark {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "the", "and", "or", "a", "an", "to", "of", "for", "in", "on", "with",
+            "is", "are", "was", "were", "be", "been", "being", "have", "has", "had",
+            "do", "does", "did", "will", "would", "should", "could", "may", "might",
+            "at", "by", "from", "as", "that", "this", "it", "we", "you", "they"
+    );
+
+    @Param
+    public CorpusGenerator.Shape shape;
+
+    private ParsedResumeDTO resume;
+    private ParsedJobDTO job;
+
+    @Setup
+    public void setUp() {
+        SimpleParserService parser = new SimpleParserService();
+        resume = parser.parseResume(CorpusGenerator.resume(shape, 42));
+        job = parser.parseJob(CorpusGenerator.jobPosting(shape, 43));
+    }
+
+    @Benchmark
+    public long streamSets() {
+        Set<String> resumeTokens = tokenizeAndFilter(resume.rawText());
+        Set<String> jobTokens = tokenizeAndFilter(job.rawText());
+        return resumeTokens.stream().filter(jobTokens::contains).count() * 31 + jobTokens.size();
+    }
+
+    @Benchmark
+    public long hashedSets() {
+        LongHashSet resumeTokens = TokenOverlap.distinctTokens(resume.rawText(), resume.tokens());
+        LongHashSet jobTokens = TokenOverlap.distinctTokens(job.rawText(), job.tokens());
+        return resumeTokens.countShared(jobTokens) * 31L + jobTokens.size();
+    }
+
+    private static Set<String> tokenizeAndFilter(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\s+"))
+                .map(token -> token.replaceAll("[^a-z0-9+#.-]", ""))
+                .filter(token -> !token.isBlank())
+                .filter(token -> token.length() >= 3)
+                .filter(token -> !STOPWORDS.contains(token))
+                .collect(Collectors.toSet());
+    }
+}
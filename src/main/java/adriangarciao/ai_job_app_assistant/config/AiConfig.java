@@ -1,15 +1,168 @@
 package adriangarciao.ai_job_app_assistant.config;
 
+import adriangarciao.ai_job_app_assistant.service.ai.CachingParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.PromptCompactor;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import adriangarciao.ai_job_app_assistant.service.ai.SkillCanonicalizer;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.CachingLLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.CompactingLLMService;
 import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
 import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.OpenAiLLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.ResilientLLMService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AiConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(AiConfig.class);
+
+    // What the remote backend started (threads, connections, the cache file), stopped last to first
+    private final Deque<Runnable> remoteShutdown = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Backend behind the analysis endpoints, picked by app.ai.llm.provider: fake (default,
+     * deterministic local scoring) or openai (any OpenAI-compatible chat completions endpoint).
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.ai.llm.provider", havingValue = "fake", matchIfMissing = true)
+    public LLMService llmService(SkillCanonicalizer skillCanonicalizer) {
+        return new FakeLLMService(skillCanonicalizer);
+    }
+
+    /**
+     * The remote backend, fed compacted documents (unless app.ai.llm.compaction.enabled=false),
+     * wrapped (unless app.ai.llm.resilience.enabled=false) in deadlines,
+     * hedging, a bulkhead and a circuit breaker that fall back to the local scorer, and in front
+     * of that (unless app.ai.llm.cache.enabled=false) a response cache in memory and on disk.
+     * Every layer is stopped by {@link #shutdown()}, so none is inferred as the bean's destroy method.
+     */
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "app.ai.llm.provider", havingValue = "openai")
+    public LLMService openAiLlmService(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            SkillCanonicalizer skillCanonicalizer,
+            @Value("${app.ai.llm.openai.base-url:https://api.openai.com/v1}") URI baseUrl,
+            @Value("${app.ai.llm.openai.api-key:}") String apiKey,
+            @Value("${app.ai.llm.openai.model:gpt-4o-mini}") String model,
+            @Value("${app.ai.llm.openai.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${app.ai.llm.openai.request-timeout:30s}") Duration requestTimeout,
+            @Value("${app.ai.llm.openai.max-input-tokens:6000}") int maxInputTokens,
+            @Value("${app.ai.llm.openai.max-output-tokens:800}") int maxOutputTokens,
+            @Value("${app.ai.llm.openai.stream:false}") boolean stream,
+            @Value("${app.ai.llm.openai.max-batch-concurrency:8}") int maxBatchConcurrency,
+            @Value("${app.ai.llm.compaction.enabled:true}") boolean compacted,
+            @Value("${app.ai.llm.compaction.max-document-tokens:4000}") int maxDocumentTokens,
+            @Value("${app.ai.llm.resilience.enabled:true}") boolean resilient,
+            @Value("${app.ai.llm.resilience.deadline:8s}") Duration deadline,
+            @Value("${app.ai.llm.resilience.hedge:true}") boolean hedge,
+            @Value("${app.ai.llm.resilience.min-hedge-delay:500ms}") Duration minHedgeDelay,
+            @Value("${app.ai.llm.resilience.max-concurrent-calls:8}") int maxConcurrentCalls,
+            @Value("${app.ai.llm.resilience.breaker.failure-threshold:5}") int breakerFailureThreshold,
+            @Value("${app.ai.llm.resilience.breaker.open-duration:30s}") Duration breakerOpenDuration,
+            @Value("${app.ai.llm.cache.enabled:true}") boolean cached,
+            @Value("${app.ai.llm.cache.max-entries:10000}") long cacheMaxEntries,
+            @Value("${app.ai.llm.cache.ttl:7d}") Duration cacheTtl,
+            @Value("${app.ai.llm.cache.file:}") String cacheFile,
+            @Value("${app.ai.llm.cache.max-file-size:256MB}") DataSize cacheMaxFileSize,
+            @Value("${app.ai.llm.cache.generation:1}") String cacheGeneration
+    ) {
+        // One client for the application: it keeps a connection pool and multiplexes over HTTP/2;
+        // response handling runs on virtual threads
+        ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        remoteShutdown.add(httpExecutor::shutdownNow);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(httpExecutor)
+                .build();
+        remoteShutdown.add(http::shutdownNow);
+        OpenAiLLMService openAi = new OpenAiLLMService(http, objectMapper, new OpenAiLLMService.Settings(
+                baseUrl, apiKey, model, requestTimeout, maxInputTokens, maxOutputTokens, stream, maxBatchConcurrency));
+        PromptCompactor compactor = compacted ? new PromptCompactor(maxDocumentTokens) : null;
+        LLMService remote = compactor == null ? openAi : new CompactingLLMService(openAi, compactor, meterRegistry);
+        // The fallback scorer still sees the full documents
+        LLMService backend = remote;
+        if (resilient) {
+            ResilientLLMService resilientService = new ResilientLLMService(remote, new FakeLLMService(skillCanonicalizer),
+                    new ResilientLLMService.Settings(deadline, hedge, minHedgeDelay, maxConcurrentCalls,
+                            breakerFailureThreshold, breakerOpenDuration),
+                    meterRegistry);
+            remoteShutdown.add(resilientService::shutdown);
+            backend = resilientService;
+        }
+        if (!cached) return backend;
+        String namespace = openAi.cacheNamespace()
+                + (compactor == null ? "" : "|" + compactor.cacheNamespace())
+                + "|" + cacheGeneration;
+        CachingLLMService cache = new CachingLLMService(backend, cacheFile.isBlank() ? null : Path.of(cacheFile), namespace,
+                cacheMaxFileSize.toBytes(), cacheMaxEntries, cacheTtl, objectMapper, meterRegistry);
+        remoteShutdown.add(cache::shutdown);
+        return cache;
+    }
+
+    /**
+     * Stops the remote backend from the outside in: the cache file first, then attempts still
+     * running, then the HTTP client and its threads. Runs after every bean using the backend.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable step = remoteShutdown.pollLast(); step != null; step = remoteShutdown.pollLast()) {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                log.warn("Could not stop part of the LLM backend: {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * Skill synonym table used when matching core skills. Defaults to the bundled one; point
+     * app.ai.skill-synonyms at another file (e.g. file:/etc/ai-job-assistant/skill-synonyms.txt)
+     * to add synonyms without a rebuild.
+     */
+    @Bean
+    public SkillCanonicalizer skillCanonicalizer(
+            @Value("${app.ai.skill-synonyms:classpath:skill-synonyms.txt}") Resource synonyms
+    ) throws IOException {
+        try (InputStream in = synonyms.getInputStream()) {
+            return SkillCanonicalizer.load(in, synonyms.getDescription());
+        }
+    }
+
+    /**
+     * Content-addressed parse cache in front of the parser; injected wherever a ParserService is needed.
+     */
     @Bean
-    public LLMService llmService() {
-        return new FakeLLMService();
+    @Primary
+    @ConditionalOnProperty(name = "app.ai.parse-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CachingParserService cachingParserService(
+            SimpleParserService simpleParserService,
+            @Value("${app.ai.parse-cache.max-weight-bytes:67108864}") long maxWeightBytes
+    ) {
+        return new CachingParserService(simpleParserService, maxWeightBytes);
     }
 }
@@ -1,16 +1,26 @@
 package adriangarciao.ai_job_app_assistant.controller;
 
+import adriangarciao.ai_job_app_assistant.dto.BatchAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.dto.BatchFeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
 import adriangarciao.ai_job_app_assistant.service.ai.AiAnalysisService;
+import adriangarciao.ai_job_app_assistant.service.ai.BatchAnalysisService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -19,9 +29,14 @@ public class AiAnalysisController {
     private static final Logger log = LoggerFactory.getLogger(AiAnalysisController.class);
 
     private final AiAnalysisService aiAnalysisService;
+    private final BatchAnalysisService batchAnalysisService;
+    private final ObjectMapper objectMapper;
 
-    public AiAnalysisController(AiAnalysisService aiAnalysisService) {
+    public AiAnalysisController(AiAnalysisService aiAnalysisService, BatchAnalysisService batchAnalysisService,
+                                ObjectMapper objectMapper) {
         this.aiAnalysisService = aiAnalysisService;
+        this.batchAnalysisService = batchAnalysisService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/analyze")
@@ -30,4 +45,30 @@ public class AiAnalysisController {
         FeedbackDTO feedback = aiAnalysisService.analyze(request);
         return ResponseEntity.ok(feedback);
     }
+
+    @PostMapping(value = "/analyze/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchFeedbackDTO>> analyzeBatch(@Valid @RequestBody BatchAnalysisRequest request) {
+        log.info("AI batch analysis endpoint called ({} postings)", request.jobPostingTexts().size());
+        return ResponseEntity.ok(batchAnalysisService.rank(request));
+    }
+
+    /**
+     * Same batch, streamed as newline-delimited JSON: one {@link BatchFeedbackDTO} per line,
+     * written as soon as that posting is scored.
+     */
+    @PostMapping(value = "/analyze/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatch(@Valid @RequestBody BatchAnalysisRequest request) {
+        log.info("AI batch analysis stream called ({} postings)", request.jobPostingTexts().size());
+        StreamingResponseBody body = out -> batchAnalysisService.stream(request, result -> {
+            try {
+                // writeValue(out, ..) would close the response stream after the first line
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -0,0 +1,42 @@
+package adriangarciao.ai_job_app_assistant.controller;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.service.ai.AnalysisJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Submit-and-poll analysis: POST queues the job and answers 202 with its id, GET reports its
+ * status and, once it has finished, the feedback.
+ */
+@RestController
+@RequestMapping("/api/ai/jobs")
+public class AnalysisJobController {
+
+    private final AnalysisJobService jobService;
+
+    public AnalysisJobController(AnalysisJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<AnalysisJobDTO> submit(@Valid @RequestBody SubmitAnalysisRequest request) {
+        AnalysisJobDTO job = jobService.submit(request);
+        return ResponseEntity.accepted().location(URI.create("/api/ai/jobs/" + job.jobId())).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AnalysisJobDTO> get(@PathVariable UUID id) {
+        return ResponseEntity.ok(jobService.get(id));
+    }
+}
@@ -0,0 +1,56 @@
+package adriangarciao.ai_job_app_assistant.controller;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisSessionDTO;
+import adriangarciao.ai_job_app_assistant.dto.SessionEditRequest;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.service.ai.AnalysisSessionService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Incremental analysis for the live editor: open a session with both texts, then send
+ * line-range edits and get the updated feedback back.
+ */
+@RestController
+@RequestMapping("/api/ai/sessions")
+public class AnalysisSessionController {
+
+    private final AnalysisSessionService sessionService;
+
+    public AnalysisSessionController(AnalysisSessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<AnalysisSessionDTO> open(@Valid @RequestBody SubmitAnalysisRequest request) {
+        AnalysisSessionDTO session = sessionService.open(request);
+        return ResponseEntity.created(URI.create("/api/ai/sessions/" + session.sessionId())).body(session);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AnalysisSessionDTO> get(@PathVariable UUID id) {
+        return ResponseEntity.ok(sessionService.get(id));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<AnalysisSessionDTO> edit(@PathVariable UUID id, @Valid @RequestBody SessionEditRequest edit) {
+        return ResponseEntity.ok(sessionService.edit(id, edit));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> close(@PathVariable UUID id) {
+        sessionService.close(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,114 @@
+package adriangarciao.ai_job_app_assistant.controller;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedSkillsDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.exception.GlobalExceptionHandler.ApiError;
+import adriangarciao.ai_job_app_assistant.exception.LlmBackendException;
+import adriangarciao.ai_job_app_assistant.service.ai.AnalysisStreamService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming variant of {@code POST /api/ai/analyze}: the same request, answered as server-sent
+ * events while the analysis runs. Events, in order:
+ * {@code parsed} (skills found in both documents), {@code token} (zero or more pieces of generated
+ * text, only from streaming LLM backends), {@code score}, {@code strengths}, {@code weaknesses},
+ * {@code suggestions} and finally {@code done} with the whole feedback, or {@code error}.
+ * The servlet thread is released as soon as the stream is opened.
+ */
+@RestController
+@RequestMapping("/api/ai")
+public class AnalysisStreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisStreamController.class);
+
+    private final AnalysisStreamService streamService;
+    private final Duration timeout;
+
+    public AnalysisStreamController(
+            AnalysisStreamService streamService,
+            @Value("${app.ai.analysis.stream-timeout:60s}") Duration timeout
+    ) {
+        this.streamService = streamService;
+        this.timeout = timeout;
+    }
+
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzeStream(@Valid @RequestBody SubmitAnalysisRequest request) {
+        log.info("AI analysis stream endpoint called");
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Future<?> analysis = streamService.analyze(request, new EmitterListener(emitter));
+        // Client gone or stream timed out: stop the analysis
+        emitter.onTimeout(() -> analysis.cancel(true));
+        emitter.onError(e -> analysis.cancel(true));
+        return emitter;
+    }
+
+    private static final class EmitterListener implements AnalysisStreamService.Listener {
+        private final SseEmitter emitter;
+
+        EmitterListener(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onParsed(ParsedResumeDTO resume, ParsedJobDTO job) {
+            send("parsed", ParsedSkillsDTO.of(resume, job));
+        }
+
+        @Override
+        public void onToken(String token) {
+            send("token", token);
+        }
+
+        @Override
+        public void onFeedback(FeedbackDTO feedback) {
+            if (!send("score", Map.of("matchScore", feedback.matchScore()))) return;
+            if (!send("strengths", feedback.strengths())) return;
+            if (!send("weaknesses", feedback.weaknesses())) return;
+            if (!send("suggestions", feedback.suggestions())) return;
+            if (send("done", feedback)) emitter.complete();
+        }
+
+        @Override
+        public void onError(RuntimeException error) {
+            HttpStatus status = error instanceof AnalysisTimeoutException ? HttpStatus.SERVICE_UNAVAILABLE
+                    : error instanceof LlmBackendException ? HttpStatus.BAD_GATEWAY
+                    : HttpStatus.INTERNAL_SERVER_ERROR;
+            String message = status == HttpStatus.INTERNAL_SERVER_ERROR ? "Analysis failed" : error.getMessage();
+            if (send("error", new ApiError(status.value(), status.getReasonPhrase(), message, Instant.now()))) {
+                emitter.complete();
+            }
+        }
+
+        /** Returns false once the client has gone away; the emitter's error callback cancels the analysis. */
+        private boolean send(String event, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not send '{}' event: {}", event, e.toString());
+                return false;
+            }
+        }
+    }
+}
@@ -2,14 +2,14 @@ package adriangarciao.ai_job_app_assistant.controller;
 
 import adriangarciao.ai_job_app_assistant.dto.ResumeDTO;
 import adriangarciao.ai_job_app_assistant.dto.ResumeUploadResponse;
+import adriangarciao.ai_job_app_assistant.exception.TextExtractionException;
+import adriangarciao.ai_job_app_assistant.service.ResumeExtractionService;
 import adriangarciao.ai_job_app_assistant.service.ResumeService;
+import adriangarciao.ai_job_app_assistant.service.TextExtractionService;
 import adriangarciao.ai_job_app_assistant.service.ai.ParserService;
 import adriangarciao.ai_job_app_assistant.dto.ResumeParseResponse;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.AutoDetectParser;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.sax.BodyContentHandler;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,10 +17,13 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.slf4j.Logger;
@@ -34,10 +37,19 @@ public class ResumeController {
 
     private final ResumeService resumeService;
     private final ParserService parserService;
-
-    public ResumeController(ResumeService resumeService, ParserService parserService) {
+    private final TextExtractionService textExtractionService;
+    private final ResumeExtractionService extractionService;
+    private final Duration extractionEventsTimeout;
+
+    public ResumeController(ResumeService resumeService, ParserService parserService,
+                            TextExtractionService textExtractionService,
+                            ResumeExtractionService extractionService,
+                            @Value("${app.extraction.events-timeout:60s}") Duration extractionEventsTimeout) {
         this.resumeService = resumeService;
         this.parserService = parserService;
+        this.textExtractionService = textExtractionService;
+        this.extractionService = extractionService;
+        this.extractionEventsTimeout = extractionEventsTimeout;
     }
 
     /**
@@ -74,17 +86,11 @@ public class ResumeController {
         }
 
         String text = "";
-        String filename = Optional.ofNullable(file.getOriginalFilename()).orElse("file");
-        String lower = filename.toLowerCase();
 
         try (InputStream in = file.getInputStream()) {
-            // Use Apache Tika to extract text from the uploaded file (PDF, DOCX, etc.)
-            BodyContentHandler handler = new BodyContentHandler(-1);
-            Metadata metadata = new Metadata();
-            AutoDetectParser parser = new AutoDetectParser();
-            parser.parse(in, handler, metadata, new ParseContext());
-            text = handler.toString();
-        } catch (Exception e) {
+            // Shared extractor: PDF/DOCX fast paths, Tika auto-detection for anything else
+            text = textExtractionService.extract(in, file.getContentType()).text();
+        } catch (IOException | TextExtractionException e) {
             log.error("Failed to extract text from uploaded file: {}", e.getMessage(), e);
             return ResponseEntity.status(500).build();
         }
@@ -103,6 +109,28 @@ public class ResumeController {
         return ResponseEntity.ok(resumeService.get(id));
     }
 
+    /**
+     * One server-sent event when text extraction of the resume has finished: {@code done} or
+     * {@code failed}, with the resume. Sent at once if it already has (owner or admin).
+     */
+    @GetMapping(path = "/{id}/extraction/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("@authzService.ownsResume(authentication, #id) or hasRole('ADMIN')")
+    public SseEmitter extractionEvents(@PathVariable Long id) {
+        SseEmitter emitter = new SseEmitter(extractionEventsTimeout.toMillis());
+        Runnable unsubscribe = extractionService.onFinished(id, status -> {
+            try {
+                emitter.send(SseEmitter.event().name(status.name().toLowerCase(Locale.ROOT)).data(resumeService.get(id)));
+                emitter.complete();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Could not send extraction event for resume {}: {}", id, e.toString());
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
     /**
      * List *my* resumes (authenticated user).
      */
@@ -0,0 +1,20 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import adriangarciao.ai_job_app_assistant.model.AnalysisJobStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Response DTO for the job endpoints: where a submitted analysis is, and its feedback (or
+ * error) once it has finished.
+ */
+public record AnalysisJobDTO(
+        UUID jobId,
+        AnalysisJobStatus status,
+        FeedbackDTO result,
+        String error,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {}
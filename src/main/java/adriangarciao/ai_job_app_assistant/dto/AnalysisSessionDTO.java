@@ -0,0 +1,13 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import java.util.UUID;
+
+/**
+ * Response DTO for the incremental analysis endpoints: the session handle, how many edits it
+ * has seen and the feedback for its current texts.
+ */
+public record AnalysisSessionDTO(
+        UUID sessionId,
+        long version,
+        FeedbackDTO feedback
+) {}
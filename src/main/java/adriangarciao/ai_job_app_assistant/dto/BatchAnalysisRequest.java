@@ -0,0 +1,29 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for ranking one resume against many job postings.
+ * {@code topK} limits the ranked response (all postings when null); the NDJSON stream ignores it.
+ */
+public record BatchAnalysisRequest(
+        @NotBlank(message = "resumeText is required")
+        @Size(max = 20000, message = "resumeText must be at most 20000 characters")
+        String resumeText,
+
+        @NotEmpty(message = "jobPostingTexts is required")
+        @Size(max = 500, message = "at most 500 job postings per batch")
+        List<@NotBlank(message = "job postings must not be blank")
+             @Size(max = 20000, message = "job postings must be at most 20000 characters") String> jobPostingTexts,
+
+        @Min(value = 1, message = "topK must be >= 1")
+        @Max(value = 500, message = "topK must be <= 500")
+        Integer topK
+) {
+}
@@ -0,0 +1,9 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+/**
+ * Feedback for one posting of a batch; {@code index} is the posting's position in the request.
+ */
+public record BatchFeedbackDTO(
+        int index,
+        FeedbackDTO feedback
+) {}
@@ -13,7 +13,9 @@ public record FeedbackDTO(
         List<String> suggestions,
         String summary,
         String jobLocation,
-        String compensationInfo
+        String compensationInfo,
+        boolean partial,
+        boolean fallback
 ) {
     public FeedbackDTO {
         // Normalize lists to non-null immutable lists
@@ -21,6 +23,24 @@ public record FeedbackDTO(
         weaknesses = (weaknesses == null) ? List.of() : List.copyOf(weaknesses);
         suggestions = (suggestions == null) ? List.of() : List.copyOf(suggestions);
         summary = Objects.requireNonNullElse(summary, "");
-        // jobLocation and compensationInfo can be null if not found
+        // jobLocation and compensationInfo can be null if not found;
+        // partial means an input was only partly parsed, so the score may understate the match;
+        // fallback means the configured LLM backend was unavailable and the local scorer answered instead
+    }
+
+    public FeedbackDTO(int matchScore, List<String> strengths, List<String> weaknesses, List<String> suggestions,
+                       String summary, String jobLocation, String compensationInfo, boolean partial) {
+        this(matchScore, strengths, weaknesses, suggestions, summary, jobLocation, compensationInfo, partial, false);
+    }
+
+    public FeedbackDTO(int matchScore, List<String> strengths, List<String> weaknesses, List<String> suggestions,
+                       String summary, String jobLocation, String compensationInfo) {
+        this(matchScore, strengths, weaknesses, suggestions, summary, jobLocation, compensationInfo, false, false);
+    }
+
+    /** This feedback, flagged as produced by the fallback scorer. */
+    public FeedbackDTO asFallback() {
+        return new FeedbackDTO(matchScore, strengths, weaknesses, suggestions, summary, jobLocation, compensationInfo,
+                partial, true);
     }
 }
@@ -12,13 +12,30 @@ public record ParsedJobDTO(
         List<String> niceToHaveSkills,
         String jobLocation,
         String compensationInfo,
-        String rawText
+        String rawText,
+        TokenSpans tokens,
+        SkillMask coreSkills,
+        boolean partial
 ) {
     public ParsedJobDTO {
         requiredSkills = (requiredSkills == null) ? List.of() : List.copyOf(requiredSkills);
         niceToHaveSkills = (niceToHaveSkills == null) ? List.of() : List.copyOf(niceToHaveSkills);
         title = Objects.requireNonNullElse(title, "");
         rawText = Objects.requireNonNullElse(rawText, "");
-        // jobLocation and compensationInfo can be null if not found
+        tokens = (tokens == null) ? TokenSpans.scan(rawText) : tokens;
+        // jobLocation and compensationInfo can be null if not found,
+        // coreSkills (required + nice-to-have) when the producer did not classify the skills;
+        // partial means the parse ran out of its time budget and later fields may be missing
+    }
+
+    public ParsedJobDTO(String title, List<String> requiredSkills, List<String> niceToHaveSkills,
+                        String jobLocation, String compensationInfo, String rawText,
+                        TokenSpans tokens, SkillMask coreSkills) {
+        this(title, requiredSkills, niceToHaveSkills, jobLocation, compensationInfo, rawText, tokens, coreSkills, false);
+    }
+
+    public ParsedJobDTO(String title, List<String> requiredSkills, List<String> niceToHaveSkills,
+                        String jobLocation, String compensationInfo, String rawText) {
+        this(title, requiredSkills, niceToHaveSkills, jobLocation, compensationInfo, rawText, null, null, false);
     }
 }
@@ -10,12 +10,27 @@ public record ParsedResumeDTO(
         String redactedName,
         List<String> skills,
         List<String> experiences,
-        String rawText
+        String rawText,
+        TokenSpans tokens,
+        SkillMask coreSkills,
+        boolean partial
 ) {
     public ParsedResumeDTO {
         skills = (skills == null) ? List.of() : List.copyOf(skills);
         experiences = (experiences == null) ? List.of() : List.copyOf(experiences);
         redactedName = Objects.requireNonNullElse(redactedName, "");
         rawText = Objects.requireNonNullElse(rawText, "");
+        tokens = (tokens == null) ? TokenSpans.scan(rawText) : tokens;
+        // coreSkills can be null when the producer did not classify the skills;
+        // partial means the parse ran out of its time budget and the lists may be incomplete
+    }
+
+    public ParsedResumeDTO(String redactedName, List<String> skills, List<String> experiences, String rawText,
+                           TokenSpans tokens, SkillMask coreSkills) {
+        this(redactedName, skills, experiences, rawText, tokens, coreSkills, false);
+    }
+
+    public ParsedResumeDTO(String redactedName, List<String> skills, List<String> experiences, String rawText) {
+        this(redactedName, skills, experiences, rawText, null, null, false);
     }
 }
@@ -0,0 +1,19 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import java.util.List;
+
+/**
+ * First event of a streamed analysis: what the parsers found, before any scoring.
+ */
+public record ParsedSkillsDTO(
+        List<String> resumeSkills,
+        String jobTitle,
+        List<String> requiredSkills,
+        List<String> niceToHaveSkills,
+        boolean partial
+) {
+    public static ParsedSkillsDTO of(ParsedResumeDTO resume, ParsedJobDTO job) {
+        return new ParsedSkillsDTO(resume.skills(), job.title(), job.requiredSkills(), job.niceToHaveSkills(),
+                resume.partial() || job.partial());
+    }
+}
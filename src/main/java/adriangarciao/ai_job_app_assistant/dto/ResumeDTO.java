@@ -1,5 +1,7 @@
 package adriangarciao.ai_job_app_assistant.dto;
 
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
+
 import java.time.LocalDateTime;
 
 public record ResumeDTO(
@@ -10,4 +12,6 @@ public record ResumeDTO(
         Long sizeBytes,
         LocalDateTime uploadedAt
         , String parsedText
+        , ExtractionStatus extractionStatus
+        , String extractionError
 ) {}
@@ -0,0 +1,30 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * A line-range edit to one document of an analysis session: lines {@code [fromLine, toLine)}
+ * (0-based, over the text as submitted, split on '\n') are replaced by {@code lines}.
+ * An empty range inserts, an empty {@code lines} deletes. A null line is taken as an empty one.
+ */
+public record SessionEditRequest(
+        @NotNull(message = "document is required")
+        Document document,
+
+        @Min(value = 0, message = "fromLine must be >= 0")
+        int fromLine,
+
+        @Min(value = 0, message = "toLine must be >= 0")
+        int toLine,
+
+        List<String> lines
+) {
+    public enum Document { RESUME, JOB_POSTING }
+
+    public SessionEditRequest {
+        lines = (lines == null) ? List.of() : lines.stream().map(line -> line == null ? "" : line).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Set of core-skill ids (0..127) packed into two longs.
+ * Set algebra is a couple of bitwise ops and {@link #count()} a popcount, so comparing a parsed
+ * resume against a parsed posting allocates nothing beyond the result masks.
+ */
+public record SkillMask(long low, long high) {
+
+    public static final SkillMask EMPTY = new SkillMask(0L, 0L);
+    public static final int CAPACITY = 128;
+
+    public SkillMask with(int id) {
+        checkId(id);
+        return id < 64 ? new SkillMask(low | (1L << id), high) : new SkillMask(low, high | (1L << (id - 64)));
+    }
+
+    public boolean contains(int id) {
+        checkId(id);
+        return id < 64 ? (low & (1L << id)) != 0 : (high & (1L << (id - 64))) != 0;
+    }
+
+    public SkillMask or(SkillMask other) {
+        return new SkillMask(low | other.low, high | other.high);
+    }
+
+    public SkillMask and(SkillMask other) {
+        return new SkillMask(low & other.low, high & other.high);
+    }
+
+    /** Ids in this mask that are not in {@code other}. */
+    public SkillMask andNot(SkillMask other) {
+        return new SkillMask(low & ~other.low, high & ~other.high);
+    }
+
+    public int count() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    public boolean isEmpty() {
+        return (low | high) == 0;
+    }
+
+    /** Visits the ids in ascending order. */
+    public void forEach(IntConsumer action) {
+        for (long bits = low; bits != 0; bits &= bits - 1) {
+            action.accept(Long.numberOfTrailingZeros(bits));
+        }
+        for (long bits = high; bits != 0; bits &= bits - 1) {
+            action.accept(64 + Long.numberOfTrailingZeros(bits));
+        }
+    }
+
+    private static void checkId(int id) {
+        if (id < 0 || id >= CAPACITY) {
+            throw new IndexOutOfBoundsException("skill id " + id + " outside 0.." + (CAPACITY - 1));
+        }
+    }
+}
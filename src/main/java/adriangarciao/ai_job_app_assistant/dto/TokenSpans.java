@@ -0,0 +1,87 @@
+package adriangarciao.ai_job_app_assistant.dto;
+
+import java.util.Arrays;
+
+/**
+ * Whitespace-delimited token boundaries of a parsed document's {@code rawText}.
+ *
+ * Token {@code i} is {@code rawText.substring(start(i), end(i))}; tokens are the maximal runs of
+ * non-whitespace chars ({@code [ \t\n\x0B\f\r]} separates, as in {@code split("\\s+")}).
+ * Lowercasing never moves a whitespace boundary, so the same spans describe the lowercase text.
+ * Computed once during normalization so scoring stages can walk tokens without re-splitting.
+ */
+public final class TokenSpans {
+
+    public static final TokenSpans EMPTY = new TokenSpans(new int[0]);
+
+    // start0, end0, start1, end1, ...
+    private final int[] offsets;
+
+    private TokenSpans(int[] offsets) {
+        this.offsets = offsets;
+    }
+
+    /**
+     * Wraps an offsets array of (start, end) pairs. The array is not copied.
+     */
+    public static TokenSpans ofOffsets(int[] offsets) {
+        if ((offsets.length & 1) != 0) {
+            throw new IllegalArgumentException("offsets must hold (start, end) pairs");
+        }
+        return offsets.length == 0 ? EMPTY : new TokenSpans(offsets);
+    }
+
+    /**
+     * Scans {@code text} for its token boundaries.
+     */
+    public static TokenSpans scan(CharSequence text) {
+        if (text == null || text.isEmpty()) return EMPTY;
+        int[] offsets = new int[16];
+        int n = 0;
+        int start = -1;
+        for (int i = 0, len = text.length(); i <= len; i++) {
+            boolean separator = i == len || isSeparator(text.charAt(i));
+            if (separator && start >= 0) {
+                if (n + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                offsets[n++] = start;
+                offsets[n++] = i;
+                start = -1;
+            } else if (!separator && start < 0) {
+                start = i;
+            }
+        }
+        return ofOffsets(Arrays.copyOf(offsets, n));
+    }
+
+    /** True for the chars regex {@code \s} matches. */
+    public static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    public int count() {
+        return offsets.length >> 1;
+    }
+
+    public int start(int token) {
+        return offsets[token << 1];
+    }
+
+    public int end(int token) {
+        return offsets[(token << 1) + 1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof TokenSpans other && Arrays.equals(offsets, other.offsets));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(offsets);
+    }
+
+    @Override
+    public String toString() {
+        return "TokenSpans[count=" + count() + "]";
+    }
+}
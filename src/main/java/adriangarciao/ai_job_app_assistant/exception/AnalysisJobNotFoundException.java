@@ -0,0 +1,9 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+import java.util.UUID;
+
+public class AnalysisJobNotFoundException extends RuntimeException {
+    public AnalysisJobNotFoundException(UUID id) {
+        super("Analysis job not found or expired: " + id);
+    }
+}
@@ -0,0 +1,12 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+public class AnalysisQueueFullException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AnalysisQueueFullException(long retryAfterSeconds) {
+        super("Analysis queue is full, retry in " + retryAfterSeconds + " s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
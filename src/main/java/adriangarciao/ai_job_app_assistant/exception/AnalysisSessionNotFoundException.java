@@ -0,0 +1,9 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+import java.util.UUID;
+
+public class AnalysisSessionNotFoundException extends RuntimeException {
+    public AnalysisSessionNotFoundException(UUID id) {
+        super("Analysis session not found or expired: " + id);
+    }
+}
@@ -0,0 +1,5 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+public class AnalysisTimeoutException extends RuntimeException {
+    public AnalysisTimeoutException(String message) { super(message); }
+}
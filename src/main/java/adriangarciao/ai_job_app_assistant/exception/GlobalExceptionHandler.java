@@ -2,6 +2,7 @@
 package adriangarciao.ai_job_app_assistant.exception;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -41,6 +42,18 @@ public class GlobalExceptionHandler {
         return new ApiError(404, "Not Found", ex.getMessage(), Instant.now());
     }
 
+    @ExceptionHandler(AnalysisSessionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleAnalysisSessionNotFound(AnalysisSessionNotFoundException ex) {
+        return new ApiError(404, "Not Found", ex.getMessage(), Instant.now());
+    }
+
+    @ExceptionHandler(AnalysisJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleAnalysisJobNotFound(AnalysisJobNotFoundException ex) {
+        return new ApiError(404, "Not Found", ex.getMessage(), Instant.now());
+    }
+
     @ExceptionHandler(EmailAlreadyUsedException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ApiError handleEmailAlreadyUsed(EmailAlreadyUsedException ex) {
@@ -76,12 +89,41 @@ public class GlobalExceptionHandler {
         return new ApiError(400, "Bad Request", ex.getMessage(), Instant.now());
     }
 
+    @ExceptionHandler(InvalidSessionEditException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidSessionEdit(InvalidSessionEditException ex) {
+        return new ApiError(400, "Bad Request", ex.getMessage(), Instant.now());
+    }
+
     @ExceptionHandler(FileStorageException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleFileStorage(FileStorageException ex) {
         return new ApiError(500, "Internal Server Error", ex.getMessage(), Instant.now());
     }
 
+    // --- 429 (job queue full; Retry-After says when a slot is likely free) ---
+    @ExceptionHandler(AnalysisQueueFullException.class)
+    public ResponseEntity<ApiError> handleAnalysisQueueFull(AnalysisQueueFullException ex) {
+        ApiError body = new ApiError(429, "Too Many Requests", ex.getMessage(), Instant.now());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    // --- 503 (analysis did not finish within its time budget) ---
+    @ExceptionHandler(AnalysisTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiError handleAnalysisTimeout(AnalysisTimeoutException ex) {
+        return new ApiError(503, "Service Unavailable", ex.getMessage(), Instant.now());
+    }
+
+    // --- 502 (the configured LLM backend failed or answered with something unusable) ---
+    @ExceptionHandler(LlmBackendException.class)
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public ApiError handleLlmBackend(LlmBackendException ex) {
+        return new ApiError(502, "Bad Gateway", ex.getMessage(), Instant.now());
+    }
+
     // --- 403 ---
     @ExceptionHandler(ForbiddenOperationException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
@@ -0,0 +1,5 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+public class InvalidSessionEditException extends RuntimeException {
+    public InvalidSessionEditException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+public class LlmBackendException extends RuntimeException {
+    public LlmBackendException(String message) { super(message); }
+    public LlmBackendException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,6 @@
+package adriangarciao.ai_job_app_assistant.exception;
+
+public class TextExtractionException extends RuntimeException {
+    public TextExtractionException(String message) { super(message); }
+    public TextExtractionException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,97 @@
+package adriangarciao.ai_job_app_assistant.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One submitted analysis. The input texts are kept until the job finishes so a queued or
+ * interrupted job can be run again after a restart; the result is stored as FeedbackDTO JSON.
+ */
+@Entity
+@Table(name = "analysis_jobs")
+public class AnalysisJob {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AnalysisJobStatus status;
+
+    @Column(columnDefinition = "text")
+    private String resumeText;
+
+    @Column(columnDefinition = "text")
+    private String jobPostingText;
+
+    @Column(nullable = false)
+    private boolean includeCoverLetter;
+
+    @Column(columnDefinition = "text")
+    private String resultJson;
+
+    @Column(length = 500)
+    private String error;
+
+    // Runs started; compared with app.ai.jobs.max-attempts when the job is recovered after a restart
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    public AnalysisJob() {}
+
+    public AnalysisJob(UUID id, String resumeText, String jobPostingText, boolean includeCoverLetter, Instant createdAt) {
+        this.id = id;
+        this.status = AnalysisJobStatus.QUEUED;
+        this.resumeText = resumeText;
+        this.jobPostingText = jobPostingText;
+        this.includeCoverLetter = includeCoverLetter;
+        this.createdAt = createdAt;
+    }
+
+    public boolean isFinished() {
+        return status == AnalysisJobStatus.SUCCEEDED || status == AnalysisJobStatus.FAILED;
+    }
+
+    // getters & setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public AnalysisJobStatus getStatus() { return status; }
+    public void setStatus(AnalysisJobStatus status) { this.status = status; }
+
+    public String getResumeText() { return resumeText; }
+    public void setResumeText(String resumeText) { this.resumeText = resumeText; }
+
+    public String getJobPostingText() { return jobPostingText; }
+    public void setJobPostingText(String jobPostingText) { this.jobPostingText = jobPostingText; }
+
+    public boolean isIncludeCoverLetter() { return includeCoverLetter; }
+    public void setIncludeCoverLetter(boolean includeCoverLetter) { this.includeCoverLetter = includeCoverLetter; }
+
+    public String getResultJson() { return resultJson; }
+    public void setResultJson(String resultJson) { this.resultJson = resultJson; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
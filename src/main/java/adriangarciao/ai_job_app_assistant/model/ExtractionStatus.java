@@ -0,0 +1,5 @@
+package adriangarciao.ai_job_app_assistant.model;
+
+public enum ExtractionStatus {
+    PENDING, DONE, FAILED
+}
@@ -28,11 +28,26 @@ public class Resume {
 
     private LocalDateTime uploadedAt;
 
+    // hex SHA-256 of the stored bytes, computed while the upload is written
+    @Column(length = 64)
+    private String contentSha256;
+
     // relative path (e.g., "uploads/uuid.pdf"). You can compute abs path from config.
     private String storagePath;
     @Column(columnDefinition = "text")
     private String parsedText;
 
+    // PENDING from upload until a background worker has extracted parsedText; rows created
+    // any other way have nothing to extract
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ExtractionStatus extractionStatus = ExtractionStatus.DONE;
+
+    private int extractionAttempts;
+
+    @Column(length = 500)
+    private String extractionError;
+
     public Resume(){}
 
     public Resume(User user, String originalFilename, String storedFilename,
@@ -99,6 +114,14 @@ public class Resume {
         this.uploadedAt = uploadedAt;
     }
 
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
     public String getStoragePath() {
         return storagePath;
     }
@@ -110,6 +133,15 @@ public class Resume {
     public String getParsedText() { return parsedText; }
     public void setParsedText(String parsedText) { this.parsedText = parsedText; }
 
+    public ExtractionStatus getExtractionStatus() { return extractionStatus; }
+    public void setExtractionStatus(ExtractionStatus extractionStatus) { this.extractionStatus = extractionStatus; }
+
+    public int getExtractionAttempts() { return extractionAttempts; }
+    public void setExtractionAttempts(int extractionAttempts) { this.extractionAttempts = extractionAttempts; }
+
+    public String getExtractionError() { return extractionError; }
+    public void setExtractionError(String extractionError) { this.extractionError = extractionError; }
+
     @Override
     public String toString() {
         return "Resume{" +
@@ -119,8 +151,10 @@ public class Resume {
                 ", storedFilename='" + storedFilename + '\'' +
                 ", contentType='" + contentType + '\'' +
                 ", sizeBytes=" + sizeBytes +
+                ", contentSha256='" + contentSha256 + '\'' +
                 ", uploadedAt=" + uploadedAt +
                 ", storagePath='" + storagePath + '\'' +
+                ", extractionStatus=" + extractionStatus +
                 '}';
     }
 }
@@ -0,0 +1,23 @@
+package adriangarciao.ai_job_app_assistant.repository;
+
+import adriangarciao.ai_job_app_assistant.model.AnalysisJob;
+import adriangarciao.ai_job_app_assistant.model.AnalysisJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, UUID> {
+    List<AnalysisJob> findByStatusInOrderByCreatedAtAsc(Collection<AnalysisJobStatus> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AnalysisJob j where j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+}
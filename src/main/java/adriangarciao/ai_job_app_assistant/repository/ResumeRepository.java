@@ -1,5 +1,6 @@
 package adriangarciao.ai_job_app_assistant.repository;
 
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
 import adriangarciao.ai_job_app_assistant.model.Resume;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
@@ -10,6 +11,15 @@ import java.util.Optional;
 public interface ResumeRepository extends JpaRepository<Resume, Long> {
     List<Resume> findByUserId(Long userId);
 
+    List<Resume> findByExtractionStatus(ExtractionStatus status);
+
+    Optional<Resume> findFirstByContentSha256AndExtractionStatus(String contentSha256, ExtractionStatus status);
+
+    Optional<Resume> findFirstByContentSha256(String contentSha256);
+
+    // References to one stored file; it is deleted with the last of them
+    long countByStoragePath(String storagePath);
+
     @Query("select r.user.email from Resume r where r.id = :id")
     Optional<String> findOwnerEmailById(@Param("id") Long id);
 
@@ -0,0 +1,249 @@
+package adriangarciao.ai_job_app_assistant.service;
+
+import adriangarciao.ai_job_app_assistant.exception.ResumeNotFoundException;
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
+import adriangarciao.ai_job_app_assistant.model.Resume;
+import adriangarciao.ai_job_app_assistant.repository.ResumeRepository;
+import adriangarciao.ai_job_app_assistant.service.ai.ParserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Text extraction of uploaded resumes, off the request thread.
+ *
+ * An upload is saved as PENDING and its id handed to a fixed pool of {@code app.extraction.workers}
+ * threads through a queue of {@code app.extraction.queue-capacity}; a worker extracts the stored
+ * file, parses it and marks the row DONE. A failed attempt, or a queue that was full, is tried
+ * again after {@code app.extraction.retry-backoff}, doubled each time. After
+ * {@code app.extraction.max-attempts} the row is left FAILED with its last error: that is the
+ * dead-letter state, never retried automatically. Rows still PENDING when the application
+ * stopped are queued again on startup.
+ *
+ * Metrics: resume.extraction.queue.depth, resume.extraction.active, resume.extraction.wait
+ * (queued to started) and resume.extraction.attempts tagged outcome=done|retried|failed.
+ */
+@Service
+public class ResumeExtractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumeExtractionService.class);
+
+    private static final int MAX_ERROR_CHARS = 500;
+
+    private final ResumeRepository repository;
+    private final TextExtractionService textExtractionService;
+    private final ParserService parserService;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retries;
+    private final Map<Long, Set<Consumer<ExtractionStatus>>> listeners = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final Counter done;
+    private final Counter retried;
+    private final Counter failed;
+
+    public ResumeExtractionService(
+            ResumeRepository repository,
+            TextExtractionService textExtractionService,
+            ParserService parserService,
+            MeterRegistry meterRegistry,
+            @Value("${app.extraction.workers:2}") int workers,
+            @Value("${app.extraction.queue-capacity:100}") int queueCapacity,
+            @Value("${app.extraction.max-attempts:3}") int maxAttempts,
+            @Value("${app.extraction.retry-backoff:2s}") Duration retryBackoff
+    ) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1, got " + workers);
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be >= 1, got " + queueCapacity);
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1, got " + maxAttempts);
+        this.repository = Objects.requireNonNull(repository, "repository");
+        this.textExtractionService = Objects.requireNonNull(textExtractionService, "textExtractionService");
+        this.parserService = Objects.requireNonNull(parserService, "parserService");
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Objects.requireNonNull(retryBackoff, "retryBackoff");
+        // Platform threads: extraction is CPU-bound parsing, not waiting
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("resume-extraction-", 0).daemon().factory());
+        this.retries = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("resume-extraction-retry").factory());
+
+        Gauge.builder("resume.extraction.queue.depth", executor, e -> e.getQueue().size())
+                .description("Uploaded resumes waiting for an extraction worker")
+                .register(meterRegistry);
+        Gauge.builder("resume.extraction.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Uploaded resumes being extracted")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("resume.extraction.wait")
+                .description("Time an uploaded resume spent queued before a worker took it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.done = attempts(meterRegistry, "done");
+        this.retried = attempts(meterRegistry, "retried");
+        this.failed = attempts(meterRegistry, "failed");
+    }
+
+    private static Counter attempts(MeterRegistry registry, String outcome) {
+        return Counter.builder("resume.extraction.attempts")
+                .description("Background extraction attempts by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /** Queues extraction of a saved PENDING resume and returns at once. */
+    public void submit(Long resumeId) {
+        Objects.requireNonNull(resumeId, "resumeId must not be null");
+        dispatch(resumeId, 1);
+    }
+
+    /**
+     * Calls {@code listener} exactly once with the final status of the resume: at once if its
+     * extraction has already finished, otherwise from the worker that finishes it. Run the
+     * returned handle to stop listening.
+     *
+     * @throws ResumeNotFoundException if there is no such resume
+     */
+    public Runnable onFinished(Long resumeId, Consumer<ExtractionStatus> listener) {
+        Set<Consumer<ExtractionStatus>> waiting = listeners.computeIfAbsent(resumeId, id -> ConcurrentHashMap.newKeySet());
+        waiting.add(listener);
+        Runnable remove = () -> listeners.computeIfPresent(resumeId, (id, set) -> {
+            set.remove(listener);
+            return set.isEmpty() ? null : set;
+        });
+        // Read after registering: a worker finishing in between has either seen the listener or
+        // saved the final status before this read. Whoever removes the listener first calls it.
+        Resume resume = repository.findById(resumeId).orElse(null);
+        if (resume == null) {
+            remove.run();
+            throw new ResumeNotFoundException(resumeId);
+        }
+        ExtractionStatus status = resume.getExtractionStatus();
+        if (status != ExtractionStatus.PENDING && waiting.remove(listener)) {
+            remove.run();
+            listener.accept(status);
+        }
+        return remove;
+    }
+
+    /**
+     * Queues again the resumes that were still PENDING when the application stopped, continuing
+     * from the attempts they had already used.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<Resume> pending = repository.findByExtractionStatus(ExtractionStatus.PENDING);
+        for (Resume resume : pending) {
+            dispatch(resume.getId(), resume.getExtractionAttempts() + 1);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Re-queued extraction of {} pending resumes", pending.size());
+        }
+    }
+
+    private void dispatch(Long resumeId, int attempt) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(resumeId, attempt, queuedAt));
+        } catch (RejectedExecutionException e) {
+            // Left PENDING on shutdown; recover() picks it up on the next start
+            if (executor.isShutdown()) return;
+            try {
+                repository.findById(resumeId).ifPresent(resume -> retryOrFail(resume, attempt, "Extraction queue was full"));
+            } catch (RuntimeException recordFailure) {
+                log.error("Could not record extraction of resume {}", resumeId, recordFailure);
+            }
+        }
+    }
+
+    private void run(Long resumeId, int attempt, long queuedAt) {
+        waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        try {
+            Resume resume = repository.findById(resumeId).orElse(null);
+            // Deleted while queued, or already handled
+            if (resume == null || resume.getExtractionStatus() != ExtractionStatus.PENDING) return;
+
+            String error;
+            try {
+                String text = textExtractionService.extract(Path.of(resume.getStoragePath()), resume.getContentType()).text();
+                resume.setParsedText(parserService.parseResume(text == null ? "" : text).rawText());
+                resume.setExtractionStatus(ExtractionStatus.DONE);
+                resume.setExtractionAttempts(attempt);
+                resume.setExtractionError(null);
+                repository.save(resume);
+                done.increment();
+                notifyFinished(resumeId, ExtractionStatus.DONE);
+                return;
+            } catch (RuntimeException e) {
+                if (executor.isShutdown()) {
+                    log.info("Extraction of resume {} interrupted by shutdown", resumeId);
+                    return;
+                }
+                error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                log.warn("Extraction of resume {} failed (attempt {} of {}): {}", resumeId, attempt, maxAttempts, error);
+            }
+            retryOrFail(resume, attempt, error);
+        } catch (RuntimeException e) {
+            log.error("Could not record extraction of resume {}", resumeId, e);
+        }
+    }
+
+    private void retryOrFail(Resume resume, int attempt, String error) {
+        resume.setExtractionAttempts(attempt);
+        resume.setExtractionError(error.length() <= MAX_ERROR_CHARS ? error : error.substring(0, MAX_ERROR_CHARS));
+        if (attempt >= maxAttempts) {
+            resume.setExtractionStatus(ExtractionStatus.FAILED);
+            repository.save(resume);
+            failed.increment();
+            notifyFinished(resume.getId(), ExtractionStatus.FAILED);
+            return;
+        }
+        repository.save(resume);
+        retried.increment();
+        long delay = retryBackoff.toMillis() << Math.min(attempt - 1, 16);
+        try {
+            retries.schedule(() -> dispatch(resume.getId(), attempt + 1), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Retry of resume {} not scheduled during shutdown", resume.getId());
+        }
+    }
+
+    private void notifyFinished(Long resumeId, ExtractionStatus status) {
+        Set<Consumer<ExtractionStatus>> waiting = listeners.remove(resumeId);
+        if (waiting == null) return;
+        for (Consumer<ExtractionStatus> listener : waiting) {
+            if (!waiting.remove(listener)) continue;
+            try {
+                listener.accept(status);
+            } catch (RuntimeException e) {
+                log.debug("Extraction listener for resume {} failed: {}", resumeId, e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        retries.shutdownNow();
+    }
+}
@@ -4,10 +4,15 @@ import adriangarciao.ai_job_app_assistant.dto.ResumeDTO;
 import adriangarciao.ai_job_app_assistant.dto.ResumeUploadResponse;
 import adriangarciao.ai_job_app_assistant.exception.*;
 import adriangarciao.ai_job_app_assistant.mapper.ResumeMapper;
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
 import adriangarciao.ai_job_app_assistant.model.Resume;
 import adriangarciao.ai_job_app_assistant.model.User;
 import adriangarciao.ai_job_app_assistant.repository.ResumeRepository;
 import adriangarciao.ai_job_app_assistant.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
@@ -21,7 +26,11 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -33,7 +42,10 @@ public class ResumeService {
     private final UserRepository userRepository;
     private final ResumeMapper resumeMapper;
     private final Path uploadRoot;
-    private final adriangarciao.ai_job_app_assistant.service.ai.ParserService parserService;
+    private final ResumeExtractionService extractionService;
+    private final Object[] blobLocks = new Object[64];
+    private final Counter stored;
+    private final Counter deduplicated;
 
     private static final Set<String> ALLOWED_TYPES = Set.of(
             "application/pdf",
@@ -44,17 +56,46 @@ public class ResumeService {
             ResumeRepository resumeRepository,
             UserRepository userRepository,
             ResumeMapper resumeMapper,
-            adriangarciao.ai_job_app_assistant.service.ai.ParserService parserService,
+            ResumeExtractionService extractionService,
+            @Value("${app.upload.dir:uploads}") String uploadDir
+    ) {
+        this(resumeRepository, userRepository, resumeMapper, extractionService, new SimpleMeterRegistry(), uploadDir);
+    }
+
+    @Autowired
+    public ResumeService(
+            ResumeRepository resumeRepository,
+            UserRepository userRepository,
+            ResumeMapper resumeMapper,
+            ResumeExtractionService extractionService,
+            MeterRegistry meterRegistry,
             @Value("${app.upload.dir:uploads}") String uploadDir
     ) {
         this.resumeRepository = resumeRepository;
         this.userRepository = userRepository;
         this.resumeMapper = resumeMapper;
         this.uploadRoot = Path.of(uploadDir);
-        this.parserService = parserService;
+        this.extractionService = extractionService;
+        Arrays.setAll(blobLocks, i -> new Object());
+        this.stored = uploads(meterRegistry, "stored");
+        this.deduplicated = uploads(meterRegistry, "deduplicated");
+    }
+
+    private static Counter uploads(MeterRegistry registry, String result) {
+        return Counter.builder("resume.uploads")
+                .description("Uploaded resumes by whether their content was already stored")
+                .tag("result", result)
+                .register(registry);
     }
 
-    /** Upload for current user (resolved by email from Authentication). */
+    /**
+     * Upload for current user (resolved by email from Authentication). Returns once the file is
+     * stored and the row saved; text extraction follows in the background (extractionStatus).
+     *
+     * Files are stored once per content, as {@code <sha256>.<ext>} under the upload dir. An upload
+     * whose bytes are already stored reuses that file, and the parsed text as well when it has
+     * been extracted, so a repeated upload is neither written nor extracted again.
+     */
     public ResumeDTO storeForEmail(MultipartFile file, String email) {
         if (file == null || file.isEmpty()) {
             throw new FileStorageException("No file uploaded or file is empty.");
@@ -71,44 +112,72 @@ public class ResumeService {
                 Optional.ofNullable(file.getOriginalFilename()).orElse("resume")
         );
         String ext = resolveExtension(originalName, contentType); // ".pdf" or ".docx"
-        String storedName = UUID.randomUUID() + ext;
-        Path target = uploadRoot.resolve(storedName);
+        Path incoming = uploadRoot.resolve(UUID.randomUUID() + ".part");
 
+        // One pass over the multipart stream: the bytes go to disk and through the digest together.
+        // The hash is only known at the end, so they land in a temporary file first.
+        MessageDigest sha256 = sha256();
+        long size;
         try {
             Files.createDirectories(uploadRoot);
-            // prevent path traversal
-            if (!target.normalize().startsWith(uploadRoot.normalize())) {
-                throw new FileStorageException("Invalid path.");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+                size = Files.copy(in, incoming, StandardCopyOption.REPLACE_EXISTING);
             }
-            Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             log.error("Failed to store file for user {}: {}", email, e.getMessage(), e);
+            deleteQuietly(incoming);
             throw new FileStorageException("Failed to store file.", e);
         }
+        String hash = HexFormat.of().formatHex(sha256.digest());
 
         Resume resume = new Resume();
         resume.setUser(user);
         resume.setOriginalFilename(originalName);
-        resume.setStoredFilename(storedName);
         resume.setContentType(contentType);
-        resume.setSizeBytes(file.getSize());
+        resume.setSizeBytes(size);
+        resume.setContentSha256(hash);
         resume.setUploadedAt(LocalDateTime.now());
-        resume.setStoragePath(target.toString());
-
-        Resume saved = resumeRepository.save(resume);
-
-        // Attempt to extract text and persist parsed text (best-effort)
-        try (java.io.InputStream in = file.getInputStream()) {
-            org.apache.tika.sax.BodyContentHandler handler = new org.apache.tika.sax.BodyContentHandler(-1);
-            org.apache.tika.metadata.Metadata metadata = new org.apache.tika.metadata.Metadata();
-            org.apache.tika.parser.AutoDetectParser parser = new org.apache.tika.parser.AutoDetectParser();
-            parser.parse(in, handler, metadata, new org.apache.tika.parser.ParseContext());
-            String extracted = handler.toString();
-            var parsed = parserService.parseResume(extracted == null ? "" : extracted);
-            saved.setParsedText(parsed.rawText());
-            resumeRepository.save(saved);
-        } catch (Exception e) {
-            log.warn("Failed to parse and persist resume text for {}: {}", email, e.getMessage());
+
+        Resume saved;
+        synchronized (blobLock(hash)) {
+            // Same bytes already stored: reuse that file, and its text if it has been extracted
+            Resume existing = resumeRepository.findFirstByContentSha256AndExtractionStatus(hash, ExtractionStatus.DONE)
+                    .or(() -> resumeRepository.findFirstByContentSha256(hash))
+                    .filter(r -> Files.exists(Path.of(r.getStoragePath())))
+                    .orElse(null);
+            Path target;
+            if (existing != null) {
+                target = Path.of(existing.getStoragePath());
+                deleteQuietly(incoming);
+                deduplicated.increment();
+            } else {
+                target = uploadRoot.resolve(hash + ext);
+                // prevent path traversal
+                if (!target.normalize().startsWith(uploadRoot.normalize())) {
+                    deleteQuietly(incoming);
+                    throw new FileStorageException("Invalid path.");
+                }
+                try {
+                    Files.move(incoming, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    log.error("Failed to store file for user {}: {}", email, e.getMessage(), e);
+                    deleteQuietly(incoming);
+                    throw new FileStorageException("Failed to store file.", e);
+                }
+                stored.increment();
+            }
+            resume.setStoredFilename(target.getFileName().toString());
+            resume.setStoragePath(target.toString());
+            if (existing != null && existing.getExtractionStatus() == ExtractionStatus.DONE) {
+                resume.setParsedText(existing.getParsedText());
+                resume.setExtractionStatus(ExtractionStatus.DONE);
+            } else {
+                resume.setExtractionStatus(ExtractionStatus.PENDING);
+            }
+            saved = resumeRepository.save(resume);
+        }
+        if (saved.getExtractionStatus() == ExtractionStatus.PENDING) {
+            extractionService.submit(saved.getId());
         }
 
         return resumeMapper.toDto(saved);
@@ -158,18 +227,47 @@ public class ResumeService {
         }
     }
 
-    /** Delete (controller enforces ownership/admin). */
+    /**
+     * Delete (controller enforces ownership/admin). The stored file is shared by every resume with
+     * the same content and is only removed with the last of them.
+     */
     public void delete(Long id) {
         Resume resume = resumeRepository.findById(id)
                 .orElseThrow(() -> new ResumeNotFoundException(id));
 
         Path filePath = Path.of(resume.getStoragePath());
+        // Rows stored before content hashing have a file of their own
+        String key = resume.getContentSha256() != null ? resume.getContentSha256() : resume.getStoragePath();
+        synchronized (blobLock(key)) {
+            resumeRepository.deleteById(id);
+            if (resumeRepository.countByStoragePath(resume.getStoragePath()) > 0) return;
+            try {
+                Files.deleteIfExists(filePath);
+            } catch (IOException e) {
+                log.warn("Failed to delete file for resume {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    /** Serialises upload and delete of the same content, so a file is never removed while it is being reused. */
+    private Object blobLock(String key) {
+        return blobLocks[Math.floorMod(key.hashCode(), blobLocks.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
         try {
-            Files.deleteIfExists(filePath);
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            log.warn("Failed to delete file for resume {}: {}", id, e.getMessage());
+            log.warn("Failed to remove partial upload {}: {}", path, e.getMessage());
         }
-        resumeRepository.deleteById(id);
     }
 
     private String resolveExtension(String originalName, String contentType) {
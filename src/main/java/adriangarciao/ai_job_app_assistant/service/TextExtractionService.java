@@ -0,0 +1,711 @@
+package adriangarciao.ai_job_app_assistant.service;
+
+import adriangarciao.ai_job_app_assistant.exception.TextExtractionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDocument;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.filter.Filter;
+import org.apache.pdfbox.filter.FilterFactory;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadView;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.extractor.EmbeddedDocumentExtractor;
+import org.apache.tika.extractor.ParsingEmbeddedDocumentExtractor;
+import org.apache.tika.io.TemporaryResources;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.Office;
+import org.apache.tika.metadata.PagedText;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.microsoft.OfficeParserConfig;
+import org.apache.tika.parser.microsoft.ooxml.OOXMLParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Text extraction from uploaded documents, with the Tika configuration built once.
+ *
+ * Service loading, detector and parser setup happen when the bean is created; after startup a
+ * tiny PDF and DOCX are extracted so the first upload does not pay for class loading and PDFBox
+ * font setup either. All parsers are stateless and shared across threads.
+ *
+ * Declared types take a fast path when the leading bytes agree: PDFs go straight to PDFBox,
+ * DOCX to Tika's OOXML parser and plain text is decoded without Tika. Everything else, and any
+ * document whose bytes do not match its declared type, goes through auto-detection.
+ *
+ * Every extraction is bounded, so one hostile upload cannot take the JVM's heap or a request
+ * thread with it. It runs on a pool of {@code app.extraction.threads} threads, behind at most
+ * {@code app.extraction.max-waiting} waiting documents (more are refused); text stops at
+ * {@code app.extraction.max-chars}; embedded documents are parsed
+ * {@code app.extraction.max-embedded-depth} levels deep at most; a PDF whose streams inflate past
+ * {@code app.extraction.max-decoded-size} is refused before PDFBox decodes them into memory; and
+ * {@code app.extraction.timeout} after a thread picked the document up the caller gets the text
+ * read so far while the worker is cancelled. A capped result is returned marked
+ * {@link ExtractedText#truncated()}, not as an error; a timeout before any text was read is an
+ * error, so the caller can try again. A document still waiting for a thread after the timeout is
+ * refused as well. Cancellation is cooperative, at the next piece of text the parser writes or
+ * the next read of the document, whichever comes first.
+ *
+ * Metrics, tagged type=pdf|docx|text|other: resume.extraction (duration), resume.extraction.bytes,
+ * resume.extraction.chars and resume.extraction.pages; resume.extraction.truncated tagged
+ * reason=chars|timeout; resume.extraction.rejected.
+ */
+@Service
+public class TextExtractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TextExtractionService.class);
+
+    public static final String PDF_CONTENT_TYPE = "application/pdf";
+    public static final String DOCX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private static final byte[] PDF_MAGIC = "%PDF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+
+    /**
+     * Extracted text and page count (0 when the format does not report one). Truncated text
+     * stopped at the character cap or the timeout.
+     */
+    public record ExtractedText(String text, int pages, boolean truncated) {
+        public ExtractedText(String text, int pages) {
+            this(text, pages, false);
+        }
+    }
+
+    enum Type { PDF, DOCX, TEXT, OTHER }
+
+    private final Parser autoDetect;
+    private final Parser ooxml;
+    private final OfficeParserConfig officeConfig;
+    private final boolean warmUp;
+    private final int maxChars;
+    private final int maxEmbeddedDepth;
+    private final long maxDecodedBytes;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    private final Map<Type, Meters> meters = new EnumMap<>(Type.class);
+    private final Counter truncatedByChars;
+    private final Counter truncatedByTimeout;
+    private final Counter rejected;
+
+    public TextExtractionService(MeterRegistry meterRegistry, boolean warmUp) {
+        this(meterRegistry, warmUp, 500_000, 1, Duration.ofSeconds(30), 4);
+    }
+
+    public TextExtractionService(MeterRegistry meterRegistry, boolean warmUp, int maxChars, int maxEmbeddedDepth,
+                                 Duration timeout, int threads) {
+        this(meterRegistry, warmUp, maxChars, maxEmbeddedDepth, timeout, threads, 16);
+    }
+
+    public TextExtractionService(MeterRegistry meterRegistry, boolean warmUp, int maxChars, int maxEmbeddedDepth,
+                                 Duration timeout, int threads, int maxWaiting) {
+        this(meterRegistry, warmUp, maxChars, maxEmbeddedDepth, timeout, threads, maxWaiting, DataSize.ofMegabytes(64));
+    }
+
+    @Autowired
+    public TextExtractionService(MeterRegistry meterRegistry,
+                                 @Value("${app.extraction.warm-up:true}") boolean warmUp,
+                                 @Value("${app.extraction.max-chars:500000}") int maxChars,
+                                 @Value("${app.extraction.max-embedded-depth:1}") int maxEmbeddedDepth,
+                                 @Value("${app.extraction.timeout:30s}") Duration timeout,
+                                 @Value("${app.extraction.threads:4}") int threads,
+                                 @Value("${app.extraction.max-waiting:16}") int maxWaiting,
+                                 @Value("${app.extraction.max-decoded-size:64MB}") DataSize maxDecodedSize) {
+        if (maxChars < 1) throw new IllegalArgumentException("maxChars must be >= 1, got " + maxChars);
+        if (maxEmbeddedDepth < 0) throw new IllegalArgumentException("maxEmbeddedDepth must be >= 0, got " + maxEmbeddedDepth);
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1, got " + threads);
+        if (maxWaiting < 1) throw new IllegalArgumentException("maxWaiting must be >= 1, got " + maxWaiting);
+        if (maxDecodedSize.toBytes() < 1) throw new IllegalArgumentException("maxDecodedSize must be >= 1 byte, got " + maxDecodedSize);
+        long start = System.nanoTime();
+        TikaConfig config = TikaConfig.getDefaultConfig();
+        this.autoDetect = new AutoDetectParser(config);
+        this.ooxml = new OOXMLParser();
+        // DOCX text streams to the writer, so the character cap stops it, instead of the whole
+        // document being built in memory first
+        this.officeConfig = new OfficeParserConfig();
+        officeConfig.setUseSAXDocxExtractor(true);
+        this.warmUp = warmUp;
+        this.maxChars = maxChars;
+        this.maxEmbeddedDepth = maxEmbeddedDepth;
+        this.maxDecodedBytes = maxDecodedSize.toBytes();
+        this.timeout = Objects.requireNonNull(timeout, "timeout");
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxWaiting), Thread.ofPlatform().name("text-extraction-", 0).daemon().factory());
+        for (Type type : Type.values()) meters.put(type, new Meters(meterRegistry, type));
+        this.truncatedByChars = truncated(meterRegistry, "chars");
+        this.truncatedByTimeout = truncated(meterRegistry, "timeout");
+        this.rejected = Counter.builder("resume.extraction.rejected")
+                .description("Extractions refused because every thread was busy and too many documents were waiting")
+                .register(meterRegistry);
+        log.debug("Tika configuration built in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static Counter truncated(MeterRegistry registry, String reason) {
+        return Counter.builder("resume.extraction.truncated")
+                .description("Extractions cut short by the character cap or the timeout")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Extracts the text of {@code in}, read to the end but not closed.
+     *
+     * @param contentType declared content type, may be null
+     * @throws TextExtractionException if the document cannot be read
+     */
+    public ExtractedText extract(InputStream in, String contentType) {
+        return extract(in, contentType, null);
+    }
+
+    /**
+     * Extracts the text of a document already on disk. PDFs are opened by PDFBox straight from
+     * the file instead of being copied into memory first; other formats stream from it.
+     *
+     * @param contentType declared content type, may be null
+     * @throws TextExtractionException if the document cannot be read
+     */
+    public ExtractedText extract(Path file, String contentType) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return extract(in, contentType, file);
+        } catch (IOException e) {
+            throw new TextExtractionException("Could not open " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private ExtractedText extract(InputStream in, String contentType, Path file) {
+        BoundedWriter out = new BoundedWriter(maxChars);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<ExtractedText> task;
+        try {
+            task = executor.submit(() -> {
+                started.countDown();
+                return extractOnWorker(in, contentType, file, out);
+            });
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) throw new TextExtractionException("Text extraction is shutting down", e);
+            rejected.increment();
+            throw new TextExtractionException("Text extraction is busy; " + executor.getQueue().size()
+                    + " documents are already waiting", e);
+        }
+        try {
+            // The time budget starts once a thread has the document, not while it waits for one
+            if (!started.await(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                cancel(task, out);
+                rejected.increment();
+                throw new TextExtractionException("Text extraction did not start within " + timeout.toMillis()
+                        + " ms; every thread is busy");
+            }
+            return task.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancel(task, out);
+            String text = out.text();
+            if (text.isEmpty()) {
+                // Nothing worth keeping: fail, so the document is tried again rather than stored empty
+                throw new TextExtractionException("Text extraction timed out after " + timeout.toMillis()
+                        + " ms before any text was read");
+            }
+            truncatedByTimeout.increment();
+            log.warn("Text extraction timed out after {} ms; keeping the {} characters read so far",
+                    timeout.toMillis(), text.length());
+            return new ExtractedText(text, 0, true);
+        } catch (InterruptedException e) {
+            cancel(task, out);
+            Thread.currentThread().interrupt();
+            throw new TextExtractionException("Interrupted while extracting text", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TextExtractionException failure) throw failure;
+            throw new TextExtractionException("Could not extract text: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /** Documents waiting for a thread; for tests. */
+    int waiting() {
+        return executor.getQueue().size();
+    }
+
+    /** Stops a document that is waiting or being extracted, and frees its place in the queue. */
+    private void cancel(Future<ExtractedText> task, BoundedWriter out) {
+        out.cancel();
+        task.cancel(true);
+        executor.remove((Runnable) task);
+    }
+
+    private ExtractedText extractOnWorker(InputStream in, String contentType, Path file, BoundedWriter out) {
+        long start = System.nanoTime();
+        CountingInputStream counted = new CountingInputStream(in, out);
+        BufferedInputStream buffered = new BufferedInputStream(counted);
+        Type type = Type.OTHER;
+        try {
+            type = type(contentType, buffered);
+            int pages = switch (type) {
+                case PDF -> extractPdf(loadPdf(new CancellableRead(file != null
+                        ? new RandomAccessReadBufferedFile(file.toFile())
+                        : new RandomAccessReadBuffer(buffered.readAllBytes()), out)), out);
+                case DOCX -> extractWithTika(ooxml, buffered, out);
+                case TEXT -> extractText(buffered, out);
+                case OTHER -> extractWithTika(autoDetect, buffered, out);
+            };
+            ExtractedText extracted = new ExtractedText(out.text(), pages, out.limitReached());
+            if (extracted.truncated()) {
+                truncatedByChars.increment();
+                log.info("Extracted text of {} document capped at {} characters", type.name().toLowerCase(Locale.ROOT), maxChars);
+            }
+            long bytesRead = file != null ? Files.size(file) : counted.count;
+            meters.get(type).record(bytesRead, extracted, System.nanoTime() - start);
+            return extracted;
+        } catch (IOException | TikaException | SAXException | RuntimeException e) {
+            throw new TextExtractionException("Could not extract text from " + type.name().toLowerCase(Locale.ROOT)
+                    + " document: " + e.getMessage(), e);
+        }
+    }
+
+    /** The declared type if the first bytes agree with it, otherwise OTHER (auto-detect). */
+    static Type type(String contentType, BufferedInputStream in) throws IOException {
+        String declared = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT).split(";")[0].trim();
+        byte[] head = peek(in, 4);
+        return switch (declared) {
+            case PDF_CONTENT_TYPE -> startsWith(head, PDF_MAGIC) ? Type.PDF : Type.OTHER;
+            case DOCX_CONTENT_TYPE -> startsWith(head, ZIP_MAGIC) ? Type.DOCX : Type.OTHER;
+            case "text/plain" -> Type.TEXT;
+            default -> Type.OTHER;
+        };
+    }
+
+    /**
+     * Opens a PDF and checks that none of its streams inflates past the limit. PDFBox decodes a
+     * stream whole into memory whatever cache it is given, so a few hundred KB of flate would
+     * otherwise be hundreds of MB of heap; the check inflates each one into nothing instead.
+     * Scratch buffers PDFBox creates itself spill to a temp file past the same limit.
+     */
+    private PDDocument loadPdf(RandomAccessRead in) throws IOException {
+        PDDocument document = Loader.loadPDF(in, MemoryUsageSetting.setupMixed(maxDecodedBytes).streamCache);
+        try {
+            COSDocument cos = document.getDocument();
+            for (COSObjectKey key : List.copyOf(cos.getXrefTable().keySet())) {
+                // Text extraction never decodes images, so their size is not a risk here
+                if (cos.getObjectFromPool(key).getObject() instanceof COSStream stream
+                        && !COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE))) {
+                    checkDecodedSize(stream);
+                }
+            }
+            return document;
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    /** Runs {@code stream} through its filters, holding at most the limit between two of them. */
+    private void checkDecodedSize(COSStream stream) throws IOException {
+        COSBase names = stream.getFilters();
+        List<COSName> filters = names instanceof COSName name ? List.of(name)
+                : names instanceof COSArray array ? array.toCOSNameStringList().stream().map(COSName::getPDFName).toList()
+                : List.of();
+        if (filters.isEmpty()) return;
+        try {
+            InputStream encoded = stream.createRawInputStream();
+            for (int i = 0; i < filters.size(); i++) {
+                try (InputStream in = encoded) {
+                    Filter filter = FilterFactory.INSTANCE.getFilter(filters.get(i));
+                    if (i == filters.size() - 1) {
+                        filter.decode(in, new SizeLimit(OutputStream.nullOutputStream(), maxDecodedBytes), stream, i);
+                    } else {
+                        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+                        filter.decode(in, new SizeLimit(decoded, maxDecodedBytes), stream, i);
+                        encoded = new ByteArrayInputStream(decoded.toByteArray());
+                    }
+                }
+            }
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            // A stream PDFBox cannot decode either is its own error to report, not a memory risk
+            log.debug("Skipped the size check of an undecodable PDF stream: {}", e.toString());
+        }
+    }
+
+    /** Writes the text of {@code loaded} to {@code out} and closes it; returns the page count. */
+    private static int extractPdf(PDDocument loaded, BoundedWriter out) throws IOException {
+        try (PDDocument document = loaded) {
+            try {
+                new PDFTextStripper().writeText(document, out);
+            } catch (IOException e) {
+                if (!out.limitReached()) throw e;
+            }
+            return document.getNumberOfPages();
+        }
+    }
+
+    private static int extractText(InputStream in, BoundedWriter out) throws IOException {
+        try {
+            new InputStreamReader(in, StandardCharsets.UTF_8).transferTo(out);
+        } catch (IOException e) {
+            if (!out.limitReached()) throw e;
+        }
+        return 0;
+    }
+
+    /** Parses with {@code parser}, embedded documents included down to the depth cap; returns the page count. */
+    private int extractWithTika(Parser parser, InputStream in, BoundedWriter out)
+            throws IOException, TikaException, SAXException {
+        Metadata metadata = new Metadata();
+        ParseContext context = new ParseContext();
+        context.set(Parser.class, autoDetect);
+        context.set(EmbeddedDocumentExtractor.class, new DepthLimitedExtractor(context, maxEmbeddedDepth));
+        context.set(OfficeParserConfig.class, officeConfig);
+        try (TemporaryResources tmp = new TemporaryResources()) {
+            TikaInputStream document = TikaInputStream.get(in, tmp, metadata);
+            // Handed a stream, POI inflates every entry of a DOCX onto the heap before reading any;
+            // spooled to a file first, as auto-detection does, entries are inflated as they are read
+            if (parser == ooxml) document.getFile();
+            parser.parse(document, new BodyContentHandler(out), metadata, context);
+        } catch (IOException | TikaException | SAXException | RuntimeException e) {
+            // The cap surfaces as whatever the parser wraps the writer's exception in
+            if (!out.limitReached()) throw e;
+        }
+        Integer pages = metadata.getInt(PagedText.N_PAGES);
+        if (pages == null) pages = metadata.getInt(Office.PAGE_COUNT);
+        return pages == null ? 0 : pages;
+    }
+
+    /**
+     * Extracts a generated one-page PDF, a DOCX and a text snippet once, so the classes and
+     * caches behind each path are loaded before the first upload.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUp) return;
+        long start = System.nanoTime();
+        try {
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+            try (PDDocument document = new PDDocument()) {
+                document.addPage(new PDPage());
+                document.save(pdf);
+            }
+            ByteArrayOutputStream docx = new ByteArrayOutputStream();
+            try (XWPFDocument document = new XWPFDocument()) {
+                document.createParagraph().createRun().setText("warm-up");
+                document.write(docx);
+            }
+            extractWithTika(autoDetect, new ByteArrayInputStream("warm-up".getBytes(StandardCharsets.UTF_8)), new BoundedWriter(maxChars));
+            extractPdf(loadPdf(new RandomAccessReadBuffer(pdf.toByteArray())), new BoundedWriter(maxChars));
+            extractWithTika(ooxml, new ByteArrayInputStream(docx.toByteArray()), new BoundedWriter(maxChars));
+            log.info("Text extraction warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.warn("Text extraction warm-up failed; the first uploads will be slower: {}", e.toString());
+        }
+    }
+
+    private static byte[] peek(BufferedInputStream in, int n) throws IOException {
+        in.mark(n);
+        byte[] head = in.readNBytes(n);
+        in.reset();
+        return head;
+    }
+
+    private static boolean startsWith(byte[] head, byte[] magic) {
+        return head.length >= magic.length && Arrays.equals(head, 0, magic.length, magic, 0, magic.length);
+    }
+
+    private static final class Meters {
+        private final Timer duration;
+        private final DistributionSummary bytes;
+        private final DistributionSummary chars;
+        private final DistributionSummary pages;
+
+        Meters(MeterRegistry registry, Type type) {
+            String tag = type.name().toLowerCase(Locale.ROOT);
+            this.duration = Timer.builder("resume.extraction")
+                    .description("Time to extract the text of one uploaded document")
+                    .tag("type", tag)
+                    .register(registry);
+            this.bytes = DistributionSummary.builder("resume.extraction.bytes")
+                    .description("Size of documents read by text extraction")
+                    .baseUnit("bytes")
+                    .tag("type", tag)
+                    .register(registry);
+            this.chars = DistributionSummary.builder("resume.extraction.chars")
+                    .description("Characters of text extracted per document")
+                    .tag("type", tag)
+                    .register(registry);
+            this.pages = DistributionSummary.builder("resume.extraction.pages")
+                    .description("Pages per extracted document, where the format reports them")
+                    .tag("type", tag)
+                    .register(registry);
+        }
+
+        void record(long bytesIn, ExtractedText extracted, long nanos) {
+            duration.record(nanos, TimeUnit.NANOSECONDS);
+            bytes.record(bytesIn);
+            chars.record(extracted.text().length());
+            if (extracted.pages() > 0) pages.record(extracted.pages());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Collects extracted text up to a character cap. Past the cap, or once cancelled, writes
+     * throw, which stops PDFBox and Tika mid-document. Read from the caller while a worker writes.
+     */
+    static final class BoundedWriter extends Writer {
+        private final StringBuilder text = new StringBuilder();
+        private final int limit;
+        private boolean limitReached;
+        private volatile boolean cancelled;
+
+        BoundedWriter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(char[] chars, int offset, int length) throws IOException {
+            checkCancelled();
+            if (limitReached) throw new IOException("Text limit of " + limit + " characters reached");
+            int room = limit - text.length();
+            if (length > room) {
+                text.append(chars, offset, room);
+                limitReached = true;
+                throw new IOException("Text limit of " + limit + " characters reached");
+            }
+            text.append(chars, offset, length);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+
+        synchronized String text() {
+            return text.toString();
+        }
+
+        synchronized boolean limitReached() {
+            return limitReached;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        /** Throws once cancelled; also called on reads of the document, for parsers that write nothing. */
+        void checkCancelled() throws InterruptedIOException {
+            if (cancelled) throw new InterruptedIOException("Text extraction cancelled");
+        }
+    }
+
+    /**
+     * Parses embedded documents (attachments, archive entries, OLE objects) only down to
+     * {@code maxDepth} levels; deeper ones are skipped rather than failing the document.
+     */
+    private static final class DepthLimitedExtractor extends ParsingEmbeddedDocumentExtractor {
+        private final int maxDepth;
+        private int depth;
+
+        DepthLimitedExtractor(ParseContext context, int maxDepth) {
+            super(context);
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        public boolean shouldParseEmbedded(Metadata metadata) {
+            return depth < maxDepth && super.shouldParseEmbedded(metadata);
+        }
+
+        @Override
+        public void parseEmbedded(InputStream stream, ContentHandler handler, Metadata metadata, boolean outputHtml)
+                throws SAXException, IOException {
+            if (depth >= maxDepth) return;
+            depth++;
+            try {
+                super.parseEmbedded(stream, handler, metadata, outputHtml);
+            } finally {
+                depth--;
+            }
+        }
+    }
+
+    /** Passes bytes on until more than {@code limit} have been written, then refuses the document. */
+    private static final class SizeLimit extends OutputStream {
+        private final OutputStream out;
+        private final long limit;
+        private long written;
+
+        SizeLimit(OutputStream out, long limit) {
+            this.out = out;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            written += length;
+            if (written > limit) {
+                throw new TextExtractionException("PDF stream decodes to more than " + limit + " bytes");
+            }
+            out.write(bytes, offset, length);
+        }
+    }
+
+    /** Counts the bytes read through it, and stops reading once the extraction is cancelled. */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final BoundedWriter out;
+        private long count;
+
+        CountingInputStream(InputStream in, BoundedWriter out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.checkCancelled();
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            out.checkCancelled();
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            out.checkCancelled();
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * PDFBox's view of a document that stops reading once the extraction is cancelled, so a
+     * document PDFBox loops over without producing text still gives its thread back.
+     */
+    private static final class CancellableRead implements RandomAccessRead {
+        private final RandomAccessRead in;
+        private final BoundedWriter out;
+
+        CancellableRead(RandomAccessRead in, BoundedWriter out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.checkCancelled();
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            out.checkCancelled();
+            return in.read(buffer, offset, length);
+        }
+
+        @Override
+        public long getPosition() throws IOException {
+            return in.getPosition();
+        }
+
+        @Override
+        public void seek(long position) throws IOException {
+            out.checkCancelled();
+            in.seek(position);
+        }
+
+        @Override
+        public long length() throws IOException {
+            return in.length();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return in.isClosed();
+        }
+
+        @Override
+        public boolean isEOF() throws IOException {
+            return in.isEOF();
+        }
+
+        @Override
+        public RandomAccessReadView createView(long startPosition, long streamLength) {
+            // Views read through this, so they are cancelled with it
+            return new RandomAccessReadView(this, startPosition, streamLength);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
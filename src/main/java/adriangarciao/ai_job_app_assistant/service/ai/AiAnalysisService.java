@@ -1,29 +1,308 @@
 package adriangarciao.ai_job_app_assistant.service.ai;
 import adriangarciao.ai_job_app_assistant.dto.*;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
 import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class AiAnalysisService {
     private static final Logger log = LoggerFactory.getLogger(AiAnalysisService.class);
+
+    /**
+     * How the two parse stages run: one after the other on the request thread, or forked
+     * onto virtual threads and joined before scoring.
+     */
+    public enum Mode { SEQUENTIAL, PARALLEL }
+
+    /**
+     * Stages of one analysis as they finish, for callers that render it progressively. Not
+     * called when the result is taken from an identical request, which goes straight to the
+     * finished feedback.
+     */
+    public interface Progress {
+        void onParsed(ParsedResumeDTO resume, ParsedJobDTO job);
+
+        /** A piece of generated text; may come from an HTTP client thread. */
+        default void onToken(String token) {}
+    }
+
+    private static final Progress NO_PROGRESS = (resume, job) -> {};
+
+    /** Identity of a request for coalescing: hash and length of both texts, plus the cover letter flag. */
+    record RequestKey(long resumeHash, int resumeLength, long jobHash, int jobLength, boolean includeCoverLetter) {
+        static RequestKey of(SubmitAnalysisRequest request) {
+            return new RequestKey(TextHash.hash64(request.resumeText()), request.resumeText().length(),
+                    TextHash.hash64(request.jobPostingText()), request.jobPostingText().length(),
+                    request.includeCoverLetter());
+        }
+    }
+
+    /** A result with the request it answers, compared on reuse so a hash collision is never shared. */
+    private record SharedResult(SubmitAnalysisRequest request, FeedbackDTO feedback) {}
+
     private final ParserService parserService;
     private final LLMService llmService;
+    private final Mode mode;
+    private final Duration timeout;
+    private final ExecutorService forkExecutor;
+    private final Timer parseResumeTimer;
+    private final Timer parseJobTimer;
+    private final Timer scoreTimer;
+    private final Timer totalTimer;
+    // Coalescing of identical requests; all null when app.ai.analysis.dedup.enabled=false
+    private final ConcurrentHashMap<RequestKey, CompletableFuture<SharedResult>> inFlight;
+    private final Cache<RequestKey, SharedResult> recent;
+    private final Counter dedupHits;
+    private final Counter dedupCoalesced;
+    private final Counter dedupMisses;
+
     public AiAnalysisService(ParserService parserService, LLMService llmService) {
+        this(parserService, llmService, new SimpleMeterRegistry(), Mode.SEQUENTIAL.name(), Duration.ofSeconds(10));
+    }
+
+    public AiAnalysisService(ParserService parserService, LLMService llmService, MeterRegistry meterRegistry,
+                             String mode, Duration timeout) {
+        this(parserService, llmService, meterRegistry, mode, timeout, false, Duration.ZERO, 0);
+    }
+
+    @Autowired
+    public AiAnalysisService(
+            ParserService parserService,
+            LLMService llmService,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.analysis.mode:sequential}") String mode,
+            @Value("${app.ai.analysis.timeout:10s}") Duration timeout,
+            @Value("${app.ai.analysis.dedup.enabled:true}") boolean dedup,
+            @Value("${app.ai.analysis.dedup.ttl:10s}") Duration dedupTtl,
+            @Value("${app.ai.analysis.dedup.max-entries:1000}") long dedupMaxEntries
+    ) {
         this.parserService = Objects.requireNonNull(parserService, "parserService");
         this.llmService = Objects.requireNonNull(llmService, "llmService");
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.timeout = Objects.requireNonNull(timeout, "timeout");
+        this.forkExecutor = this.mode == Mode.PARALLEL ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.parseResumeTimer = stageTimer(meterRegistry, "parse_resume");
+        this.parseJobTimer = stageTimer(meterRegistry, "parse_job");
+        this.scoreTimer = stageTimer(meterRegistry, "score");
+        this.totalTimer = Timer.builder("ai.analysis")
+                .description("End-to-end analysis latency")
+                .tag("mode", this.mode.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        if (dedup) {
+            this.inFlight = new ConcurrentHashMap<>();
+            this.recent = Caffeine.newBuilder()
+                    .expireAfterWrite(dedupTtl)
+                    .maximumSize(dedupMaxEntries)
+                    .build();
+            this.dedupHits = dedupCounter(meterRegistry, "hit");
+            this.dedupCoalesced = dedupCounter(meterRegistry, "coalesced");
+            this.dedupMisses = dedupCounter(meterRegistry, "miss");
+        } else {
+            this.inFlight = null;
+            this.recent = null;
+            this.dedupHits = null;
+            this.dedupCoalesced = null;
+            this.dedupMisses = null;
+        }
     }
+
     public FeedbackDTO analyze(SubmitAnalysisRequest request) {
+        return analyze(request, NO_PROGRESS);
+    }
+
+    /** Same as {@link #analyze(SubmitAnalysisRequest)}, reporting each stage to {@code progress}. */
+    public FeedbackDTO analyze(SubmitAnalysisRequest request, Progress progress) {
         Objects.requireNonNull(request, "request must not be null");
-        
-        ParsedResumeDTO parsedResume = parserService.parseResume(request.resumeText());
-        ParsedJobDTO parsedJob = parserService.parseJob(request.jobPostingText());
-        
+        Objects.requireNonNull(progress, "progress must not be null");
+        long start = System.nanoTime();
+        try {
+            return inFlight == null ? compute(request, progress) : analyzeShared(request, progress);
+        } finally {
+            totalTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public Duration timeout() {
+        return timeout;
+    }
+
+    private FeedbackDTO compute(SubmitAnalysisRequest request, Progress progress) {
+        return mode == Mode.PARALLEL ? analyzeParallel(request, progress) : analyzeSequential(request, progress);
+    }
+
+    /**
+     * Single flight: the first caller for a request computes it, identical callers arriving
+     * meanwhile wait for that result instead of repeating the work, and the result is then
+     * reused for the dedup TTL. Partial and fallback results are shared with the callers already
+     * waiting but not kept. A failure reaches every waiting caller; if the computing caller was
+     * cancelled, the others compute for themselves.
+     */
+    private FeedbackDTO analyzeShared(SubmitAnalysisRequest request, Progress progress) {
+        RequestKey key = RequestKey.of(request);
+        SharedResult done = recent.getIfPresent(key);
+        if (done != null && done.request().equals(request)) {
+            dedupHits.increment();
+            return done.feedback();
+        }
+
+        CompletableFuture<SharedResult> mine = new CompletableFuture<>();
+        CompletableFuture<SharedResult> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            SharedResult shared = await(leader);
+            if (shared != null && shared.request().equals(request)) {
+                dedupCoalesced.increment();
+                return shared.feedback();
+            }
+            dedupMisses.increment();
+            return compute(request, progress);
+        }
+
+        dedupMisses.increment();
+        try {
+            FeedbackDTO feedback = compute(request, progress);
+            SharedResult shared = new SharedResult(request, feedback);
+            // Into the cache before leaving the in-flight map, so a newcomer always finds one of them
+            if (!feedback.partial() && !feedback.fallback()) recent.put(key, shared);
+            mine.complete(shared);
+            return feedback;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** The leader's result, or null if the leader was cancelled. Waits at most the analysis timeout. */
+    private SharedResult await(CompletableFuture<SharedResult> leader) {
+        try {
+            return leader.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new AnalysisTimeoutException("Analysis did not finish within " + timeout.toMillis() + " ms");
+        } catch (CancellationException e) {
+            // CompletableFuture.get throws a cancellation as is, not wrapped in ExecutionException
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Analysis cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private FeedbackDTO analyzeSequential(SubmitAnalysisRequest request, Progress progress) {
+        ParsedResumeDTO parsedResume = parseResumeTimer.record(() -> parserService.parseResume(request.resumeText()));
+        ParsedJobDTO parsedJob = parseJobTimer.record(() -> parserService.parseJob(request.jobPostingText()));
+        return score(parsedResume, parsedJob, request.includeCoverLetter(), progress);
+    }
+
+    /**
+     * Forks both parses, then joins them in completion order: the first failure cancels the
+     * other fork and is rethrown, and so does running past the deadline or an interrupt of the
+     * calling thread. Forks are always cancelled on the way out, so none outlive the request.
+     */
+    private FeedbackDTO analyzeParallel(SubmitAnalysisRequest request, Progress progress) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletionService<Object> forks = new ExecutorCompletionService<>(forkExecutor);
+        Future<Object> resumeTask = forks.submit(() -> timed(parseResumeTimer, () -> parserService.parseResume(request.resumeText())));
+        Future<Object> jobTask = forks.submit(() -> timed(parseJobTimer, () -> parserService.parseJob(request.jobPostingText())));
+        try {
+            for (int joined = 0; joined < 2; joined++) {
+                long remaining = deadline - System.nanoTime();
+                Future<Object> done = remaining > 0 ? forks.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    throw new AnalysisTimeoutException("Analysis did not finish within " + timeout.toMillis() + " ms");
+                }
+                rethrowFailure(done);
+            }
+            return score((ParsedResumeDTO) resumeTask.resultNow(), (ParsedJobDTO) jobTask.resultNow(),
+                    request.includeCoverLetter(), progress);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Analysis cancelled");
+        } finally {
+            resumeTask.cancel(true);
+            jobTask.cancel(true);
+        }
+    }
+
+    private FeedbackDTO score(ParsedResumeDTO parsedResume, ParsedJobDTO parsedJob, boolean includeCoverLetter,
+                              Progress progress) {
         log.debug("Analyzing resume (len={}) against job (len={}), includeCoverLetter={}",
-                parsedResume.rawText().length(), parsedJob.rawText().length(), request.includeCoverLetter());
-        
-        return llmService.generateFeedback(parsedResume, parsedJob, request.includeCoverLetter());
+                parsedResume.rawText().length(), parsedJob.rawText().length(), includeCoverLetter);
+
+        if (progress == NO_PROGRESS) {
+            return scoreTimer.record(() -> llmService.generateFeedback(parsedResume, parsedJob, includeCoverLetter));
+        }
+        progress.onParsed(parsedResume, parsedJob);
+        return scoreTimer.record(() -> llmService.generateFeedback(parsedResume, parsedJob, includeCoverLetter, progress::onToken));
+    }
+
+    private static Object timed(Timer timer, Supplier<?> stage) {
+        return timer.record(stage);
+    }
+
+    private static void rethrowFailure(Future<Object> done) throws InterruptedException {
+        try {
+            done.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Counter dedupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("ai.analysis.dedup")
+                .description("Analysis requests answered from a recent result, by joining an identical request, or computed")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("ai.analysis.stage")
+                .description("Latency of one analysis stage")
+                .tag("stage", stage)
+                .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (forkExecutor != null) forkExecutor.shutdownNow();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,294 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisJobNotFoundException;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisQueueFullException;
+import adriangarciao.ai_job_app_assistant.model.AnalysisJob;
+import adriangarciao.ai_job_app_assistant.model.AnalysisJobStatus;
+import adriangarciao.ai_job_app_assistant.repository.AnalysisJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submit-and-poll analysis.
+ *
+ * A submitted job is saved as QUEUED and handed to a fixed pool of {@code app.ai.jobs.workers}
+ * workers through a queue of {@code app.ai.jobs.queue-capacity}; when that queue is full the
+ * submit is refused with {@link AnalysisQueueFullException} (429), whose Retry-After is the
+ * queued work divided across the workers at the mean run time so far. Finished jobs keep their
+ * feedback for {@code app.ai.jobs.result-ttl}: in memory for polling, and in the database until
+ * a periodic purge removes them. Jobs still queued or running when the application stopped are
+ * queued again on startup, unless they had already been started {@code app.ai.jobs.max-attempts}
+ * times: a job that keeps being interrupted is failed instead of being run forever.
+ *
+ * Metrics: ai.jobs.queue.depth, ai.jobs.active, ai.jobs.wait (queued to started), ai.jobs.run
+ * and ai.jobs.rejected.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private static final Set<AnalysisJobStatus> UNFINISHED = EnumSet.of(AnalysisJobStatus.QUEUED, AnalysisJobStatus.RUNNING);
+    // Finished results polled from memory; past this, lookups fall through to the database
+    private static final int MAX_CACHED_RESULTS = 10_000;
+    private static final int MAX_ERROR_CHARS = 500;
+
+    private final AiAnalysisService analysisService;
+    private final AnalysisJobRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration resultTtl;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService purger;
+    private final Cache<UUID, AnalysisJobDTO> finished;
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final Counter rejected;
+
+    public AnalysisJobService(
+            AiAnalysisService analysisService,
+            AnalysisJobRepository repository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.jobs.workers:2}") int workers,
+            @Value("${app.ai.jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${app.ai.jobs.result-ttl:1h}") Duration resultTtl
+    ) {
+        this(analysisService, repository, objectMapper, meterRegistry, workers, queueCapacity, resultTtl, 3);
+    }
+
+    @Autowired
+    public AnalysisJobService(
+            AiAnalysisService analysisService,
+            AnalysisJobRepository repository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.jobs.workers:2}") int workers,
+            @Value("${app.ai.jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${app.ai.jobs.result-ttl:1h}") Duration resultTtl,
+            @Value("${app.ai.jobs.max-attempts:3}") int maxAttempts
+    ) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1, got " + workers);
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be >= 1, got " + queueCapacity);
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1, got " + maxAttempts);
+        this.analysisService = Objects.requireNonNull(analysisService, "analysisService");
+        this.repository = Objects.requireNonNull(repository, "repository");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.resultTtl = Objects.requireNonNull(resultTtl, "resultTtl");
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("analysis-job-", 0).factory());
+        this.purger = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("analysis-job-purge").factory());
+        this.finished = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .maximumSize(MAX_CACHED_RESULTS)
+                .build();
+
+        Gauge.builder("ai.jobs.queue.depth", executor, e -> e.getQueue().size())
+                .description("Analysis jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ai.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Analysis jobs being run")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("ai.jobs.wait")
+                .description("Time an analysis job spent queued before a worker took it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("ai.jobs.run")
+                .description("Time a worker spent on one analysis job")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ai.jobs.rejected")
+                .description("Submits refused because the job queue was full")
+                .register(meterRegistry);
+    }
+
+    /** Deletes finished jobs older than the result TTL, once per TTL. */
+    @PostConstruct
+    public void schedulePurge() {
+        purger.scheduleAtFixedRate(this::purgeExpired, resultTtl.toMillis(), resultTtl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public AnalysisJobDTO submit(SubmitAnalysisRequest request) {
+        Objects.requireNonNull(request, "request must not be null");
+        // Refuse before writing anything when the queue is visibly full
+        if (executor.getQueue().remainingCapacity() == 0) throw reject();
+
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID(), request.resumeText(), request.jobPostingText(),
+                request.includeCoverLetter(), Instant.now());
+        repository.save(job);
+        AnalysisJobDTO queued = toDto(job, null);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            repository.deleteById(job.getId());
+            throw reject();
+        }
+        log.debug("Queued analysis job {}", job.getId());
+        return queued;
+    }
+
+    public AnalysisJobDTO get(UUID id) {
+        if (id == null) throw new AnalysisJobNotFoundException(null);
+        AnalysisJobDTO cached = finished.getIfPresent(id);
+        if (cached != null) return cached;
+        AnalysisJob job = repository.findById(id).orElse(null);
+        if (job == null || (job.isFinished() && job.getFinishedAt().plus(resultTtl).isBefore(Instant.now()))) {
+            throw new AnalysisJobNotFoundException(id);
+        }
+        return toDto(job, readResult(job));
+    }
+
+    /**
+     * Queues again, oldest first, the jobs that were queued or running when the application
+     * stopped. Those already started {@code maxAttempts} times, and those that no longer fit in
+     * the queue, are failed rather than left pending forever.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<AnalysisJob> pending = repository.findByStatusInOrderByCreatedAtAsc(UNFINISHED);
+        int requeued = 0;
+        for (AnalysisJob job : pending) {
+            if (job.getAttempts() >= maxAttempts) {
+                log.warn("Analysis job {} was interrupted {} times, failing it", job.getId(), job.getAttempts());
+                finish(job, AnalysisJobStatus.FAILED, null,
+                        "Job was interrupted " + job.getAttempts() + " times; submit it again");
+                repository.save(job);
+                continue;
+            }
+            job.setStatus(AnalysisJobStatus.QUEUED);
+            job.setStartedAt(null);
+            try {
+                executor.execute(() -> run(job));
+                requeued++;
+            } catch (RejectedExecutionException e) {
+                finish(job, AnalysisJobStatus.FAILED, null, "Job queue was full after a restart; submit it again");
+                repository.save(job);
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Re-queued {} of {} unfinished analysis jobs", requeued, pending.size());
+        }
+    }
+
+    private void run(AnalysisJob job) {
+        Instant started = Instant.now();
+        waitTimer.record(Duration.between(job.getCreatedAt(), started));
+        long start = System.nanoTime();
+        try {
+            job.setStatus(AnalysisJobStatus.RUNNING);
+            job.setStartedAt(started);
+            job.setAttempts(job.getAttempts() + 1);
+            repository.save(job);
+
+            FeedbackDTO feedback = null;
+            String error = null;
+            try {
+                feedback = analysisService.analyze(new SubmitAnalysisRequest(
+                        job.getResumeText(), job.getJobPostingText(), job.isIncludeCoverLetter()));
+            } catch (RuntimeException e) {
+                if (executor.isShutdown()) {
+                    // Left RUNNING; recover() picks it up on the next start
+                    log.info("Analysis job {} interrupted by shutdown", job.getId());
+                    return;
+                }
+                log.warn("Analysis job {} failed: {}", job.getId(), e.toString());
+                error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            }
+            finish(job, feedback != null ? AnalysisJobStatus.SUCCEEDED : AnalysisJobStatus.FAILED, feedback, error);
+            repository.save(job);
+            finished.put(job.getId(), toDto(job, feedback));
+        } catch (RuntimeException e) {
+            log.error("Could not record analysis job {}", job.getId(), e);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void finish(AnalysisJob job, AnalysisJobStatus status, FeedbackDTO feedback, String error) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now());
+        job.setResultJson(feedback == null ? null : writeResult(feedback));
+        job.setError(error == null || error.length() <= MAX_ERROR_CHARS ? error : error.substring(0, MAX_ERROR_CHARS));
+        // The texts were only kept to be able to run the job again
+        job.setResumeText(null);
+        job.setJobPostingText(null);
+    }
+
+    void purgeExpired() {
+        try {
+            int purged = repository.deleteFinishedBefore(Instant.now().minus(resultTtl));
+            if (purged > 0) log.debug("Purged {} expired analysis jobs", purged);
+        } catch (RuntimeException e) {
+            log.warn("Could not purge expired analysis jobs: {}", e.toString());
+        }
+    }
+
+    private AnalysisQueueFullException reject() {
+        rejected.increment();
+        int outstanding = executor.getQueue().size() + executor.getActiveCount();
+        double meanRunSeconds = runTimer.mean(TimeUnit.SECONDS);
+        return new AnalysisQueueFullException(Math.max(1, (long) Math.ceil(outstanding * meanRunSeconds / workers)));
+    }
+
+    private String writeResult(FeedbackDTO feedback) {
+        try {
+            return objectMapper.writeValueAsString(feedback);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feedback", e);
+        }
+    }
+
+    private FeedbackDTO readResult(AnalysisJob job) {
+        if (job.getResultJson() == null) return null;
+        try {
+            return objectMapper.readValue(job.getResultJson(), FeedbackDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored result of analysis job " + job.getId() + " is unreadable", e);
+        }
+    }
+
+    private static AnalysisJobDTO toDto(AnalysisJob job, FeedbackDTO result) {
+        return new AnalysisJobDTO(job.getId(), job.getStatus(), result, job.getError(),
+                job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        purger.shutdownNow();
+    }
+}
@@ -0,0 +1,202 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisSessionDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SessionEditRequest;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisSessionNotFoundException;
+import adriangarciao.ai_job_app_assistant.exception.InvalidSessionEditException;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Incremental analysis for live editing.
+ *
+ * A session keeps both documents as lines plus a {@link LineMemo} per document, and accepts
+ * line-range edits. An edit re-parses only the edited document, and within it only lines whose
+ * text is new; every other line's classification and skills come from the memo. Section
+ * membership, title/location/compensation and the score are still derived from the whole
+ * document, so the feedback is always identical to a fresh analysis of the current texts.
+ *
+ * Sessions live in memory and expire after {@code app.ai.session.ttl} without access. Together
+ * they hold at most {@code app.ai.session.max-chars} characters of documents; past that the
+ * least recently used are dropped. A session is weighed again after each edit.
+ */
+@Service
+public class AnalysisSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisSessionService.class);
+
+    // Same limit the one-shot endpoint validates on SubmitAnalysisRequest
+    static final int MAX_DOCUMENT_CHARS = 20000;
+
+    private final SimpleParserService parser;
+    private final LLMService llmService;
+    private final Cache<UUID, Session> sessions;
+
+    public AnalysisSessionService(
+            SimpleParserService parser,
+            LLMService llmService,
+            @Value("${app.ai.session.ttl:30m}") Duration ttl,
+            @Value("${app.ai.session.max-chars:20000000}") long maxChars
+    ) {
+        this.parser = Objects.requireNonNull(parser, "parser");
+        this.llmService = Objects.requireNonNull(llmService, "llmService");
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumWeight(maxChars)
+                .weigher((UUID id, Session session) -> session.chars())
+                .build();
+    }
+
+    /**
+     * Parses and scores both documents and keeps them for later edits.
+     */
+    public AnalysisSessionDTO open(SubmitAnalysisRequest request) {
+        Objects.requireNonNull(request, "request must not be null");
+        UUID id = UUID.randomUUID();
+        Session session = new Session(request.resumeText(), request.jobPostingText(), request.includeCoverLetter());
+        synchronized (session) {
+            session.parsedResume = parser.parseResume(session.resume.text(), session.resume.memo);
+            session.parsedJob = parser.parseJob(session.job.text(), session.job.memo);
+            session.feedback = score(session);
+            sessions.put(id, session);
+            log.debug("Opened analysis session {} (resume {} lines, job {} lines)",
+                    id, session.resume.lines.size(), session.job.lines.size());
+            return snapshot(id, session);
+        }
+    }
+
+    public AnalysisSessionDTO get(UUID id) {
+        Session session = find(id);
+        synchronized (session) {
+            return snapshot(id, session);
+        }
+    }
+
+    /**
+     * Applies one line-range edit and returns the updated feedback.
+     */
+    public AnalysisSessionDTO edit(UUID id, SessionEditRequest edit) {
+        Objects.requireNonNull(edit, "edit must not be null");
+        Session session = find(id);
+        synchronized (session) {
+            if (edit.document() == SessionEditRequest.Document.RESUME) {
+                session.resume.replace(edit.fromLine(), edit.toLine(), edit.lines());
+                session.parsedResume = parser.parseResume(session.resume.text(), session.resume.memo);
+            } else {
+                session.job.replace(edit.fromLine(), edit.toLine(), edit.lines());
+                session.parsedJob = parser.parseJob(session.job.text(), session.job.memo);
+            }
+            session.feedback = score(session);
+            session.version++;
+            // Re-weigh the edited session, unless it was closed or evicted meanwhile
+            sessions.asMap().replace(id, session, session);
+            return snapshot(id, session);
+        }
+    }
+
+    public void close(UUID id) {
+        sessions.invalidate(id);
+    }
+
+    private Session find(UUID id) {
+        Session session = id == null ? null : sessions.getIfPresent(id);
+        if (session == null) throw new AnalysisSessionNotFoundException(id);
+        return session;
+    }
+
+    /** Characters held by all open sessions; for tests. */
+    long retainedChars() {
+        sessions.cleanUp();
+        return sessions.policy().eviction().orElseThrow().weightedSize().orElse(0L);
+    }
+
+    private FeedbackDTO score(Session session) {
+        return llmService.generateFeedback(session.parsedResume, session.parsedJob, session.includeCoverLetter);
+    }
+
+    private static AnalysisSessionDTO snapshot(UUID id, Session session) {
+        return new AnalysisSessionDTO(id, session.version, session.feedback);
+    }
+
+    private static final class Session {
+        final Document resume;
+        final Document job;
+        final boolean includeCoverLetter;
+        ParsedResumeDTO parsedResume;
+        ParsedJobDTO parsedJob;
+        FeedbackDTO feedback;
+        long version;
+
+        Session(String resumeText, String jobPostingText, boolean includeCoverLetter) {
+            this.resume = new Document(resumeText);
+            this.job = new Document(jobPostingText);
+            this.includeCoverLetter = includeCoverLetter;
+        }
+
+        int chars() {
+            return Math.max(1, resume.length + job.length);
+        }
+    }
+
+    /**
+     * One document as submitted (not normalized), split on '\n'; edits address these lines.
+     */
+    private static final class Document {
+        final List<String> lines;
+        final LineMemo memo = LineMemo.create();
+        int length;
+
+        Document(String text) {
+            String t = text == null ? "" : text;
+            this.lines = new ArrayList<>(Arrays.asList(t.split("\n", -1)));
+            this.length = t.length();
+        }
+
+        String text() {
+            return String.join("\n", lines);
+        }
+
+        void replace(int from, int to, List<String> replacement) {
+            if (from < 0 || to < from || to > lines.size()) {
+                throw new InvalidSessionEditException("Line range [" + from + ", " + to + ") is outside the document ("
+                        + lines.size() + " lines)");
+            }
+            List<String> added = new ArrayList<>(replacement.size());
+            for (String line : replacement) {
+                added.addAll(Arrays.asList(line.split("\n", -1)));
+            }
+
+            // length = sum of line lengths + (lines - 1) separators
+            long chars = length - Math.max(lines.size() - 1, 0);
+            for (String line : lines.subList(from, to)) chars -= line.length();
+            for (String line : added) chars += line.length();
+            int lineCount = lines.size() - (to - from) + added.size();
+            long newLength = lineCount == 0 ? 0 : chars + lineCount - 1;
+            if (newLength > MAX_DOCUMENT_CHARS) {
+                throw new InvalidSessionEditException("Document would be " + newLength + " characters; at most "
+                        + MAX_DOCUMENT_CHARS + " are allowed");
+            }
+
+            List<String> range = lines.subList(from, to);
+            range.clear();
+            range.addAll(added);
+            length = (int) newLength;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisQueueFullException;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs one analysis off the request thread and reports each stage as soon as it is done, so a
+ * client can render progressively: parsed documents first, then generated text as the backend
+ * produces it, then the finished feedback.
+ *
+ * Analyses go through {@link AiAnalysisService}, so they share its stage metrics and the
+ * coalescing of identical requests. Each one must end within the analysis timeout
+ * ({@code app.ai.analysis.timeout}), after which it is cancelled and ends with an
+ * {@link AnalysisTimeoutException}. At most {@code app.ai.analysis.stream-max-concurrent} run at
+ * once; beyond that a new one is refused with {@link AnalysisQueueFullException}.
+ */
+@Service
+public class AnalysisStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisStreamService.class);
+
+    /**
+     * Stage callbacks, invoked from the analysis thread or, for a timeout, from the watchdog.
+     * Exactly one of {@link #onFeedback} and {@link #onError} ends every analysis that is not
+     * cancelled, and nothing is reported after it.
+     */
+    public interface Listener extends AiAnalysisService.Progress {
+        void onFeedback(FeedbackDTO feedback);
+
+        void onError(RuntimeException error);
+    }
+
+    private final AiAnalysisService analysisService;
+    private final Duration timeout;
+    private final Semaphore slots;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService watchdog =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("analysis-stream-watchdog").factory());
+
+    public AnalysisStreamService(ParserService parserService, LLMService llmService) {
+        this(new AiAnalysisService(parserService, llmService), 32);
+    }
+
+    @Autowired
+    public AnalysisStreamService(
+            AiAnalysisService analysisService,
+            @Value("${app.ai.analysis.stream-max-concurrent:32}") int maxConcurrent
+    ) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be >= 1, got " + maxConcurrent);
+        this.analysisService = Objects.requireNonNull(analysisService, "analysisService");
+        this.timeout = analysisService.timeout();
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Starts the analysis on a virtual thread and returns at once; cancel the future to stop it.
+     *
+     * @throws AnalysisQueueFullException if the most analyses allowed at once are already running
+     */
+    public Future<?> analyze(SubmitAnalysisRequest request, Listener listener) {
+        Objects.requireNonNull(request, "request must not be null");
+        Objects.requireNonNull(listener, "listener must not be null");
+        if (!slots.tryAcquire()) {
+            // A slot is free again within the analysis timeout at the latest
+            throw new AnalysisQueueFullException(Math.max(1, (timeout.toMillis() + 999) / 1000));
+        }
+        Analysis analysis = new Analysis(request, listener);
+        try {
+            executor.execute(analysis::start);
+            analysis.deadline = watchdog.schedule(analysis::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            analysis.task.cancel(true);
+            throw e;
+        }
+        return analysis.task;
+    }
+
+    /** Permits left for new analyses; for tests. */
+    int availableSlots() {
+        return slots.availablePermits();
+    }
+
+    /**
+     * One streamed analysis. Its slot is held until the analysis thread has returned, or released
+     * on cancellation if the thread never started. Whichever of the thread and the watchdog ends
+     * it first reports the outcome; the other stays silent.
+     */
+    private final class Analysis implements Runnable, AiAnalysisService.Progress {
+        private final SubmitAnalysisRequest request;
+        private final Listener listener;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final AtomicBoolean ended = new AtomicBoolean();
+        final FutureTask<Void> task = new FutureTask<>(this, null) {
+            @Override
+            protected void done() {
+                finished();
+            }
+        };
+        volatile ScheduledFuture<?> deadline;
+
+        Analysis(SubmitAnalysisRequest request, Listener listener) {
+            this.request = request;
+            this.listener = listener;
+        }
+
+        void start() {
+            if (!claimed.compareAndSet(false, true)) return;
+            try {
+                task.run();
+            } finally {
+                slots.release();
+            }
+        }
+
+        private void finished() {
+            ScheduledFuture<?> pending = deadline;
+            if (pending != null) pending.cancel(false);
+            // Cancelled before the thread started: nobody else gives the slot back
+            if (claimed.compareAndSet(false, true)) slots.release();
+        }
+
+        @Override
+        public void run() {
+            FeedbackDTO feedback;
+            try {
+                feedback = analysisService.analyze(request, this);
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted() || task.isCancelled()) {
+                    log.debug("Streamed analysis cancelled");
+                } else if (ended.compareAndSet(false, true)) {
+                    log.warn("Streamed analysis failed: {}", e.toString());
+                    listener.onError(e);
+                }
+                return;
+            }
+            if (ended.compareAndSet(false, true)) listener.onFeedback(feedback);
+        }
+
+        @Override
+        public void onParsed(ParsedResumeDTO resume, ParsedJobDTO job) {
+            if (!ended.get()) listener.onParsed(resume, job);
+        }
+
+        @Override
+        public void onToken(String token) {
+            if (!ended.get()) listener.onToken(token);
+        }
+
+        void expire() {
+            if (task.isDone() || !ended.compareAndSet(false, true)) return;
+            task.cancel(true);
+            log.warn("Streamed analysis did not finish within {} ms", timeout.toMillis());
+            listener.onError(new AnalysisTimeoutException("Analysis did not finish within " + timeout.toMillis() + " ms"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+}
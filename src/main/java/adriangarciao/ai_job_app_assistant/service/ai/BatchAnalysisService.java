@@ -0,0 +1,193 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.BatchAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.dto.BatchFeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Scores one resume against many job postings.
+ *
+ * The resume is parsed once; postings are parsed (and, when streaming, scored) on virtual threads,
+ * at most {@code app.ai.batch.parallelism} at a time per batch. When ranking, the parsed postings are
+ * scored in one {@link LLMService#generateFeedbackBatch} call so the backend can batch them. Parsing
+ * and scoring together must finish within {@code app.ai.batch.timeout}; work still running at the
+ * deadline is interrupted. Feedback never includes cover-letter suggestions.
+ */
+@Service
+public class BatchAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchAnalysisService.class);
+
+    private static final Comparator<BatchFeedbackDTO> BY_SCORE =
+            Comparator.comparingInt((BatchFeedbackDTO r) -> r.feedback().matchScore()).reversed()
+                    .thenComparingInt(BatchFeedbackDTO::index);
+
+    private record Indexed<T>(int index, T value) {}
+
+    private final ParserService parserService;
+    private final LLMService llmService;
+    private final Duration timeout;
+    private final int parallelism;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchAnalysisService(
+            ParserService parserService,
+            LLMService llmService,
+            @Value("${app.ai.batch.timeout:60s}") Duration timeout,
+            @Value("${app.ai.batch.parallelism:0}") int parallelism
+    ) {
+        this.parserService = Objects.requireNonNull(parserService, "parserService");
+        this.llmService = Objects.requireNonNull(llmService, "llmService");
+        this.timeout = Objects.requireNonNull(timeout, "timeout");
+        // 0 (the default) means one posting per available core
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Feedback for every posting, best match first (ties keep request order), limited to
+     * {@code topK} entries when it is set.
+     */
+    public List<BatchFeedbackDTO> rank(BatchAnalysisRequest request) {
+        Objects.requireNonNull(request, "request must not be null");
+        List<String> postings = request.jobPostingTexts();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ParsedResumeDTO resume = parserService.parseResume(request.resumeText());
+
+        ParsedJobDTO[] jobs = new ParsedJobDTO[postings.size()];
+        forEachInParallel(postings.size(), deadline, i -> parserService.parseJob(postings.get(i)), (job, i) -> jobs[i] = job);
+        List<FeedbackDTO> feedback = beforeDeadline(deadline,
+                () -> llmService.generateFeedbackBatch(resume, Arrays.asList(jobs)));
+
+        List<BatchFeedbackDTO> ranked = new ArrayList<>(feedback.size());
+        for (int i = 0; i < feedback.size(); i++) {
+            ranked.add(new BatchFeedbackDTO(i, feedback.get(i)));
+        }
+        ranked.sort(BY_SCORE);
+        int limit = request.topK() == null ? ranked.size() : Math.min(request.topK(), ranked.size());
+        log.debug("Ranked {} postings against one resume, returning {}", ranked.size(), limit);
+        return List.copyOf(ranked.subList(0, limit));
+    }
+
+    /**
+     * Parses and scores every posting, handing each result to {@code sink} as soon as it is ready
+     * (completion order, not request order). {@code sink} runs on the calling thread.
+     */
+    public void stream(BatchAnalysisRequest request, Consumer<BatchFeedbackDTO> sink) {
+        Objects.requireNonNull(request, "request must not be null");
+        Objects.requireNonNull(sink, "sink must not be null");
+        List<String> postings = request.jobPostingTexts();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ParsedResumeDTO resume = parserService.parseResume(request.resumeText());
+
+        forEachInParallel(postings.size(), deadline,
+                i -> llmService.generateFeedback(resume, parserService.parseJob(postings.get(i)), false),
+                (feedback, i) -> sink.accept(new BatchFeedbackDTO(i, feedback)));
+    }
+
+    /**
+     * Runs {@code task} for indices {@code [0, count)} and hands results to {@code onDone} on the
+     * calling thread as they complete. The first failure, the deadline ({@link System#nanoTime()})
+     * or an interrupt of the calling thread ends the batch; unfinished tasks are cancelled on the way out.
+     */
+    private <T> void forEachInParallel(int count, long deadline, IntFunction<T> task, ObjIntConsumer<T> onDone) {
+        Semaphore permits = new Semaphore(parallelism);
+        CompletionService<Indexed<T>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Indexed<T>>> futures = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(completion.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return new Indexed<>(index, task.apply(index));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int joined = 0; joined < count; joined++) {
+                long remaining = deadline - System.nanoTime();
+                Future<Indexed<T>> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) throw timedOut();
+                Indexed<T> result = resultOf(done);
+                onDone.accept(result.value(), result.index());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Batch analysis cancelled");
+        } finally {
+            for (Future<Indexed<T>> future : futures) future.cancel(true);
+        }
+    }
+
+    /** Runs {@code task} on the batch executor and waits for it until the deadline, then cancels it. */
+    private <T> T beforeDeadline(long deadline, Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            throw timedOut();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Batch analysis cancelled");
+        } finally {
+            future.cancel(true);
+        }
+    }
+
+    private AnalysisTimeoutException timedOut() {
+        return new AnalysisTimeoutException("Batch analysis did not finish within " + timeout.toMillis() + " ms");
+    }
+
+    private static <T> T resultOf(Future<T> done) throws InterruptedException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error err) throw err;
+        return new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.TokenSpans;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ParserService decorator that memoizes parse results by content.
+ *
+ * Entries are keyed by a 64-bit hash + length of the normalized input, so whitespace-only
+ * differences share an entry. A hit is only returned after the cached normalized text compares
+ * equal to the request's, so a hash collision can never hand one user's document to another.
+ * Eviction is Caffeine's W-TinyLFU, bounded by an estimated retained size in bytes.
+ * Partial results (parse stopped by its time budget) are returned but not kept.
+ * Parsing runs outside the cache's compute, so a slow parse never blocks writers to other keys;
+ * two concurrent misses on the same text may both parse it, and the later put wins.
+ * Expects a delegate whose {@code rawText()} is the normalized input, as {@link SimpleParserService} does.
+ */
+public class CachingParserService implements ParserService, MeterBinder {
+
+    private final ParserService delegate;
+    private final Cache<Key, Object> cache;
+
+    record Key(boolean job, long hash, int length) {}
+
+    public CachingParserService(ParserService delegate, long maxWeightBytes) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, Object value) -> weigh(value))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public ParsedResumeDTO parseResume(String resumeText) {
+        String normalized = SimpleParserService.safeNormalize(resumeText);
+        Key key = new Key(false, TextHash.hash64(normalized), normalized.length());
+        Object cached = cache.getIfPresent(key);
+        if (cached instanceof ParsedResumeDTO resume && resume.rawText().equals(normalized)) return resume;
+        ParsedResumeDTO resume = delegate.parseResume(normalized);
+        // a slot held by a hash collision keeps its document; this one is returned uncached
+        if (cached == null && !resume.partial()) cache.put(key, resume);
+        return resume;
+    }
+
+    @Override
+    public ParsedJobDTO parseJob(String jobPostingText) {
+        String normalized = SimpleParserService.safeNormalize(jobPostingText);
+        Key key = new Key(true, TextHash.hash64(normalized), normalized.length());
+        Object cached = cache.getIfPresent(key);
+        if (cached instanceof ParsedJobDTO job && job.rawText().equals(normalized)) return job;
+        ParsedJobDTO job = delegate.parseJob(normalized);
+        if (cached == null && !job.partial()) cache.put(key, job);
+        return job;
+    }
+
+    /** Hit/miss/eviction counters since startup. */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /** Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size etc. under cache=ai.parse. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, "ai.parse", List.of()).bindTo(registry);
+    }
+
+    /**
+     * Rough retained size of a parsed document in bytes (UTF-16 chars, token offsets and skill mask
+     * plus per-object overhead).
+     */
+    static int weigh(Object value) {
+        long bytes = 64;
+        if (value instanceof ParsedResumeDTO resume) {
+            bytes += sizeOf(resume.rawText()) + sizeOf(resume.redactedName())
+                    + sizeOf(resume.skills()) + sizeOf(resume.experiences()) + sizeOf(resume.tokens()) + 32;
+        } else if (value instanceof ParsedJobDTO job) {
+            bytes += sizeOf(job.rawText()) + sizeOf(job.title()) + sizeOf(job.jobLocation())
+                    + sizeOf(job.compensationInfo()) + sizeOf(job.requiredSkills()) + sizeOf(job.niceToHaveSkills())
+                    + sizeOf(job.tokens()) + 32;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long sizeOf(String s) {
+        return s == null ? 0 : 40 + 2L * s.length();
+    }
+
+    private static long sizeOf(TokenSpans tokens) {
+        return 32 + 8L * tokens.count();
+    }
+
+    private static long sizeOf(List<String> list) {
+        long bytes = 16 + 8L * list.size();
+        for (String s : list) bytes += sizeOf(s);
+        return bytes;
+    }
+}
@@ -0,0 +1,209 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static adriangarciao.ai_job_app_assistant.service.ai.ParseBudget.guard;
+
+/**
+ * Line index over a normalized job posting.
+ * The text is split once and every line is classified in a single pass, so the
+ * title/location/compensation/skill extractors in {@link SimpleParserService}
+ * all read the same precomputed flags instead of re-splitting and re-matching the text.
+ */
+final class JobLineIndex {
+
+    // Section keywords used by the skill extractor to find requirement / nice-to-have blocks
+    static final String[] REQUIRED_SECTION_KEYWORDS = {
+        "requirements", "required", "qualifications", "what you'll do", "what you will do",
+        "you will", "responsibilities", "what you'll bring", "must have", "should have"
+    };
+    static final String[] NICE_TO_HAVE_SECTION_KEYWORDS = {
+        "nice to have", "nice-to-have", "bonus", "preferred", "plus", "additionally"
+    };
+
+    // Line classification flags
+    static final int TITLE_LABEL = 1;
+    static final int LOCATION_LABEL = 1 << 1;
+    static final int REMOTE_HINT = 1 << 2;
+    static final int CITY_STATE = 1 << 3;
+    static final int MAJOR_CITY = 1 << 4;
+    static final int COMPENSATION_KEYWORD = 1 << 5;
+    static final int COMPENSATION_LABEL = 1 << 6;
+    static final int DOLLAR_WITH_PAY_HINT = 1 << 7;
+    static final int SALARY_RANGE = 1 << 8;
+    static final int DOLLAR_AMOUNT = 1 << 9;
+    static final int REQUIRED_SECTION = 1 << 10;
+    static final int NICE_TO_HAVE_SECTION = 1 << 11;
+    static final int IRRELEVANT_SECTION = 1 << 12;
+    static final int ALL_CAPS_HEADER = 1 << 13;
+    static final int BULLET = 1 << 14;
+
+    // Keyword hits that still need a second check before they become a line flag
+    private static final int PAY_HINT = 1 << 20;
+    private static final int IRRELEVANT_PHRASE = 1 << 21;
+    private static final int REMOTE_WORD = 1 << 22;
+    private static final int MAJOR_CITY_NAME = 1 << 23;
+    private static final int PUBLIC_FLAGS = (1 << 15) - 1;
+
+    private static final Pattern LOCATION_LABEL_LINE = Pattern.compile("^(location|based in|office|where)\\s*[:\\-].*");
+    private static final Pattern CITY_STATE_LINE = Pattern.compile(".*, [A-Z]{2}.*");
+    private static final String[] REMOTE_WORDS = {"remote", "hybrid", "on-site", "onsite"};
+    private static final String[] MAJOR_CITIES = {
+        "new york", "san francisco", "los angeles", "chicago", "boston", "seattle", "austin",
+        "denver", "portland", "miami", "atlanta", "dallas", "houston"
+    };
+
+    private static final Pattern COMPENSATION_LABEL_LINE = Pattern.compile(
+            "^(compensation|salary|pay|base|total compensation|annual salary)\\s*[:\\-].*");
+    private static final String[] COMPENSATION_KEYWORDS = {
+        "compensation", "salary", "pay range", "base salary", "total compensation", "annual salary"
+    };
+    private static final String[] PAY_HINTS = {
+        "salary", "compensation", "pay", "base", "range", "ote", "equity", "bonus", "hourly", "usd"
+    };
+    private static final Pattern DOLLAR_K_LINE = Pattern.compile(".*\\$[0-9,]+k.*");
+    private static final Pattern SALARY_RANGE_SHORT = Pattern.compile(
+            ".*\\$[0-9]{2,3}[kK]?[,0-9]*\\s*[-–]\\s*\\$[0-9]{2,3}[kK]?[,0-9]*.*");
+    private static final Pattern SALARY_RANGE_LONG = Pattern.compile(".*\\$[0-9,]+\\s*[-–]\\s*\\$[0-9,]+.*");
+    private static final Pattern DOLLAR_AMOUNT_LINE = Pattern.compile(".*\\$\\s*[0-9,]+.*");
+
+    private static final Pattern IRRELEVANT_SECTION_LINE = Pattern.compile(
+            ".*\\b(about us|about the company|company overview|benefits|compensation|location|office|our team|why join|why work|equal opportunity|diversity).*");
+    static final String[] IRRELEVANT_SECTION_PHRASES = {
+        "about us", "about the company", "company overview", "benefits", "compensation", "location",
+        "office", "our team", "why join", "why work", "equal opportunity", "diversity"
+    };
+    private static final Pattern ALL_CAPS_HEADER_LINE = Pattern.compile("^[A-Z][A-Z\\s]{3,}:?$");
+    private static final Pattern BULLET_LINE = Pattern.compile("^[-*•]\\s+.+");
+
+    // Every keyword group above compiled into one automaton; a keyword maps to the OR of its groups' flags
+    private static final KeywordMatcher HINT_MATCHER;
+    private static final int[] HINT_FLAGS;
+
+    static {
+        Map<String, Integer> flagsByKeyword = new HashMap<>();
+        tag(flagsByKeyword, REMOTE_WORDS, REMOTE_WORD);
+        tag(flagsByKeyword, MAJOR_CITIES, MAJOR_CITY_NAME);
+        tag(flagsByKeyword, COMPENSATION_KEYWORDS, COMPENSATION_KEYWORD);
+        tag(flagsByKeyword, PAY_HINTS, PAY_HINT);
+        tag(flagsByKeyword, REQUIRED_SECTION_KEYWORDS, REQUIRED_SECTION);
+        tag(flagsByKeyword, NICE_TO_HAVE_SECTION_KEYWORDS, NICE_TO_HAVE_SECTION);
+        tag(flagsByKeyword, IRRELEVANT_SECTION_PHRASES, IRRELEVANT_PHRASE);
+        HINT_MATCHER = KeywordMatcher.of(flagsByKeyword.keySet());
+        HINT_FLAGS = new int[HINT_MATCHER.size()];
+        for (int id = 0; id < HINT_FLAGS.length; id++) {
+            HINT_FLAGS[id] = flagsByKeyword.get(HINT_MATCHER.keyword(id));
+        }
+    }
+
+    /**
+     * A single line of the posting with its precomputed views and classification flags.
+     */
+    record Line(String text, String trimmed, String trimmedLower, int flags) {
+        boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+    }
+
+    private final List<Line> lines;
+    private final boolean blank;
+
+    private JobLineIndex(List<Line> lines, boolean blank) {
+        this.lines = lines;
+        this.blank = blank;
+    }
+
+    /**
+     * Splits the normalized posting into lines and classifies each one.
+     */
+    static JobLineIndex of(String normalizedText) {
+        return of(normalizedText, LineMemo.NONE);
+    }
+
+    /**
+     * Same as {@link #of(String)}, taking classifications of already-seen lines from {@code memo}.
+     */
+    static JobLineIndex of(String normalizedText, LineMemo memo) {
+        String text = normalizedText == null ? "" : normalizedText;
+        String[] raw = text.split("\n");
+        List<Line> lines = new ArrayList<>(raw.length);
+        for (String line : raw) {
+            lines.add(memo.get(LineMemo.Kind.JOB_LINE, line, JobLineIndex::classify));
+        }
+        return new JobLineIndex(Collections.unmodifiableList(lines), text.isBlank());
+    }
+
+    List<Line> lines() {
+        return lines;
+    }
+
+    /**
+     * True when the posting has no non-whitespace content; extractors short-circuit on this.
+     */
+    boolean isBlank() {
+        return blank;
+    }
+
+    static Line classify(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        String trimmed = text.trim();
+        String trimmedLower = lower.trim();
+        // One automaton scan finds every keyword group (keywords never start or end with
+        // whitespace, so scanning the trimmed line gives the same hits as the raw line)
+        int hits = HINT_MATCHER.matchFlags(trimmedLower, HINT_FLAGS);
+        int flags = hits & (COMPENSATION_KEYWORD | REQUIRED_SECTION | NICE_TO_HAVE_SECTION);
+
+        if (trimmedLower.startsWith("title:")) flags |= TITLE_LABEL;
+
+        // Location hints; ".*(a|b).*" style checks reduce to a keyword hit on a single line
+        if (LOCATION_LABEL_LINE.matcher(guard(trimmedLower)).matches()) flags |= LOCATION_LABEL;
+        if ((hits & REMOTE_WORD) != 0 && isSingleLine(trimmedLower)) flags |= REMOTE_HINT;
+        if (trimmed.contains(", ") && CITY_STATE_LINE.matcher(guard(trimmed)).matches()) flags |= CITY_STATE;
+        if ((hits & MAJOR_CITY_NAME) != 0 && isSingleLine(trimmedLower)) flags |= MAJOR_CITY;
+
+        // Compensation hints
+        if ((flags & COMPENSATION_KEYWORD) != 0 && COMPENSATION_LABEL_LINE.matcher(guard(trimmedLower)).matches()) {
+            flags |= COMPENSATION_LABEL;
+        }
+        if (trimmed.indexOf('$') >= 0) {
+            if ((hits & PAY_HINT) != 0 || DOLLAR_K_LINE.matcher(guard(trimmed)).matches()) {
+                flags |= DOLLAR_WITH_PAY_HINT;
+            }
+            if (SALARY_RANGE_SHORT.matcher(guard(trimmed)).matches() || SALARY_RANGE_LONG.matcher(guard(trimmed)).matches()) {
+                flags |= SALARY_RANGE;
+            }
+            if (DOLLAR_AMOUNT_LINE.matcher(guard(trimmed)).matches()) flags |= DOLLAR_AMOUNT;
+        }
+
+        // Section structure for skill extraction (the regex still enforces the leading word boundary)
+        if ((hits & IRRELEVANT_PHRASE) != 0 && IRRELEVANT_SECTION_LINE.matcher(guard(lower)).matches()) {
+            flags |= IRRELEVANT_SECTION;
+        }
+        if (!text.isEmpty() && text.charAt(0) >= 'A' && text.charAt(0) <= 'Z'
+                && ALL_CAPS_HEADER_LINE.matcher(guard(text)).matches()) flags |= ALL_CAPS_HEADER;
+        if (BULLET_LINE.matcher(guard(trimmed)).matches()) flags |= BULLET;
+
+        return new Line(text, trimmed, trimmedLower, flags & PUBLIC_FLAGS);
+    }
+
+    /** True if '.' in a non-DOTALL regex would match every char of {@code s}. */
+    private static boolean isSingleLine(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return false;
+        }
+        return true;
+    }
+
+    private static void tag(Map<String, Integer> flagsByKeyword, String[] keywords, int flag) {
+        for (String keyword : keywords) {
+            flagsByKeyword.merge(keyword, flag, (a, b) -> a | b);
+        }
+    }
+}
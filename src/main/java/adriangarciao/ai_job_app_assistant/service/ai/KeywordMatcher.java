@@ -0,0 +1,213 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Multi-pattern substring matcher (Aho-Corasick compiled into a DFA).
+ * A dictionary is compiled once, after which every occurrence of every keyword in a text
+ * is found in a single left-to-right scan, independent of the number of keywords.
+ *
+ * Matching is case-sensitive; callers pass lowercase keywords and lowercase text.
+ * Keyword ids are assigned in sorted keyword order, so ids compare like the keywords do.
+ */
+public final class KeywordMatcher {
+
+    private final String[] keywords;
+    // alphabet: chars that appear in any keyword map to a column; everything else is column 0
+    private final byte[] asciiColumns;
+    private final char[] otherChars;      // sorted non-ASCII keyword chars
+    private final byte[] otherColumns;    // column of otherChars[i]
+    private final int columns;
+    // transitions[state * columns + column] -> next state (full DFA, no failure-link walking at match time)
+    private final int[] transitions;
+    // ids of all keywords ending at each state (including those reached through failure links)
+    private final int[][] outputs;
+
+    private KeywordMatcher(String[] keywords) {
+        this.keywords = keywords;
+
+        // Build the alphabet
+        byte[] ascii = new byte[128];
+        TreeSet<Character> other = new TreeSet<>();
+        int nextColumn = 1;
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= 128) {
+                    other.add(c);
+                } else if (ascii[c] == 0) {
+                    ascii[c] = (byte) nextColumn++;
+                }
+            }
+        }
+        if (nextColumn + other.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Keyword alphabet too large: " + (nextColumn + other.size()));
+        }
+        char[] otherChars = new char[other.size()];
+        byte[] otherCols = new byte[other.size()];
+        int k = 0;
+        for (char c : other) {
+            otherChars[k] = c;
+            otherCols[k++] = (byte) nextColumn++;
+        }
+        this.asciiColumns = ascii;
+        this.otherChars = otherChars;
+        this.otherColumns = otherCols;
+        this.columns = nextColumn;
+
+        // Build the trie
+        List<int[]> goTo = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        goTo.add(newRow());
+        out.add(new ArrayList<>());
+        for (int id = 0; id < keywords.length; id++) {
+            int state = 0;
+            String keyword = keywords[id];
+            for (int i = 0; i < keyword.length(); i++) {
+                int column = column(keyword.charAt(i));
+                int next = goTo.get(state)[column];
+                if (next <= 0) {
+                    next = goTo.size();
+                    goTo.get(state)[column] = next;
+                    goTo.add(newRow());
+                    out.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            out.get(state).add(id);
+        }
+
+        // Breadth-first failure links, folded directly into the DFA transitions
+        int states = goTo.size();
+        int[] fail = new int[states];
+        int[] table = new int[states * columns];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < columns; c++) {
+            int next = goTo.get(0)[c];
+            if (next > 0) {
+                fail[next] = 0;
+                table[c] = next;
+                queue.add(next);
+            } else {
+                table[c] = 0;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            out.get(state).addAll(out.get(fail[state]));
+            for (int c = 0; c < columns; c++) {
+                int next = goTo.get(state)[c];
+                if (next > 0) {
+                    fail[next] = table[fail[state] * columns + c];
+                    table[state * columns + c] = next;
+                    queue.add(next);
+                } else {
+                    table[state * columns + c] = table[fail[state] * columns + c];
+                }
+            }
+        }
+        this.transitions = table;
+        this.outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            List<Integer> ids = out.get(s);
+            int[] arr = new int[ids.size()];
+            for (int i = 0; i < arr.length; i++) arr[i] = ids.get(i);
+            outputs[s] = arr;
+        }
+    }
+
+    /**
+     * Compiles a matcher for the given keywords. Blank keywords are ignored and duplicates collapse.
+     */
+    public static KeywordMatcher of(Collection<String> keywords) {
+        Set<String> sorted = new TreeSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) sorted.add(keyword);
+        }
+        return new KeywordMatcher(sorted.toArray(String[]::new));
+    }
+
+    public static KeywordMatcher of(String... keywords) {
+        return of(Arrays.asList(keywords));
+    }
+
+    /** Number of distinct keywords in the dictionary. */
+    public int size() {
+        return keywords.length;
+    }
+
+    /** The keyword with the given id. */
+    public String keyword(int id) {
+        return keywords[id];
+    }
+
+    /** True if any keyword occurs anywhere in {@code text}. */
+    public boolean containsAny(CharSequence text) {
+        if (text == null) return false;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * columns + column(text.charAt(i))];
+            if (outputs[state].length > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reports the id of every keyword occurrence in {@code text}, in order of match end position.
+     * Overlapping occurrences are all reported (e.g. both "java" and "javascript").
+     */
+    public void forEachMatch(CharSequence text, IntConsumer onMatch) {
+        if (text == null) return;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * columns + column(text.charAt(i))];
+            for (int id : outputs[state]) {
+                onMatch.accept(id);
+            }
+        }
+    }
+
+    /**
+     * ORs together {@code flagsById[id]} for every keyword occurring in {@code text}.
+     * Lets a caller tag keywords with bit flags and classify a string in one scan.
+     */
+    public int matchFlags(CharSequence text, int[] flagsById) {
+        if (text == null) return 0;
+        int flags = 0;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * columns + column(text.charAt(i))];
+            for (int id : outputs[state]) {
+                flags |= flagsById[id];
+            }
+        }
+        return flags;
+    }
+
+    /** Distinct keywords occurring in {@code text}, in first-match order. */
+    public Set<String> findAll(CharSequence text) {
+        Set<String> found = new LinkedHashSet<>();
+        forEachMatch(text, id -> found.add(keywords[id]));
+        return found;
+    }
+
+    private int column(char c) {
+        if (c < 128) return asciiColumns[c];
+        int i = Arrays.binarySearch(otherChars, c);
+        return i < 0 ? 0 : otherColumns[i];
+    }
+
+    private int[] newRow() {
+        int[] row = new int[columns];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
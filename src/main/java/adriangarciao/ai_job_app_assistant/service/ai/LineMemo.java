@@ -0,0 +1,78 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-line parse results kept between parses of successive versions of one document.
+ *
+ * Everything {@link SimpleParserService} derives from a single line (classification flags, the
+ * skills found on it) depends only on the line's text, so results are keyed by that text: after an
+ * edit only new or changed lines are computed again, wherever they moved to. Entries the latest
+ * parse did not use are dropped when the next one starts, so the memo never holds more than
+ * the lines of the current version. Not thread-safe; one memo belongs to one document.
+ */
+final class LineMemo {
+
+    /** Memo that keeps nothing; every lookup computes. Used by one-off parses. */
+    static final LineMemo NONE = new LineMemo(false);
+
+    enum Kind { JOB_LINE, JOB_SKILLS, RESUME_SKILLS }
+
+    private record Key(Kind kind, String line) {}
+
+    private final boolean enabled;
+    private Map<Key, Object> current = new HashMap<>();
+    private Map<Key, Object> previous = Map.of();
+    private long hits;
+    private long misses;
+
+    private LineMemo(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    static LineMemo create() {
+        return new LineMemo(true);
+    }
+
+    /**
+     * Starts a parse: what the previous parse used stays reachable for this one, the rest is dropped.
+     */
+    void beginPass() {
+        if (!enabled) return;
+        previous = current;
+        current = new HashMap<>(Math.max(16, previous.size() * 4 / 3 + 1));
+    }
+
+    /**
+     * Returns the memoized result for {@code line}, computing (and keeping) it on a miss.
+     */
+    @SuppressWarnings("unchecked")
+    <V> V get(Kind kind, String line, Function<String, V> compute) {
+        if (!enabled) return compute.apply(line);
+        Key key = new Key(kind, line);
+        Object value = current.get(key);
+        if (value == null) {
+            value = previous.get(key);
+            if (value == null) {
+                value = compute.apply(line);
+                misses++;
+            } else {
+                hits++;
+            }
+            current.put(key, value);
+        }
+        return (V) value;
+    }
+
+    /** Lookups answered from the memo since creation. */
+    long hits() {
+        return hits;
+    }
+
+    /** Lookups that had to compute since creation. */
+    long misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,112 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import java.time.Duration;
+
+/**
+ * Time budget for parsing one document, enforced inside regex evaluation.
+ *
+ * While a budget is open on the current thread, {@link #guard(CharSequence)} wraps regex input in
+ * a CharSequence whose {@code charAt} periodically checks the deadline (and the thread's interrupt
+ * flag), so a pattern that backtracks catastrophically on crafted input is aborted with
+ * {@link Exceeded} instead of holding a request thread for seconds. The java.util.regex engine
+ * reads its input only through {@code charAt}, so every step of a runaway match is covered.
+ */
+final class ParseBudget implements AutoCloseable {
+
+    /** Thrown from inside a regex match once the budget is spent. */
+    static final class Exceeded extends RuntimeException {
+        Exceeded(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final ThreadLocal<ParseBudget> CURRENT = new ThreadLocal<>();
+    // charAt calls between deadline checks; one check costs about as much as a few hundred char reads
+    private static final int CHECK_INTERVAL_MASK = 0x3FF;
+
+    private final long deadlineNanos;
+    private final Duration budget;
+    private final ParseBudget previous;
+
+    private ParseBudget(Duration budget, ParseBudget previous) {
+        this.budget = budget;
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+        this.previous = previous;
+    }
+
+    /**
+     * Opens a budget on the current thread; close it (try-with-resources) when the parse ends.
+     */
+    static ParseBudget open(Duration budget) {
+        ParseBudget opened = new ParseBudget(budget, CURRENT.get());
+        CURRENT.set(opened);
+        return opened;
+    }
+
+    /**
+     * Wraps {@code text} so regex evaluation over it honours the current thread's budget.
+     * Returns {@code text} unchanged when no budget is open.
+     */
+    static CharSequence guard(CharSequence text) {
+        ParseBudget budget = CURRENT.get();
+        return budget == null || text == null ? text : new Guarded(text, 0, text.length(), budget);
+    }
+
+    /** Throws {@link Exceeded} if the budget is spent or the thread was interrupted. */
+    void check() {
+        if (System.nanoTime() - deadlineNanos > 0) {
+            throw new Exceeded("Parse budget of " + budget.toMillis() + " ms exceeded");
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new Exceeded("Parse interrupted");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static final class Guarded implements CharSequence {
+        private final CharSequence text;
+        private final int from;
+        private final int length;
+        private final ParseBudget budget;
+        private int reads;
+
+        Guarded(CharSequence text, int from, int to, ParseBudget budget) {
+            this.text = text;
+            this.from = from;
+            this.length = to - from;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & CHECK_INTERVAL_MASK) == 0) budget.check();
+            return text.charAt(from + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new Guarded(text, from + start, from + end, budget);
+        }
+
+        @Override
+        public String toString() {
+            return text.subSequence(from, from + length).toString();
+        }
+    }
+}
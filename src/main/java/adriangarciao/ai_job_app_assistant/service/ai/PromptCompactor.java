@@ -0,0 +1,248 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shrinks the two parsed documents to what a model needs to compare them.
+ *
+ * Job postings lose their boilerplate: a section whose header the parser classifies as
+ * irrelevant (about us, benefits, equal opportunity, ...) is dropped up to the next section
+ * header, and so are stray equal-opportunity sentences. Both documents lose blank lines,
+ * whitespace runs, separator lines and repeated lines (page headers and footers). If the pair is
+ * still over {@code maxDocumentTokens} it is cut at line boundaries, split the way the backend
+ * splits its input budget, and {@link Result#truncated()} is set. A cut does not flag the documents
+ * partial: partial means the parser ran out of time, while a cut follows from the text and the
+ * budget alone (which is in {@link #cacheNamespace()}), so its answer can still be cached.
+ *
+ * Token counts come from {@link #estimateTokens}, a single pass that slightly overcounts English
+ * text against common BPE vocabularies (about 4.2 chars per token where they see 4.5).
+ */
+public final class PromptCompactor {
+
+    // Bump when the output of compact() changes for the same input; part of cacheNamespace()
+    private static final int VERSION = 2;
+
+    private static final int MAX_HEADER_CHARS = 40;
+    private static final int MIN_DEDUPLICATED_CHARS = 16;
+    private static final String[] EEO_PHRASES = {
+        "equal opportunity", "affirmative action", "reasonable accommodation", "without regard to",
+        "regardless of race", "protected veteran"
+    };
+
+    /**
+     * The documents to send, their estimated size before and after compaction, and whether either
+     * was cut to the budget.
+     */
+    public record Result(ParsedResumeDTO resume, ParsedJobDTO job, int originalTokens, int compactedTokens,
+                         boolean truncated) {}
+
+    private final int maxDocumentTokens;
+
+    public PromptCompactor(int maxDocumentTokens) {
+        if (maxDocumentTokens < 2) {
+            throw new IllegalArgumentException("maxDocumentTokens must be >= 2, got " + maxDocumentTokens);
+        }
+        this.maxDocumentTokens = maxDocumentTokens;
+    }
+
+    public Result compact(ParsedResumeDTO resume, ParsedJobDTO job) {
+        return compactAll(resume, List.of(job)).get(0);
+    }
+
+    /**
+     * {@link #compact} for one resume against many postings, with one compacted resume shared by
+     * every result. The budget is split as for the longest posting, so the resume is cut at the
+     * same line for all of them and a remote backend can still be sent a single batch; a shorter
+     * posting leaves part of its share unused rather than giving the resume a different cut.
+     * For a single posting this is exactly {@code compact}.
+     */
+    public List<Result> compactAll(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        int resumeOriginal = estimateTokens(resume.rawText());
+        List<String> resumeLines = clean(resume.rawText().split("\n"));
+        int[] resumeTokens = tokensPerLine(resumeLines);
+        int resumeTotal = sum(resumeTokens);
+
+        List<List<String>> jobLines = new ArrayList<>(jobs.size());
+        List<int[]> jobTokens = new ArrayList<>(jobs.size());
+        int longestJob = 0;
+        for (ParsedJobDTO job : jobs) {
+            List<String> lines = clean(jobLines(job.rawText()));
+            int[] tokens = tokensPerLine(lines);
+            jobLines.add(lines);
+            jobTokens.add(tokens);
+            longestJob = Math.max(longestJob, sum(tokens));
+        }
+
+        // Same split as the backend: both too long get half each, otherwise the longer gets the rest
+        int jobBudget = Math.min(longestJob, Math.max(maxDocumentTokens / 2, maxDocumentTokens - resumeTotal));
+        int resumeKept = linesWithin(resumeTokens, maxDocumentTokens - jobBudget);
+        ParsedResumeDTO compactResume = new ParsedResumeDTO(resume.redactedName(), resume.skills(), resume.experiences(),
+                String.join("\n", resumeLines.subList(0, resumeKept)), null, resume.coreSkills(), resume.partial());
+        int resumeCompacted = sum(resumeTokens, resumeKept);
+
+        List<Result> results = new ArrayList<>(jobs.size());
+        for (int k = 0; k < jobs.size(); k++) {
+            ParsedJobDTO job = jobs.get(k);
+            List<String> lines = jobLines.get(k);
+            int jobKept = linesWithin(jobTokens.get(k), jobBudget);
+            ParsedJobDTO compactJob = new ParsedJobDTO(job.title(), job.requiredSkills(), job.niceToHaveSkills(),
+                    job.jobLocation(), job.compensationInfo(), String.join("\n", lines.subList(0, jobKept)), null,
+                    job.coreSkills(), job.partial());
+            int originalTokens = resumeOriginal + estimateTokens(job.rawText());
+            int compactedTokens = resumeCompacted + sum(jobTokens.get(k), jobKept);
+            boolean truncated = resumeKept < resumeLines.size() || jobKept < lines.size();
+            results.add(new Result(compactResume, compactJob, originalTokens, compactedTokens, truncated));
+        }
+        return results;
+    }
+
+    /** What the compacted text depends on besides the input; see {@code OpenAiLLMService#cacheNamespace()}. */
+    public String cacheNamespace() {
+        return "compact-v" + VERSION + ":" + maxDocumentTokens;
+    }
+
+    /**
+     * Estimated model tokens in {@code text}: a letter run costs one token per seven chars and a
+     * digit run one per three (both rounded up; vocabularies hold most words whole but split
+     * numbers), every other non-space char and every newline one token, other whitespace nothing.
+     */
+    public static int estimateTokens(CharSequence text) {
+        int tokens = 0;
+        int letters = 0;
+        int digits = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c)) {
+                tokens += (letters + 6) / 7;
+                letters = 0;
+                digits++;
+                continue;
+            }
+            tokens += (digits + 2) / 3;
+            digits = 0;
+            if (Character.isLetter(c)) {
+                letters++;
+                continue;
+            }
+            tokens += (letters + 6) / 7;
+            letters = 0;
+            if (c == '\n' || !Character.isWhitespace(c)) tokens++;
+        }
+        return tokens + (letters + 6) / 7 + (digits + 2) / 3;
+    }
+
+    /**
+     * Posting lines outside boilerplate sections. A section header is an all-caps line, a line
+     * ending in a colon, or a short line with no colon or closing punctuation. A header the parser
+     * flags irrelevant starts skipping (a short one only if it starts with the irrelevant phrase,
+     * so "Microsoft Office" stays) and any other header ends it.
+     */
+    private static String[] jobLines(String text) {
+        JobLineIndex index = JobLineIndex.of(text);
+        List<String> kept = new ArrayList<>(index.lines().size());
+        boolean skipping = false;
+        for (JobLineIndex.Line line : index.lines()) {
+            if (isHeader(line)) {
+                skipping = startsBoilerplate(line);
+                if (skipping) continue;
+            }
+            if (skipping || isEeoSentence(line.trimmedLower())) continue;
+            kept.add(line.text());
+        }
+        return kept.toArray(String[]::new);
+    }
+
+    private static boolean isHeader(JobLineIndex.Line line) {
+        String trimmed = line.trimmed();
+        if (trimmed.isEmpty() || line.has(JobLineIndex.BULLET)) return false;
+        if (line.has(JobLineIndex.ALL_CAPS_HEADER) || trimmed.endsWith(":")) return true;
+        char last = trimmed.charAt(trimmed.length() - 1);
+        return trimmed.length() <= MAX_HEADER_CHARS && trimmed.indexOf(':') < 0
+                && last != '.' && last != '!' && last != '?';
+    }
+
+    private static boolean startsBoilerplate(JobLineIndex.Line line) {
+        if (!line.has(JobLineIndex.IRRELEVANT_SECTION)
+                || line.has(JobLineIndex.REQUIRED_SECTION | JobLineIndex.NICE_TO_HAVE_SECTION)) return false;
+        if (line.has(JobLineIndex.ALL_CAPS_HEADER) || line.trimmed().endsWith(":")) return true;
+        for (String phrase : JobLineIndex.IRRELEVANT_SECTION_PHRASES) {
+            if (line.trimmedLower().startsWith(phrase)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isEeoSentence(String lower) {
+        for (String phrase : EEO_PHRASES) {
+            if (lower.contains(phrase)) return true;
+        }
+        return false;
+    }
+
+    /** Lines with whitespace runs collapsed, minus blank, separator-only and repeated lines. */
+    private static List<String> clean(String[] lines) {
+        List<String> kept = new ArrayList<>(lines.length);
+        Set<String> seen = new HashSet<>();
+        for (String line : lines) {
+            String collapsed = collapseWhitespace(line);
+            if (collapsed.isEmpty() || isSeparator(collapsed)) continue;
+            if (collapsed.length() >= MIN_DEDUPLICATED_CHARS && !seen.add(collapsed)) continue;
+            kept.add(collapsed);
+        }
+        return kept;
+    }
+
+    private static String collapseWhitespace(String line) {
+        StringBuilder out = new StringBuilder(line.length());
+        boolean space = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = out.length() > 0;
+                continue;
+            }
+            if (space) out.append(' ');
+            space = false;
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private static boolean isSeparator(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.isLetterOrDigit(line.charAt(i))) return false;
+        }
+        return line.length() > 2;
+    }
+
+    private static int[] tokensPerLine(List<String> lines) {
+        int[] tokens = new int[lines.size()];
+        // Each line after the first also pays for the newline joining it
+        for (int i = 0; i < tokens.length; i++) tokens[i] = estimateTokens(lines.get(i)) + (i > 0 ? 1 : 0);
+        return tokens;
+    }
+
+    private static int linesWithin(int[] tokens, int budget) {
+        int used = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            used += tokens[i];
+            if (used > budget) return i;
+        }
+        return tokens.length;
+    }
+
+    private static int sum(int[] tokens) {
+        return sum(tokens, tokens.length);
+    }
+
+    private static int sum(int[] tokens, int count) {
+        int total = 0;
+        for (int i = 0; i < count; i++) total += tokens[i];
+        return total;
+    }
+}
@@ -0,0 +1,161 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Section and paragraph offsets of a normalized resume, found in one scan.
+ *
+ * A section starts at a line that begins (case-insensitively) with one of {@link #HEADERS} and
+ * runs to the next such line. Paragraphs are the trimmed stretches between runs of spaces and
+ * newlines that contain two or more newlines, i.e. what the old {@code split("\n\s*\n+")} and trim
+ * yielded: in that Java string literal {@code \s} is a plain space, so tabs and other control
+ * characters never made a line blank.
+ * Extractors get read-only views over the text instead of substrings.
+ */
+final class ResumeSections {
+
+    static final String[] HEADERS = {
+        "skills", "technical skills", "technologies", "experience", "work experience",
+        "professional experience", "employment", "education", "projects", "certifications",
+        "summary", "objective"
+    };
+
+    /**
+     * One section: the header that starts it, where its line starts, where the text after the
+     * header begins and where the next section's line starts (or the end of the text).
+     */
+    record Section(String header, int lineStart, int contentStart, int end) {}
+
+    private final String text;
+    private final List<Section> sections;
+    // (start, end) pairs of trimmed, non-empty paragraphs
+    private final int[] paragraphs;
+
+    private ResumeSections(String text, List<Section> sections, int[] paragraphs) {
+        this.text = text;
+        this.sections = sections;
+        this.paragraphs = paragraphs;
+    }
+
+    static ResumeSections of(String normalizedText) {
+        String text = normalizedText == null ? "" : normalizedText;
+        int length = text.length();
+        List<int[]> headerHits = new ArrayList<>();
+        int[] paragraphs = new int[16];
+        int paragraphCount = 0;
+
+        int paragraphStart = -1;   // first non-whitespace char of the current paragraph
+        int paragraphEnd = -1;     // one past its last non-whitespace char
+        int newlinesInRun = 0;     // newlines in the current run of spaces and newlines
+        for (int i = 0; i <= length; i++) {
+            if (i == 0 || text.charAt(i - 1) == '\n') {
+                for (int h = 0; h < HEADERS.length; h++) {
+                    if (startsWithIgnoreCase(text, i, HEADERS[h])) headerHits.add(new int[] {h, i});
+                }
+            }
+            if (i == length) break;
+
+            char c = text.charAt(i);
+            if (c == ' ' || c == '\n') {
+                if (c == '\n') newlinesInRun++;
+                continue;
+            }
+            if (newlinesInRun >= 2 && paragraphStart >= 0) {
+                paragraphs = append(paragraphs, paragraphCount++, paragraphStart, paragraphEnd);
+                paragraphStart = -1;
+            }
+            newlinesInRun = 0;
+            if (c > ' ' || paragraphStart >= 0) {
+                if (paragraphStart < 0) paragraphStart = i;
+                if (c > ' ') paragraphEnd = i + 1;
+            }
+        }
+        if (paragraphStart >= 0) {
+            paragraphs = append(paragraphs, paragraphCount++, paragraphStart, paragraphEnd);
+        }
+
+        List<Section> sections = new ArrayList<>(headerHits.size());
+        for (int k = 0; k < headerHits.size(); k++) {
+            int[] hit = headerHits.get(k);
+            String header = HEADERS[hit[0]];
+            int next = length;
+            for (int j = k + 1; j < headerHits.size(); j++) {
+                if (headerHits.get(j)[1] > hit[1]) {
+                    next = headerHits.get(j)[1];
+                    break;
+                }
+            }
+            sections.add(new Section(header, hit[1], hit[1] + header.length(), next));
+        }
+        return new ResumeSections(text, Collections.unmodifiableList(sections),
+                Arrays.copyOf(paragraphs, paragraphCount * 2));
+    }
+
+    /** Every header line, in text order. */
+    List<Section> sections() {
+        return sections;
+    }
+
+    /**
+     * Offset just past the first of {@code headers} that the resume has, or -1.
+     * Headers are tried in order. For each, a header on any line after the first wins over one on
+     * the first line, which is how the original indexOf("\n" + header) / startsWith lookup behaved.
+     */
+    int sectionStart(String... headers) {
+        for (String header : headers) {
+            Section atStart = null;
+            for (Section section : sections) {
+                if (!section.header().equals(header)) continue;
+                if (section.lineStart() > 0) return section.contentStart();
+                atStart = section;
+            }
+            if (atStart != null) return atStart.contentStart();
+        }
+        return -1;
+    }
+
+    /**
+     * View of the text from {@code start} up to the next blank line, at most {@code maxChars} long.
+     */
+    CharSequence blockFrom(int start, int maxChars) {
+        if (start < 0 || start >= text.length()) return "";
+        int blankLine = text.indexOf("\n\n", start);
+        int end = blankLine < 0 ? text.length() : blankLine;
+        return slice(start, Math.min(end, start + maxChars));
+    }
+
+    int paragraphCount() {
+        return paragraphs.length / 2;
+    }
+
+    /** The i-th paragraph, trimmed. */
+    CharSequence paragraph(int i) {
+        return slice(paragraphs[2 * i], paragraphs[2 * i + 1]);
+    }
+
+    /** Read-only view of {@code text[start, end)}; nothing is copied. */
+    CharSequence slice(int start, int end) {
+        return CharBuffer.wrap(text, start, end);
+    }
+
+    private static boolean startsWithIgnoreCase(String text, int offset, String lowerHeader) {
+        if (offset + lowerHeader.length() > text.length()) return false;
+        for (int k = 0; k < lowerHeader.length(); k++) {
+            char c = text.charAt(offset + k);
+            // U+0130 lowercases to two chars under Locale.ROOT, so it never equals an ASCII letter
+            if (c == '\u0130' || Character.toLowerCase(c) != lowerHeader.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private static int[] append(int[] pairs, int index, int start, int end) {
+        if (pairs.length < 2 * index + 2) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        pairs[2 * index] = start;
+        pairs[2 * index + 1] = end;
+        return pairs;
+    }
+}
@@ -2,27 +2,72 @@ package adriangarciao.ai_job_app_assistant.service.ai;
 
 import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SkillMask;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static adriangarciao.ai_job_app_assistant.service.ai.ParseBudget.guard;
+
 /**
  * SimpleParserService is a lightweight, deterministic placeholder parser.
  * It performs basic normalization and heuristic extraction of skills/experiences/title sections.
  */
 @Service
-public class SimpleParserService implements ParserService {
+public class SimpleParserService implements ParserService, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SimpleParserService.class);
+    static final Duration DEFAULT_PARSE_BUDGET = Duration.ofMillis(500);
 
     private static final Pattern TITLE_LABEL = Pattern.compile("(?mi)^(?:title)\\s*[:\\-]\\s*(.+)$", Pattern.MULTILINE);
     private static final Pattern TECH_WORD = Pattern.compile("\\b([A-Za-z][A-Za-z0-9+#.\\-]{1,20})\\b");
     private static final Pattern BULLET_LINE = Pattern.compile("^\\s*[-*•]\\s+(.+)$", Pattern.MULTILINE);
+
+    // Precompiled patterns for the per-line / per-phrase hot paths (String.matches/replaceAll would recompile each call)
+    private static final Pattern LOCATION_LABEL_PREFIX = Pattern.compile("(?i)^(location|based in|office|where)\\s*[:\\-]\\s*");
+    private static final Pattern COMPENSATION_LABEL_PREFIX = Pattern.compile(
+            "(?i)^(compensation|salary|pay|base|total compensation|annual salary)\\s*[:\\-]\\s*");
+    private static final Pattern BULLET_PREFIX = Pattern.compile("^\\s*[-*•]\\s+");
+    private static final Pattern SECTION_HEADER = Pattern.compile("^[^:]+:$");
+    private static final Pattern DISCLAIMER = Pattern.compile("^(note|important|please|disclaimer):.*");
+    private static final Pattern KNOWLEDGE_OF = Pattern.compile("(?i)(knowledge|understanding)\\s+of\\s+");
+    private static final Pattern EXPERIENCE_WITH = Pattern.compile("(?i)(experience|proficiency)\\s+(with|in)\\s+");
+    // The (?<!\s) / (?<!\d) lookbehinds only let a whitespace or digit run be entered at its first char:
+    // same matches as without them, but no quadratic retries from every position inside a long run
+    private static final Pattern YEARS_OF = Pattern.compile("(?i)(?<!\\d)\\d+\\+?\\s*years?\\s+of\\s+");
+    private static final Pattern PHRASE_DELIMITER = Pattern.compile("(?<!\\s)\\s+(?:and|or)\\s+|[,;]+");
+    private static final Pattern SKILL_PUNCTUATION = Pattern.compile("[,;()\\[\\]{}/\\\\\"'`]");
+    private static final Pattern LEADING_QUALIFIER = Pattern.compile("^\\s*(strong|solid|excellent|good|great|deep|proven|demonstrated)\\s+");
+    private static final Pattern TRAILING_SUFFIX = Pattern.compile(
+            "(?<!\\s)\\s+(experience|skills?|knowledge|proficiency|background|ability|abilities|developer|engineer|programmer|architect|specialist|admin|administrator)\\b\\s*$");
+    private static final Pattern LEADING_WITH = Pattern.compile("^\\s*with\\s+");
+    private static final Pattern WHITESPACE_RUN = Pattern.compile("\\s+");
+    private static final Pattern DIGITS_ONLY = Pattern.compile("^\\d+$");
+    private static final Pattern PUNCTUATION_ONLY = Pattern.compile("^[^a-z0-9]+$");
+    private static final Pattern REPEATED_CHAR = Pattern.compile("^(.)\\1+$");
+    private static final Pattern GENERIC_DURATION_PHRASE = Pattern.compile(
+            ".*(years?|months?|weeks?|days?)\\s+(of\\s+)?(experience|work|working).*");
+    private static final Pattern UPPERCASE_WORD = Pattern.compile("\\b([A-Z]{2,})\\b");
+    private static final Pattern TECH_SYMBOL = Pattern.compile(".*[+#.].*");
+    private static final Pattern CAPITALIZED_WORD = Pattern.compile("[A-Z][a-z]+");
+    private static final Pattern SKILL_TOKEN_DELIMITER = Pattern.compile("[,;|\\n]+");
     
     // Comprehensive stopword list to filter out non-skill words
     private static final Set<String> STOPWORDS = Set.of(
@@ -54,31 +99,125 @@ public class SimpleParserService implements ParserService {
         "new york", "san francisco", "nyc", "sf", "remote", "hybrid", "onsite",
         "california", "texas", "washington", "boston", "seattle", "austin", "chicago"
     );
+    private static final KeywordMatcher LOCATION_MATCHER = KeywordMatcher.of(LOCATION_KEYWORDS);
+
+    private final Duration parseBudget;
+    private final SkillCanonicalizer skillCanonicalizer;
+    private final LongAdder resumeBudgetExceeded = new LongAdder();
+    private final LongAdder jobBudgetExceeded = new LongAdder();
+
+    public SimpleParserService() {
+        this(DEFAULT_PARSE_BUDGET);
+    }
+
+    public SimpleParserService(Duration parseBudget) {
+        this(parseBudget, SkillCanonicalizer.defaults());
+    }
+
+    /**
+     * @param parseBudget        wall-clock budget for the pattern matching of one document; when it runs out
+     *                           the parse stops and returns what was extracted so far, flagged as partial
+     * @param skillCanonicalizer synonym table applied to skill phrases before matching core skills
+     */
+    @Autowired
+    public SimpleParserService(
+            @Value("${app.ai.parse.budget:500ms}") Duration parseBudget,
+            SkillCanonicalizer skillCanonicalizer
+    ) {
+        this.parseBudget = Objects.requireNonNull(parseBudget, "parseBudget");
+        this.skillCanonicalizer = Objects.requireNonNull(skillCanonicalizer, "skillCanonicalizer");
+    }
 
     @Override
     public ParsedResumeDTO parseResume(String resumeText) {
-        String normalized = safeNormalize(resumeText);
+        return parseResume(resumeText, LineMemo.NONE);
+    }
+
+    /**
+     * Parses a resume, reusing per-line results from {@code memo} (see {@link LineMemo}).
+     */
+    ParsedResumeDTO parseResume(String resumeText, LineMemo memo) {
+        memo.beginPass();
+        TextNormalizer.Normalized input = TextNormalizer.normalize(resumeText);
+        String normalized = input.text();
 
         // redactedName: placeholder to simulate PII redaction
         String redactedName = "Candidate";
 
-        List<String> skills = extractSkillsFromResume(normalized);
-        List<String> experiences = extractExperiences(normalized);
+        List<String> skills = List.of();
+        List<String> experiences = List.of();
+        boolean partial = false;
+        try (ParseBudget budget = ParseBudget.open(parseBudget)) {
+            budget.check();
+            ResumeSections sections = ResumeSections.of(normalized);
+            skills = extractSkillsFromResume(normalized, sections, memo);
+            budget.check();
+            experiences = extractExperiences(sections);
+        } catch (ParseBudget.Exceeded e) {
+            partial = true;
+            resumeBudgetExceeded.increment();
+            log.warn("Resume parse stopped early (len={}): {}", normalized.length(), e.getMessage());
+        }
 
-        return new ParsedResumeDTO(redactedName, skills, experiences, normalized);
+        return new ParsedResumeDTO(redactedName, skills, experiences, normalized, input.tokens(),
+                SkillVocabulary.coreSkillsOf(skills, skillCanonicalizer), partial);
     }
 
     @Override
     public ParsedJobDTO parseJob(String jobPostingText) {
-        String normalized = safeNormalize(jobPostingText);
+        return parseJob(jobPostingText, LineMemo.NONE);
+    }
+
+    /**
+     * Parses a job posting, reusing per-line results from {@code memo} (see {@link LineMemo}).
+     */
+    ParsedJobDTO parseJob(String jobPostingText, LineMemo memo) {
+        memo.beginPass();
+        TextNormalizer.Normalized input = TextNormalizer.normalize(jobPostingText);
+        String normalized = input.text();
+
+        String title = null;
+        List<String> required = List.of();
+        List<String> niceToHave = List.of();
+        String jobLocation = null;
+        String compensationInfo = null;
+        boolean partial = false;
+        try (ParseBudget budget = ParseBudget.open(parseBudget)) {
+            budget.check();
+            JobLineIndex index = JobLineIndex.of(normalized, memo);
+
+            title = extractTitle(index);
+            budget.check();
+            required = extractJobSkillsStrict(index, false, memo);
+            budget.check();
+            niceToHave = extractJobSkillsStrict(index, true, memo);
+            budget.check();
+            jobLocation = extractJobLocation(index);
+            compensationInfo = extractCompensationInfo(index);
+        } catch (ParseBudget.Exceeded e) {
+            partial = true;
+            jobBudgetExceeded.increment();
+            log.warn("Job posting parse stopped early (len={}): {}", normalized.length(), e.getMessage());
+        }
+
+        SkillMask coreSkills = SkillVocabulary.coreSkillsOf(required, skillCanonicalizer)
+                .or(SkillVocabulary.coreSkillsOf(niceToHave, skillCanonicalizer));
 
-        String title = extractTitle(normalized);
-        List<String> required = extractJobSkillsStrict(normalized, false);
-        List<String> niceToHave = extractJobSkillsStrict(normalized, true);
-        String jobLocation = extractJobLocation(normalized);
-        String compensationInfo = extractCompensationInfo(normalized);
+        return new ParsedJobDTO(title, required, niceToHave, jobLocation, compensationInfo, normalized, input.tokens(),
+                coreSkills, partial);
+    }
 
-        return new ParsedJobDTO(title, required, niceToHave, jobLocation, compensationInfo, normalized);
+    /** Exposes ai.parse.budget.exceeded{document=resume|job}: parses cut short by the time budget. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ai.parse.budget.exceeded", resumeBudgetExceeded, LongAdder::sum)
+                .description("Parses stopped early by the per-document time budget")
+                .tag("document", "resume")
+                .register(registry);
+        FunctionCounter.builder("ai.parse.budget.exceeded", jobBudgetExceeded, LongAdder::sum)
+                .description("Parses stopped early by the per-document time budget")
+                .tag("document", "job")
+                .register(registry);
     }
 
     /**
@@ -92,20 +231,14 @@ public class SimpleParserService implements ParserService {
      * 
      * @return The location string if found, null otherwise
      */
-    private String extractJobLocation(String text) {
-        if (text == null || text.isBlank()) return null;
+    private String extractJobLocation(JobLineIndex index) {
+        if (index.isBlank()) return null;
         
-        String[] lines = text.split("\n");
-        
-        // Strategy 1: Look for explicit "Location:" label
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lower = trimmed.toLowerCase(Locale.ROOT);
-            
-            // Match "Location:", "Location -", "Based in:", etc.
-            if (lower.matches("^(location|based in|office|where)\\s*[:\\-].*")) {
+        // Strategy 1: Look for explicit "Location:" label ("Location -", "Based in:", etc.)
+        for (JobLineIndex.Line line : index.lines()) {
+            if (line.has(JobLineIndex.LOCATION_LABEL)) {
                 // Extract the part after the label
-                String extracted = trimmed.replaceFirst("(?i)^(location|based in|office|where)\\s*[:\\-]\\s*", "").trim();
+                String extracted = LOCATION_LABEL_PREFIX.matcher(guard(line.trimmed())).replaceFirst("").trim();
                 if (!extracted.isEmpty()) {
                     return extracted;
                 }
@@ -113,34 +246,31 @@ public class SimpleParserService implements ParserService {
         }
         
         // Strategy 2: Look for lines that contain location indicators
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lower = trimmed.toLowerCase(Locale.ROOT);
+        for (JobLineIndex.Line line : index.lines()) {
+            String trimmed = line.trimmed();
             
             // Skip very long lines (likely paragraphs, not location info)
             if (trimmed.length() > 100) continue;
             
             // Look for Remote/Hybrid/Onsite indicators
-            if (lower.matches(".*(remote|hybrid|on-site|onsite).*") && trimmed.length() < 50) {
+            if (line.has(JobLineIndex.REMOTE_HINT) && trimmed.length() < 50) {
                 return trimmed;
             }
             
             // Look for city, state patterns (e.g., "New York, NY" or "San Francisco, CA")
-            if (trimmed.matches(".*, [A-Z]{2}.*")) {
+            if (line.has(JobLineIndex.CITY_STATE)) {
                 return trimmed;
             }
         }
         
-        // Strategy 3: Look for standalone short lines with location keywords
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lower = trimmed.toLowerCase(Locale.ROOT);
+        // Strategy 3: Look for standalone short lines with major city names
+        for (JobLineIndex.Line line : index.lines()) {
+            String trimmed = line.trimmed();
             
             // Must be relatively short to be a location line
             if (trimmed.length() > 60) continue;
             
-            // Check for major city names
-            if (lower.matches(".*(new york|san francisco|los angeles|chicago|boston|seattle|austin|denver|portland|miami|atlanta|dallas|houston).*")) {
+            if (line.has(JobLineIndex.MAJOR_CITY)) {
                 return trimmed;
             }
         }
@@ -159,27 +289,20 @@ public class SimpleParserService implements ParserService {
      * 
      * @return The compensation string if found, null otherwise
      */
-    private String extractCompensationInfo(String text) {
-        if (text == null || text.isBlank()) return null;
-        
-        String[] lines = text.split("\n");
+    private String extractCompensationInfo(JobLineIndex index) {
+        if (index.isBlank()) return null;
         
         // Strategy 1: Look for lines with explicit compensation keywords
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lower = trimmed.toLowerCase(Locale.ROOT);
+        for (JobLineIndex.Line line : index.lines()) {
+            String trimmed = line.trimmed();
             
             // Skip very long lines (likely paragraphs)
             if (trimmed.length() > 150) continue;
             
-            // Check for compensation-related keywords
-            if (lower.contains("compensation") || lower.contains("salary") || 
-                lower.contains("pay range") || lower.contains("base salary") ||
-                lower.contains("total compensation") || lower.contains("annual salary")) {
-                
+            if (line.has(JobLineIndex.COMPENSATION_KEYWORD)) {
                 // If line starts with label, strip it
-                if (lower.matches("^(compensation|salary|pay|base|total compensation|annual salary)\\s*[:\\-].*")) {
-                    String extracted = trimmed.replaceFirst("(?i)^(compensation|salary|pay|base|total compensation|annual salary)\\s*[:\\-]\\s*", "").trim();
+                if (line.has(JobLineIndex.COMPENSATION_LABEL)) {
+                    String extracted = COMPENSATION_LABEL_PREFIX.matcher(guard(trimmed)).replaceFirst("").trim();
                     if (!extracted.isEmpty() && extracted.length() <= 120) {
                         return extracted;
                     }
@@ -191,56 +314,26 @@ public class SimpleParserService implements ParserService {
             }
         }
         
-        // Strategy 2: Look for lines with dollar signs and relevant keywords
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lower = trimmed.toLowerCase(Locale.ROOT);
-            
-            // Skip very long lines
-            if (trimmed.length() > 150) continue;
-            
-            // Look for $ combined with comp-related terms or "k" (for $100k notation)
-            if (trimmed.contains("$")) {
-                if (lower.contains("salary") || lower.contains("compensation") || 
-                    lower.contains("pay") || lower.contains("base") || 
-                    lower.contains("range") || lower.contains("ote") ||
-                    lower.contains("equity") || lower.contains("bonus") ||
-                    lower.contains("hourly") || lower.contains("usd") ||
-                    trimmed.matches(".*\\$[0-9,]+k.*")) {
-                    
-                    // Limit to reasonable length
-                    if (trimmed.length() <= 120) {
-                        return trimmed;
-                    }
-                }
+        // Strategy 2: Look for $ combined with comp-related terms or "k" (for $100k notation)
+        for (JobLineIndex.Line line : index.lines()) {
+            String trimmed = line.trimmed();
+            if (trimmed.length() <= 120 && line.has(JobLineIndex.DOLLAR_WITH_PAY_HINT)) {
+                return trimmed;
             }
         }
         
-        // Strategy 3: Look for salary range patterns with $ signs
-        for (String line : lines) {
-            String trimmed = line.trim();
-            
-            // Skip very long lines
-            if (trimmed.length() > 150) continue;
-            
-            // Match patterns like "$100k - $150k", "$100,000 - $150,000"
-            if (trimmed.matches(".*\\$[0-9]{2,3}[kK]?[,0-9]*\\s*[-–]\\s*\\$[0-9]{2,3}[kK]?[,0-9]*.*") ||
-                trimmed.matches(".*\\$[0-9,]+\\s*[-–]\\s*\\$[0-9,]+.*")) {
-                
-                if (trimmed.length() <= 120) {
-                    return trimmed;
-                }
+        // Strategy 3: Look for salary range patterns like "$100k - $150k", "$100,000 - $150,000"
+        for (JobLineIndex.Line line : index.lines()) {
+            String trimmed = line.trimmed();
+            if (trimmed.length() <= 120 && line.has(JobLineIndex.SALARY_RANGE)) {
+                return trimmed;
             }
         }
         
-        // Strategy 4: Fallback - any line with $ and digits
-        for (String line : lines) {
-            String trimmed = line.trim();
-            
-            if (trimmed.length() > 150) continue;
-            
-            // Look for $ followed by digits
-            if (trimmed.matches(".*\\$\\s*[0-9,]+.*") && trimmed.length() <= 120) {
+        // Strategy 4: Fallback - any line with $ followed by digits
+        for (JobLineIndex.Line line : index.lines()) {
+            String trimmed = line.trimmed();
+            if (trimmed.length() <= 120 && line.has(JobLineIndex.DOLLAR_AMOUNT)) {
                 return trimmed;
             }
         }
@@ -251,63 +344,37 @@ public class SimpleParserService implements ParserService {
     /**
      * Extracts skills from job posting with strict filtering.
      * 
-     * @param text The job posting text
+     * @param index The classified job posting lines
      * @param niceToHave If true, extract from "nice to have"/"preferred" sections. 
      *                   If false, extract from requirements/qualifications sections.
+     * @param memo Skills already extracted from unchanged lines
      * @return List of normalized, filtered skills
      */
-    private List<String> extractJobSkillsStrict(String text, boolean niceToHave) {
+    private List<String> extractJobSkillsStrict(JobLineIndex index, boolean niceToHave, LineMemo memo) {
         Set<String> skillSet = new LinkedHashSet<>();
-        if (text == null || text.isBlank()) return new ArrayList<>(skillSet);
-        
-        String lower = text.toLowerCase(Locale.ROOT);
-        String[] lines = text.split("\n");
+        if (index.isBlank()) return new ArrayList<>(skillSet);
         
-        // Define section keywords based on what we're looking for
-        String[] sectionKeywords;
-        if (niceToHave) {
-            sectionKeywords = new String[]{
-                "nice to have", "nice-to-have", "bonus", "preferred", "plus", "additionally"
-            };
-        } else {
-            sectionKeywords = new String[]{
-                "requirements", "required", "qualifications", "what you'll do", "what you will do",
-                "you will", "responsibilities", "what you'll bring", "must have", "should have"
-            };
-        }
+        int sectionFlag = niceToHave ? JobLineIndex.NICE_TO_HAVE_SECTION : JobLineIndex.REQUIRED_SECTION;
         
         // Find relevant sections
-        List<String> relevantLines = new ArrayList<>();
+        List<JobLineIndex.Line> relevantLines = new ArrayList<>();
         boolean inRelevantSection = false;
         
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i];
-            String lineLower = line.toLowerCase(Locale.ROOT);
-            
+        for (JobLineIndex.Line line : index.lines()) {
             // Check if this line starts a relevant section
-            boolean startsRelevantSection = false;
-            for (String keyword : sectionKeywords) {
-                if (lineLower.contains(keyword)) {
-                    startsRelevantSection = true;
-                    inRelevantSection = true;
-                    break;
-                }
+            boolean startsRelevantSection = line.has(sectionFlag);
+            if (startsRelevantSection) {
+                inRelevantSection = true;
             }
             
             // Check if this line starts an irrelevant section (company info, benefits, etc.)
-            if (lineLower.matches(".*\\b(about us|about the company|company overview|benefits|compensation|location|office|our team|why join|why work|equal opportunity|diversity).*")) {
+            if (line.has(JobLineIndex.IRRELEVANT_SECTION)) {
                 inRelevantSection = false;
             }
             
-            // If we hit a new major section header (all caps or ends with colon), might be leaving relevant section
-            if (line.matches("^[A-Z][A-Z\\s]{3,}:?$") && !startsRelevantSection) {
-                // Only exit if it's clearly a different section
-                for (String keyword : sectionKeywords) {
-                    if (!lineLower.contains(keyword)) {
-                        inRelevantSection = false;
-                        break;
-                    }
-                }
+            // A new all-caps section header that isn't one of ours ends the relevant section
+            if (line.has(JobLineIndex.ALL_CAPS_HEADER) && !startsRelevantSection) {
+                inRelevantSection = false;
             }
             
             // Collect lines from relevant sections
@@ -318,27 +385,36 @@ public class SimpleParserService implements ParserService {
         
         // If no relevant sections found, fall back to bullet lines only (conservative)
         if (relevantLines.isEmpty()) {
-            for (String line : lines) {
-                if (line.trim().matches("^[-*•]\\s+.+")) {
+            for (JobLineIndex.Line line : index.lines()) {
+                if (line.has(JobLineIndex.BULLET)) {
                     relevantLines.add(line);
                 }
             }
         }
         
         // Extract skills from relevant lines
-        for (String line : relevantLines) {
-            // Focus on bullet points
-            if (line.trim().matches("^[-*•]\\s+.+")) {
-                String content = line.replaceFirst("^\\s*[-*•]\\s+", "").trim();
-                extractSkillsFromLine(content, skillSet);
-            } else if (!line.trim().isEmpty()) {
-                // Also process non-bullet lines in relevant sections, but more carefully
-                extractSkillsFromLine(line, skillSet);
-            }
+        for (JobLineIndex.Line line : relevantLines) {
+            skillSet.addAll(memo.get(LineMemo.Kind.JOB_SKILLS, line.text(), text -> extractSkillsFromJobLine(line)));
         }
         
         return new ArrayList<>(skillSet);
     }
+
+    /**
+     * Skills on one line of a relevant section, in order of appearance.
+     */
+    private List<String> extractSkillsFromJobLine(JobLineIndex.Line line) {
+        Set<String> skillSet = new LinkedHashSet<>();
+        // Focus on bullet points
+        if (line.has(JobLineIndex.BULLET)) {
+            String content = BULLET_PREFIX.matcher(guard(line.text())).replaceFirst("").trim();
+            extractSkillsFromLine(content, skillSet);
+        } else if (!line.trimmed().isEmpty()) {
+            // Also process non-bullet lines in relevant sections, but more carefully
+            extractSkillsFromLine(line.text(), skillSet);
+        }
+        return List.copyOf(skillSet);
+    }
     
     /**
      * Extracts candidate skills from a single line by splitting on delimiters
@@ -346,12 +422,12 @@ public class SimpleParserService implements ParserService {
      */
     private void extractSkillsFromLine(String line, Set<String> skillSet) {
         // Skip section headers (lines ending with colon)
-        if (line.trim().matches("^[^:]+:$")) {
+        if (SECTION_HEADER.matcher(guard(line.trim())).matches()) {
             return;
         }
         
         // Skip lines that start with "note:", "important:", etc. - these are usually disclaimers
-        if (line.trim().toLowerCase().matches("^(note|important|please|disclaimer):.*")) {
+        if (DISCLAIMER.matcher(guard(line.trim().toLowerCase())).matches()) {
             return;
         }
         
@@ -359,19 +435,19 @@ public class SimpleParserService implements ParserService {
         String processedLine = line;
         
         // "knowledge of X" → "X", "understanding of X" → "X"
-        processedLine = processedLine.replaceAll("(?i)(knowledge|understanding)\\s+of\\s+", "");
+        processedLine = KNOWLEDGE_OF.matcher(guard(processedLine)).replaceAll("");
         
         // "experience with X" → "X", "proficiency in X" → "X"
-        processedLine = processedLine.replaceAll("(?i)(experience|proficiency)\\s+(with|in)\\s+", "");
+        processedLine = EXPERIENCE_WITH.matcher(guard(processedLine)).replaceAll("");
         
         // "X+ years of Y" → "Y", "X years of Y" → "Y"
-        processedLine = processedLine.replaceAll("(?i)\\d+\\+?\\s*years?\\s+of\\s+", "");
+        processedLine = YEARS_OF.matcher(guard(processedLine)).replaceAll("");
         
         // "strong X" → "X", "excellent X" → "X" (but keep the qualifiers for later removal in normalization)
         // This is already handled in normalizeSkill(), so we continue
         
         // Split on common delimiters: comma, semicolon, "and", "or"
-        String[] candidatePhrases = processedLine.split("\\s+(?:and|or)\\s+|[,;]+");
+        String[] candidatePhrases = PHRASE_DELIMITER.split(guard(processedLine));
         
         for (String phrase : candidatePhrases) {
             phrase = phrase.trim();
@@ -387,14 +463,14 @@ public class SimpleParserService implements ParserService {
         }
     }
 
-    private String safeNormalize(String text) {
-        if (text == null) return "";
+    /**
+     * Normalization applied before parsing. Idempotent, and the parse result depends only on
+     * its output, which is what lets {@link CachingParserService} key on the normalized text.
+     */
+    static String safeNormalize(String text) {
         // trim, normalize CRLF to LF, collapse multiple blank lines to a single blank line,
-        String t = text.replace("\r\n", "\n").replace('\r', '\n').trim();
-        t = t.replaceAll("\n{3,}", "\n\n");
-        // collapse excessive whitespace within lines
-        t = t.replaceAll("[ \t]{2,}", " ");
-        return t;
+        // collapse excessive whitespace within lines (single pass, see TextNormalizer)
+        return TextNormalizer.normalizeText(text);
     }
 
     /**
@@ -411,19 +487,19 @@ public class SimpleParserService implements ParserService {
         String s = skill.toLowerCase(Locale.ROOT);
         
         // Strip common punctuation but keep + # . - for tech terms (C++, C#, .NET, etc.)
-        s = s.replaceAll("[,;()\\[\\]{}/\\\\\"'`]", " ");
+        s = SKILL_PUNCTUATION.matcher(guard(s)).replaceAll(" ");
         
         // Remove leading qualifier words
-        s = s.replaceAll("^\\s*(strong|solid|excellent|good|great|deep|proven|demonstrated)\\s+", "");
+        s = LEADING_QUALIFIER.matcher(guard(s)).replaceAll("");
         
         // Remove trailing suffix words
-        s = s.replaceAll("\\s+(experience|skills?|knowledge|proficiency|background|ability|abilities|developer|engineer|programmer|architect|specialist|admin|administrator)\\b\\s*$", "");
+        s = TRAILING_SUFFIX.matcher(guard(s)).replaceAll("");
         
         // Remove "with" prefix (e.g., "experience with Java" -> "java")
-        s = s.replaceAll("^\\s*with\\s+", "");
+        s = LEADING_WITH.matcher(guard(s)).replaceAll("");
         
         // Collapse multiple spaces
-        s = s.replaceAll("\\s+", " ").trim();
+        s = WHITESPACE_RUN.matcher(guard(s)).replaceAll(" ").trim();
         
         return s;
     }
@@ -447,41 +523,38 @@ public class SimpleParserService implements ParserService {
             return false;
         }
         
-        // Reject location keywords
-        for (String loc : LOCATION_KEYWORDS) {
-            if (s.contains(loc)) {
-                return false;
-            }
+        // Reject location keywords (single automaton scan over all of them)
+        if (LOCATION_MATCHER.containsAny(s)) {
+            return false;
         }
         
         // Reject pure numbers
-        if (s.matches("^\\d+$")) {
+        if (DIGITS_ONLY.matcher(guard(s)).matches()) {
             return false;
         }
         
         // Reject strings that are just punctuation or single letters repeated
-        if (s.matches("^[^a-z0-9]+$") || s.matches("^(.)\\1+$")) {
+        if (PUNCTUATION_ONLY.matcher(guard(s)).matches() || REPEATED_CHAR.matcher(guard(s)).matches()) {
             return false;
         }
         
         // Reject overly generic phrases
-        if (s.matches(".*(years?|months?|weeks?|days?)\\s+(of\\s+)?(experience|work|working).*")) {
+        if (GENERIC_DURATION_PHRASE.matcher(guard(s)).matches()) {
             return false;
         }
         
         return true;
     }
 
-    private List<String> extractSkillsFromResume(String text) {
+    private List<String> extractSkillsFromResume(String text, ResumeSections sections, LineMemo memo) {
         Set<String> skillSet = new LinkedHashSet<>();
         if (text.isEmpty()) return new ArrayList<>(skillSet);
 
-        // Strategy 1: Look for Skills/Technical Skills section
-        String lower = text.toLowerCase(Locale.ROOT);
-        int skillsIdx = findSectionStart(lower, "skills", "technical skills", "technologies");
+        // Strategy 1: Look for Skills/Technical Skills section (up to the next blank line, max 500 chars)
+        int skillsIdx = sections.sectionStart("skills", "technical skills", "technologies");
         
         if (skillsIdx >= 0) {
-            String section = extractSectionContent(text, skillsIdx);
+            CharSequence section = sections.blockFrom(skillsIdx, 500);
             for (String token : splitSkillTokens(section)) {
                 String normalized = normalizeSkill(token);
                 if (isLikelySkill(normalized)) {
@@ -490,105 +563,102 @@ public class SimpleParserService implements ParserService {
             }
         }
 
-        // Strategy 2: Scan for tech-like repeated tokens throughout the resume
-        List<String> candidateTokens = extractTechTokens(text);
-        for (String token : candidateTokens) {
-            String normalized = normalizeSkill(token);
-            if (isLikelySkill(normalized)) {
-                skillSet.add(normalized);
-            }
+        // Strategy 2: Scan for tech-like repeated tokens throughout the resume: all-caps words
+        // first, then mixed-case tech terms. Neither pattern matches across a newline, so
+        // scanning line by line finds the same tokens in the same order.
+        List<ResumeLineSkills> lineSkills = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            lineSkills.add(memo.get(LineMemo.Kind.RESUME_SKILLS, line, this::extractResumeLineSkills));
+        }
+        for (ResumeLineSkills line : lineSkills) {
+            skillSet.addAll(line.upperCase());
+        }
+        for (ResumeLineSkills line : lineSkills) {
+            skillSet.addAll(line.techTerms());
         }
 
         return new ArrayList<>(skillSet);
     }
 
+    /** Normalized skills found on one resume line, by the token pattern that found them. */
+    private record ResumeLineSkills(List<String> upperCase, List<String> techTerms) {}
+
+    private ResumeLineSkills extractResumeLineSkills(String line) {
+        List<String> upperCase = new ArrayList<>();
+        List<String> techTerms = new ArrayList<>();
+        for (String token : extractUpperCaseTokens(line)) {
+            String normalized = normalizeSkill(token);
+            if (isLikelySkill(normalized)) upperCase.add(normalized);
+        }
+        for (String token : extractTechTokens(line)) {
+            String normalized = normalizeSkill(token);
+            if (isLikelySkill(normalized)) techTerms.add(normalized);
+        }
+        return new ResumeLineSkills(List.copyOf(upperCase), List.copyOf(techTerms));
+    }
+
     /**
-     * Extracts tech-like tokens from text (capitalized words, known patterns).
-     * Returns raw tokens before normalization.
+     * All-caps words (SQL, AWS, API, etc.). Returns raw tokens before normalization.
      */
-    private List<String> extractTechTokens(String text) {
+    private List<String> extractUpperCaseTokens(String text) {
         List<String> tokens = new ArrayList<>();
-        
-        // Pattern 1: All-caps words (SQL, AWS, API, etc.)
-        Pattern upperPattern = Pattern.compile("\\b([A-Z]{2,})\\b");
-        Matcher upperMatcher = upperPattern.matcher(text);
+        Matcher upperMatcher = UPPERCASE_WORD.matcher(guard(text));
         while (upperMatcher.find()) {
             tokens.add(upperMatcher.group(1));
         }
-        
-        // Pattern 2: Common tech terms with mixed case
-        Matcher techMatcher = TECH_WORD.matcher(text);
+        return tokens;
+    }
+
+    /**
+     * Common tech terms with mixed case (special tech chars or capitalized words).
+     * Returns raw tokens before normalization.
+     */
+    private List<String> extractTechTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher techMatcher = TECH_WORD.matcher(guard(text));
         while (techMatcher.find()) {
             String word = techMatcher.group(1);
             // Keep if it contains special tech chars or is commonly capitalized
-            if (word.matches(".*[+#.].*") || word.matches("[A-Z][a-z]+")) {
+            if (TECH_SYMBOL.matcher(guard(word)).matches() || CAPITALIZED_WORD.matcher(guard(word)).matches()) {
                 tokens.add(word);
             }
         }
-        
         return tokens;
     }
 
-    private int findSectionStart(String lowerText, String... headers) {
-        for (String header : headers) {
-            // Look for "\nHeader" or start of text
-            int idx = lowerText.indexOf("\n" + header);
-            if (idx >= 0) return idx + 1 + header.length();
-            if (lowerText.startsWith(header)) return header.length();
-        }
-        return -1;
-    }
-
-    private String extractSectionContent(String text, int startIdx) {
-        if (startIdx < 0 || startIdx >= text.length()) return "";
-        
-        String after = text.substring(startIdx);
-        // Limit to next section (double newline) or 500 chars
-        String[] parts = after.split("\n\n", 2);
-        String section = parts[0];
-        
-        if (section.length() > 500) {
-            section = section.substring(0, 500);
-        }
-        
-        return section;
-    }
-
-    private String[] splitSkillTokens(String section) {
+    private String[] splitSkillTokens(CharSequence section) {
         // Split on commas, semicolons, pipes, newlines
-        return section.split("[,;|\\n]+");
+        return SKILL_TOKEN_DELIMITER.split(guard(section));
     }
 
-    private List<String> extractExperiences(String text) {
+    private List<String> extractExperiences(ResumeSections sections) {
         List<String> exps = new ArrayList<>();
-        if (text.isEmpty()) return exps;
-
-        // Split by one or more blank lines (two or more newlines)
-        String[] chunks = text.split("\n\s*\n+");
-        for (String c : chunks) {
-            String s = c.trim();
-            if (!s.isBlank() && s.length() > 20) {
-                exps.add(s);
+
+        // Paragraphs separated by one or more blank lines, already trimmed
+        for (int i = 0; i < sections.paragraphCount(); i++) {
+            CharSequence paragraph = sections.paragraph(i);
+            if (paragraph.length() > 20) {
+                String experience = paragraph.toString();
+                // trim keeps Unicode spaces such as U+2003, which isBlank still rejects
+                if (!experience.isBlank()) exps.add(experience);
             }
         }
         return exps;
     }
 
-    private String extractTitle(String text) {
-        if (text == null || text.isBlank()) return "";
-        String[] lines = text.split("\n");
+    private String extractTitle(JobLineIndex index) {
+        if (index.isBlank()) return "";
         // look for explicit "Title:" label
-        for (String line : lines) {
-            String l = line.trim();
-            if (l.toLowerCase(Locale.ROOT).startsWith("title:")) {
+        for (JobLineIndex.Line line : index.lines()) {
+            if (line.has(JobLineIndex.TITLE_LABEL)) {
+                String l = line.trimmed();
                 return l.substring(l.indexOf(":") + 1).trim();
             }
         }
         // fallback: first non-empty line
-        for (String line : lines) {
-            String l = line.trim();
-            if (!l.isEmpty()) return l;
+        for (JobLineIndex.Line line : index.lines()) {
+            if (!line.trimmed().isEmpty()) return line.trimmed();
         }
         return "";
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Rewrites skill phrases to canonical form: lowercase, punctuation other than {@code + # . -}
+ * turned into spaces, whitespace collapsed, then synonyms replaced (k8s -> kubernetes,
+ * spring-boot -> spring boot, ...).
+ *
+ * The synonym table is read once into a trie, so a phrase costs one scan to clean it and one to
+ * rewrite it; no regex is involved. A variant only matches as a whole term: neither the char before
+ * it nor the one after it is a letter or digit.
+ */
+public final class SkillCanonicalizer {
+
+    /** Classpath location of the default synonym table. */
+    public static final String DEFAULT_RESOURCE = "skill-synonyms.txt";
+
+    private static final class Node {
+        private Node[] next;
+        private String canonical;
+
+        Node child(char c) {
+            return next == null || c >= next.length ? null : next[c];
+        }
+
+        Node childOrCreate(char c) {
+            if (next == null) next = new Node[128];
+            if (next[c] == null) next[c] = new Node();
+            return next[c];
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    private SkillCanonicalizer(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    private static final class Defaults {
+        static final SkillCanonicalizer INSTANCE = fromClasspath();
+    }
+
+    /**
+     * The default table, loaded from the classpath on first use and shared.
+     */
+    public static SkillCanonicalizer defaults() {
+        return Defaults.INSTANCE;
+    }
+
+    /**
+     * Loads the default table from the classpath.
+     */
+    public static SkillCanonicalizer fromClasspath() {
+        InputStream in = SkillCanonicalizer.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException("Skill synonym table not found on classpath: " + DEFAULT_RESOURCE);
+        }
+        try (in) {
+            return load(in, "classpath:" + DEFAULT_RESOURCE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + DEFAULT_RESOURCE, e);
+        }
+    }
+
+    /**
+     * Reads a table of {@code variant = canonical} lines (UTF-8); blank lines and {@code #} comments
+     * are skipped. {@code source} only names the table in error messages.
+     */
+    public static SkillCanonicalizer load(InputStream in, String source) throws IOException {
+        return load(new InputStreamReader(in, StandardCharsets.UTF_8), source);
+    }
+
+    static SkillCanonicalizer load(Reader reader, String source) throws IOException {
+        Node root = new Node();
+        int size = 0;
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String entry = line.strip();
+            if (entry.isEmpty() || entry.startsWith("#")) continue;
+
+            int eq = entry.indexOf('=');
+            // Variants go through the same cleaning as the phrases they are matched against
+            String variant = eq < 0 ? "" : clean(entry.substring(0, eq));
+            String canonical = eq < 0 ? "" : entry.substring(eq + 1).strip().toLowerCase(Locale.ROOT);
+            if (variant.isEmpty() || canonical.isEmpty()) {
+                throw new IllegalStateException(source + ":" + lineNumber + ": expected 'variant = canonical' but got '" + entry + "'");
+            }
+
+            Node node = root;
+            for (int i = 0; i < variant.length(); i++) node = node.childOrCreate(variant.charAt(i));
+            if (node.canonical == null) size++;
+            node.canonical = canonical;
+        }
+        return new SkillCanonicalizer(root, size);
+    }
+
+    /** Number of synonyms in the table. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Canonical form of {@code phrase} (null is treated as empty).
+     * Examples: "AWS experience" -> "aws experience", "Spring-Boot" -> "spring boot"
+     */
+    public String canonicalize(String phrase) {
+        if (phrase == null) return "";
+        String cleaned = clean(phrase);
+
+        StringBuilder out = null;
+        int copied = 0;
+        int length = cleaned.length();
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && isWordChar(cleaned.charAt(i - 1))) continue;
+
+            // Longest variant starting at i that also ends at a term boundary
+            String replacement = null;
+            int matchEnd = -1;
+            Node node = root;
+            for (int j = i; j < length; j++) {
+                node = node.child(cleaned.charAt(j));
+                if (node == null) break;
+                if (node.canonical != null && (j + 1 == length || !isWordChar(cleaned.charAt(j + 1)))) {
+                    replacement = node.canonical;
+                    matchEnd = j + 1;
+                }
+            }
+            if (replacement != null) {
+                if (out == null) out = new StringBuilder(length + 16);
+                out.append(cleaned, copied, i).append(replacement);
+                copied = matchEnd;
+                i = matchEnd - 1;
+            }
+        }
+        if (out == null) return cleaned;
+        return out.append(cleaned, copied, length).toString();
+    }
+
+    /**
+     * Lowercases (Locale.ROOT), turns every char other than {@code [a-z0-9+#.-]} into a space,
+     * collapses spaces and trims, in one pass.
+     */
+    static String clean(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            // String.toLowerCase(Locale.ROOT) turns U+0130 into 'i' + a combining dot, which becomes a space
+            boolean dottedCapitalI = c == '\u0130';
+            char lower = dottedCapitalI ? 'i' : Character.toLowerCase(c);
+            if (isKept(lower)) {
+                if (pendingSpace && out.length() > 0) out.append(' ');
+                out.append(lower);
+                pendingSpace = dottedCapitalI;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isKept(char c) {
+        return isWordChar(c) || c == '+' || c == '#' || c == '.' || c == '-';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,98 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.SkillMask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The core technical skills used for scoring, each interned to a dense int id.
+ *
+ * Ids follow the sorted order of the skill names, so walking a {@link SkillMask} in id order
+ * yields the skills alphabetically. Parsed documents carry their core skills as a mask, and the
+ * scorer works on masks instead of string sets.
+ */
+public final class SkillVocabulary {
+
+    // Core technical skills/concepts that should appear in feedback
+    // Note: "go" is intentionally excluded as it's too commonly used as a verb in job postings;
+    // "golang" is matched as usual
+    private static final Set<String> CORE_SKILL_KEYWORDS = Set.of(
+            "java", "python", "c++", "c#", "javascript", "typescript", "golang", "rust", "ruby", "php", "swift", "kotlin",
+            "react", "angular", "vue", "node", "express", "spring", "django", "flask", "rails",
+            "docker", "kubernetes", "k8s", "aws", "gcp", "azure", "cloud",
+            "sql", "postgres", "mysql", "mongodb", "redis", "cassandra", "elasticsearch",
+            "rest", "graphql", "api", "microservices", "grpc",
+            "kafka", "rabbitmq", "memcached",
+            "linux", "unix", "git", "ci/cd", "jenkins", "github", "gitlab",
+            "backend", "frontend", "full stack", "fullstack",
+            "data structures", "algorithms", "distributed systems",
+            "terraform", "ansible", "nginx", "apache",
+            "hadoop", "spark", "airflow",
+            "pytorch", "tensorflow", "scikit", "pandas", "numpy",
+            "elixir", "erlang", "scala", "clojure"
+    );
+    // KeywordMatcher ids are assigned in sorted keyword order, so they double as vocabulary ids
+    private static final KeywordMatcher CORE_SKILL_MATCHER = KeywordMatcher.of(CORE_SKILL_KEYWORDS);
+
+    static {
+        if (CORE_SKILL_MATCHER.size() > SkillMask.CAPACITY) {
+            throw new IllegalStateException("Core skill vocabulary exceeds SkillMask capacity");
+        }
+    }
+
+    private SkillVocabulary() {
+    }
+
+    /** Number of core skills; ids are 0..size()-1. */
+    public static int size() {
+        return CORE_SKILL_MATCHER.size();
+    }
+
+    /** The canonical name of the skill with the given id. */
+    public static String skill(int id) {
+        return CORE_SKILL_MATCHER.keyword(id);
+    }
+
+    /** True if any core skill keyword occurs in {@code lowercaseText}. */
+    public static boolean containsCoreSkill(String lowercaseText) {
+        return CORE_SKILL_MATCHER.containsAny(lowercaseText);
+    }
+
+    /**
+     * Core skills mentioned anywhere in the given skill phrases, read with the default synonym table
+     * (e.g. "AWS experience" -> aws, "Spring-Boot" -> spring).
+     */
+    public static SkillMask coreSkillsOf(Collection<String> phrasesOrSkills) {
+        return coreSkillsOf(phrasesOrSkills, SkillCanonicalizer.defaults());
+    }
+
+    /**
+     * Core skills mentioned anywhere in the given skill phrases, each rewritten by
+     * {@code canonicalizer} before matching.
+     */
+    public static SkillMask coreSkillsOf(Collection<String> phrasesOrSkills, SkillCanonicalizer canonicalizer) {
+        if (phrasesOrSkills == null) return SkillMask.EMPTY;
+        long[] bits = new long[2];
+        for (String phrase : phrasesOrSkills) {
+            if (phrase == null || phrase.isBlank()) continue;
+
+            String normalized = canonicalizer.canonicalize(phrase);
+
+            // Find which core skill keywords are present in this phrase (one scan for all keywords)
+            CORE_SKILL_MATCHER.forEachMatch(normalized, id -> bits[id >>> 6] |= 1L << id);
+        }
+        return new SkillMask(bits[0], bits[1]);
+    }
+
+    /** Names of the skills in {@code mask}, alphabetically, at most {@code limit} of them. */
+    public static List<String> names(SkillMask mask, int limit) {
+        List<String> names = new ArrayList<>(Math.min(mask.count(), limit));
+        mask.forEach(id -> {
+            if (names.size() < limit) names.add(skill(id));
+        });
+        return names;
+    }
+}
@@ -0,0 +1,53 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+/**
+ * Fast non-cryptographic 64-bit hashing of text (FNV-1a over UTF-16 chars with a final avalanche mix).
+ * Intended for in-memory keys; callers that share results across users must still verify
+ * the key text on a hit, since this hash is not collision resistant.
+ */
+public final class TextHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private TextHash() {}
+
+    public static long hash64(CharSequence text) {
+        return text == null ? 0L : hash64(text, 0, text.length());
+    }
+
+    /** Hash of {@code text[from, to)}. */
+    public static long hash64(CharSequence text, int from, int to) {
+        long h = start();
+        for (int i = from; i < to; i++) {
+            h = step(h, text.charAt(i));
+        }
+        return finish(h);
+    }
+
+    /**
+     * Incremental form, for hashing chars as they are produced: {@code finish(step(...step(start(), c0)..., cn))}
+     * equals {@link #hash64} of the same chars.
+     */
+    public static long start() {
+        return FNV_OFFSET;
+    }
+
+    public static long step(long h, char c) {
+        return (h ^ c) * FNV_PRIME;
+    }
+
+    public static long finish(long h) {
+        return mix(h);
+    }
+
+    /** Murmur3 fmix64 finalizer; spreads FNV's weak low bits across the whole word. */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
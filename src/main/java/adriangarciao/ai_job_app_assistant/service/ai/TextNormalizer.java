@@ -0,0 +1,129 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.TokenSpans;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass text normalization applied before parsing.
+ *
+ * Equivalent to trimming, folding CRLF / CR to LF, collapsing runs of 3+ newlines to one blank line
+ * and collapsing runs of 2+ spaces/tabs to a single space, but done in one scan over a per-thread
+ * scratch buffer. Token boundaries of the output are recorded in the same scan. Already-normalized
+ * input is returned as-is, so the only allocations are the result string (when it changed) and the
+ * exact-size offsets array.
+ */
+final class TextNormalizer {
+
+    /** Normalized text plus its whitespace token boundaries. */
+    record Normalized(String text, TokenSpans tokens) {}
+
+    private static final Normalized EMPTY = new Normalized("", TokenSpans.EMPTY);
+
+    // Scratch buffers above this size are not kept by the thread after the call
+    private static final int POOLED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        char[] chars = new char[4096];
+        int[] offsets = new int[1024];
+    }
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes {@code text} (null is treated as empty) without computing token boundaries.
+     */
+    static String normalizeText(String text) {
+        return normalize(text, false).text();
+    }
+
+    /**
+     * Normalizes {@code text} (null is treated as empty) and records its token boundaries.
+     */
+    static Normalized normalize(String text) {
+        return normalize(text, true);
+    }
+
+    private static Normalized normalize(String text, boolean withTokens) {
+        if (text == null) return EMPTY;
+        int from = 0;
+        int to = text.length();
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+        if (from == to) return EMPTY;
+
+        // The output is never longer than the trimmed input, and holds at most (length + 1) / 2 tokens
+        int length = to - from;
+        Scratch scratch = SCRATCH.get();
+        char[] out = scratch.chars;
+        if (out.length < length) {
+            out = new char[Math.max(length, out.length * 2)];
+            if (out.length <= POOLED_CAPACITY) scratch.chars = out;
+        }
+        int[] offsets = scratch.offsets;
+        if (withTokens && offsets.length < length + 1) {
+            offsets = new int[Math.max(length + 1, offsets.length * 2)];
+            if (offsets.length <= POOLED_CAPACITY) scratch.offsets = offsets;
+        }
+
+        boolean changed = from != 0 || to != text.length();
+        int n = 0;
+        int tokenOffsets = 0;
+        int tokenStart = -1;
+        int newlineRun = 0;
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            boolean separator;
+            if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    changed = true;
+                    i += (i + 1 < to && text.charAt(i + 1) == '\n') ? 2 : 1;
+                } else {
+                    i++;
+                }
+                if (++newlineRun <= 2) {
+                    out[n++] = '\n';
+                } else {
+                    changed = true;
+                }
+                separator = true;
+            } else if (c == ' ' || c == '\t') {
+                newlineRun = 0;
+                int j = i + 1;
+                while (j < to && (text.charAt(j) == ' ' || text.charAt(j) == '\t')) j++;
+                if (j - i == 1) {
+                    out[n++] = c;
+                } else {
+                    out[n++] = ' ';
+                    changed = true;
+                }
+                i = j;
+                separator = true;
+            } else {
+                newlineRun = 0;
+                out[n++] = c;
+                i++;
+                separator = TokenSpans.isSeparator(c);
+                if (!separator && tokenStart < 0) tokenStart = n - 1;
+            }
+            if (separator && tokenStart >= 0) {
+                if (withTokens) {
+                    offsets[tokenOffsets++] = tokenStart;
+                    offsets[tokenOffsets++] = n - 1;
+                }
+                tokenStart = -1;
+            }
+        }
+        if (withTokens && tokenStart >= 0) {
+            offsets[tokenOffsets++] = tokenStart;
+            offsets[tokenOffsets++] = n;
+        }
+
+        String normalized = changed ? new String(out, 0, n) : text;
+        TokenSpans tokens = withTokens ? TokenSpans.ofOffsets(Arrays.copyOf(offsets, tokenOffsets)) : TokenSpans.EMPTY;
+        return new Normalized(normalized, tokens);
+    }
+}
@@ -0,0 +1,221 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SkillMask;
+import adriangarciao.ai_job_app_assistant.service.ai.TextHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Response cache in front of a (remote) {@link LLMService}.
+ *
+ * Requests are keyed by their parsed, canonical form rather than the raw strings: the core
+ * skill ids of both documents, the posting title and a 64-bit hash plus length of each
+ * normalized text, and the cover letter flag. Two tiers: an in-memory map bounded by entry
+ * count, and optionally an {@link LlmResponseStore} file that survives restarts; a file hit is
+ * promoted to memory. Entries expire {@code ttl} after they were first written, in both tiers.
+ *
+ * Only complete answers are kept: feedback from a partly parsed document, a cut-down prompt or
+ * the fallback scorer is returned but not cached. Cache hits produce no streamed tokens.
+ * Whatever the backend's prompt depends on belongs in the namespace given to the file tier, so
+ * that a template change starts the file over; {@link #invalidateAll()} drops both tiers.
+ *
+ * Metrics: ai.llm.cache.gets{result=memory|disk|miss} and ai.llm.cache.disk.bytes.
+ */
+public class CachingLLMService implements LLMService {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingLLMService.class);
+
+    /**
+     * Canonical identity of a feedback request. A false hit would need two documents of the same
+     * length and core skills whose normalized texts share a 64-bit hash.
+     */
+    record Key(long resumeSkillsLow, long resumeSkillsHigh, long resumeTextHash, int resumeTextLength,
+               long jobSkillsLow, long jobSkillsHigh, long jobTitleHash, long jobTextHash, int jobTextLength,
+               boolean includeCoverLetter) {
+
+        static final int BYTES = 7 * Long.BYTES + 2 * Integer.BYTES + 1;
+
+        static Key of(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+            SkillMask resumeSkills = Objects.requireNonNullElse(resume.coreSkills(), SkillMask.EMPTY);
+            SkillMask jobSkills = Objects.requireNonNullElse(job.coreSkills(), SkillMask.EMPTY);
+            return new Key(resumeSkills.low(), resumeSkills.high(), TextHash.hash64(resume.rawText()), resume.rawText().length(),
+                    jobSkills.low(), jobSkills.high(), TextHash.hash64(job.title()), TextHash.hash64(job.rawText()),
+                    job.rawText().length(), includeCoverLetter);
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.putLong(resumeSkillsLow).putLong(resumeSkillsHigh).putLong(resumeTextHash).putInt(resumeTextLength)
+                    .putLong(jobSkillsLow).putLong(jobSkillsHigh).putLong(jobTitleHash).putLong(jobTextHash)
+                    .putInt(jobTextLength).put((byte) (includeCoverLetter ? 1 : 0));
+        }
+
+        static Key readFrom(ByteBuffer in, int at) {
+            return new Key(in.getLong(at), in.getLong(at + 8), in.getLong(at + 16), in.getInt(at + 24),
+                    in.getLong(at + 28), in.getLong(at + 36), in.getLong(at + 44), in.getLong(at + 52),
+                    in.getInt(at + 60), in.get(at + 64) != 0);
+        }
+    }
+
+    private final LLMService delegate;
+    private final LlmResponseStore store;
+    private final Cache<Key, LlmResponseStore.Entry> memory;
+    private final LongSupplier clock;
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    /**
+     * @param file      file tier, or null to cache in memory only; if it cannot be opened the
+     *                  cache runs in memory only
+     * @param namespace everything the cached answers depend on besides the key (backend, model,
+     *                  prompt templates); a file written under another namespace is started over
+     */
+    public CachingLLMService(LLMService delegate, Path file, String namespace, long maxFileBytes, long maxEntries,
+                             Duration ttl, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(delegate, openStore(file, namespace, maxFileBytes, ttl, objectMapper), maxEntries, ttl, meterRegistry,
+                System::currentTimeMillis);
+    }
+
+    CachingLLMService(LLMService delegate, LlmResponseStore store, long maxEntries, Duration ttl,
+                      MeterRegistry meterRegistry, LongSupplier clock) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.store = store;
+        this.clock = clock;
+        // A response loaded from the file keeps the expiry of its original write
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.creating((Key key, LlmResponseStore.Entry entry) ->
+                        ttl.minusMillis(clock.getAsLong() - entry.writtenAtMillis())))
+                .build();
+        this.memoryHits = gets(meterRegistry, "memory");
+        this.diskHits = gets(meterRegistry, "disk");
+        this.misses = gets(meterRegistry, "miss");
+        if (store != null) {
+            Gauge.builder("ai.llm.cache.disk.bytes", store, LlmResponseStore::sizeBytes)
+                    .description("Size of the LLM response cache file")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+        return generateFeedback(resume, job, includeCoverLetter, token -> {});
+    }
+
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                        Consumer<String> onToken) {
+        if (resume.partial() || job.partial()) return delegate.generateFeedback(resume, job, includeCoverLetter, onToken);
+        Key key = Key.of(resume, job, includeCoverLetter);
+        FeedbackDTO cached = lookup(key);
+        if (cached != null) return cached;
+        FeedbackDTO feedback = delegate.generateFeedback(resume, job, includeCoverLetter, onToken);
+        remember(key, feedback);
+        return feedback;
+    }
+
+    /**
+     * Answers the cached postings directly and sends only the rest to the backend, in one batch.
+     */
+    @Override
+    public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        List<FeedbackDTO> feedback = new ArrayList<>(jobs.size());
+        List<Integer> missing = new ArrayList<>();
+        List<ParsedJobDTO> missingJobs = new ArrayList<>();
+        Key[] keys = new Key[jobs.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            ParsedJobDTO job = jobs.get(i);
+            FeedbackDTO cached = null;
+            if (!resume.partial() && !job.partial()) {
+                keys[i] = Key.of(resume, job, false);
+                cached = lookup(keys[i]);
+            }
+            feedback.add(cached);
+            if (cached == null) {
+                missing.add(i);
+                missingJobs.add(job);
+            }
+        }
+        if (missingJobs.isEmpty()) return feedback;
+
+        List<FeedbackDTO> computed = delegate.generateFeedbackBatch(resume, missingJobs);
+        for (int m = 0; m < missing.size(); m++) {
+            int i = missing.get(m);
+            feedback.set(i, computed.get(m));
+            if (keys[i] != null) remember(keys[i], computed.get(m));
+        }
+        return feedback;
+    }
+
+    /** Drops every cached response, in memory and on disk (e.g. after a prompt change at runtime). */
+    public void invalidateAll() {
+        memory.invalidateAll();
+        if (store != null) store.clear();
+    }
+
+    private FeedbackDTO lookup(Key key) {
+        LlmResponseStore.Entry entry = memory.getIfPresent(key);
+        if (entry != null) {
+            memoryHits.increment();
+            return entry.feedback();
+        }
+        entry = store == null ? null : store.get(key);
+        if (entry != null) {
+            memory.put(key, entry);
+            diskHits.increment();
+            return entry.feedback();
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void remember(Key key, FeedbackDTO feedback) {
+        if (feedback == null || feedback.partial() || feedback.fallback()) return;
+        long now = clock.getAsLong();
+        memory.put(key, new LlmResponseStore.Entry(feedback, now));
+        if (store != null) store.put(key, feedback, now);
+    }
+
+    private static LlmResponseStore openStore(Path file, String namespace, long maxFileBytes, Duration ttl,
+                                              ObjectMapper objectMapper) {
+        if (file == null) return null;
+        try {
+            return LlmResponseStore.open(file, TextHash.hash64(namespace), maxFileBytes, ttl, objectMapper);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not open LLM response cache file {}, caching in memory only: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private static Counter gets(MeterRegistry registry, String result) {
+        return Counter.builder("ai.llm.cache.gets")
+                .description("LLM feedback lookups by where they were answered: memory, disk or miss (backend called)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** Closes the file tier. */
+    public void shutdown() {
+        if (store != null) store.close();
+    }
+}
@@ -0,0 +1,91 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.PromptCompactor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Sends a remote {@link LLMService} the documents as shrunk by {@link PromptCompactor} instead of
+ * the full parsed text, so each call carries fewer input tokens.
+ *
+ * Every request records its estimated document tokens before and after compaction in
+ * ai.llm.prompt.tokens{stage=original|compacted}, and requests whose documents had to be cut to
+ * the budget in ai.llm.prompt.truncated; the per-request numbers are logged at debug.
+ */
+public class CompactingLLMService implements LLMService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactingLLMService.class);
+
+    private final LLMService delegate;
+    private final PromptCompactor compactor;
+    private final DistributionSummary originalTokens;
+    private final DistributionSummary compactedTokens;
+    private final Counter truncated;
+
+    public CompactingLLMService(LLMService delegate, PromptCompactor compactor, MeterRegistry meterRegistry) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.compactor = Objects.requireNonNull(compactor, "compactor");
+        this.originalTokens = tokens(meterRegistry, "original");
+        this.compactedTokens = tokens(meterRegistry, "compacted");
+        this.truncated = Counter.builder("ai.llm.prompt.truncated")
+                .description("LLM requests whose documents were cut to the token budget")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+        PromptCompactor.Result compact = compact(resume, job);
+        return delegate.generateFeedback(compact.resume(), compact.job(), includeCoverLetter);
+    }
+
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                        Consumer<String> onToken) {
+        PromptCompactor.Result compact = compact(resume, job);
+        return delegate.generateFeedback(compact.resume(), compact.job(), includeCoverLetter, onToken);
+    }
+
+    /**
+     * Compacts the resume once for the whole batch (see {@link PromptCompactor#compactAll}) and
+     * stays one batch call to the delegate.
+     */
+    @Override
+    public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        if (jobs.isEmpty()) return List.of();
+        List<PromptCompactor.Result> compacted = compactor.compactAll(resume, jobs);
+        for (PromptCompactor.Result compact : compacted) record(compact);
+        return delegate.generateFeedbackBatch(compacted.get(0).resume(),
+                compacted.stream().map(PromptCompactor.Result::job).toList());
+    }
+
+    private PromptCompactor.Result compact(ParsedResumeDTO resume, ParsedJobDTO job) {
+        return record(compactor.compact(resume, job));
+    }
+
+    private PromptCompactor.Result record(PromptCompactor.Result compact) {
+        originalTokens.record(compact.originalTokens());
+        compactedTokens.record(compact.compactedTokens());
+        if (compact.truncated()) truncated.increment();
+        log.debug("Compacted LLM documents from ~{} to ~{} tokens{}", compact.originalTokens(), compact.compactedTokens(),
+                compact.truncated() ? " (cut to the budget)" : "");
+        return compact;
+    }
+
+    private static DistributionSummary tokens(MeterRegistry registry, String stage) {
+        return DistributionSummary.builder("ai.llm.prompt.tokens")
+                .description("Estimated document tokens per LLM request, before and after compaction")
+                .baseUnit("tokens")
+                .tag("stage", stage)
+                .register(registry);
+    }
+}
@@ -3,71 +3,68 @@ package adriangarciao.ai_job_app_assistant.service.ai.llm;
 import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SkillMask;
+import adriangarciao.ai_job_app_assistant.service.ai.SkillCanonicalizer;
+import adriangarciao.ai_job_app_assistant.service.ai.SkillVocabulary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 public class FakeLLMService implements LLMService {
 
-    private static final Set<String> STOPWORDS = Set.of(
-            "the", "and", "or", "a", "an", "to", "of", "for", "in", "on", "with",
-            "is", "are", "was", "were", "be", "been", "being", "have", "has", "had",
-            "do", "does", "did", "will", "would", "should", "could", "may", "might",
-            "at", "by", "from", "as", "that", "this", "it", "we", "you", "they"
-    );
-
-    // Core technical skills/concepts that should appear in feedback
-    // Note: "go" is intentionally excluded as it's too commonly used as a verb in job postings
-    // "golang" can still be detected via the isCoreSkill special handling
-    private static final Set<String> CORE_SKILL_KEYWORDS = Set.of(
-            "java", "python", "c++", "c#", "javascript", "typescript", "golang", "rust", "ruby", "php", "swift", "kotlin",
-            "react", "angular", "vue", "node", "express", "spring", "django", "flask", "rails",
-            "docker", "kubernetes", "k8s", "aws", "gcp", "azure", "cloud",
-            "sql", "postgres", "mysql", "mongodb", "redis", "cassandra", "elasticsearch",
-            "rest", "graphql", "api", "microservices", "grpc",
-            "kafka", "rabbitmq", "memcached",
-            "linux", "unix", "git", "ci/cd", "jenkins", "github", "gitlab",
-            "backend", "frontend", "full stack", "fullstack",
-            "data structures", "algorithms", "distributed systems",
-            "terraform", "ansible", "nginx", "apache",
-            "hadoop", "spark", "airflow",
-            "pytorch", "tensorflow", "scikit", "pandas", "numpy",
-            "elixir", "erlang", "scala", "clojure"
-    );
-
     private static final double SKILL_WEIGHT = 0.7;
     private static final double TEXT_OVERLAP_WEIGHT = 0.3;
     private static final int TEXT_OVERLAP_CAP = 60;
     private static final int MAX_STRENGTH_SKILLS = 10;
     private static final int MAX_WEAKNESS_SKILLS = 10;
 
+    /**
+     * What scoring needs from a resume: its core skills and its distinct filtered tokens.
+     */
+    private record ResumeProfile(SkillMask coreSkills, LongHashSet tokens) {
+        static final ResumeProfile EMPTY = new ResumeProfile(SkillMask.EMPTY, LongHashSet.EMPTY);
+    }
+
+    // Profiles of recently scored resumes, keyed by instance (weak keys compare by identity), so a
+    // resume scored against many postings is tokenized once. Entries go away with the parsed resume.
+    private final Cache<ParsedResumeDTO, ResumeProfile> resumeProfiles = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1024)
+            .build();
+
+    // Reads the skills of hand-built DTOs that carry no precomputed core skills
+    private final SkillCanonicalizer skillCanonicalizer;
+
+    public FakeLLMService() {
+        this(SkillCanonicalizer.defaults());
+    }
+
+    public FakeLLMService(SkillCanonicalizer skillCanonicalizer) {
+        this.skillCanonicalizer = Objects.requireNonNull(skillCanonicalizer, "skillCanonicalizer");
+    }
+
     @Override
     public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
-        // Extract core skills from job and resume
-        Set<String> jobCoreSkills = extractJobCoreSkills(job);
-        Set<String> resumeCoreSkills = toCoreSkills(resume == null ? List.of() : resume.skills());
+        ResumeProfile profile = resume == null ? ResumeProfile.EMPTY : resumeProfiles.get(resume, this::profileOf);
+
+        // Core skills from job and resume as masks; set algebra is bitwise
+        SkillMask jobCoreSkills = extractJobCoreSkills(job);
+        SkillMask resumeCoreSkills = profile.coreSkills();
 
         // Compute matched and missing skills
-        Set<String> matchedCoreSkills = new HashSet<>(resumeCoreSkills);
-        matchedCoreSkills.retainAll(jobCoreSkills);
-        
-        Set<String> missingCoreSkills = new HashSet<>(jobCoreSkills);
-        missingCoreSkills.removeAll(resumeCoreSkills);
+        SkillMask matchedCoreSkills = resumeCoreSkills.and(jobCoreSkills);
+        SkillMask missingCoreSkills = jobCoreSkills.andNot(resumeCoreSkills);
 
         // Calculate match score (keep existing formula)
-        int jobSkillCount = Math.max(jobCoreSkills.size(), 1);
-        int matchedCount = matchedCoreSkills.size();
+        int jobSkillCount = Math.max(jobCoreSkills.count(), 1);
+        int matchedCount = matchedCoreSkills.count();
         double skillScore = (matchedCount / (double) jobSkillCount) * 100.0;
 
-        String resumeText = resume == null ? "" : resume.rawText();
-        String jobText = job == null ? "" : job.rawText();
-        double textOverlapScore = calculateTextOverlapScore(resumeText, jobText);
+        double textOverlapScore = calculateTextOverlapScore(profile, job);
 
         int matchScore = (int) Math.round(SKILL_WEIGHT * skillScore + TEXT_OVERLAP_WEIGHT * textOverlapScore);
         matchScore = Math.max(0, Math.min(100, matchScore));
@@ -86,116 +83,62 @@ public class FakeLLMService implements LLMService {
         String jobLocation = (job != null) ? job.jobLocation() : null;
         String compensationInfo = (job != null) ? job.compensationInfo() : null;
 
-        return new FeedbackDTO(matchScore, strengths, weaknesses, suggestions, summary, jobLocation, compensationInfo);
+        boolean partial = (resume != null && resume.partial()) || (job != null && job.partial());
+        if (partial) {
+            summary += " Part of the input was too complex to analyze fully, so this result may be incomplete.";
+        }
+
+        return new FeedbackDTO(matchScore, strengths, weaknesses, suggestions, summary, jobLocation, compensationInfo,
+                partial);
     }
 
     /**
-     * Checks if a skill string contains a real technical skill/concept.
-     * Special handling: plain "go" is rejected (too common as a verb),
-     * but "golang" is accepted as a valid skill.
+     * Scores the postings in parallel on the common pool; each posting is scored exactly as
+     * {@link #generateFeedback} would, and the resume profile is built once for the whole batch.
      */
-    private boolean isCoreSkill(String skill) {
-        if (skill == null || skill.isBlank()) return false;
-        String normalized = skill.toLowerCase(Locale.ROOT).trim();
-        
-        // Explicitly reject plain "go" as it's a common verb, not the language
-        if (normalized.equals("go")) {
-            return false;
-        }
-        
-        // Allow "golang" or phrases containing "golang"
-        if (normalized.contains("golang")) {
-            return true;
-        }
-        
-        // Check if any core keyword appears in this skill
-        return CORE_SKILL_KEYWORDS.stream().anyMatch(normalized::contains);
+    @Override
+    public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        if (resume != null) resumeProfiles.get(resume, this::profileOf);
+        return jobs.parallelStream().map(job -> generateFeedback(resume, job, false)).toList();
     }
 
     /**
-     * Converts a collection of skill phrases to a set of core technical skills.
-     * Extracts and identifies core skill keywords from phrases.
+     * Core skills of the resume; parsers precompute them, hand-built DTOs are classified here.
      */
-    private Set<String> toCoreSkills(Collection<String> phrasesOrSkills) {
-        Set<String> coreSkills = new HashSet<>();
-        
-        for (String phrase : phrasesOrSkills) {
-            if (phrase == null || phrase.isBlank()) continue;
-            
-            String normalized = normalizeSkillName(phrase);
-            
-            // Find which core skill keywords are present in this phrase
-            for (String keyword : CORE_SKILL_KEYWORDS) {
-                if (normalized.contains(keyword)) {
-                    coreSkills.add(keyword);
-                }
-            }
-        }
-        
-        return coreSkills;
+    private SkillMask resumeCoreSkills(ParsedResumeDTO resume) {
+        return resume.coreSkills() != null ? resume.coreSkills() : SkillVocabulary.coreSkillsOf(resume.skills(), skillCanonicalizer);
     }
 
     /**
      * Extracts core skills from both required and nice-to-have job skills.
      */
-    private Set<String> extractJobCoreSkills(ParsedJobDTO job) {
-        if (job == null) return Set.of();
-        
-        Set<String> coreSkills = new HashSet<>();
-        coreSkills.addAll(toCoreSkills(job.requiredSkills()));
-        coreSkills.addAll(toCoreSkills(job.niceToHaveSkills()));
-        return coreSkills;
+    private SkillMask extractJobCoreSkills(ParsedJobDTO job) {
+        if (job == null) return SkillMask.EMPTY;
+        if (job.coreSkills() != null) return job.coreSkills();
+
+        return SkillVocabulary.coreSkillsOf(job.requiredSkills(), skillCanonicalizer)
+                .or(SkillVocabulary.coreSkillsOf(job.niceToHaveSkills(), skillCanonicalizer));
     }
 
-    /**
-     * Normalizes a skill name for matching and display.
-     * Examples: "AWS experience" → "aws", "Spring-Boot" → "spring boot"
-     */
-    private String normalizeSkillName(String skill) {
-        if (skill == null) return "";
-        
-        String normalized = skill.toLowerCase(Locale.ROOT)
-                .replaceAll("[^a-z0-9+#.\\s-]", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
-        
-        // Standardize common variations
-        normalized = normalized.replaceAll("\\bk8s\\b", "kubernetes");
-        normalized = normalized.replaceAll("\\bspring-?boot\\b", "spring boot");
-        normalized = normalized.replaceAll("\\bfull-?stack\\b", "full stack");
-        normalized = normalized.replaceAll("\\bci-?cd\\b", "ci/cd");
-        normalized = normalized.replaceAll("\\bpostgresql\\b", "postgres");
-        
-        return normalized;
+    private ResumeProfile profileOf(ParsedResumeDTO resume) {
+        return new ResumeProfile(resumeCoreSkills(resume), TokenOverlap.distinctTokens(resume.rawText(), resume.tokens()));
     }
 
-    private double calculateTextOverlapScore(String resumeText, String jobText) {
-        if (resumeText == null || resumeText.isBlank() || jobText == null || jobText.isBlank()) {
+    private double calculateTextOverlapScore(ResumeProfile resume, ParsedJobDTO job) {
+        String jobText = job == null ? "" : job.rawText();
+        if (resume.tokens().isEmpty() || jobText.isBlank()) {
             return 0.0;
         }
 
-        Set<String> resumeTokens = tokenizeAndFilter(resumeText);
-        Set<String> jobTokens = tokenizeAndFilter(jobText);
-
+        LongHashSet jobTokens = TokenOverlap.distinctTokens(jobText, job.tokens());
         if (jobTokens.isEmpty()) return 0.0;
 
-        long overlapCount = resumeTokens.stream()
-                .filter(jobTokens::contains)
-                .count();
+        int overlap = resume.tokens().countShared(jobTokens);
 
-        double score = (overlapCount / (double) jobTokens.size()) * 100.0;
+        double score = (overlap / (double) jobTokens.size()) * 100.0;
         return Math.min(score, TEXT_OVERLAP_CAP);
     }
 
-    private Set<String> tokenizeAndFilter(String text) {
-        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\s+"))
-                .map(token -> token.replaceAll("[^a-z0-9+#.-]", ""))
-                .filter(token -> !token.isBlank())
-                .filter(token -> token.length() >= 3)
-                .filter(token -> !STOPWORDS.contains(token))
-                .collect(Collectors.toSet());
-    }
-
     /**
      * Capitalizes the first letter of a skill name for display.
      */
@@ -209,18 +152,16 @@ public class FakeLLMService implements LLMService {
     /**
      * Builds a concise list of matched core skills as strengths.
      */
-    private List<String> buildStrengths(Set<String> matchedCoreSkills) {
+    private List<String> buildStrengths(SkillMask matchedCoreSkills) {
         List<String> strengths = new ArrayList<>();
         
         if (matchedCoreSkills.isEmpty()) {
             strengths.add("Your resume does not yet highlight the key technologies mentioned in this job.");
         } else {
-            // Add each matched skill as a separate strength, capped at MAX_STRENGTH_SKILLS
-            matchedCoreSkills.stream()
-                    .sorted()
-                    .limit(MAX_STRENGTH_SKILLS)
-                    .map(this::capitalizeSkill)
-                    .forEach(strengths::add);
+            // Add each matched skill as a separate strength, capped at MAX_STRENGTH_SKILLS (ids iterate alphabetically)
+            for (String skill : SkillVocabulary.names(matchedCoreSkills, MAX_STRENGTH_SKILLS)) {
+                strengths.add(capitalizeSkill(skill));
+            }
         }
         
         return strengths;
@@ -229,7 +170,7 @@ public class FakeLLMService implements LLMService {
     /**
      * Builds a concise list of missing core skills as weaknesses.
      */
-    private List<String> buildWeaknesses(Set<String> missingCoreSkills, int matchScore) {
+    private List<String> buildWeaknesses(SkillMask missingCoreSkills, int matchScore) {
         List<String> weaknesses = new ArrayList<>();
         
         if (missingCoreSkills.isEmpty()) {
@@ -239,11 +180,9 @@ public class FakeLLMService implements LLMService {
             }
         } else {
             // Add each missing skill as a separate weakness, capped at MAX_WEAKNESS_SKILLS
-            missingCoreSkills.stream()
-                    .sorted()
-                    .limit(MAX_WEAKNESS_SKILLS)
-                    .map(this::capitalizeSkill)
-                    .forEach(weaknesses::add);
+            for (String skill : SkillVocabulary.names(missingCoreSkills, MAX_WEAKNESS_SKILLS)) {
+                weaknesses.add(capitalizeSkill(skill));
+            }
         }
         
         return weaknesses;
@@ -252,16 +191,13 @@ public class FakeLLMService implements LLMService {
     /**
      * Builds 2-3 high-level suggestions instead of per-skill spam.
      */
-    private List<String> buildSuggestions(Set<String> missingCoreSkills, Set<String> matchedCoreSkills,
+    private List<String> buildSuggestions(SkillMask missingCoreSkills, SkillMask matchedCoreSkills,
                                           double skillScore, double textOverlapScore, boolean includeCoverLetter) {
         List<String> suggestions = new ArrayList<>();
         
         // Suggestion 1: If missing skills, suggest highlighting them if candidate knows them
         if (!missingCoreSkills.isEmpty()) {
-            List<String> exampleMissing = missingCoreSkills.stream()
-                    .sorted()
-                    .limit(3)
-                    .collect(Collectors.toList());
+            List<String> exampleMissing = SkillVocabulary.names(missingCoreSkills, 3);
             
             String examples = String.join(", ", exampleMissing);
             suggestions.add(String.format(
@@ -272,10 +208,7 @@ public class FakeLLMService implements LLMService {
         
         // Suggestion 2: If missing skills, suggest building projects
         if (!missingCoreSkills.isEmpty()) {
-            List<String> exampleMissing = missingCoreSkills.stream()
-                    .sorted()
-                    .limit(2)
-                    .collect(Collectors.toList());
+            List<String> exampleMissing = SkillVocabulary.names(missingCoreSkills, 2);
             
             String examples = String.join(" or ", exampleMissing);
             suggestions.add(String.format(
@@ -286,10 +219,7 @@ public class FakeLLMService implements LLMService {
         
         // Suggestion 3: If matched skills, suggest making them more visible
         if (!matchedCoreSkills.isEmpty()) {
-            List<String> exampleMatched = matchedCoreSkills.stream()
-                    .sorted()
-                    .limit(2)
-                    .collect(Collectors.toList());
+            List<String> exampleMatched = SkillVocabulary.names(matchedCoreSkills, 2);
             
             String examples = String.join(", ", exampleMatched);
             suggestions.add(String.format(
@@ -309,12 +239,9 @@ public class FakeLLMService implements LLMService {
         if (includeCoverLetter) {
             String hint;
             if (!matchedCoreSkills.isEmpty()) {
-                hint = matchedCoreSkills.stream()
-                        .sorted()
-                        .limit(3)
-                        .collect(Collectors.joining(", "));
+                hint = String.join(", ", SkillVocabulary.names(matchedCoreSkills, 3));
             } else if (!missingCoreSkills.isEmpty()) {
-                hint = missingCoreSkills.stream().findFirst().orElse("relevant skills");
+                hint = SkillVocabulary.names(missingCoreSkills, 1).get(0);
             } else {
                 hint = "relevant skills";
             }
@@ -329,12 +256,4 @@ public class FakeLLMService implements LLMService {
         if (matchScore >= 40) return "moderate";
         return "weak";
     }
-
-    private String normalizeForMatching(String skill) {
-        if (skill == null) return "";
-        return skill.toLowerCase(Locale.ROOT)
-                .replaceAll("[^a-z0-9+#.\\s-]", "")
-                .replaceAll("\\s+", " ")
-                .trim();
-    }
 }
\ No newline at end of file
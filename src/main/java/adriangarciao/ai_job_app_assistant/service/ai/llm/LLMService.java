@@ -4,9 +4,36 @@ import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Abstraction for generating AI-style feedback from parsed resume and job posting.
  */
 public interface LLMService {
     FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter);
+
+    /**
+     * Same feedback; backends that produce their answer incrementally also hand each piece of
+     * generated text to {@code onToken} as it arrives (possibly from another thread). The returned
+     * feedback is authoritative. The default produces no tokens.
+     */
+    default FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                         Consumer<String> onToken) {
+        return generateFeedback(resume, job, includeCoverLetter);
+    }
+
+    /**
+     * Feedback for one resume against many postings, in the order of {@code jobs} and without
+     * cover-letter suggestions. Implementations that can reuse per-resume work (or batch calls to
+     * a remote model) should override this; the default scores the postings one by one.
+     */
+    default List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        List<FeedbackDTO> feedback = new ArrayList<>(jobs.size());
+        for (ParsedJobDTO job : jobs) {
+            feedback.add(generateFeedback(resume, job, false));
+        }
+        return feedback;
+    }
 }
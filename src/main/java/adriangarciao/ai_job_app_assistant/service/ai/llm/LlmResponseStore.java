@@ -0,0 +1,314 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of cached LLM responses, read through a memory mapping.
+ *
+ * The file starts with a header holding a hash of the cache namespace (backend, model, prompt
+ * templates); opening it under another namespace starts it over, so a prompt change never
+ * serves answers to the old prompt. Records are {@code [length][crc32][writtenAt][key][feedback
+ * JSON]}. On open the file is scanned to rebuild the key to offset index (the last record for a
+ * key wins); a torn tail from a crash mid-append fails its length or CRC check and is cut off,
+ * expired records are dropped, and if dead records outweigh live ones the file is rewritten
+ * with the live ones only. Appends stop at {@code maxBytes}.
+ *
+ * I/O failures are logged and treated as misses: the store is a cache and must never fail a
+ * request. Truncation (invalidate, compaction) takes the write lock, so no reader can touch a
+ * mapped page past the end of the file.
+ */
+final class LlmResponseStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseStore.class);
+
+    private static final int MAGIC = 0x4C4C4D43; // "LLMC"
+    private static final int FORMAT = 1;
+    static final int HEADER_BYTES = 16;
+    // length + crc + writtenAt + key
+    private static final int RECORD_PREFIX = 4 + 4 + 8 + CachingLLMService.Key.BYTES;
+
+    /** A stored response and when it was written (epoch millis). */
+    record Entry(FeedbackDTO feedback, long writtenAtMillis) {}
+
+    private final Path path;
+    private final long namespace;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final ObjectMapper json;
+    private final LongSupplier clock;
+    private final Map<CachingLLMService.Key, Long> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer mapped;
+    private long size; // guarded by the write lock
+    private boolean fullLogged;
+
+    private LlmResponseStore(Path path, long namespace, long maxBytes, Duration ttl, ObjectMapper json, LongSupplier clock) {
+        this.path = path;
+        this.namespace = namespace;
+        this.maxBytes = Math.min(maxBytes, Integer.MAX_VALUE);
+        this.ttlMillis = ttl.toMillis();
+        this.json = json;
+        this.clock = clock;
+    }
+
+    static LlmResponseStore open(Path path, long namespace, long maxBytes, Duration ttl, ObjectMapper json) throws IOException {
+        return open(path, namespace, maxBytes, ttl, json, System::currentTimeMillis);
+    }
+
+    static LlmResponseStore open(Path path, long namespace, long maxBytes, Duration ttl, ObjectMapper json,
+                                 LongSupplier clock) throws IOException {
+        Objects.requireNonNull(path, "path");
+        if (maxBytes <= HEADER_BYTES) throw new IllegalArgumentException("maxBytes must be > " + HEADER_BYTES + ", got " + maxBytes);
+        LlmResponseStore store = new LlmResponseStore(path, namespace, maxBytes, ttl, json, clock);
+        store.load();
+        return store;
+    }
+
+    /** The stored response for {@code key}, or null if there is none or it has expired. */
+    Entry get(CachingLLMService.Key key) {
+        Long offset = index.get(key);
+        if (offset == null) return null;
+        lock.readLock().lock();
+        try {
+            if (channel == null || !offset.equals(index.get(key))) return null;
+            int position = offset.intValue();
+            ByteBuffer buffer = mappedThrough(position + 4);
+            int length = buffer.getInt(position);
+            buffer = mappedThrough(position + 4 + length);
+            long writtenAt = buffer.getLong(position + 8);
+            if (expired(writtenAt)) {
+                index.remove(key, offset);
+                return null;
+            }
+            byte[] payload = new byte[length - (RECORD_PREFIX - 4)];
+            buffer.get(position + RECORD_PREFIX, payload);
+            return new Entry(json.readValue(payload, FeedbackDTO.class), writtenAt);
+        } catch (IOException e) {
+            log.warn("Could not read cached LLM response from {}: {}", path, e.toString());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Appends a response; returns false if it was not stored (file full or I/O failure). */
+    boolean put(CachingLLMService.Key key, FeedbackDTO feedback, long writtenAtMillis) {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) return false;
+            byte[] payload = json.writeValueAsBytes(feedback);
+            int length = RECORD_PREFIX - 4 + payload.length;
+            if (size + 4 + length > maxBytes) {
+                if (!fullLogged) {
+                    log.warn("LLM response cache file {} reached {} bytes; new responses stay in memory only", path, maxBytes);
+                    fullLogged = true;
+                }
+                return false;
+            }
+            ByteBuffer record = ByteBuffer.allocate(4 + length);
+            record.putInt(length).putInt(0).putLong(writtenAtMillis);
+            key.writeTo(record);
+            record.put(payload);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 8, record.capacity() - 8);
+            record.putInt(4, (int) crc.getValue());
+            record.flip();
+            long offset = size;
+            writeFully(channel, record, offset);
+            size += record.capacity();
+            index.put(key, offset);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not append to LLM response cache file {}: {}", path, e.toString());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops every stored response. */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            if (channel == null) return;
+            mapped = null;
+            channel.truncate(HEADER_BYTES);
+            size = HEADER_BYTES;
+            fullLogged = false;
+        } catch (IOException e) {
+            log.warn("Could not truncate LLM response cache file {}: {}", path, e.toString());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int entries() {
+        return index.size();
+    }
+
+    long sizeBytes() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            mapped = null;
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close LLM response cache file {}: {}", path, e.toString());
+        } finally {
+            channel = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean expired(long writtenAtMillis) {
+        return clock.getAsLong() - writtenAtMillis >= ttlMillis;
+    }
+
+    /** The current mapping, remapped first if it does not reach {@code end} yet. */
+    private ByteBuffer mappedThrough(int end) throws IOException {
+        MappedByteBuffer buffer = mapped;
+        if (buffer != null && buffer.capacity() >= end) return buffer;
+        synchronized (this) {
+            buffer = mapped;
+            if (buffer == null || buffer.capacity() < end) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                mapped = buffer;
+            }
+            return buffer;
+        }
+    }
+
+    private void load() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!headerMatches()) {
+            if (channel.size() > 0) log.info("LLM response cache {} belongs to another prompt or format; starting it over", path);
+            startOver();
+            return;
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        long fileSize = channel.size();
+        long liveBytes = 0;
+        int position = HEADER_BYTES;
+        Map<CachingLLMService.Key, Integer> lengths = new HashMap<>();
+        while (position + RECORD_PREFIX <= fileSize) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_PREFIX - 4 || position + 4L + length > fileSize || !crcMatches(buffer, position, length)) break;
+            long writtenAt = buffer.getLong(position + 8);
+            CachingLLMService.Key key = CachingLLMService.Key.readFrom(buffer, position + 16);
+            Long previous = index.remove(key);
+            if (previous != null) liveBytes -= 4 + lengths.get(key);
+            if (!expired(writtenAt)) {
+                index.put(key, (long) position);
+                lengths.put(key, length);
+                liveBytes += 4 + length;
+            }
+            position += 4 + length;
+        }
+        size = position;
+        if (position < fileSize) {
+            log.warn("Cutting {} bytes of incomplete records off LLM response cache {}", fileSize - position, path);
+            channel.truncate(position);
+        }
+        long deadBytes = size - HEADER_BYTES - liveBytes;
+        if (deadBytes > liveBytes) {
+            compact(buffer);
+        }
+        log.info("LLM response cache {}: {} responses, {} bytes", path, index.size(), size);
+    }
+
+    private boolean headerMatches() throws IOException {
+        if (channel.size() < HEADER_BYTES) return false;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read until the header is complete
+        }
+        return header.getInt(0) == MAGIC && header.getInt(4) == FORMAT && header.getLong(8) == namespace;
+    }
+
+    private void startOver() throws IOException {
+        index.clear();
+        channel.truncate(0);
+        writeFully(channel, header(), 0);
+        size = HEADER_BYTES;
+    }
+
+    private ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT).putLong(namespace).flip();
+    }
+
+    /** Rewrites the file with only the live records, in their original order. */
+    private void compact(MappedByteBuffer buffer) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+        List<Map.Entry<CachingLLMService.Key, Long>> live = new ArrayList<>(index.entrySet());
+        live.sort(Comparator.comparingLong(Map.Entry::getValue));
+        long before = size;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, header(), 0);
+            long position = HEADER_BYTES;
+            for (Map.Entry<CachingLLMService.Key, Long> entry : live) {
+                int offset = entry.getValue().intValue();
+                int recordBytes = 4 + buffer.getInt(offset);
+                writeFully(out, buffer.slice(offset, recordBytes), position);
+                entry.setValue(position);
+                position += recordBytes;
+            }
+            size = position;
+        }
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        for (Map.Entry<CachingLLMService.Key, Long> entry : live) index.put(entry.getKey(), entry.getValue());
+        log.info("Compacted LLM response cache {} from {} to {} bytes", path, before, size);
+    }
+
+    private static boolean crcMatches(ByteBuffer buffer, int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + 8, length - 4));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        long at = position;
+        while (data.hasRemaining()) at += channel.write(data, at);
+    }
+}
@@ -0,0 +1,74 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+/**
+ * Open-addressing set of 64-bit values (linear probing, power-of-two table).
+ *
+ * Values are expected to be well-mixed hashes, so the low bits pick the slot directly. Zero marks
+ * an empty slot and is tracked on the side. Sized up front for an upper bound on the element
+ * count; it never rehashes. Not thread-safe while being filled, safe to share once built.
+ */
+public final class LongHashSet {
+
+    public static final LongHashSet EMPTY = new LongHashSet(0);
+
+    private final long[] slots;
+    private final int mask;
+    private boolean containsZero;
+    private int size;
+
+    /** A set that can hold up to {@code maxElements} values at a load factor of at most 1/2. */
+    public LongHashSet(int maxElements) {
+        int capacity = Integer.highestOneBit(Math.max(8, maxElements) * 2 - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /** Adds {@code value}; returns false if it was already present. */
+    public boolean add(long value) {
+        if (this == EMPTY) throw new UnsupportedOperationException("LongHashSet.EMPTY is immutable");
+        if (value == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = (int) value & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) return containsZero;
+        int i = (int) value & mask;
+        long slot;
+        while ((slot = slots[i]) != 0) {
+            if (slot == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Size of the intersection; walks the smaller set and probes the larger one. */
+    public int countShared(LongHashSet other) {
+        LongHashSet small = size <= other.size ? this : other;
+        LongHashSet large = small == this ? other : this;
+        int shared = small.containsZero && large.containsZero ? 1 : 0;
+        for (long value : small.slots) {
+            if (value != 0 && large.contains(value)) shared++;
+        }
+        return shared;
+    }
+}
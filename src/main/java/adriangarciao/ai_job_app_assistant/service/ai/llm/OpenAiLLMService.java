@@ -0,0 +1,419 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.exception.LlmBackendException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * {@link LLMService} backed by an OpenAI-compatible chat completions endpoint
+ * ({@code POST {base-url}/chat/completions}).
+ *
+ * All calls share one {@link HttpClient}, which pools connections and multiplexes requests over
+ * HTTP/2 when the server offers it, so concurrent analyses do not each open a connection. Every
+ * call is bounded by {@link Settings#requestTimeout()}. The documents are cut to fit
+ * {@link Settings#maxInputTokens()} (estimated at {@value #CHARS_PER_TOKEN} chars per token) and the
+ * answer is capped at {@link Settings#maxOutputTokens()}; feedback built from a cut document is
+ * flagged partial. With {@link Settings#stream()} the answer is read as server-sent deltas.
+ *
+ * A call that is interrupted, times out or fails aborts its HTTP exchange and returns only once
+ * the exchange has ended, so callers that count calls in flight (the bulkhead in
+ * {@link ResilientLLMService}) never undercount the backend's load. A batch keeps at most
+ * {@link Settings#maxBatchConcurrency()} requests in flight.
+ */
+public class OpenAiLLMService implements LLMService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiLLMService.class);
+
+    /**
+     * Backend settings. {@code apiKey} may be blank for servers that do not check it.
+     */
+    public record Settings(
+            URI baseUri,
+            String apiKey,
+            String model,
+            Duration requestTimeout,
+            int maxInputTokens,
+            int maxOutputTokens,
+            boolean stream,
+            int maxBatchConcurrency
+    ) {
+        public Settings(URI baseUri, String apiKey, String model, Duration requestTimeout, int maxInputTokens,
+                        int maxOutputTokens, boolean stream) {
+            this(baseUri, apiKey, model, requestTimeout, maxInputTokens, maxOutputTokens, stream, DEFAULT_BATCH_CONCURRENCY);
+        }
+
+        public Settings {
+            Objects.requireNonNull(baseUri, "baseUri");
+            Objects.requireNonNull(model, "model");
+            Objects.requireNonNull(requestTimeout, "requestTimeout");
+            apiKey = Objects.requireNonNullElse(apiKey, "");
+            if (maxInputTokens * CHARS_PER_TOKEN <= INSTRUCTIONS_CHARS) {
+                throw new IllegalArgumentException("maxInputTokens must leave room for the documents, got " + maxInputTokens);
+            }
+            if (maxOutputTokens < 1) {
+                throw new IllegalArgumentException("maxOutputTokens must be >= 1, got " + maxOutputTokens);
+            }
+            if (maxBatchConcurrency < 1) {
+                throw new IllegalArgumentException("maxBatchConcurrency must be >= 1, got " + maxBatchConcurrency);
+            }
+        }
+    }
+
+    static final int CHARS_PER_TOKEN = 4;
+    static final int DEFAULT_BATCH_CONCURRENCY = 8;
+
+    private static final String SYSTEM_PROMPT = """
+            You are a career coach comparing a resume with a job posting. Reply with one JSON object and
+            nothing else, with these fields: "matchScore" (integer 0-100, how well the resume fits the
+            posting), "strengths" and "weaknesses" (arrays of short skill or experience names),
+            "suggestions" (array of at most 4 concrete suggestions) and "summary" (one sentence).""";
+    private static final String COVER_LETTER_NOTE =
+            "\nAlso add one suggestion on what a cover letter for this posting should emphasize.";
+    // Prompt text around the two documents, in chars, reserved out of the input budget
+    private static final int INSTRUCTIONS_CHARS = SYSTEM_PROMPT.length() + COVER_LETTER_NOTE.length() + 64;
+
+    // Bump when the user message built in prompt() changes shape; part of cacheNamespace()
+    private static final int PROMPT_LAYOUT_VERSION = 1;
+
+    private record Prompt(String messages, boolean truncated) {}
+
+    private static final Consumer<String> NO_TOKENS = token -> {};
+
+    // Most of an error body that is read; backendError keeps only the first 200 chars of it anyway
+    private static final int MAX_ERROR_BODY_CHARS = 4096;
+
+    /**
+     * One request to the backend. Cancelling a stage derived from {@code sendAsync} leaves the
+     * exchange running, so a call keeps the {@code sendAsync} future itself and, while a streamed
+     * body is read, its input stream; {@link #cancel()} cancels the one and closes the other.
+     */
+    private static final class Call {
+        private CompletableFuture<?> exchange;
+        private volatile InputStream body;
+        private volatile boolean cancelled;
+        // Completes when the exchange and the reading of its body have ended, however they ended
+        private CompletableFuture<?> reading;
+        private CompletableFuture<FeedbackDTO> result;
+
+        /** Registers a streamed body being read; closes it at once if the call was already cancelled. */
+        void streaming(InputStream in) throws IOException {
+            body = in;
+            if (cancelled) in.close();
+        }
+
+        boolean cancelled() {
+            return cancelled;
+        }
+
+        void cancel() {
+            cancelled = true;
+            exchange.cancel(true);
+            InputStream in = body;
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    log.debug("Closing an abandoned LLM response failed: {}", e.toString());
+                }
+            }
+        }
+
+        /** Cancels the call and waits (at most {@code max}) until the exchange has ended. */
+        void abort(Duration max) {
+            cancel();
+            try {
+                reading.handle((content, failure) -> null).get(max.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("LLM exchange still running {} ms after it was aborted", max.toMillis());
+            }
+        }
+    }
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final Settings settings;
+    private final URI completionsUri;
+
+    public OpenAiLLMService(HttpClient http, ObjectMapper json, Settings settings) {
+        this.http = Objects.requireNonNull(http, "http");
+        this.json = Objects.requireNonNull(json, "json");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        String base = settings.baseUri().toString();
+        this.completionsUri = URI.create(base.endsWith("/") ? base + "chat/completions" : base + "/chat/completions");
+    }
+
+    /**
+     * What an answer depends on besides the two documents: endpoint, model, limits and prompt
+     * templates. Cached answers are only valid under the same namespace.
+     */
+    public String cacheNamespace() {
+        return String.join("|", "openai", settings.baseUri().toString(), settings.model(),
+                Integer.toString(settings.maxInputTokens()), Integer.toString(settings.maxOutputTokens()),
+                Integer.toString(PROMPT_LAYOUT_VERSION), SYSTEM_PROMPT, COVER_LETTER_NOTE);
+    }
+
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+        return await(requestFeedback(resume, job, includeCoverLetter, NO_TOKENS));
+    }
+
+    /**
+     * With {@link Settings#stream()} each content delta is passed to {@code onToken} as it is read.
+     */
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                        Consumer<String> onToken) {
+        return await(requestFeedback(resume, job, includeCoverLetter, Objects.requireNonNull(onToken, "onToken")));
+    }
+
+    /**
+     * Sends the postings concurrently, at most {@link Settings#maxBatchConcurrency()} at a time,
+     * and waits for all of them; the client spreads the calls over its pooled connections.
+     */
+    @Override
+    public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        List<Call> calls = new ArrayList<>(jobs.size());
+        Semaphore slots = new Semaphore(settings.maxBatchConcurrency());
+        try {
+            for (ParsedJobDTO job : jobs) {
+                slots.acquire();
+                Call call = requestFeedback(resume, job, false, NO_TOKENS);
+                calls.add(call);
+                call.reading.whenComplete((content, failure) -> slots.release());
+            }
+            List<FeedbackDTO> feedback = new ArrayList<>(calls.size());
+            for (Call call : calls) feedback.add(await(call));
+            return feedback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("LLM batch cancelled");
+        } finally {
+            for (Call call : calls) {
+                if (!call.reading.isDone()) call.abort(settings.requestTimeout());
+            }
+        }
+    }
+
+    private Call requestFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                                           Consumer<String> onToken) {
+        Prompt prompt = prompt(resume, job, includeCoverLetter);
+        HttpRequest.Builder request = HttpRequest.newBuilder(completionsUri)
+                .timeout(settings.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(prompt.messages()));
+        if (!settings.apiKey().isBlank()) request.header("Authorization", "Bearer " + settings.apiKey());
+
+        Call call = new Call();
+        CompletableFuture<String> content;
+        if (settings.stream()) {
+            CompletableFuture<HttpResponse<InputStream>> exchange =
+                    http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            call.exchange = exchange;
+            content = exchange.thenApply(response -> readStream(call, response, onToken));
+        } else {
+            CompletableFuture<HttpResponse<String>> exchange =
+                    http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString());
+            call.exchange = exchange;
+            content = exchange.thenApply(this::readMessage);
+        }
+        call.reading = content;
+        boolean partial = prompt.truncated()
+                || (resume != null && resume.partial()) || (job != null && job.partial());
+        // The request timeout covers the wait for response headers; this also bounds reading a streamed body
+        call.result = content.copy()
+                .orTimeout(settings.requestTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(answer -> toFeedback(answer, job, partial));
+        // A call that timed out or failed gives up its exchange even if nobody is waiting on it
+        call.result.whenComplete((feedback, failure) -> {
+            if (failure != null) call.cancel();
+        });
+        return call;
+    }
+
+    /**
+     * Request body with both documents cut to the input budget. When both are too long each gets
+     * half of it; otherwise the longer one gets what the shorter one leaves.
+     */
+    private Prompt prompt(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+        String resumeText = resume == null ? "" : resume.rawText();
+        String jobText = job == null ? "" : job.rawText();
+        int budget = settings.maxInputTokens() * CHARS_PER_TOKEN - INSTRUCTIONS_CHARS;
+        int jobChars = Math.min(jobText.length(), Math.max(budget / 2, budget - resumeText.length()));
+        int resumeChars = Math.min(resumeText.length(), budget - jobChars);
+        boolean truncated = jobChars < jobText.length() || resumeChars < resumeText.length();
+
+        String user = "Job posting:\n" + jobText.substring(0, jobChars)
+                + "\n\nResume:\n" + resumeText.substring(0, resumeChars)
+                + (includeCoverLetter ? COVER_LETTER_NOTE : "");
+
+        ObjectNode body = json.createObjectNode();
+        body.put("model", settings.model());
+        body.put("max_tokens", settings.maxOutputTokens());
+        body.put("temperature", 0);
+        if (settings.stream()) body.put("stream", true);
+        body.putObject("response_format").put("type", "json_object");
+        ArrayNode messages = body.putArray("messages");
+        messages.addObject().put("role", "system").put("content", SYSTEM_PROMPT);
+        messages.addObject().put("role", "user").put("content", user);
+        try {
+            return new Prompt(json.writeValueAsString(body), truncated);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize LLM request", e);
+        }
+    }
+
+    private String readMessage(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) throw backendError(response.statusCode(), response.body());
+        JsonNode content = parse(response.body(), "response").path("choices").path(0).path("message").path("content");
+        if (!content.isTextual()) throw new LlmBackendException("LLM response has no message content");
+        return content.asText();
+    }
+
+    /**
+     * Concatenates the content deltas of a server-sent event stream ({@code data: {...}} lines,
+     * ended by {@code data: [DONE]}). Stops at the next line once the call is cancelled; a read
+     * blocked on the network is ended by {@link Call#cancel()} closing the body.
+     */
+    private String readStream(Call call, HttpResponse<InputStream> response, Consumer<String> onToken) {
+        try (InputStream body = response.body();
+             BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            call.streaming(body);
+            if (response.statusCode() / 100 != 2) {
+                throw backendError(response.statusCode(), readPrefix(lines, MAX_ERROR_BODY_CHARS));
+            }
+            StringBuilder content = new StringBuilder();
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                if (call.cancelled()) throw new CancellationException("LLM call cancelled");
+                if (!line.startsWith("data:")) continue;
+                String data = line.substring(5).strip();
+                if (data.equals("[DONE]")) break;
+                JsonNode delta = parse(data, "stream chunk").path("choices").path(0).path("delta").path("content");
+                if (delta.isTextual() && !delta.asText().isEmpty()) {
+                    content.append(delta.asText());
+                    onToken.accept(delta.asText());
+                }
+            }
+            return content.toString();
+        } catch (IOException e) {
+            if (call.cancelled()) throw new CancellationException("LLM call cancelled");
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the model's JSON answer; text around the object (e.g. a markdown fence) is ignored.
+     */
+    private FeedbackDTO toFeedback(String answer, ParsedJobDTO job, boolean partial) {
+        int start = answer.indexOf('{');
+        int end = answer.lastIndexOf('}');
+        if (start < 0 || end < start) throw new LlmBackendException("LLM answer is not a JSON object");
+        JsonNode feedback = parse(answer.substring(start, end + 1), "answer");
+        JsonNode score = feedback.get("matchScore");
+        if (score == null || !score.isNumber()) throw new LlmBackendException("LLM answer has no numeric matchScore");
+
+        return new FeedbackDTO(
+                Math.max(0, Math.min(100, (int) Math.round(score.asDouble()))),
+                strings(feedback.path("strengths")),
+                strings(feedback.path("weaknesses")),
+                strings(feedback.path("suggestions")),
+                feedback.path("summary").asText(""),
+                job == null ? null : job.jobLocation(),
+                job == null ? null : job.compensationInfo(),
+                partial);
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode value : array) {
+            if (value.isTextual() && !value.asText().isBlank()) values.add(value.asText().strip());
+        }
+        return values;
+    }
+
+    private JsonNode parse(String text, String what) {
+        try {
+            return json.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new LlmBackendException("LLM " + what + " is not valid JSON", e);
+        }
+    }
+
+    /** At most {@code max} chars from {@code reader}; the rest is left unread. */
+    private static String readPrefix(Reader reader, int max) throws IOException {
+        char[] buffer = new char[max];
+        int length = 0;
+        for (int n; length < max && (n = reader.read(buffer, length, max - length)) >= 0; ) length += n;
+        return new String(buffer, 0, length);
+    }
+
+    private static LlmBackendException backendError(int status, String body) {
+        String detail = body == null ? "" : body.strip();
+        if (detail.length() > 200) detail = detail.substring(0, 200) + "...";
+        return new LlmBackendException("LLM backend returned HTTP " + status + (detail.isEmpty() ? "" : ": " + detail));
+    }
+
+    /**
+     * Waits for one call, translating failures: timeouts become {@link AnalysisTimeoutException},
+     * I/O failures {@link LlmBackendException}. An interrupt or a failure aborts the exchange
+     * before this returns.
+     */
+    private FeedbackDTO await(Call call) {
+        try {
+            return call.result.get();
+        } catch (InterruptedException e) {
+            call.abort(settings.requestTimeout());
+            Thread.currentThread().interrupt();
+            throw new CancellationException("LLM call cancelled");
+        } catch (ExecutionException e) {
+            call.abort(settings.requestTimeout());
+            Throwable cause = e.getCause();
+            // A streamed body reports read failures as UncheckedIOException
+            if (cause instanceof UncheckedIOException unchecked) cause = unchecked.getCause();
+            if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                throw new AnalysisTimeoutException("LLM call did not finish within " + settings.requestTimeout().toMillis() + " ms");
+            }
+            if (cause instanceof IOException io) {
+                log.warn("LLM backend call to {} failed: {}", completionsUri, io.toString());
+                throw new LlmBackendException("LLM backend unreachable: " + io.getMessage(), io);
+            }
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
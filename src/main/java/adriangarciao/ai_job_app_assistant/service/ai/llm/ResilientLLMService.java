@@ -0,0 +1,320 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a remote {@link LLMService} from holding request threads when it is slow or down.
+ *
+ * Every call has a deadline. If the first attempt has not answered after a hedge delay (the
+ * rolling p95 of successful calls, never less than a configured minimum) a second attempt is sent
+ * and whichever answers first wins. At most {@code maxConcurrentCalls} attempts are in flight at
+ * once (a caller waits for a slot until its deadline; hedges only go out if a slot is free), and a
+ * circuit breaker stops calling a backend that keeps failing. An attempt abandoned at the deadline
+ * is interrupted but keeps its slot until the delegate returns, which for {@link OpenAiLLMService}
+ * is once the HTTP exchange has been aborted; the bulkhead thus bounds the requests the backend
+ * actually sees. Whenever the backend cannot answer
+ * in time, the deterministic fallback scores the request instead and the feedback is flagged
+ * {@link FeedbackDTO#fallback()}.
+ *
+ * Metrics: ai.llm.requests, ai.llm.hedges, ai.llm.fallbacks{reason}, ai.llm.latency (attempt
+ * latency percentiles) and ai.llm.circuit.open.
+ */
+public class ResilientLLMService implements LLMService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientLLMService.class);
+
+    public record Settings(
+            Duration deadline,
+            boolean hedge,
+            Duration minHedgeDelay,
+            int maxConcurrentCalls,
+            int breakerFailureThreshold,
+            Duration breakerOpenDuration
+    ) {
+        public Settings {
+            Objects.requireNonNull(deadline, "deadline");
+            Objects.requireNonNull(minHedgeDelay, "minHedgeDelay");
+            Objects.requireNonNull(breakerOpenDuration, "breakerOpenDuration");
+            if (maxConcurrentCalls < 1) {
+                throw new IllegalArgumentException("maxConcurrentCalls must be >= 1, got " + maxConcurrentCalls);
+            }
+        }
+    }
+
+    /** Why a request was answered by the fallback. */
+    enum FallbackReason { CIRCUIT_OPEN, BULKHEAD_FULL, DEADLINE, ERROR }
+
+    private final LLMService delegate;
+    private final LLMService fallback;
+    private final Settings settings;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter[] fallbacks;
+    private final Timer attemptLatency;
+
+    public ResilientLLMService(LLMService delegate, LLMService fallback, Settings settings, MeterRegistry meterRegistry) {
+        this(delegate, fallback, settings, meterRegistry,
+                new CircuitBreaker(settings.breakerFailureThreshold(), settings.breakerOpenDuration()));
+    }
+
+    ResilientLLMService(LLMService delegate, LLMService fallback, Settings settings, MeterRegistry meterRegistry,
+                        CircuitBreaker breaker) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.fallback = Objects.requireNonNull(fallback, "fallback");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls());
+        this.breaker = breaker;
+        this.requests = Counter.builder("ai.llm.requests")
+                .description("Feedback requests made to the LLM decorator")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("ai.llm.hedges")
+                .description("Second attempts sent because the first was slower than the hedge delay")
+                .register(meterRegistry);
+        this.fallbacks = Arrays.stream(FallbackReason.values())
+                .map(reason -> Counter.builder("ai.llm.fallbacks")
+                        .description("Requests answered by the fallback scorer")
+                        .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry))
+                .toArray(Counter[]::new);
+        this.attemptLatency = Timer.builder("ai.llm.latency")
+                .description("Latency of successful LLM backend attempts")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.circuit.open", breaker, b -> b.state() == CircuitBreaker.State.OPEN ? 1 : 0)
+                .description("1 while the circuit breaker refuses calls")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+        return generateFeedback(resume, job, includeCoverLetter, token -> {});
+    }
+
+    /**
+     * Tokens are forwarded from whichever attempt produces one first; a hedge that starts later
+     * stays silent. If the silent attempt wins, the returned feedback still reflects it.
+     */
+    @Override
+    public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                        Consumer<String> onToken) {
+        requests.increment();
+        long start = System.nanoTime();
+        long deadline = start + settings.deadline().toNanos();
+
+        if (!breaker.tryAcquire()) {
+            return fallback(FallbackReason.CIRCUIT_OPEN, resume, job, includeCoverLetter);
+        }
+        try {
+            if (!bulkhead.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                breaker.onAbandoned();
+                return fallback(FallbackReason.BULKHEAD_FULL, resume, job, includeCoverLetter);
+            }
+        } catch (InterruptedException e) {
+            breaker.onAbandoned();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("LLM call cancelled");
+        }
+
+        CompletionService<FeedbackDTO> attempts = new ExecutorCompletionService<>(executor);
+        List<Attempt> inFlight = new ArrayList<>(2);
+        AtomicInteger tokenSource = new AtomicInteger(-1);
+        try {
+            inFlight.add(submit(attempts, resume, job, includeCoverLetter, tokensFrom(0, tokenSource, onToken)));
+            long hedgeAt = settings.hedge() ? start + hedgeDelayNanos() : Long.MAX_VALUE;
+            int failed = 0;
+            while (true) {
+                long now = System.nanoTime();
+                long waitUntil = inFlight.size() == 1 ? Math.min(hedgeAt, deadline) : deadline;
+                Future<FeedbackDTO> done = waitUntil - now > 0 ? attempts.poll(waitUntil - now, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        breaker.onFailure();
+                        return fallback(FallbackReason.DEADLINE, resume, job, includeCoverLetter);
+                    }
+                    // Past the hedge delay with the first attempt still out; hedge only if a slot is free
+                    if (inFlight.size() == 1 && bulkhead.tryAcquire()) {
+                        hedges.increment();
+                        inFlight.add(submit(attempts, resume, job, includeCoverLetter, tokensFrom(1, tokenSource, onToken)));
+                    }
+                    hedgeAt = Long.MAX_VALUE;
+                    continue;
+                }
+                try {
+                    FeedbackDTO feedback = done.get();
+                    breaker.onSuccess();
+                    return feedback;
+                } catch (ExecutionException e) {
+                    log.debug("LLM attempt failed: {}", e.getCause().toString());
+                    if (++failed == inFlight.size()) {
+                        breaker.onFailure();
+                        log.warn("LLM backend failed, answering with the fallback scorer: {}", e.getCause().toString());
+                        return fallback(FallbackReason.ERROR, resume, job, includeCoverLetter);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("LLM call cancelled");
+        } finally {
+            for (Attempt attempt : inFlight) attempt.abandon();
+        }
+    }
+
+    /**
+     * Scores the postings concurrently, each as its own deadline-bound call; order is kept.
+     */
+    @Override
+    public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+        List<Future<FeedbackDTO>> calls = new ArrayList<>(jobs.size());
+        try {
+            for (ParsedJobDTO job : jobs) calls.add(executor.submit(() -> generateFeedback(resume, job, false)));
+            List<FeedbackDTO> feedback = new ArrayList<>(calls.size());
+            for (Future<FeedbackDTO> call : calls) feedback.add(call.get());
+            return feedback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("LLM batch cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        } finally {
+            for (Future<FeedbackDTO> call : calls) call.cancel(true);
+        }
+    }
+
+    /**
+     * A submitted attempt and who gives back its bulkhead slot: the attempt itself when it ends,
+     * or {@link #abandon()} if it was cancelled before it started.
+     */
+    private final class Attempt {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private Future<FeedbackDTO> future;
+
+        /** Called first thing by the attempt; false if it was abandoned before it started. */
+        boolean start() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void abandon() {
+            future.cancel(true);
+            if (claimed.compareAndSet(false, true)) bulkhead.release();
+        }
+    }
+
+    /** One attempt on a virtual thread; it holds a bulkhead slot (already acquired) until it ends. */
+    private Attempt submit(CompletionService<FeedbackDTO> attempts, ParsedResumeDTO resume,
+                           ParsedJobDTO job, boolean includeCoverLetter, Consumer<String> onToken) {
+        Attempt attempt = new Attempt();
+        try {
+            attempt.future = attempts.submit(() -> {
+                if (!attempt.start()) throw new CancellationException("LLM attempt abandoned");
+                long start = System.nanoTime();
+                try {
+                    FeedbackDTO feedback = delegate.generateFeedback(resume, job, includeCoverLetter, onToken);
+                    long elapsed = System.nanoTime() - start;
+                    latencies.record(elapsed);
+                    attemptLatency.record(elapsed, TimeUnit.NANOSECONDS);
+                    return feedback;
+                } finally {
+                    bulkhead.release();
+                }
+            });
+            return attempt;
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    private static Consumer<String> tokensFrom(int attempt, AtomicInteger source, Consumer<String> onToken) {
+        return token -> {
+            if (source.compareAndSet(-1, attempt) || source.get() == attempt) onToken.accept(token);
+        };
+    }
+
+    private FeedbackDTO fallback(FallbackReason reason, ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+        fallbacks[reason.ordinal()].increment();
+        log.debug("Answering with the fallback scorer ({})", reason);
+        return fallback.generateFeedback(resume, job, includeCoverLetter).asFallback();
+    }
+
+    long hedgeDelayNanos() {
+        return Math.max(settings.minHedgeDelay().toNanos(), latencies.p95());
+    }
+
+    int availableSlots() {
+        return bulkhead.availablePermits();
+    }
+
+    CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    /** Stops the attempts still running. */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The last {@code capacity} latencies, with their p95 recomputed every 16 samples.
+     */
+    static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+        private long recorded;
+        private long p95;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) count++;
+            if (++recorded <= 16 || recorded % 16 == 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                p95 = sorted[Math.min(count - 1, (int) Math.ceil(count * 0.95) - 1)];
+            }
+        }
+
+        synchronized long p95() {
+            return p95;
+        }
+    }
+}
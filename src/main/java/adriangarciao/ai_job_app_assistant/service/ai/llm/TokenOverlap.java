@@ -0,0 +1,57 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.TokenSpans;
+import adriangarciao.ai_job_app_assistant.service.ai.TextHash;
+
+import java.util.Set;
+
+/**
+ * The token sets behind the text-overlap part of the match score.
+ *
+ * A token is a whitespace-delimited run, lowercased and stripped to [a-z0-9+#.-]; tokens shorter
+ * than 3 chars and stopwords do not count. Tokens are hashed to 64 bits while the chars are read,
+ * so building a set allocates nothing per token and intersecting two sets compares longs. Two
+ * distinct tokens sharing a 64-bit hash is the only way this can differ from comparing strings.
+ */
+public final class TokenOverlap {
+
+    static final Set<String> STOPWORDS = Set.of(
+            "the", "and", "or", "a", "an", "to", "of", "for", "in", "on", "with",
+            "is", "are", "was", "were", "be", "been", "being", "have", "has", "had",
+            "do", "does", "did", "will", "would", "should", "could", "may", "might",
+            "at", "by", "from", "as", "that", "this", "it", "we", "you", "they"
+    );
+
+    private static final LongHashSet STOPWORD_HASHES = hashAll(STOPWORDS);
+
+    private TokenOverlap() {}
+
+    /**
+     * Distinct counted tokens of {@code text}, walking the spans recorded during normalization.
+     */
+    public static LongHashSet distinctTokens(String text, TokenSpans spans) {
+        if (text == null || text.isBlank()) return LongHashSet.EMPTY;
+        LongHashSet tokens = new LongHashSet(spans.count());
+        for (int t = 0; t < spans.count(); t++) {
+            long h = TextHash.start();
+            int kept = 0;
+            for (int i = spans.start(t), end = spans.end(t); i < end; i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+' || c == '#' || c == '.' || c == '-') {
+                    h = TextHash.step(h, c);
+                    kept++;
+                }
+            }
+            if (kept < 3) continue;
+            long token = TextHash.finish(h);
+            if (!STOPWORD_HASHES.contains(token)) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static LongHashSet hashAll(Set<String> words) {
+        LongHashSet hashes = new LongHashSet(words.size());
+        for (String word : words) hashes.add(TextHash.hash64(word));
+        return hashes;
+    }
+}
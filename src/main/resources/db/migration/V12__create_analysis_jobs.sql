@@ -0,0 +1,17 @@
+-- Submitted analyses (/api/ai/jobs); finished rows are purged after app.ai.jobs.result-ttl
+
+CREATE TABLE IF NOT EXISTS analysis_jobs (
+  id                   UUID         PRIMARY KEY,
+  status               VARCHAR(20)  NOT NULL,
+  resume_text          TEXT,
+  job_posting_text     TEXT,
+  include_cover_letter BOOLEAN      NOT NULL DEFAULT FALSE,
+  result_json          TEXT,
+  error                VARCHAR(500),
+  created_at           TIMESTAMPTZ  NOT NULL,
+  started_at           TIMESTAMPTZ,
+  finished_at          TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS ix_analysis_jobs_status_created_at ON analysis_jobs(status, created_at);
+CREATE INDEX IF NOT EXISTS ix_analysis_jobs_finished_at ON analysis_jobs(finished_at);
@@ -0,0 +1,2 @@
+ALTER TABLE resumes
+ADD COLUMN IF NOT EXISTS content_sha256 VARCHAR(64);
@@ -0,0 +1,11 @@
+-- Text extraction runs after upload; rows stored before this were extracted inline
+ALTER TABLE resumes
+ADD COLUMN IF NOT EXISTS extraction_status VARCHAR(20) NOT NULL DEFAULT 'DONE';
+
+ALTER TABLE resumes
+ADD COLUMN IF NOT EXISTS extraction_attempts INT NOT NULL DEFAULT 0;
+
+ALTER TABLE resumes
+ADD COLUMN IF NOT EXISTS extraction_error VARCHAR(500);
+
+CREATE INDEX IF NOT EXISTS ix_resumes_extraction_status ON resumes(extraction_status);
@@ -0,0 +1,3 @@
+-- Uploads look up stored files by content hash; deletes count the rows sharing a file
+CREATE INDEX IF NOT EXISTS ix_resumes_content_sha256 ON resumes(content_sha256);
+CREATE INDEX IF NOT EXISTS ix_resumes_storage_path ON resumes(storage_path);
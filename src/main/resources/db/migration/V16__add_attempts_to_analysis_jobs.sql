@@ -0,0 +1,3 @@
+-- Runs started per job, so a job that keeps bringing the application down is failed on restart
+ALTER TABLE analysis_jobs
+ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
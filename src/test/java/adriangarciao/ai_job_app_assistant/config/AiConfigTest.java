@@ -0,0 +1,86 @@
+package adriangarciao.ai_job_app_assistant.config;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.StubLlmServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiConfigTest {
+
+    private static final ParsedResumeDTO RESUME = new ParsedResumeDTO("Jane", List.of("java"), List.of(), "Java developer");
+    private static final ParsedJobDTO JOB = new ParsedJobDTO("Engineer", List.of("java"), List.of(), null, null, "Java engineer");
+
+    private StubLlmServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = StubLlmServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void closingTheContext_abortsRemoteCallsInFlight() throws Exception {
+        // Slow enough that the answer is still streaming when the context closes
+        stub.streamChunks(1, Duration.ofMillis(50));
+        // Boot's conversion service turns "30s" and "256MB" into the Duration and DataSize parameters
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory().setConversionService(new ApplicationConversionService()))
+                .withUserConfiguration(AiConfig.class)
+                .withBean(ObjectMapper.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues(
+                        "app.ai.llm.provider=openai",
+                        "app.ai.llm.openai.base-url=" + stub.baseUri(),
+                        "app.ai.llm.openai.api-key=test-key",
+                        "app.ai.llm.openai.stream=true",
+                        "app.ai.llm.resilience.deadline=30s",
+                        "app.ai.llm.resilience.hedge=false",
+                        "app.ai.parse-cache.enabled=false");
+        CompletableFuture<Object> call = new CompletableFuture<>();
+
+        runner.run(context -> {
+            LLMService llm = context.getBean(LLMService.class);
+            Thread.ofVirtual().start(() -> {
+                try {
+                    call.complete(llm.generateFeedback(RESUME, JOB, false));
+                } catch (RuntimeException e) {
+                    call.complete(e);
+                }
+            });
+            awaitTrue(() -> stub.inFlightRequests() == 1, "request never reached the server");
+        });
+
+        call.get(3, TimeUnit.SECONDS);
+        awaitTrue(() -> stub.inFlightRequests() == 0, "request still streaming after the context closed");
+        assertEquals(1, stub.requests().size());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+}
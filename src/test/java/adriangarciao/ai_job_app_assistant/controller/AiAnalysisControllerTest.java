@@ -1,7 +1,9 @@
 package adriangarciao.ai_job_app_assistant.controller;
 
+import adriangarciao.ai_job_app_assistant.dto.BatchFeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
 import adriangarciao.ai_job_app_assistant.service.ai.AiAnalysisService;
+import adriangarciao.ai_job_app_assistant.service.ai.BatchAnalysisService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +14,22 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.function.Consumer;
 
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AiAnalysisController.class)
@@ -30,6 +41,11 @@ class AiAnalysisControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private AiAnalysisService aiAnalysisService;
+    @Autowired
+    private BatchAnalysisService batchAnalysisService;
+
+    private static final String BATCH_JSON =
+            "{\"resumeText\":\"My resume\",\"jobPostingTexts\":[\"Posting A\",\"Posting B\"],\"topK\":2}";
 
     @Test
     void analyze_validRequest_returnsOkAndBody() throws Exception {
@@ -57,11 +73,65 @@ class AiAnalysisControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void analyzeBatch_returnsRankedList() throws Exception {
+        FeedbackDTO best = new FeedbackDTO(90, List.of(), List.of(), List.of(), "best", null, null);
+        FeedbackDTO worst = new FeedbackDTO(10, List.of(), List.of(), List.of(), "worst", null, null);
+        when(batchAnalysisService.rank(any())).thenReturn(List.of(new BatchFeedbackDTO(1, best), new BatchFeedbackDTO(0, worst)));
+
+        mockMvc.perform(post("/api/ai/analyze/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.ALL)
+                .content(BATCH_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].index").value(1))
+                .andExpect(jsonPath("$[0].feedback.matchScore").value(90))
+                .andExpect(jsonPath("$[1].index").value(0));
+    }
+
+    @Test
+    void analyzeBatch_ndjsonAccept_streamsOneLinePerPosting() throws Exception {
+        doAnswer(inv -> {
+            Consumer<BatchFeedbackDTO> sink = inv.getArgument(1);
+            sink.accept(new BatchFeedbackDTO(1, new FeedbackDTO(90, List.of(), List.of(), List.of(), "b", null, null)));
+            sink.accept(new BatchFeedbackDTO(0, new FeedbackDTO(10, List.of(), List.of(), List.of(), "a", null, null)));
+            return null;
+        }).when(batchAnalysisService).stream(any(), any());
+
+        MvcResult started = mockMvc.perform(post("/api/ai/analyze/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(BATCH_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"index\":1,"));
+        assertTrue(lines[1].startsWith("{\"index\":0,"));
+    }
+
+    @Test
+    void analyzeBatch_emptyPostings_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/ai/analyze/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"resumeText\":\"My resume\",\"jobPostingTexts\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
         public AiAnalysisService aiAnalysisService() { return Mockito.mock(AiAnalysisService.class); }
 
+        @Bean
+        public BatchAnalysisService batchAnalysisService() { return Mockito.mock(BatchAnalysisService.class); }
+
         // Provide typical extra beans to satisfy potential security or component expectations
         @Bean
         public adriangarciao.ai_job_app_assistant.service.JwtService jwtService() {
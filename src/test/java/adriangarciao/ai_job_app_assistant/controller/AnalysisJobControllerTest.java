@@ -0,0 +1,123 @@
+package adriangarciao.ai_job_app_assistant.controller;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisJobNotFoundException;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisQueueFullException;
+import adriangarciao.ai_job_app_assistant.model.AnalysisJobStatus;
+import adriangarciao.ai_job_app_assistant.service.ai.AnalysisJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalysisJobController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(AnalysisJobControllerTest.TestConfig.class)
+class AnalysisJobControllerTest {
+
+    private static final UUID ID = UUID.fromString("7b3e1d2c-4f5a-4b6c-9d8e-0a1b2c3d4e5f");
+    private static final Instant CREATED = Instant.parse("2024-05-01T10:00:00Z");
+    private static final String BODY = "{\"resumeText\":\"My resume\",\"jobPostingText\":\"Some job posting\",\"includeCoverLetter\":false}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AnalysisJobService jobService;
+
+    @BeforeEach
+    void resetMock() {
+        Mockito.reset(jobService);
+    }
+
+    @Test
+    void submit_returnsAcceptedWithLocation() throws Exception {
+        when(jobService.submit(any())).thenReturn(
+                new AnalysisJobDTO(ID, AnalysisJobStatus.QUEUED, null, null, CREATED, null, null));
+
+        mockMvc.perform(post("/api/ai/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/ai/jobs/" + ID))
+                .andExpect(jsonPath("$.jobId").value(ID.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void submit_queueFull_returnsTooManyRequestsWithRetryAfter() throws Exception {
+        when(jobService.submit(any())).thenThrow(new AnalysisQueueFullException(12));
+
+        mockMvc.perform(post("/api/ai/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void submit_invalidRequest_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/ai/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"resumeText\":\"\",\"jobPostingText\":\"x\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void get_finishedJob_returnsFeedback() throws Exception {
+        FeedbackDTO feedback = new FeedbackDTO(70, List.of("java"), List.of(), List.of(), "summary", null, null);
+        when(jobService.get(eq(ID))).thenReturn(new AnalysisJobDTO(ID, AnalysisJobStatus.SUCCEEDED, feedback, null,
+                CREATED, CREATED.plusSeconds(1), CREATED.plusSeconds(2)));
+
+        mockMvc.perform(get("/api/ai/jobs/" + ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.result.matchScore").value(70));
+    }
+
+    @Test
+    void get_unknownJob_returnsNotFound() throws Exception {
+        UUID unknown = UUID.randomUUID();
+        when(jobService.get(eq(unknown))).thenThrow(new AnalysisJobNotFoundException(unknown));
+
+        mockMvc.perform(get("/api/ai/jobs/" + unknown))
+                .andExpect(status().isNotFound());
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public AnalysisJobService analysisJobService() { return Mockito.mock(AnalysisJobService.class); }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.service.JwtService jwtService() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.service.JwtService.class);
+        }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.repository.UserRepository userRepository() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.repository.UserRepository.class);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package adriangarciao.ai_job_app_assistant.controller;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisSessionDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.SessionEditRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisSessionNotFoundException;
+import adriangarciao.ai_job_app_assistant.service.ai.AnalysisSessionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalysisSessionController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(AnalysisSessionControllerTest.TestConfig.class)
+class AnalysisSessionControllerTest {
+
+    private static final UUID ID = UUID.fromString("3f1c2b9e-8a4d-4e59-9c1a-2b7d6e0f4a11");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AnalysisSessionService sessionService;
+
+    @Test
+    void open_returnsCreatedWithLocation() throws Exception {
+        FeedbackDTO feedback = new FeedbackDTO(70, List.of("java"), List.of(), List.of(), "summary", null, null);
+        when(sessionService.open(any())).thenReturn(new AnalysisSessionDTO(ID, 0, feedback));
+
+        String json = "{\"resumeText\":\"My resume\",\"jobPostingText\":\"Some job posting\",\"includeCoverLetter\":false}";
+        mockMvc.perform(post("/api/ai/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/ai/sessions/" + ID))
+                .andExpect(jsonPath("$.sessionId").value(ID.toString()))
+                .andExpect(jsonPath("$.feedback.matchScore").value(70));
+    }
+
+    @Test
+    void edit_returnsUpdatedFeedback() throws Exception {
+        FeedbackDTO feedback = new FeedbackDTO(85, List.of(), List.of(), List.of(), "summary", null, null);
+        SessionEditRequest edit = new SessionEditRequest(SessionEditRequest.Document.JOB_POSTING, 3, 4, List.of("- Kafka"));
+        when(sessionService.edit(eq(ID), eq(edit))).thenReturn(new AnalysisSessionDTO(ID, 1, feedback));
+
+        String json = "{\"document\":\"JOB_POSTING\",\"fromLine\":3,\"toLine\":4,\"lines\":[\"- Kafka\"]}";
+        mockMvc.perform(patch("/api/ai/sessions/" + ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.feedback.matchScore").value(85));
+    }
+
+    @Test
+    void edit_missingDocument_returnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/ai/sessions/" + ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromLine\":0,\"toLine\":0,\"lines\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void edit_unknownSession_returnsNotFound() throws Exception {
+        when(sessionService.edit(eq(ID), any())).thenThrow(new AnalysisSessionNotFoundException(ID));
+
+        mockMvc.perform(patch("/api/ai/sessions/" + ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"document\":\"RESUME\",\"fromLine\":0,\"toLine\":0,\"lines\":[]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void close_returnsNoContent() throws Exception {
+        mockMvc.perform(delete("/api/ai/sessions/" + ID))
+                .andExpect(status().isNoContent());
+        verify(sessionService).close(ID);
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public AnalysisSessionService analysisSessionService() { return Mockito.mock(AnalysisSessionService.class); }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.service.JwtService jwtService() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.service.JwtService.class);
+        }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.repository.UserRepository userRepository() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.repository.UserRepository.class);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package adriangarciao.ai_job_app_assistant.controller;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisQueueFullException;
+import adriangarciao.ai_job_app_assistant.exception.LlmBackendException;
+import adriangarciao.ai_job_app_assistant.service.ai.AnalysisStreamService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalysisStreamController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(AnalysisStreamControllerTest.TestConfig.class)
+class AnalysisStreamControllerTest {
+
+    private static final String BODY = "{\"resumeText\":\"My resume\",\"jobPostingText\":\"Some job posting\",\"includeCoverLetter\":true}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AnalysisStreamService streamService;
+
+    private String stream() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/ai/analyze/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void analyzeStream_emitsStagesThenDone() throws Exception {
+        doAnswer(inv -> {
+            AnalysisStreamService.Listener listener = inv.getArgument(1);
+            listener.onParsed(new ParsedResumeDTO("Jane", List.of("java"), List.of(), "java"),
+                    new ParsedJobDTO("Engineer", List.of("java", "kubernetes"), List.of(), null, null, "java kubernetes"));
+            listener.onToken("Dear team");
+            listener.onFeedback(new FeedbackDTO(64, List.of("Java"), List.of("Kubernetes"), List.of("Learn k8s"), "ok", null, null));
+            return CompletableFuture.completedFuture(null);
+        }).when(streamService).analyze(any(), any());
+
+        String body = stream();
+
+        int parsed = body.indexOf("event:parsed");
+        int token = body.indexOf("event:token");
+        int score = body.indexOf("event:score");
+        int strengths = body.indexOf("event:strengths");
+        int weaknesses = body.indexOf("event:weaknesses");
+        int suggestions = body.indexOf("event:suggestions");
+        int done = body.indexOf("event:done");
+        assertTrue(parsed >= 0 && parsed < token && token < score && score < strengths
+                && strengths < weaknesses && weaknesses < suggestions && suggestions < done, body);
+        assertTrue(body.contains("\"requiredSkills\":[\"java\",\"kubernetes\"]"), body);
+        assertTrue(body.contains("data:Dear team"), body);
+        assertTrue(body.contains("{\"matchScore\":64}"), body);
+    }
+
+    @Test
+    void analyzeStream_backendFailureEmitsErrorEvent() throws Exception {
+        doAnswer(inv -> {
+            AnalysisStreamService.Listener listener = inv.getArgument(1);
+            listener.onError(new LlmBackendException("LLM backend returned HTTP 500"));
+            return CompletableFuture.completedFuture(null);
+        }).when(streamService).analyze(any(), any());
+
+        String body = stream();
+
+        assertTrue(body.contains("event:error"), body);
+        assertTrue(body.contains("\"status\":502"), body);
+    }
+
+    @Test
+    void analyzeStream_tooManyStreams_returnsTooManyRequests() throws Exception {
+        doThrow(new AnalysisQueueFullException(10)).when(streamService).analyze(any(), any());
+
+        mockMvc.perform(post("/api/ai/analyze/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"));
+    }
+
+    @Test
+    void analyzeStream_invalidRequest_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/ai/analyze/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"resumeText\":\"\",\"jobPostingText\":\"x\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public AnalysisStreamService analysisStreamService() { return Mockito.mock(AnalysisStreamService.class); }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.service.JwtService jwtService() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.service.JwtService.class);
+        }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.repository.UserRepository userRepository() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.repository.UserRepository.class);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +29,29 @@ public class ResumeControllerParseIntegrationTest {
     @Autowired
     private MockMvc mvc;
 
-    // PDF generation with PDFBox 3.x can be fragile in test env; skip PDF creation here and rely on DOCX coverage.
+    @Test
+    void parsePdfFile_returnsParsedText() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.LETTER);
+            doc.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(72, 700);
+                content.showText("Skills: Java, Spring, Docker");
+                content.endText();
+            }
+            doc.save(baos);
+        }
+
+        MockMultipartFile file = new MockMultipartFile("file", "resume.pdf", "application/pdf", baos.toByteArray());
+
+        mvc.perform(multipart("/api/resumes/parse").file(file).contentType(MediaType.MULTIPART_FORM_DATA)
+                        .with(org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rawText", containsString("Docker")));
+    }
 
     @Test
     void parseDocxFile_returnsParsedText() throws Exception {
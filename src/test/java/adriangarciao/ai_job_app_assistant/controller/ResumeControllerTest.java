@@ -1,5 +1,8 @@
 package adriangarciao.ai_job_app_assistant.controller;
 
+import adriangarciao.ai_job_app_assistant.dto.ResumeDTO;
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
+import adriangarciao.ai_job_app_assistant.service.ResumeExtractionService;
 import adriangarciao.ai_job_app_assistant.service.ResumeService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -7,13 +10,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ResumeController.class)
@@ -24,7 +36,9 @@ class ResumeControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ResumeService resumeService;
-    
+    @Autowired
+    private ResumeExtractionService extractionService;
+
 
     @Test
     void getResumeById_returnsOk() throws Exception {
@@ -33,6 +47,27 @@ class ResumeControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void extractionEvents_sendsTheFinalStatusWithTheResume() throws Exception {
+        ResumeDTO resume = new ResumeDTO(1L, 2L, "resume.pdf", "application/pdf", 10L, null, "Skills: java",
+                ExtractionStatus.DONE, null);
+        when(resumeService.get(1L)).thenReturn(resume);
+        when(extractionService.onFinished(eq(1L), any())).thenAnswer(i -> {
+            Consumer<ExtractionStatus> listener = i.getArgument(1);
+            listener.accept(ExtractionStatus.DONE);
+            return (Runnable) () -> {};
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/resumes/1/extraction/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:done")))
+                .andExpect(content().string(containsString("\"extractionStatus\":\"DONE\"")));
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
@@ -52,6 +87,14 @@ class ResumeControllerTest {
         public adriangarciao.ai_job_app_assistant.service.ai.ParserService parserService() {
             return Mockito.mock(adriangarciao.ai_job_app_assistant.service.ai.ParserService.class);
         }
+
+        @Bean
+        public adriangarciao.ai_job_app_assistant.service.TextExtractionService textExtractionService() {
+            return Mockito.mock(adriangarciao.ai_job_app_assistant.service.TextExtractionService.class);
+        }
+
+        @Bean
+        public ResumeExtractionService resumeExtractionService() { return Mockito.mock(ResumeExtractionService.class); }
     }
 }
 
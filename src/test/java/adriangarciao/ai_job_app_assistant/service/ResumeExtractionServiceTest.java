@@ -0,0 +1,174 @@
+package adriangarciao.ai_job_app_assistant.service;
+
+import adriangarciao.ai_job_app_assistant.exception.ResumeNotFoundException;
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
+import adriangarciao.ai_job_app_assistant.model.Resume;
+import adriangarciao.ai_job_app_assistant.repository.ResumeRepository;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class ResumeExtractionServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<Long, Resume> table = new ConcurrentHashMap<>();
+    private final ResumeRepository repository = Mockito.mock(ResumeRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TextExtractionService textExtraction = new TextExtractionService(registry, false);
+    private ResumeExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        // In-memory table behind the repository; rows are copied in and out like a database would
+        when(repository.save(any())).thenAnswer(inv -> {
+            Resume resume = inv.getArgument(0);
+            table.put(resume.getId(), copy(resume));
+            return resume;
+        });
+        when(repository.findById(any())).thenAnswer(inv -> Optional.ofNullable(table.get((Long) inv.getArgument(0))).map(ResumeExtractionServiceTest::copy));
+        when(repository.findByExtractionStatus(any())).thenAnswer(inv -> table.values().stream()
+                .filter(r -> r.getExtractionStatus() == inv.getArgument(0))
+                .map(ResumeExtractionServiceTest::copy)
+                .toList());
+    }
+
+    private static Resume copy(Resume resume) {
+        Resume row = new Resume(null, resume.getOriginalFilename(), resume.getStoredFilename(), resume.getContentType(),
+                resume.getSizeBytes(), resume.getUploadedAt(), resume.getStoragePath());
+        row.setId(resume.getId());
+        row.setParsedText(resume.getParsedText());
+        row.setExtractionStatus(resume.getExtractionStatus());
+        row.setExtractionAttempts(resume.getExtractionAttempts());
+        row.setExtractionError(resume.getExtractionError());
+        return row;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+        textExtraction.shutdown();
+    }
+
+    private ResumeExtractionService service(int maxAttempts) {
+        service = new ResumeExtractionService(repository, textExtraction,
+                new SimpleParserService(), registry, 2, 10, maxAttempts, Duration.ofMillis(10));
+        return service;
+    }
+
+    private Resume pending(long id, Path file) {
+        Resume resume = new Resume(null, "resume.txt", file.getFileName().toString(), "text/plain", 0L, null, file.toString());
+        resume.setId(id);
+        resume.setExtractionStatus(ExtractionStatus.PENDING);
+        table.put(id, copy(resume));
+        return resume;
+    }
+
+    private ExtractionStatus awaitFinished(long id) throws Exception {
+        CompletableFuture<ExtractionStatus> finished = new CompletableFuture<>();
+        service.onFinished(id, finished::complete);
+        return finished.get(5, TimeUnit.SECONDS);
+    }
+
+    private double attempts(String outcome) {
+        return registry.get("resume.extraction.attempts").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void submit_extractsParsesAndMarksDone() throws Exception {
+        Path file = Files.writeString(dir.resolve("a.txt"), "Jane Doe\nSkills: Java, Spring", StandardCharsets.UTF_8);
+        pending(1L, file);
+        service(3);
+
+        service.submit(1L);
+
+        assertEquals(ExtractionStatus.DONE, awaitFinished(1L));
+        Resume row = table.get(1L);
+        assertTrue(row.getParsedText().contains("Skills: Java, Spring"));
+        assertEquals(1, row.getExtractionAttempts());
+        assertNull(row.getExtractionError());
+        assertEquals(1, attempts("done"));
+    }
+
+    @Test
+    void submit_retriesThenLeavesTheResumeFailed() throws Exception {
+        pending(2L, dir.resolve("missing.txt"));
+        service(3);
+
+        service.submit(2L);
+
+        assertEquals(ExtractionStatus.FAILED, awaitFinished(2L));
+        Resume row = table.get(2L);
+        assertEquals(3, row.getExtractionAttempts());
+        assertTrue(row.getExtractionError().contains("missing.txt"), row.getExtractionError());
+        assertEquals(2, attempts("retried"));
+        assertEquals(1, attempts("failed"));
+    }
+
+    @Test
+    void submit_retrySucceedsOnceTheFileIsReadable() throws Exception {
+        Path file = dir.resolve("late.txt");
+        pending(3L, file);
+        // Enough doubling retries that the file is written before they run out
+        service(10);
+        CompletableFuture<ExtractionStatus> finished = new CompletableFuture<>();
+        service.onFinished(3L, finished::complete);
+
+        service.submit(3L);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (attempts("retried") == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+        Files.writeString(file, "Skills: Go", StandardCharsets.UTF_8);
+
+        assertEquals(ExtractionStatus.DONE, finished.get(5, TimeUnit.SECONDS));
+        assertTrue(table.get(3L).getExtractionAttempts() >= 2);
+    }
+
+    @Test
+    void onFinished_callsAtOnceWhenAlreadyFinishedAndRejectsUnknownResumes() throws IOException {
+        Resume resume = pending(4L, Files.writeString(dir.resolve("b.txt"), "x"));
+        resume.setExtractionStatus(ExtractionStatus.DONE);
+        table.put(4L, copy(resume));
+        service(3);
+        List<ExtractionStatus> seen = new java.util.ArrayList<>();
+
+        service.onFinished(4L, seen::add);
+
+        assertEquals(List.of(ExtractionStatus.DONE), seen);
+        assertThrows(ResumeNotFoundException.class, () -> service.onFinished(99L, seen::add));
+    }
+
+    @Test
+    void recover_requeuesPendingResumes() throws Exception {
+        Path file = Files.writeString(dir.resolve("c.txt"), "Skills: Kotlin", StandardCharsets.UTF_8);
+        Resume resume = pending(5L, file);
+        resume.setExtractionAttempts(1);
+        table.put(5L, copy(resume));
+        service(3);
+
+        service.recover();
+
+        assertEquals(ExtractionStatus.DONE, awaitFinished(5L));
+        assertEquals(2, table.get(5L).getExtractionAttempts());
+    }
+}
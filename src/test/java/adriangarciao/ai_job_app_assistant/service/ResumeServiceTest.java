@@ -7,12 +7,14 @@ import adriangarciao.ai_job_app_assistant.exception.InvalidFileTypeException;
 import adriangarciao.ai_job_app_assistant.exception.ResumeNotFoundException;
 import adriangarciao.ai_job_app_assistant.exception.UserNotFoundException;
 import adriangarciao.ai_job_app_assistant.mapper.ResumeMapper;
+import adriangarciao.ai_job_app_assistant.model.ExtractionStatus;
 import adriangarciao.ai_job_app_assistant.model.Resume;
 import adriangarciao.ai_job_app_assistant.model.User;
 import adriangarciao.ai_job_app_assistant.repository.ResumeRepository;
 import adriangarciao.ai_job_app_assistant.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -40,14 +42,19 @@ class ResumeServiceTest {
     @Mock
     private adriangarciao.ai_job_app_assistant.service.ai.ParserService parserService;
     @Mock
+    private ResumeExtractionService extractionService;
+    @Mock
     private MultipartFile file;
 
+    @TempDir
+    private Path uploadDir;
+
     private ResumeService resumeService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        resumeService = new ResumeService(resumeRepository, userRepository, resumeMapper, parserService, "uploads");
+        resumeService = new ResumeService(resumeRepository, userRepository, resumeMapper, extractionService, uploadDir.toString());
     }
 
     @Test
@@ -91,7 +98,7 @@ class ResumeServiceTest {
     }
 
     @Test
-    void storeForEmail_persistsParsedText() throws Exception {
+    void storeForEmail_savesPendingAndQueuesExtraction() throws Exception {
         when(file.isEmpty()).thenReturn(false);
         when(file.getContentType()).thenReturn("application/pdf");
         when(file.getOriginalFilename()).thenReturn("resume.pdf");
@@ -102,16 +109,115 @@ class ResumeServiceTest {
 
         when(file.getInputStream()).thenReturn(new ByteArrayInputStream("Skills: java".getBytes()));
 
+        when(resumeRepository.save(any())).thenAnswer(i -> {
+            Resume r = i.getArgument(0);
+            r.setId(5L);
+            return r;
+        });
+
+        when(resumeMapper.toDto(any())).thenReturn(new ResumeDTO(5L, 1L, "resume.pdf", "application/pdf", 123L,
+                java.time.LocalDateTime.now(), null, ExtractionStatus.PENDING, null));
+
+        ResumeDTO dto = resumeService.storeForEmail(file, "test@example.com");
+
+        var saved = org.mockito.ArgumentCaptor.forClass(Resume.class);
+        verify(resumeRepository, times(1)).save(saved.capture());
+        assertEquals(ExtractionStatus.PENDING, saved.getValue().getExtractionStatus());
+        verify(extractionService).submit(5L);
+        verifyNoInteractions(parserService);
+        assertEquals(ExtractionStatus.PENDING, dto.extractionStatus());
+    }
+
+    @Test
+    void storeForEmail_readsTheUploadOnceAndRecordsSizeAndHash(@TempDir Path dir) throws Exception {
+        byte[] bytes = "Skills: java".getBytes();
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getContentType()).thenReturn("application/pdf");
+        when(file.getOriginalFilename()).thenReturn("resume.pdf");
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(bytes));
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
         when(resumeRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
-        var parsed = new adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO("Candidate", List.of("java"), List.of("exp"), "Skills: java");
-        when(parserService.parseResume(anyString())).thenReturn(parsed);
+        new ResumeService(resumeRepository, userRepository, resumeMapper, extractionService, dir.toString())
+                .storeForEmail(file, "test@example.com");
+
+        verify(file, times(1)).getInputStream();
+        var saved = org.mockito.ArgumentCaptor.forClass(Resume.class);
+        verify(resumeRepository, times(1)).save(saved.capture());
+        Resume resume = saved.getValue();
+        assertEquals(bytes.length, resume.getSizeBytes());
+        assertEquals(java.util.HexFormat.of().formatHex(java.security.MessageDigest.getInstance("SHA-256").digest(bytes)),
+                resume.getContentSha256());
+        assertArrayEquals(bytes, Files.readAllBytes(Path.of(resume.getStoragePath())));
+    }
 
-        when(resumeMapper.toDto(any())).thenReturn(new ResumeDTO(null, 1L, "resume.pdf", "application/pdf", 123L, java.time.LocalDateTime.now(), "Skills: java"));
+    private void uploadOf(byte[] bytes) throws IOException {
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getContentType()).thenReturn("application/pdf");
+        when(file.getOriginalFilename()).thenReturn("resume.pdf");
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(bytes));
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        when(resumeRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    }
 
-        ResumeDTO dto = resumeService.storeForEmail(file, "test@example.com");
+    @Test
+    void storeForEmail_duplicateContentReusesTheStoredFileAndText(@TempDir Path dir) throws Exception {
+        byte[] bytes = "Skills: java".getBytes();
+        uploadOf(bytes);
+        Path blob = Files.write(dir.resolve("stored.pdf"), bytes);
+        Resume existing = new Resume(null, "old.pdf", "stored.pdf", "application/pdf", (long) bytes.length, null, blob.toString());
+        existing.setParsedText("Skills: java");
+        existing.setExtractionStatus(ExtractionStatus.DONE);
+        when(resumeRepository.findFirstByContentSha256AndExtractionStatus(anyString(), eq(ExtractionStatus.DONE)))
+                .thenReturn(Optional.of(existing));
+
+        new ResumeService(resumeRepository, userRepository, resumeMapper, extractionService, dir.toString())
+                .storeForEmail(file, "test@example.com");
+
+        var saved = org.mockito.ArgumentCaptor.forClass(Resume.class);
+        verify(resumeRepository).save(saved.capture());
+        assertEquals(blob.toString(), saved.getValue().getStoragePath());
+        assertEquals("Skills: java", saved.getValue().getParsedText());
+        assertEquals(ExtractionStatus.DONE, saved.getValue().getExtractionStatus());
+        verifyNoInteractions(extractionService);
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(blob), files.toList());
+        }
+    }
 
-        verify(resumeRepository, atLeastOnce()).save(any());
-        assertEquals("Skills: java", dto.parsedText());
+    @Test
+    void storeForEmail_newContentIsStoredUnderItsHash(@TempDir Path dir) throws Exception {
+        byte[] bytes = "Skills: go".getBytes();
+        uploadOf(bytes);
+
+        new ResumeService(resumeRepository, userRepository, resumeMapper, extractionService, dir.toString())
+                .storeForEmail(file, "test@example.com");
+
+        var saved = org.mockito.ArgumentCaptor.forClass(Resume.class);
+        verify(resumeRepository).save(saved.capture());
+        assertEquals(saved.getValue().getContentSha256() + ".pdf", saved.getValue().getStoredFilename());
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(dir.resolve(saved.getValue().getStoredFilename())), files.toList());
+        }
+    }
+
+    @Test
+    void delete_removesTheFileOnlyWithItsLastReference(@TempDir Path dir) throws Exception {
+        Path blob = Files.write(dir.resolve("abc.pdf"), "x".getBytes());
+        Resume resume = new Resume(null, "r.pdf", "abc.pdf", "application/pdf", 1L, null, blob.toString());
+        resume.setContentSha256("abc");
+        when(resumeRepository.findById(1L)).thenReturn(Optional.of(resume));
+        when(resumeRepository.countByStoragePath(blob.toString())).thenReturn(1L, 0L);
+
+        resumeService.delete(1L);
+        assertTrue(Files.exists(blob));
+
+        resumeService.delete(1L);
+        assertFalse(Files.exists(blob));
+        verify(resumeRepository, times(2)).deleteById(1L);
     }
 }
@@ -0,0 +1,555 @@
+package adriangarciao.ai_job_app_assistant.service;
+
+import adriangarciao.ai_job_app_assistant.exception.TextExtractionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextExtractionServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TextExtractionService service = new TextExtractionService(registry, false);
+
+    static byte[] pdf(String... pageTexts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            for (String text : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText(text);
+                    content.endText();
+                }
+            }
+            document.save(out);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] docx(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText(text);
+            document.write(out);
+        }
+        return out.toByteArray();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private double count(String meter, String type) {
+        return registry.get(meter).tag("type", type).summary().count();
+    }
+
+    @Test
+    void extract_pdfTakesThePdfBoxPathAndCountsPages() throws IOException {
+        byte[] bytes = pdf("Skills: Java, Spring", "Experience: Acme");
+
+        TextExtractionService.ExtractedText extracted =
+                service.extract(new ByteArrayInputStream(bytes), TextExtractionService.PDF_CONTENT_TYPE);
+
+        assertTrue(extracted.text().contains("Skills: Java, Spring"));
+        assertTrue(extracted.text().contains("Experience: Acme"));
+        assertEquals(2, extracted.pages());
+        assertEquals(1, registry.get("resume.extraction").tag("type", "pdf").timer().count());
+        assertEquals(bytes.length, registry.get("resume.extraction.bytes").tag("type", "pdf").summary().totalAmount());
+        assertEquals(2, registry.get("resume.extraction.pages").tag("type", "pdf").summary().totalAmount());
+    }
+
+    @Test
+    void extract_storedPdfIsOpenedFromTheFile(@TempDir Path dir) throws IOException {
+        byte[] bytes = pdf("Skills: Java, Spring");
+        Path file = Files.write(dir.resolve("resume.pdf"), bytes);
+
+        TextExtractionService.ExtractedText extracted = service.extract(file, TextExtractionService.PDF_CONTENT_TYPE);
+
+        assertTrue(extracted.text().contains("Skills: Java, Spring"));
+        assertEquals(1, extracted.pages());
+        assertEquals(bytes.length, registry.get("resume.extraction.bytes").tag("type", "pdf").summary().totalAmount());
+    }
+
+    @Test
+    void extract_missingFileFails(@TempDir Path dir) {
+        assertThrows(TextExtractionException.class,
+                () -> service.extract(dir.resolve("missing.pdf"), TextExtractionService.PDF_CONTENT_TYPE));
+    }
+
+    @Test
+    void extract_docxTakesTheOoxmlPath() throws IOException {
+        TextExtractionService.ExtractedText extracted = service.extract(
+                new ByteArrayInputStream(docx("Skills: Python, React")), TextExtractionService.DOCX_CONTENT_TYPE);
+
+        assertTrue(extracted.text().contains("Skills: Python, React"));
+        assertEquals(1, count("resume.extraction.chars", "docx"));
+    }
+
+    @Test
+    void extract_plainTextIsDecodedDirectly() {
+        TextExtractionService.ExtractedText extracted = service.extract(
+                new ByteArrayInputStream("Skills: Go, Rust".getBytes(StandardCharsets.UTF_8)), "text/plain; charset=UTF-8");
+
+        assertEquals("Skills: Go, Rust", extracted.text());
+        assertEquals(1, count("resume.extraction.chars", "text"));
+    }
+
+    @Test
+    void extract_bytesThatDoNotMatchTheDeclaredTypeAreAutoDetected() throws IOException {
+        TextExtractionService.ExtractedText mislabeled = service.extract(
+                new ByteArrayInputStream("Skills: java".getBytes(StandardCharsets.UTF_8)), TextExtractionService.PDF_CONTENT_TYPE);
+        TextExtractionService.ExtractedText undeclared = service.extract(new ByteArrayInputStream(docx("Kotlin")), null);
+
+        assertEquals("Skills: java", mislabeled.text().strip());
+        assertTrue(undeclared.text().contains("Kotlin"));
+        assertEquals(2, count("resume.extraction.chars", "other"));
+    }
+
+    @Test
+    void extract_corruptPdfFails() {
+        byte[] corrupt = "%PDF-1.7\nnot really a pdf".getBytes(StandardCharsets.US_ASCII);
+
+        assertThrows(TextExtractionException.class,
+                () -> service.extract(new ByteArrayInputStream(corrupt), TextExtractionService.PDF_CONTENT_TYPE));
+    }
+
+    @Test
+    void warmUp_runsEveryPathWithoutRecordingMetrics() {
+        new TextExtractionService(registry, true).warmUp();
+
+        assertEquals(0, registry.get("resume.extraction").tag("type", "pdf").timer().count());
+    }
+
+    private TextExtractionService bounded(int maxChars, int maxEmbeddedDepth, Duration timeout) {
+        return new TextExtractionService(registry, false, maxChars, maxEmbeddedDepth, timeout, 1);
+    }
+
+    private double truncated(String reason) {
+        return registry.get("resume.extraction.truncated").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void extract_textPastTheCharacterCapIsTruncated() throws IOException {
+        TextExtractionService capped = bounded(100, 1, Duration.ofSeconds(10));
+        try {
+            String text = "Skills: Java. ".repeat(1_000);
+
+            TextExtractionService.ExtractedText plain = capped.extract(
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), "text/plain");
+            TextExtractionService.ExtractedText word = capped.extract(
+                    new ByteArrayInputStream(docx(text)), TextExtractionService.DOCX_CONTENT_TYPE);
+            TextExtractionService.ExtractedText pdf = capped.extract(
+                    new ByteArrayInputStream(pdf(text.substring(0, 80), text.substring(0, 80))), TextExtractionService.PDF_CONTENT_TYPE);
+
+            assertEquals(text.substring(0, 100), plain.text());
+            assertTrue(plain.truncated());
+            assertEquals(100, word.text().length());
+            assertTrue(word.truncated());
+            assertEquals(100, pdf.text().length());
+            assertEquals(2, pdf.pages());
+            assertEquals(3, truncated("chars"));
+        } finally {
+            capped.shutdown();
+        }
+    }
+
+    @Test
+    void extract_timeoutReturnsTheTextReadSoFar() {
+        TextExtractionService timed = bounded(1_000, 1, Duration.ofMillis(300));
+        try {
+            long start = System.nanoTime();
+            TextExtractionService.ExtractedText extracted = timed.extract(stalling("Skills: Java\n"), "text/plain");
+
+            assertTrue(extracted.truncated());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertTrue("Skills: Java\n".startsWith(extracted.text()), extracted.text());
+            assertEquals(1, truncated("timeout"));
+        } finally {
+            timed.shutdown();
+        }
+    }
+
+    @Test
+    void extract_embeddedDocumentsStopAtTheDepthCap() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("inner.txt"));
+            out.write("Skills: Haskell".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        TextExtractionService flat = bounded(1_000, 0, Duration.ofSeconds(10));
+        TextExtractionService nested = bounded(1_000, 1, Duration.ofSeconds(10));
+        try {
+            assertFalse(flat.extract(new ByteArrayInputStream(zip.toByteArray()), "application/zip").text().contains("Haskell"));
+            assertTrue(nested.extract(new ByteArrayInputStream(zip.toByteArray()), "application/zip").text().contains("Haskell"));
+        } finally {
+            flat.shutdown();
+            nested.shutdown();
+        }
+    }
+
+    /** Hands out {@code prefix}, then blocks until interrupted, like a parser stuck on a hostile document. */
+    private static InputStream stalling(String prefix) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        return new InputStream() {
+            private int next;
+
+            @Override
+            public int read() throws IOException {
+                if (next < bytes.length) return bytes[next++];
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (next >= bytes.length) return read() < 0 ? -1 : 0;
+                int n = Math.min(len, bytes.length - next);
+                System.arraycopy(bytes, next, b, off, n);
+                next += n;
+                return n;
+            }
+        };
+    }
+
+    /** A "PDF" that never ends, read slowly, that ignores interrupts: nothing is written until it is whole. */
+    private static InputStream endlessPdf() {
+        return new InputStream() {
+            private final byte[] header = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+            private long next;
+
+            @Override
+            public int read() {
+                return next < header.length ? header[(int) next++] : ' ';
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                // Busy for a millisecond per chunk, deaf to interrupts
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1);
+                while (System.nanoTime() < until) Thread.onSpinWait();
+                int n = Math.min(len, 1024);
+                for (int i = 0; i < n; i++) b[off + i] = (byte) read();
+                return n;
+            }
+        };
+    }
+
+    @Test
+    void extract_timeoutBeforeAnyTextFails() {
+        TextExtractionService timed = bounded(1_000, 1, Duration.ofMillis(200));
+        try {
+            TextExtractionException failure = assertThrows(TextExtractionException.class,
+                    () -> timed.extract(stalling(""), "text/plain"));
+
+            assertTrue(failure.getMessage().contains("before any text"), failure.getMessage());
+            assertEquals(0, truncated("timeout"));
+        } finally {
+            timed.shutdown();
+        }
+    }
+
+    @Test
+    void extract_timeoutStartsWhenAThreadPicksTheDocumentUp() throws Exception {
+        // One thread and two documents of 300 ms each: the second finishes 600 ms after it was
+        // submitted, past the 450 ms timeout, but within it counted from its start
+        TextExtractionService timed = bounded(1_000, 1, Duration.ofMillis(450));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<TextExtractionService.ExtractedText>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(callers.submit(() -> timed.extract(slow("Skills: Java", Duration.ofMillis(300)), "text/plain")));
+            }
+
+            for (Future<TextExtractionService.ExtractedText> result : results) {
+                TextExtractionService.ExtractedText extracted = result.get(5, TimeUnit.SECONDS);
+                assertEquals("Skills: Java", extracted.text());
+                assertFalse(extracted.truncated());
+            }
+        } finally {
+            callers.shutdownNow();
+            timed.shutdown();
+        }
+    }
+
+    /** Waits {@code delay}, then hands out {@code text}. */
+    private static InputStream slow(String text, Duration delay) {
+        return new FilterInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))) {
+            private boolean waited;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!waited) {
+                    waited = true;
+                    try {
+                        Thread.sleep(delay.toMillis());
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                }
+                return super.read(b, off, len);
+            }
+        };
+    }
+
+    @Test
+    void extract_refusesDocumentsBeyondTheWaitingLimit() throws Exception {
+        TextExtractionService small = new TextExtractionService(registry, false, 1_000, 1, Duration.ofSeconds(5), 1, 1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> small.extract(stalling("Skills: Java"), "text/plain"));
+            callers.submit(() -> small.extract(stalling("Skills: Go"), "text/plain"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (small.waiting() < 1 && System.nanoTime() < deadline) Thread.sleep(5);
+
+            TextExtractionException busy = assertThrows(TextExtractionException.class,
+                    () -> small.extract(new ByteArrayInputStream("x".getBytes(StandardCharsets.UTF_8)), "text/plain"));
+
+            assertTrue(busy.getMessage().contains("busy"), busy.getMessage());
+            assertEquals(1, registry.get("resume.extraction.rejected").counter().count());
+        } finally {
+            callers.shutdownNow();
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void extract_threadStuckOnADocumentThatWritesNothingIsFreed() {
+        TextExtractionService single = bounded(1_000, 1, Duration.ofMillis(200));
+        try {
+            assertThrows(TextExtractionException.class, () -> single.extract(endlessPdf(), TextExtractionService.PDF_CONTENT_TYPE));
+
+            // The only thread is free again for the next document
+            TextExtractionService.ExtractedText next = single.extract(
+                    new ByteArrayInputStream("Skills: Scala".getBytes(StandardCharsets.UTF_8)), "text/plain");
+            assertEquals("Skills: Scala", next.text());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void extract_pdfWhoseStreamInflatesPastTheLimitIsRefused() throws Exception {
+        TextExtractionService guarded = new TextExtractionService(registry, false, 1_000, 1, Duration.ofSeconds(5), 1, 1,
+                DataSize.ofMegabytes(1));
+        try {
+            TextExtractionException failure = assertThrows(TextExtractionException.class,
+                    () -> guarded.extract(new ByteArrayInputStream(pdfBomb(8L * 1024 * 1024)), TextExtractionService.PDF_CONTENT_TYPE));
+
+            assertTrue(failure.getMessage().contains("decodes to more than"), failure.getMessage());
+            // An ordinary PDF is well under the limit
+            assertEquals("Skills: Java", guarded.extract(new ByteArrayInputStream(pdf("Skills: Java")),
+                    TextExtractionService.PDF_CONTENT_TYPE).text().strip());
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
+    @Test
+    void extract_heapStaysFlatUnderHostileUploads() throws Exception {
+        int maxChars = 10_000;
+        TextExtractionService guarded = new TextExtractionService(registry, false, maxChars, 1, Duration.ofMillis(200), 2, 4);
+        // About 28 MB of text once inflated, a few dozen KB on the wire
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("bomb.txt"));
+            byte[] line = "Skills: Java. ".getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < 2_000_000; i++) out.write(line);
+            out.closeEntry();
+        }
+        byte[] zipBomb = zip.toByteArray();
+        // Both a few hundred KB, 256 MB once inflated
+        byte[] docxBomb = docxBomb(256L * 1024 * 1024);
+        byte[] pdfBomb = pdfBomb(256L * 1024 * 1024);
+        List<Callable<TextExtractionService.ExtractedText>> uploads = List.of(
+                () -> guarded.extract(new ByteArrayInputStream(zipBomb), "application/zip"),
+                () -> guarded.extract(new ByteArrayInputStream(docxBomb), TextExtractionService.DOCX_CONTENT_TYPE),
+                () -> guarded.extract(new ByteArrayInputStream(pdfBomb), TextExtractionService.PDF_CONTENT_TYPE),
+                () -> guarded.extract(endlessPdf(), TextExtractionService.PDF_CONTENT_TYPE),
+                () -> guarded.extract(stalling(""), "text/plain"),
+                () -> guarded.extract(stalling("Skills: Java\n"), "text/plain"),
+                // Endless text: only the cap stops it
+                () -> guarded.extract(new InputStream() {
+                    @Override
+                    public int read() {
+                        return 'A';
+                    }
+                }, "text/plain"));
+        PeakHeap heap = PeakHeap.start();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        int extracted = 0;
+        int refused = 0;
+        try {
+            List<Future<TextExtractionService.ExtractedText>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) results.add(callers.submit(uploads.get(i % uploads.size())));
+            for (Future<TextExtractionService.ExtractedText> result : results) {
+                try {
+                    assertTrue(result.get(30, TimeUnit.SECONDS).text().length() <= maxChars);
+                    extracted++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(TextExtractionException.class, e.getCause());
+                    refused++;
+                }
+            }
+            long growth = heap.growth();
+
+            assertEquals(200, extracted + refused);
+            assertTrue(extracted > 0);
+            assertTrue(growth < 64L * 1024 * 1024, "heap peaked " + growth + " bytes above where it started");
+            // No thread was left behind on a hostile document
+            assertEquals("Skills: Scala", guarded.extract(
+                    new ByteArrayInputStream("Skills: Scala".getBytes(StandardCharsets.UTF_8)), "text/plain").text());
+        } finally {
+            callers.shutdownNow();
+            guarded.shutdown();
+        }
+    }
+
+    @Test
+    void extract_decompressionBombsNeverInflateOnTheHeap() throws Exception {
+        int maxChars = 10_000;
+        TextExtractionService guarded = new TextExtractionService(registry, false, maxChars, 1, Duration.ofSeconds(30), 1, 1);
+        try {
+            // Each a few hundred KB, 512 MB once inflated; given the time, every byte would be decoded
+            Map<String, byte[]> bombs = Map.of(
+                    TextExtractionService.DOCX_CONTENT_TYPE, docxBomb(512L * 1024 * 1024),
+                    TextExtractionService.PDF_CONTENT_TYPE, pdfBomb(512L * 1024 * 1024));
+            for (Map.Entry<String, byte[]> bomb : bombs.entrySet()) {
+                String contentType = bomb.getKey();
+                PeakHeap heap = PeakHeap.start();
+                try {
+                    assertTrue(guarded.extract(new ByteArrayInputStream(bomb.getValue()), contentType).text().length() <= maxChars);
+                } catch (TextExtractionException refused) {
+                    // As good as capped: either way the document never fills the heap
+                }
+                long growth = heap.growth();
+
+                assertTrue(growth < 64L * 1024 * 1024, contentType + " heap peaked " + growth + " bytes above where it started");
+            }
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
+    /** A one-page PDF whose content stream is a few hundred KB of flate that inflates to {@code size} spaces. */
+    private static byte[] pdfBomb(long size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            COSStream content = document.getDocument().createCOSStream();
+            content.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+            try (OutputStream raw = new DeflaterOutputStream(content.createRawOutputStream(), new Deflater(Deflater.BEST_COMPRESSION))) {
+                writeSpaces(raw, size);
+            }
+            page.setContents(new PDStream(content));
+            document.save(out);
+        }
+        return out.toByteArray();
+    }
+
+    /** A DOCX whose word/document.xml inflates to about {@code size} bytes of paragraphs. */
+    private static byte[] docxBomb(long size) throws IOException {
+        byte[] paragraph = "<w:p><w:r><w:t>Skills: Java</w:t></w:r></w:p>".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bomb = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(docx("Skills: Java")));
+             ZipOutputStream out = new ZipOutputStream(bomb)) {
+            out.setLevel(Deflater.BEST_COMPRESSION);
+            for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().equals("word/document.xml")) {
+                    out.write(("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                            + "<w:body>").getBytes(StandardCharsets.UTF_8));
+                    for (long written = 0; written < size; written += paragraph.length) out.write(paragraph);
+                    out.write("</w:body></w:document>".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+        return bomb.toByteArray();
+    }
+
+    private static void writeSpaces(OutputStream out, long size) throws IOException {
+        byte[] spaces = new byte[64 * 1024];
+        Arrays.fill(spaces, (byte) ' ');
+        for (long written = 0; written < size; written += spaces.length) out.write(spaces);
+    }
+
+    /**
+     * Peak use of the old generation since {@link #start()}, over what it held after a collection
+     * then. Young-generation peaks are just allocation between collections; anything a document
+     * keeps alive for long, or allocates in one large piece, lands in the old generation.
+     */
+    private record PeakHeap(List<MemoryPoolMXBean> pools, long baseline) {
+
+        static PeakHeap start() throws InterruptedException {
+            List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .filter(pool -> !pool.getName().contains("Eden") && !pool.getName().contains("Survivor"))
+                    .toList();
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+                Thread.sleep(50);
+            }
+            pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            return new PeakHeap(pools, pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum());
+        }
+
+        long growth() {
+            return pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline;
+        }
+    }
+}
@@ -4,12 +4,22 @@ import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
 import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
 import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -55,4 +65,191 @@ class AiAnalysisServiceTest {
         assertTrue(ex.getMessage() == null || ex.getMessage().toLowerCase().contains("request"));
         verifyNoInteractions(parserService, llmService);
     }
+
+    @Test
+    void analyze_parallelMode_matchesSequentialResultAndRecordsStages() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiAnalysisService parallel = new AiAnalysisService(parserService, llmService, registry, "parallel", Duration.ofSeconds(5));
+        SubmitAnalysisRequest req = new SubmitAnalysisRequest("resume", "job", true);
+        ParsedResumeDTO parsedResume = new ParsedResumeDTO("Candidate", List.of("java"), List.of(), "resume");
+        ParsedJobDTO parsedJob = new ParsedJobDTO("Engineer", List.of("java"), List.of(), null, null, "job");
+        FeedbackDTO feedback = new FeedbackDTO(90, List.of(), List.of(), List.of(), "summary", null, null);
+
+        when(parserService.parseResume("resume")).thenReturn(parsedResume);
+        when(parserService.parseJob("job")).thenReturn(parsedJob);
+        when(llmService.generateFeedback(parsedResume, parsedJob, true)).thenReturn(feedback);
+
+        assertSame(feedback, parallel.analyze(req));
+        assertEquals(AiAnalysisService.Mode.PARALLEL, parallel.mode());
+        for (String stage : List.of("parse_resume", "parse_job", "score")) {
+            assertEquals(1, registry.get("ai.analysis.stage").tag("stage", stage).tag("mode", "parallel").timer().count());
+        }
+        parallel.shutdown();
+    }
+
+    @Test
+    void analyze_parallelMode_deadlineCancelsSlowFork() throws Exception {
+        AiAnalysisService parallel = new AiAnalysisService(parserService, llmService, new SimpleMeterRegistry(), "PARALLEL", Duration.ofMillis(100));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(parserService.parseResume(anyString())).thenReturn(new ParsedResumeDTO("Candidate", List.of(), List.of(), "r"));
+        when(parserService.parseJob(anyString())).thenAnswer(inv -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        assertThrows(AnalysisTimeoutException.class,
+                () -> parallel.analyze(new SubmitAnalysisRequest("r", "j", false)));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "slow fork should be interrupted");
+        verifyNoInteractions(llmService);
+        parallel.shutdown();
+    }
+
+    @Test
+    void analyze_parallelMode_failureInOneForkPropagates() {
+        AiAnalysisService parallel = new AiAnalysisService(parserService, llmService, new SimpleMeterRegistry(), "parallel", Duration.ofSeconds(5));
+        when(parserService.parseResume(anyString())).thenThrow(new IllegalStateException("boom"));
+        when(parserService.parseJob(anyString())).thenReturn(new ParsedJobDTO("t", List.of(), List.of(), null, null, "j"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> parallel.analyze(new SubmitAnalysisRequest("r", "j", false)));
+        assertEquals("boom", ex.getMessage());
+        verifyNoInteractions(llmService);
+        parallel.shutdown();
+    }
+
+    private AiAnalysisService deduplicating(SimpleMeterRegistry registry, Duration ttl) {
+        return new AiAnalysisService(parserService, llmService, registry, "sequential", Duration.ofSeconds(5), true, ttl, 100);
+    }
+
+    private static double dedup(SimpleMeterRegistry registry, String result) {
+        return registry.get("ai.analysis.dedup").tag("result", result).counter().count();
+    }
+
+    private void stubParsing() {
+        when(parserService.parseResume(anyString())).thenAnswer(inv ->
+                new ParsedResumeDTO("Candidate", List.of("java"), List.of(), inv.getArgument(0)));
+        when(parserService.parseJob(anyString())).thenAnswer(inv ->
+                new ParsedJobDTO("Engineer", List.of("java"), List.of(), null, null, inv.getArgument(0)));
+    }
+
+    @Test
+    void analyze_identicalConcurrentRequests_shareOneComputation() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiAnalysisService service = deduplicating(registry, Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger scored = new AtomicInteger();
+        FeedbackDTO feedback = new FeedbackDTO(80, List.of(), List.of(), List.of(), "summary", null, null);
+        stubParsing();
+        when(llmService.generateFeedback(any(), any(), anyBoolean())).thenAnswer(inv -> {
+            scored.incrementAndGet();
+            release.await();
+            return feedback;
+        });
+        SubmitAnalysisRequest req = new SubmitAnalysisRequest("same resume", "same posting", false);
+
+        FeedbackDTO[] results = new FeedbackDTO[4];
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int n = i;
+            callers.add(Thread.ofPlatform().start(() -> results[n] = service.analyze(req)));
+        }
+        try {
+            // One caller computes (parked on the latch), the other three wait on its result
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (scored.get() < 1 || callers.stream().filter(t -> t.getState() == Thread.State.TIMED_WAITING).count() < 3) {
+                assertTrue(System.nanoTime() < deadline, "callers did not line up behind the first one");
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Thread caller : callers) caller.join(5000);
+        } finally {
+            release.countDown();
+        }
+
+        for (FeedbackDTO result : results) assertSame(feedback, result);
+        assertEquals(1, scored.get());
+        verify(parserService, times(1)).parseResume("same resume");
+        assertEquals(1, dedup(registry, "miss"));
+        assertEquals(3, dedup(registry, "coalesced"));
+    }
+
+    @Test
+    void analyze_cancelledLeader_letsWaitingCallerComputeItself() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiAnalysisService service = deduplicating(registry, Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger scored = new AtomicInteger();
+        FeedbackDTO feedback = new FeedbackDTO(80, List.of(), List.of(), List.of(), "summary", null, null);
+        stubParsing();
+        when(llmService.generateFeedback(any(), any(), anyBoolean())).thenAnswer(inv -> {
+            if (scored.incrementAndGet() > 1) return feedback;
+            release.await();
+            throw new CancellationException("leader cancelled");
+        });
+        SubmitAnalysisRequest req = new SubmitAnalysisRequest("same resume", "same posting", false);
+
+        CompletableFuture<FeedbackDTO> leader = CompletableFuture.supplyAsync(() -> service.analyze(req));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scored.get() < 1) {
+            assertTrue(System.nanoTime() < deadline, "leader did not start");
+            Thread.sleep(5);
+        }
+        FeedbackDTO[] followerResult = new FeedbackDTO[1];
+        Thread follower = Thread.ofPlatform().start(() -> followerResult[0] = service.analyze(req));
+        try {
+            while (follower.getState() != Thread.State.TIMED_WAITING) {
+                assertTrue(System.nanoTime() < deadline, "follower did not wait for the leader");
+                Thread.sleep(5);
+            }
+        } finally {
+            release.countDown();
+        }
+        follower.join(5000);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, e.getCause());
+        assertSame(feedback, followerResult[0]);
+        assertEquals(2, scored.get());
+        assertEquals(2, dedup(registry, "miss"));
+    }
+
+    @Test
+    void analyze_recentResultIsReusedButNotAcrossDifferentRequests() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiAnalysisService service = deduplicating(registry, Duration.ofMinutes(1));
+        stubParsing();
+        when(llmService.generateFeedback(any(), any(), anyBoolean())).thenAnswer(inv ->
+                new FeedbackDTO(inv.getArgument(2) ? 70 : 60, List.of(), List.of(), List.of(), "summary", null, null));
+
+        FeedbackDTO first = service.analyze(new SubmitAnalysisRequest("resume", "posting", false));
+        FeedbackDTO again = service.analyze(new SubmitAnalysisRequest("resume", "posting", false));
+        FeedbackDTO withLetter = service.analyze(new SubmitAnalysisRequest("resume", "posting", true));
+
+        assertSame(first, again);
+        assertEquals(70, withLetter.matchScore());
+        verify(llmService, times(2)).generateFeedback(any(), any(), anyBoolean());
+        assertEquals(1, dedup(registry, "hit"));
+        assertEquals(2, dedup(registry, "miss"));
+    }
+
+    @Test
+    void analyze_partialOrFailedResultsAreNotReused() {
+        AiAnalysisService service = deduplicating(new SimpleMeterRegistry(), Duration.ofMinutes(1));
+        stubParsing();
+        FeedbackDTO partial = new FeedbackDTO(50, List.of(), List.of(), List.of(), "summary", null, null, true);
+        when(llmService.generateFeedback(any(), any(), anyBoolean()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(partial)
+                .thenReturn(partial);
+        SubmitAnalysisRequest req = new SubmitAnalysisRequest("resume", "posting", false);
+
+        assertThrows(IllegalStateException.class, () -> service.analyze(req));
+        assertSame(partial, service.analyze(req));
+        assertSame(partial, service.analyze(req));
+        verify(llmService, times(3)).generateFeedback(any(), any(), anyBoolean());
+    }
 }
@@ -0,0 +1,207 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisJobNotFoundException;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisQueueFullException;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.model.AnalysisJob;
+import adriangarciao.ai_job_app_assistant.model.AnalysisJobStatus;
+import adriangarciao.ai_job_app_assistant.repository.AnalysisJobRepository;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class AnalysisJobServiceTest {
+
+    private static final SubmitAnalysisRequest REQUEST = new SubmitAnalysisRequest(
+            "Jane Doe\nSkills: Java, Spring Boot, Docker",
+            "Backend Engineer\nRequired: Java, Spring Boot, Kubernetes", false);
+
+    private final Map<UUID, AnalysisJob> table = new ConcurrentHashMap<>();
+    private final AnalysisJobRepository repository = Mockito.mock(AnalysisJobRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private AnalysisJobService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // In-memory table behind the repository; rows are copied in and out like a database would
+        when(repository.save(any())).thenAnswer(inv -> {
+            AnalysisJob job = inv.getArgument(0);
+            table.put(job.getId(), copy(job));
+            return job;
+        });
+        when(repository.findById(any())).thenAnswer(inv -> Optional.ofNullable(table.get((UUID) inv.getArgument(0))).map(AnalysisJobServiceTest::copy));
+        Mockito.doAnswer(inv -> table.remove((UUID) inv.getArgument(0))).when(repository).deleteById(any());
+        when(repository.findByStatusInOrderByCreatedAtAsc(any())).thenAnswer(inv -> {
+            Collection<AnalysisJobStatus> statuses = inv.getArgument(0);
+            return table.values().stream()
+                    .filter(j -> statuses.contains(j.getStatus()))
+                    .sorted(Comparator.comparing(AnalysisJob::getCreatedAt))
+                    .map(AnalysisJobServiceTest::copy)
+                    .toList();
+        });
+    }
+
+    private static AnalysisJob copy(AnalysisJob job) {
+        AnalysisJob row = new AnalysisJob(job.getId(), job.getResumeText(), job.getJobPostingText(),
+                job.isIncludeCoverLetter(), job.getCreatedAt());
+        row.setStatus(job.getStatus());
+        row.setAttempts(job.getAttempts());
+        row.setResultJson(job.getResultJson());
+        row.setError(job.getError());
+        row.setStartedAt(job.getStartedAt());
+        row.setFinishedAt(job.getFinishedAt());
+        return row;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    private AnalysisJobService service(AiAnalysisService analysis, int workers, int capacity) {
+        service = new AnalysisJobService(analysis, repository, objectMapper, registry, workers, capacity, Duration.ofHours(1));
+        return service;
+    }
+
+    private AnalysisJobDTO awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            AnalysisJobDTO job = service.get(id);
+            if (job.status() == AnalysisJobStatus.SUCCEEDED || job.status() == AnalysisJobStatus.FAILED) return job;
+            Thread.sleep(10);
+        }
+        return fail("job " + id + " did not finish");
+    }
+
+    @Test
+    void submit_runsAnalysisAndKeepsResult() throws Exception {
+        AiAnalysisService analysis = new AiAnalysisService(new SimpleParserService(), new FakeLLMService());
+        service(analysis, 2, 10);
+
+        AnalysisJobDTO queued = service.submit(REQUEST);
+        assertEquals(AnalysisJobStatus.QUEUED, queued.status());
+
+        AnalysisJobDTO done = awaitFinished(queued.jobId());
+        assertEquals(AnalysisJobStatus.SUCCEEDED, done.status());
+        assertEquals(analysis.analyze(REQUEST), done.result());
+        assertNotNull(done.startedAt());
+        assertNotNull(done.finishedAt());
+
+        // Persisted result reads back the same, and the inputs are no longer kept
+        AnalysisJob row = table.get(queued.jobId());
+        assertNull(row.getResumeText());
+        assertEquals(done.result(), objectMapper.readValue(row.getResultJson(), done.result().getClass()));
+        assertEquals(1, registry.get("ai.jobs.wait").timer().count());
+    }
+
+    @Test
+    void submit_queueFull_isRejectedAndNotStored() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        AiAnalysisService analysis = Mockito.mock(AiAnalysisService.class);
+        when(analysis.analyze(any())).thenAnswer(inv -> {
+            running.countDown();
+            release.await();
+            return null;
+        });
+        service(analysis, 1, 1);
+
+        service.submit(REQUEST);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        service.submit(REQUEST);
+
+        AnalysisQueueFullException ex = assertThrows(AnalysisQueueFullException.class, () -> service.submit(REQUEST));
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(2, table.size());
+        assertEquals(1.0, registry.get("ai.jobs.queue.depth").gauge().value());
+        assertEquals(1.0, registry.get("ai.jobs.rejected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void failedAnalysis_isReportedWithItsError() throws Exception {
+        AiAnalysisService analysis = Mockito.mock(AiAnalysisService.class);
+        when(analysis.analyze(any())).thenThrow(new AnalysisTimeoutException("Analysis did not finish within 10000 ms"));
+        service(analysis, 1, 10);
+
+        AnalysisJobDTO done = awaitFinished(service.submit(REQUEST).jobId());
+
+        assertEquals(AnalysisJobStatus.FAILED, done.status());
+        assertNull(done.result());
+        assertEquals("Analysis did not finish within 10000 ms", done.error());
+    }
+
+    @Test
+    void recover_requeuesJobsLeftUnfinished() throws Exception {
+        AnalysisJob queued = new AnalysisJob(UUID.randomUUID(), REQUEST.resumeText(), REQUEST.jobPostingText(), false,
+                Instant.now().minusSeconds(60));
+        AnalysisJob interrupted = new AnalysisJob(UUID.randomUUID(), REQUEST.resumeText(), REQUEST.jobPostingText(), false,
+                Instant.now().minusSeconds(120));
+        interrupted.setStatus(AnalysisJobStatus.RUNNING);
+        interrupted.setStartedAt(Instant.now().minusSeconds(90));
+        table.put(queued.getId(), queued);
+        table.put(interrupted.getId(), interrupted);
+        service(new AiAnalysisService(new SimpleParserService(), new FakeLLMService()), 1, 10);
+
+        service.recover();
+
+        assertEquals(AnalysisJobStatus.SUCCEEDED, awaitFinished(queued.getId()).status());
+        assertEquals(AnalysisJobStatus.SUCCEEDED, awaitFinished(interrupted.getId()).status());
+        assertEquals(1, table.get(queued.getId()).getAttempts());
+    }
+
+    @Test
+    void recover_failsJobsInterruptedTooOften() throws Exception {
+        AnalysisJob poison = new AnalysisJob(UUID.randomUUID(), REQUEST.resumeText(), REQUEST.jobPostingText(), false,
+                Instant.now().minusSeconds(60));
+        poison.setStatus(AnalysisJobStatus.RUNNING);
+        poison.setAttempts(2);
+        table.put(poison.getId(), poison);
+        AiAnalysisService analysis = Mockito.mock(AiAnalysisService.class);
+        service = new AnalysisJobService(analysis, repository, objectMapper, registry, 1, 10, Duration.ofHours(1), 2);
+
+        service.recover();
+
+        AnalysisJobDTO failed = service.get(poison.getId());
+        assertEquals(AnalysisJobStatus.FAILED, failed.status());
+        assertEquals("Job was interrupted 2 times; submit it again", failed.error());
+        assertNull(table.get(poison.getId()).getResumeText());
+        Mockito.verifyNoInteractions(analysis);
+    }
+
+    @Test
+    void get_unknownOrExpiredJob_isNotFound() {
+        service(Mockito.mock(AiAnalysisService.class), 1, 10);
+        AnalysisJob old = new AnalysisJob(UUID.randomUUID(), null, null, false, Instant.now().minus(Duration.ofHours(3)));
+        old.setStatus(AnalysisJobStatus.SUCCEEDED);
+        old.setFinishedAt(Instant.now().minus(Duration.ofHours(2)));
+        table.put(old.getId(), old);
+
+        assertThrows(AnalysisJobNotFoundException.class, () -> service.get(UUID.randomUUID()));
+        assertThrows(AnalysisJobNotFoundException.class, () -> service.get(old.getId()));
+    }
+}
@@ -0,0 +1,191 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.AnalysisSessionDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.SessionEditRequest;
+import adriangarciao.ai_job_app_assistant.dto.SessionEditRequest.Document;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisSessionNotFoundException;
+import adriangarciao.ai_job_app_assistant.exception.InvalidSessionEditException;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisSessionServiceTest {
+
+    private static final String RESUME = """
+            Jane Doe
+
+            Skills:
+            Java, Spring Boot, PostgreSQL, Docker
+
+            Experience:
+            Backend Engineer at Acme - built REST APIs with Spring and AWS
+            - Migrated services to Kubernetes""";
+
+    private static final String JOB = """
+            Title: Senior Backend Engineer
+
+            Requirements:
+            - Java, Spring
+            - Experience with Kafka
+            - 3+ years of AWS
+
+            Nice to have:
+            - Kubernetes
+            - GraphQL
+
+            Location: Austin, TX
+            Compensation: $150k - $180k""";
+
+    private SimpleParserService parser;
+    private FakeLLMService llm;
+    private AnalysisSessionService sessions;
+
+    @BeforeEach
+    void setUp() {
+        parser = new SimpleParserService();
+        llm = new FakeLLMService();
+        sessions = new AnalysisSessionService(parser, llm, Duration.ofMinutes(5), 1_000_000);
+    }
+
+    @Test
+    void open_matchesOneShotAnalysis() {
+        AnalysisSessionDTO session = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, true));
+
+        assertNotNull(session.sessionId());
+        assertEquals(0, session.version());
+        assertEquals(analyze(RESUME, JOB, true), session.feedback());
+        assertEquals(session, sessions.get(session.sessionId()));
+    }
+
+    @Test
+    void edit_singleLine_updatesFeedback() {
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+
+        // line 3 of the resume is the skills list
+        AnalysisSessionDTO edited = sessions.edit(id,
+                new SessionEditRequest(Document.RESUME, 3, 4, List.of("Java, Spring Boot, Kafka, AWS, Kubernetes")));
+
+        String resume = RESUME.replace("Java, Spring Boot, PostgreSQL, Docker", "Java, Spring Boot, Kafka, AWS, Kubernetes");
+        assertEquals(1, edited.version());
+        assertEquals(analyze(resume, JOB, false), edited.feedback());
+    }
+
+    @Test
+    void edit_insertAndDelete_matchOneShotAnalysis() {
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+
+        sessions.edit(id, new SessionEditRequest(Document.JOB_POSTING, 5, 5, List.of("- Terraform\n- Go")));
+        AnalysisSessionDTO edited = sessions.edit(id, new SessionEditRequest(Document.JOB_POSTING, 8, 11, List.of()));
+
+        List<String> job = new ArrayList<>(Arrays.asList(JOB.split("\n", -1)));
+        job.addAll(5, List.of("- Terraform", "- Go"));
+        job.subList(8, 11).clear();
+        assertEquals(2, edited.version());
+        assertEquals(analyze(RESUME, String.join("\n", job), false), edited.feedback());
+    }
+
+    @Test
+    void randomEdits_alwaysMatchOneShotAnalysis() {
+        Random random = new Random(42);
+        List<String> pool = List.of("", "   ", "Requirements:", "NICE TO HAVE", "Benefits:", "- Java, Spring",
+                "- Python and Django", "- 5+ years of Kubernetes experience", "Location: Remote",
+                "Salary: $120,000 - $140,000", "Skills: SQL, AWS, React", "Worked with Docker at ACME",
+                "Title: Data Engineer", "About us: we ship things", "- C++ or Rust");
+        List<String> resume = new ArrayList<>(Arrays.asList(RESUME.split("\n", -1)));
+        List<String> job = new ArrayList<>(Arrays.asList(JOB.split("\n", -1)));
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, true)).sessionId();
+
+        for (int i = 0; i < 200; i++) {
+            boolean editResume = random.nextBoolean();
+            List<String> lines = editResume ? resume : job;
+            int from = random.nextInt(lines.size() + 1);
+            int to = Math.min(lines.size(), from + random.nextInt(3));
+            List<String> replacement = new ArrayList<>();
+            for (int k = random.nextInt(3); k > 0; k--) replacement.add(pool.get(random.nextInt(pool.size())));
+
+            AnalysisSessionDTO edited = sessions.edit(id, new SessionEditRequest(
+                    editResume ? Document.RESUME : Document.JOB_POSTING, from, to, replacement));
+            lines.subList(from, to).clear();
+            lines.addAll(from, replacement);
+
+            assertEquals(analyze(String.join("\n", resume), String.join("\n", job), true), edited.feedback(),
+                    "after edit " + i);
+        }
+    }
+
+    @Test
+    void edit_rejectsRangeOutsideDocument() {
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+
+        assertThrows(InvalidSessionEditException.class,
+                () -> sessions.edit(id, new SessionEditRequest(Document.RESUME, 2, 100, List.of("x"))));
+        assertThrows(InvalidSessionEditException.class,
+                () -> sessions.edit(id, new SessionEditRequest(Document.RESUME, 4, 3, List.of("x"))));
+        assertEquals(0, sessions.get(id).version());
+    }
+
+    @Test
+    void edit_rejectsDocumentOverSizeLimit() {
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+        String huge = "a".repeat(AnalysisSessionService.MAX_DOCUMENT_CHARS);
+
+        assertThrows(InvalidSessionEditException.class,
+                () -> sessions.edit(id, new SessionEditRequest(Document.JOB_POSTING, 0, 0, List.of(huge))));
+    }
+
+    @Test
+    void edit_takesNullLinesAsEmpty() {
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+
+        AnalysisSessionDTO edited = sessions.edit(id,
+                new SessionEditRequest(Document.RESUME, 1, 2, Arrays.asList((String) null)));
+
+        assertEquals(analyze(RESUME, JOB, false), edited.feedback());
+    }
+
+    @Test
+    void sessions_areBoundedByTheCharactersTheyHold() {
+        int perSession = RESUME.length() + JOB.length();
+        AnalysisSessionService bounded = new AnalysisSessionService(parser, llm, Duration.ofMinutes(5), perSession * 3L);
+
+        for (int i = 0; i < 10; i++) bounded.open(new SubmitAnalysisRequest(RESUME, JOB, false));
+        assertTrue(bounded.retainedChars() <= perSession * 3L, "retained " + bounded.retainedChars());
+    }
+
+    @Test
+    void edit_weighsTheSessionAgain() {
+        int perSession = RESUME.length() + JOB.length();
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+        assertEquals(perSession, sessions.retainedChars());
+
+        // Inserting one line adds its characters and a separator
+        sessions.edit(id, new SessionEditRequest(Document.JOB_POSTING, 0, 0, List.of("a".repeat(100))));
+
+        assertEquals(perSession + 101, sessions.retainedChars());
+    }
+
+    @Test
+    void closedOrUnknownSession_isNotFound() {
+        UUID id = sessions.open(new SubmitAnalysisRequest(RESUME, JOB, false)).sessionId();
+        sessions.close(id);
+
+        assertThrows(AnalysisSessionNotFoundException.class, () -> sessions.get(id));
+        assertThrows(AnalysisSessionNotFoundException.class,
+                () -> sessions.edit(UUID.randomUUID(), new SessionEditRequest(Document.RESUME, 0, 0, List.of())));
+    }
+
+    private FeedbackDTO analyze(String resume, String job, boolean includeCoverLetter) {
+        return llm.generateFeedback(parser.parseResume(resume), parser.parseJob(job), includeCoverLetter);
+    }
+}
@@ -0,0 +1,219 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SubmitAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisQueueFullException;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class AnalysisStreamServiceTest {
+
+    private static final SubmitAnalysisRequest REQUEST = new SubmitAnalysisRequest(
+            "Jane Doe\nSkills: Java, Spring Boot, Docker",
+            "Backend Engineer\nRequired: Java, Spring Boot, Kubernetes", true);
+
+    private AnalysisStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    /** Records callbacks as "event:payload" strings. */
+    private static final class Recorder implements AnalysisStreamService.Listener {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile FeedbackDTO feedback;
+        volatile RuntimeException error;
+
+        @Override
+        public void onParsed(ParsedResumeDTO resume, ParsedJobDTO job) {
+            events.add("parsed");
+        }
+
+        @Override
+        public void onToken(String token) {
+            events.add("token:" + token);
+        }
+
+        @Override
+        public void onFeedback(FeedbackDTO feedback) {
+            this.feedback = feedback;
+            events.add("feedback");
+            finished.countDown();
+        }
+
+        @Override
+        public void onError(RuntimeException error) {
+            this.error = error;
+            events.add("error");
+            finished.countDown();
+        }
+    }
+
+    @Test
+    void analyze_reportsStagesInOrderWithSameFeedbackAsOneShot() throws Exception {
+        SimpleParserService parser = new SimpleParserService();
+        LLMService llm = new FakeLLMService();
+        service = new AnalysisStreamService(parser, llm);
+        Recorder recorder = new Recorder();
+
+        service.analyze(REQUEST, recorder);
+
+        assertTrue(recorder.finished.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("parsed", "feedback"), recorder.events);
+        assertEquals(new AiAnalysisService(parser, llm).analyze(REQUEST), recorder.feedback);
+    }
+
+    @Test
+    void analyze_forwardsTokensBetweenParsedAndFeedback() throws Exception {
+        LLMService streaming = new LLMService() {
+            @Override
+            public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter) {
+                return new FeedbackDTO(50, List.of(), List.of(), List.of(), "s", null, null);
+            }
+
+            @Override
+            public FeedbackDTO generateFeedback(ParsedResumeDTO resume, ParsedJobDTO job, boolean includeCoverLetter,
+                                                Consumer<String> onToken) {
+                onToken.accept("Dear ");
+                onToken.accept("team");
+                return generateFeedback(resume, job, includeCoverLetter);
+            }
+        };
+        service = new AnalysisStreamService(new SimpleParserService(), streaming);
+        Recorder recorder = new Recorder();
+
+        service.analyze(REQUEST, recorder);
+
+        assertTrue(recorder.finished.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("parsed", "token:Dear ", "token:team", "feedback"), recorder.events);
+    }
+
+    @Test
+    void analyze_failureEndsWithError() throws Exception {
+        ParserService parser = Mockito.mock(ParserService.class);
+        when(parser.parseResume(anyString())).thenThrow(new IllegalStateException("broken"));
+        service = new AnalysisStreamService(parser, new FakeLLMService());
+        Recorder recorder = new Recorder();
+
+        service.analyze(REQUEST, recorder);
+
+        assertTrue(recorder.finished.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("error"), recorder.events);
+        assertEquals("broken", recorder.error.getMessage());
+    }
+
+    @Test
+    void analyze_cancelledWhileScoringReportsNothingMore() throws Exception {
+        CountDownLatch scoring = new CountDownLatch(1);
+        LLMService slow = Mockito.mock(LLMService.class);
+        when(slow.generateFeedback(any(), any(), anyBoolean(), any())).thenAnswer(inv -> {
+            scoring.countDown();
+            Thread.sleep(10_000);
+            return null;
+        });
+        service = new AnalysisStreamService(new SimpleParserService(), slow);
+        Recorder recorder = new Recorder();
+
+        Future<?> analysis = service.analyze(REQUEST, recorder);
+        assertTrue(scoring.await(5, TimeUnit.SECONDS));
+        analysis.cancel(true);
+
+        assertFalse(recorder.finished.await(300, TimeUnit.MILLISECONDS));
+        assertEquals(List.of("parsed"), recorder.events);
+    }
+
+    @Test
+    void analyze_recordsStageMetricsThroughTheAnalysisService() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiAnalysisService analysis = new AiAnalysisService(new SimpleParserService(), new FakeLLMService(), registry,
+                "sequential", Duration.ofSeconds(5));
+        service = new AnalysisStreamService(analysis, 4);
+        Recorder recorder = new Recorder();
+
+        service.analyze(REQUEST, recorder);
+
+        assertTrue(recorder.finished.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("parsed", "feedback"), recorder.events);
+        for (String stage : List.of("parse_resume", "parse_job", "score")) {
+            assertEquals(1, registry.get("ai.analysis.stage").tag("stage", stage).timer().count(), stage);
+        }
+    }
+
+    @Test
+    void analyze_pastTheAnalysisTimeoutEndsWithTimeoutAndFreesTheSlot() throws Exception {
+        LLMService slow = Mockito.mock(LLMService.class);
+        when(slow.generateFeedback(any(), any(), anyBoolean(), any())).thenAnswer(inv -> {
+            Thread.sleep(10_000);
+            return null;
+        });
+        AiAnalysisService analysis = new AiAnalysisService(new SimpleParserService(), slow, new SimpleMeterRegistry(),
+                "sequential", Duration.ofMillis(200));
+        service = new AnalysisStreamService(analysis, 1);
+        Recorder recorder = new Recorder();
+
+        Future<?> running = service.analyze(REQUEST, recorder);
+
+        assertTrue(recorder.finished.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(AnalysisTimeoutException.class, recorder.error);
+        assertEquals(List.of("parsed", "error"), recorder.events);
+        assertTrue(running.isCancelled());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (service.availableSlots() < 1 && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(1, service.availableSlots());
+    }
+
+    @Test
+    void analyze_refusesBeyondTheConcurrencyLimitUntilASlotIsFree() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LLMService blocked = Mockito.mock(LLMService.class);
+        when(blocked.generateFeedback(any(), any(), anyBoolean(), any())).thenAnswer(inv -> {
+            release.await();
+            return new FeedbackDTO(50, List.of(), List.of(), List.of(), "s", null, null);
+        });
+        AiAnalysisService analysis = new AiAnalysisService(new SimpleParserService(), blocked, new SimpleMeterRegistry(),
+                "sequential", Duration.ofSeconds(5));
+        service = new AnalysisStreamService(analysis, 2);
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+
+        service.analyze(REQUEST, first);
+        Future<?> cancelled = service.analyze(REQUEST, second);
+        AnalysisQueueFullException full = assertThrows(AnalysisQueueFullException.class,
+                () -> service.analyze(REQUEST, new Recorder()));
+        assertEquals(5, full.getRetryAfterSeconds());
+
+        cancelled.cancel(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (service.availableSlots() < 1 && System.nanoTime() < deadline) Thread.sleep(5);
+        Recorder third = new Recorder();
+        service.analyze(REQUEST, third);
+        release.countDown();
+
+        assertTrue(first.finished.await(5, TimeUnit.SECONDS));
+        assertTrue(third.finished.await(5, TimeUnit.SECONDS));
+        assertNotNull(third.feedback);
+    }
+}
@@ -0,0 +1,135 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.BatchAnalysisRequest;
+import adriangarciao.ai_job_app_assistant.dto.BatchFeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.FakeLLMService;
+import adriangarciao.ai_job_app_assistant.service.ai.llm.LLMService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BatchAnalysisServiceTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Skills: Java, Spring Boot, PostgreSQL, Docker, AWS
+            Experience: Built REST APIs for payment services""";
+
+    private static final List<String> POSTINGS = List.of(
+            "Frontend Developer\nRequired: React, TypeScript",
+            "Backend Engineer\nRequired: Java, Spring Boot, PostgreSQL, Docker\nBuild payment REST APIs",
+            "Data Engineer\nRequired: Python, Spark, AWS",
+            "Platform Engineer\nRequired: Java, Docker, Kubernetes, AWS");
+
+    private final SimpleParserService parser = new SimpleParserService();
+    private final LLMService llm = new FakeLLMService();
+    private BatchAnalysisService service = new BatchAnalysisService(parser, llm, Duration.ofSeconds(10), 2);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void rank_ordersByScoreAndMatchesSingleAnalyses() {
+        List<BatchFeedbackDTO> ranked = service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, null));
+
+        assertEquals(POSTINGS.size(), ranked.size());
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(ranked.get(i - 1).feedback().matchScore() >= ranked.get(i).feedback().matchScore());
+        }
+        assertEquals(1, ranked.get(0).index());
+        for (BatchFeedbackDTO result : ranked) {
+            FeedbackDTO single = llm.generateFeedback(parser.parseResume(RESUME),
+                    parser.parseJob(POSTINGS.get(result.index())), false);
+            assertEquals(single, result.feedback());
+        }
+    }
+
+    @Test
+    void rank_topKLimitsResult() {
+        List<BatchFeedbackDTO> all = service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, null));
+        List<BatchFeedbackDTO> top2 = service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, 2));
+
+        assertEquals(all.subList(0, 2), top2);
+    }
+
+    @Test
+    void rank_parsesResumeOnce() {
+        ParserService spy = spy(parser);
+        service = new BatchAnalysisService(spy, llm, Duration.ofSeconds(10), 2);
+
+        service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, 1));
+
+        verify(spy, times(1)).parseResume(RESUME);
+        verify(spy, times(POSTINGS.size())).parseJob(anyString());
+    }
+
+    @Test
+    void stream_emitsEveryPostingOnce() {
+        List<BatchFeedbackDTO> streamed = new ArrayList<>();
+        service.stream(new BatchAnalysisRequest(RESUME, POSTINGS, null), streamed::add);
+
+        List<BatchFeedbackDTO> ranked = service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, null));
+        assertEquals(POSTINGS.size(), streamed.size());
+        assertEquals(ranked.stream().sorted((a, b) -> a.index() - b.index()).toList(),
+                streamed.stream().sorted((a, b) -> a.index() - b.index()).toList());
+    }
+
+    @Test
+    void rank_pastDeadline_throwsTimeoutAndCancelsParses() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ParserService slow = Mockito.mock(ParserService.class);
+        when(slow.parseResume(anyString())).thenReturn(parser.parseResume(RESUME));
+        when(slow.parseJob(anyString())).thenAnswer(inv -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+        service = new BatchAnalysisService(slow, llm, Duration.ofMillis(100), 2);
+
+        assertThrows(AnalysisTimeoutException.class,
+                () -> service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, null)));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rank_scoringPastDeadline_throwsTimeoutAndInterruptsTheBatchCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        LLMService slow = new FakeLLMService() {
+            @Override
+            public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO resume, List<ParsedJobDTO> jobs) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return List.of();
+            }
+        };
+        service = new BatchAnalysisService(parser, slow, Duration.ofMillis(200), 2);
+
+        long start = System.nanoTime();
+        assertThrows(AnalysisTimeoutException.class,
+                () -> service.rank(new BatchAnalysisRequest(RESUME, POSTINGS, null)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
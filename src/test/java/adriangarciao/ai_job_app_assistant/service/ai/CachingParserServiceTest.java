@@ -0,0 +1,130 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingParserServiceTest {
+
+    private ParserService delegate;
+    private CachingParserService parser;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.spy(new SimpleParserService());
+        parser = new CachingParserService(delegate, 1_000_000);
+    }
+
+    @Test
+    void parseResume_sameTextIsParsedOnce() {
+        String resume = "Skills:\nJava, Spring, SQL\n\nExperience:\nSoftware Engineer at X";
+
+        ParsedResumeDTO first = parser.parseResume(resume);
+        ParsedResumeDTO second = parser.parseResume(resume);
+
+        assertSame(first, second);
+        verify(delegate, times(1)).parseResume(anyString());
+        assertEquals(1, parser.stats().hitCount());
+        assertEquals(1, parser.stats().missCount());
+    }
+
+    @Test
+    void parseResume_whitespaceOnlyDifferencesShareAnEntry() {
+        ParsedResumeDTO first = parser.parseResume("Skills:\r\nJava,   Spring\n\n\n\nExperience");
+        ParsedResumeDTO second = parser.parseResume("  Skills:\nJava, Spring\n\nExperience  ");
+
+        assertSame(first, second);
+        verify(delegate, times(1)).parseResume(anyString());
+    }
+
+    @Test
+    void parseJob_matchesUncachedResult() {
+        String job = "Title: Backend Engineer\n\nRequirements:\n- Java, Spring\n\nLocation: Austin, TX";
+
+        ParsedJobDTO cached = parser.parseJob(job);
+        ParsedJobDTO direct = new SimpleParserService().parseJob(job);
+
+        assertEquals(direct, cached);
+        assertSame(cached, parser.parseJob(job));
+    }
+
+    @Test
+    void resumeAndJobEntriesAreSeparate() {
+        String text = "Requirements:\n- Java";
+
+        parser.parseResume(text);
+        parser.parseJob(text);
+
+        verify(delegate, times(1)).parseResume(anyString());
+        verify(delegate, times(1)).parseJob(anyString());
+    }
+
+    @Test
+    void parseJob_partialResultIsNotCached() {
+        ParserService impatient = Mockito.spy(new SimpleParserService(Duration.ZERO));
+        CachingParserService caching = new CachingParserService(impatient, 1_000_000);
+        String job = "Title: Backend Engineer\n\nRequirements:\n- Java";
+
+        assertTrue(caching.parseJob(job).partial());
+        assertTrue(caching.parseJob(job).partial());
+
+        verify(impatient, times(2)).parseJob(anyString());
+    }
+
+    @Test
+    void slowParse_doesNotBlockOtherKeys() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ParserService slow = new SimpleParserService() {
+            @Override
+            public ParsedJobDTO parseJob(String text) {
+                if (text.equals("Title: slow")) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.parseJob(text);
+            }
+        };
+        CachingParserService caching = new CachingParserService(slow, 1_000_000);
+        CompletableFuture<ParsedJobDTO> blocked = CompletableFuture.supplyAsync(() -> caching.parseJob("Title: slow"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // enough distinct keys that some share a hash bin with the one being parsed
+        CompletableFuture<Void> others = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 512; i++) caching.parseJob("Title: job " + i);
+        });
+        try {
+            others.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+        assertEquals("Title: slow", blocked.get(5, TimeUnit.SECONDS).rawText());
+    }
+
+    @Test
+    void bindTo_registersCacheMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        parser.bindTo(registry);
+
+        parser.parseJob("Title: A");
+        parser.parseJob("Title: A");
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "ai.parse").tag("result", "hit").functionCounter());
+        assertNotNull(registry.find("cache.evictions").tag("cache", "ai.parse").functionCounter());
+    }
+}
@@ -0,0 +1,41 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobLineIndexTest {
+
+    @Test
+    void of_splitsOncePerLineAndClassifies() {
+        JobLineIndex index = JobLineIndex.of("Title: Backend Engineer\nREQUIREMENTS\n- Java, Spring\nBenefits:\nLocation: Austin, TX");
+        List<JobLineIndex.Line> lines = index.lines();
+
+        assertEquals(5, lines.size());
+        assertFalse(index.isBlank());
+        assertTrue(lines.get(0).has(JobLineIndex.TITLE_LABEL));
+        assertTrue(lines.get(1).has(JobLineIndex.REQUIRED_SECTION));
+        assertTrue(lines.get(1).has(JobLineIndex.ALL_CAPS_HEADER));
+        assertTrue(lines.get(2).has(JobLineIndex.BULLET));
+        assertTrue(lines.get(3).has(JobLineIndex.IRRELEVANT_SECTION));
+        assertTrue(lines.get(4).has(JobLineIndex.LOCATION_LABEL));
+        assertTrue(lines.get(4).has(JobLineIndex.CITY_STATE));
+    }
+
+    @Test
+    void classify_compensationHints() {
+        assertTrue(JobLineIndex.classify("Salary: $100,000 - $130,000").has(JobLineIndex.COMPENSATION_LABEL));
+        assertTrue(JobLineIndex.classify("Base: $140k, OTE: $180k").has(JobLineIndex.DOLLAR_WITH_PAY_HINT));
+        assertTrue(JobLineIndex.classify("$110,000 - $145,000").has(JobLineIndex.SALARY_RANGE));
+        assertTrue(JobLineIndex.classify("Up to $ 90,000").has(JobLineIndex.DOLLAR_AMOUNT));
+        assertEquals(0, JobLineIndex.classify("plain text line").flags());
+    }
+
+    @Test
+    void of_nullOrBlankIsBlank() {
+        assertTrue(JobLineIndex.of(null).isBlank());
+        assertTrue(JobLineIndex.of("").isBlank());
+    }
+}
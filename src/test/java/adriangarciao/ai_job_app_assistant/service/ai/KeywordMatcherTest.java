@@ -0,0 +1,86 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    void findAll_reportsOverlappingAndNestedKeywords() {
+        KeywordMatcher matcher = KeywordMatcher.of("java", "javascript", "script", "ci/cd", "c++");
+
+        Set<String> found = matcher.findAll("javascript and c++ with ci/cd");
+
+        assertEquals(Set.of("java", "javascript", "script", "c++", "ci/cd"), found);
+    }
+
+    @Test
+    void containsAny_handlesMissesNullAndNonAscii() {
+        KeywordMatcher matcher = KeywordMatcher.of("new york", "zürich");
+
+        assertTrue(matcher.containsAny("office in new york city"));
+        assertTrue(matcher.containsAny("based in zürich"));
+        assertFalse(matcher.containsAny("new jersey"));
+        assertFalse(matcher.containsAny(""));
+        assertFalse(matcher.containsAny(null));
+    }
+
+    @Test
+    void keywordIds_followSortedOrder() {
+        KeywordMatcher matcher = KeywordMatcher.of("kafka", "aws", "java", "aws");
+
+        assertEquals(3, matcher.size());
+        assertEquals("aws", matcher.keyword(0));
+        assertEquals("java", matcher.keyword(1));
+        assertEquals("kafka", matcher.keyword(2));
+    }
+
+    @Test
+    void matchFlags_orsFlagsOfAllHits() {
+        KeywordMatcher matcher = KeywordMatcher.of("benefits", "remote");
+        int[] flags = {1, 4}; // ids are sorted: benefits=0, remote=1
+
+        assertEquals(5, matcher.matchFlags("remote benefits", flags));
+        assertEquals(4, matcher.matchFlags("fully remote", flags));
+        assertEquals(0, matcher.matchFlags("onsite", flags));
+    }
+
+    @Test
+    void findAll_agreesWithNaiveContainsOnRandomInput() {
+        List<String> keywords = List.of("go", "golang", "rust", "ru", "sql", "nosql", "ql", "a", "aa", "spark", "k8s");
+        KeywordMatcher matcher = KeywordMatcher.of(keywords);
+        Random random = new Random(7);
+        String alphabet = "golangrustqlspark8 ";
+
+        for (int i = 0; i < 500; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(40);
+            for (int j = 0; j < len; j++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String text = sb.toString();
+
+            Set<String> expected = new TreeSet<>();
+            for (String keyword : keywords) {
+                if (text.contains(keyword)) expected.add(keyword);
+            }
+            assertEquals(expected, new TreeSet<>(matcher.findAll(text)), text);
+            assertEquals(!expected.isEmpty(), matcher.containsAny(text), text);
+        }
+    }
+
+    @Test
+    void forEachMatch_reportsEveryOccurrence() {
+        KeywordMatcher matcher = KeywordMatcher.of("ab");
+        List<Integer> ids = new ArrayList<>();
+
+        matcher.forEachMatch("ababab", ids::add);
+
+        assertEquals(List.of(0, 0, 0), ids);
+    }
+}
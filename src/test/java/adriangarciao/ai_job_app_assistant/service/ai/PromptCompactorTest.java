@@ -0,0 +1,163 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.dto.SkillMask;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptCompactorTest {
+
+    private static final String POSTING = """
+            Title: Backend Engineer
+            Location: Austin, TX
+
+            We build payment APIs for small businesses.
+
+            REQUIREMENTS
+            - 3+ years of Java
+            - Spring Boot, PostgreSQL
+
+            Nice to have:
+            - Kubernetes
+            - Microsoft Office
+
+            About Us
+            Founded in 2010, we have offices in five countries and a great culture.
+
+            BENEFITS
+            - Unlimited PTO
+            - 401k match
+
+            Responsibilities:
+            - Design and ship services
+            We are an equal opportunity employer and value diversity.
+            """;
+
+    private final ParsedResumeDTO resume = new ParsedResumeDTO("Jane", List.of("java"), List.of(),
+            "Jane Doe\n\nSKILLS\nJava,    Spring\n-----------\nExperience\nBackend developer at Acme\n\nPage header repeated\nPage header repeated\n");
+
+    /** Distinct lines, so none is dropped as a repeat. */
+    private static String numbered(String line, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) text.append(line).append(' ').append(i).append('\n');
+        return text.toString();
+    }
+
+    private ParsedJobDTO job(String text) {
+        return new ParsedJobDTO("Backend Engineer", List.of("java"), List.of(), "Austin, TX", "$120k", text);
+    }
+
+    @Test
+    void compact_dropsPostingBoilerplateSections() {
+        String text = new PromptCompactor(4000).compact(resume, job(POSTING)).job().rawText();
+
+        assertTrue(text.contains("We build payment APIs"));
+        assertTrue(text.contains("- Spring Boot, PostgreSQL"));
+        assertTrue(text.contains("- Microsoft Office"));
+        assertTrue(text.contains("- Design and ship services"));
+        assertFalse(text.contains("Founded in 2010"));
+        assertFalse(text.contains("Unlimited PTO"));
+        assertFalse(text.contains("BENEFITS"));
+        assertFalse(text.contains("equal opportunity"));
+        assertFalse(text.contains("\n\n"));
+    }
+
+    @Test
+    void compact_cleansResumeLinesAndKeepsMetadata() {
+        ParsedJobDTO job = job(POSTING);
+        PromptCompactor.Result result = new PromptCompactor(4000).compact(resume, job);
+
+        assertEquals("Jane Doe\nSKILLS\nJava, Spring\nExperience\nBackend developer at Acme\nPage header repeated",
+                result.resume().rawText());
+        assertEquals(List.of("java"), result.resume().skills());
+        assertEquals("Austin, TX", result.job().jobLocation());
+        assertEquals("$120k", result.job().compensationInfo());
+        assertFalse(result.resume().partial());
+        assertFalse(result.job().partial());
+        assertTrue(result.compactedTokens() < result.originalTokens(),
+                result.compactedTokens() + " vs " + result.originalTokens());
+    }
+
+    @Test
+    void compact_keepsCoreSkillsForTheCacheKey() {
+        SkillMask mask = new SkillMask(5, 0);
+        ParsedJobDTO job = new ParsedJobDTO("T", List.of(), List.of(), null, null, POSTING, null, mask);
+
+        assertEquals(mask, new PromptCompactor(4000).compact(resume, job).job().coreSkills());
+    }
+
+    @Test
+    void compact_cutsAtLineBoundariesToTheBudgetWithoutFlaggingPartial() {
+        String longResume = "Experience\n" + numbered("- built a distributed ledger service in Java", 400);
+        String longPosting = "Requirements:\n" + numbered("- operate Kafka clusters at scale", 400);
+        ParsedResumeDTO bigResume = new ParsedResumeDTO("Jane", List.of(), List.of(), longResume);
+
+        PromptCompactor.Result result = new PromptCompactor(500).compact(bigResume, job(longPosting));
+
+        assertTrue(result.compactedTokens() <= 500);
+        assertEquals(result.compactedTokens(), PromptCompactor.estimateTokens(result.resume().rawText())
+                + PromptCompactor.estimateTokens(result.job().rawText()));
+        assertTrue(result.truncated());
+        // A cut is deterministic, unlike a parse that ran out of time, so the answer stays cacheable
+        assertFalse(result.resume().partial());
+        assertFalse(result.job().partial());
+        assertTrue(result.job().rawText().matches("(?s).*\n- operate Kafka clusters at scale \\d+"));
+        // Both too long: each gets about half
+        int resumeTokens = PromptCompactor.estimateTokens(result.resume().rawText());
+        assertTrue(resumeTokens > 200 && resumeTokens <= 250, "resume tokens " + resumeTokens);
+    }
+
+    @Test
+    void compact_shortDocumentLeavesTheRestToTheLongOne() {
+        String longPosting = "Requirements:\n" + numbered("- operate Kafka clusters at scale", 400);
+
+        PromptCompactor.Result result = new PromptCompactor(500).compact(resume, job(longPosting));
+
+        assertTrue(result.truncated());
+        assertEquals(new PromptCompactor(4000).compact(resume, job(POSTING)).resume(), result.resume());
+        assertTrue(PromptCompactor.estimateTokens(result.job().rawText()) > 400);
+    }
+
+    @Test
+    void compactAll_cutsTheResumeOnceForPostingsOfEveryLength() {
+        ParsedResumeDTO bigResume = new ParsedResumeDTO("Jane", List.of(), List.of(),
+                "Experience\n" + numbered("- built a distributed ledger service in Java", 400));
+        List<ParsedJobDTO> jobs = List.of(job("Requirements:\n" + numbered("- operate Kafka", 3)),
+                job("Requirements:\n" + numbered("- operate Kafka clusters at scale", 40)),
+                job("Requirements:\n" + numbered("- operate Kafka clusters at scale", 400)));
+        PromptCompactor compactor = new PromptCompactor(500);
+
+        List<PromptCompactor.Result> results = compactor.compactAll(bigResume, jobs);
+
+        assertEquals(3, results.size());
+        for (PromptCompactor.Result result : results) {
+            assertSame(results.get(0).resume(), result.resume());
+            assertTrue(result.compactedTokens() <= 500, "compacted tokens " + result.compactedTokens());
+            assertTrue(result.truncated());
+        }
+        // Split as for the longest posting; alone, that posting is compacted the same way
+        assertEquals(compactor.compact(bigResume, jobs.get(2)), results.get(2));
+        assertEquals(compactor.compact(bigResume, jobs.get(0)).job(), results.get(0).job());
+    }
+
+    @Test
+    void estimateTokens_countsWordPiecesPunctuationAndNewlines() {
+        assertEquals(0, PromptCompactor.estimateTokens(""));
+        assertEquals(1, PromptCompactor.estimateTokens("Java"));
+        assertEquals(1, PromptCompactor.estimateTokens("Kotlin"));
+        assertEquals(2, PromptCompactor.estimateTokens("Kubernetes"));
+        assertEquals(2, PromptCompactor.estimateTokens("2024"));
+        assertEquals(2, PromptCompactor.estimateTokens("p99"));
+        assertEquals(4, PromptCompactor.estimateTokens("Java, Go\n"));
+        assertEquals(3, PromptCompactor.estimateTokens("a  b   c"));
+    }
+
+    @Test
+    void constructor_rejectsTinyBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new PromptCompactor(1));
+    }
+}
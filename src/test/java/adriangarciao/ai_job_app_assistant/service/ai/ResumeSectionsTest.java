@@ -0,0 +1,90 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeSectionsTest {
+
+    @Test
+    void sections_areFoundAtLineStartsInOneScan() {
+        String resume = "Jane Doe\nSummary: backend dev\nSKILLS\nJava, SQL\n\nWork Experience\nAcme\nEducation: BSc";
+        ResumeSections index = ResumeSections.of(resume);
+
+        List<String> headers = index.sections().stream().map(ResumeSections.Section::header).toList();
+        assertEquals(List.of("summary", "skills", "work experience", "education"), headers);
+
+        ResumeSections.Section skills = index.sections().get(1);
+        assertEquals(resume.indexOf("SKILLS"), skills.lineStart());
+        assertEquals(resume.indexOf("Work Experience"), skills.end());
+        assertEquals(resume.length(), index.sections().get(3).end());
+    }
+
+    @Test
+    void sectionStart_prefersLaterLinesThenFirstLine_inHeaderOrder() {
+        ResumeSections index = ResumeSections.of("Skills: Go\nTechnologies: Rust\nSkills: Java");
+
+        // a later "skills" line beats the one on the first line; "skills" beats "technologies"
+        assertEquals("Skills: Go\nTechnologies: Rust\nSkills".length(), index.sectionStart("skills", "technologies"));
+        assertEquals("Skills: Go\nTechnologies".length(), index.sectionStart("technologies"));
+        assertEquals("Skills".length(), ResumeSections.of("Skills: Go\nJava").sectionStart("skills"));
+        assertEquals(-1, index.sectionStart("education"));
+    }
+
+    @Test
+    void sectionStart_dottedCapitalIDoesNotShiftOffsets() {
+        String resume = "İstanbul, TR\nSkills: Java, SQL";
+        ResumeSections index = ResumeSections.of(resume);
+
+        int start = index.sectionStart("skills");
+        assertEquals(": Java, SQL", index.blockFrom(start, 500).toString());
+        assertEquals(-1, ResumeSections.of("SKİLLS: Java").sectionStart("skills"));
+    }
+
+    @Test
+    void blockFrom_stopsAtBlankLineOrMaxChars() {
+        String resume = "Skills\nJava, SQL\nDocker\n\nExperience";
+        ResumeSections index = ResumeSections.of(resume);
+
+        assertEquals("\nJava, SQL\nDocker", index.blockFrom(6, 500).toString());
+        assertEquals("\nJava", index.blockFrom(6, 5).toString());
+        assertEquals("", index.blockFrom(resume.length(), 500).toString());
+    }
+
+    @Test
+    void paragraphs_matchRegexSplitAndTrim() {
+        // the original separator; \s in a string literal is a plain space, so this is "\n *\n+"
+        Pattern blankLines = Pattern.compile("\n\s*\n+");
+        String alphabet = "ab \n\n\t\u000B\f\r\u0001x";
+        Random random = new Random(7);
+        for (int n = 0; n < 5000; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int k = random.nextInt(40); k > 0; k--) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String text = sb.toString();
+
+            List<String> expected = new ArrayList<>();
+            for (String chunk : blankLines.split(text)) {
+                if (!chunk.trim().isEmpty()) expected.add(chunk.trim());
+            }
+            ResumeSections index = ResumeSections.of(text);
+            List<String> actual = new ArrayList<>();
+            for (int i = 0; i < index.paragraphCount(); i++) actual.add(index.paragraph(i).toString());
+
+            assertEquals(expected, actual, () -> "text: " + text.replace("\n", "\\n"));
+        }
+    }
+
+    @Test
+    void paragraphs_onlySpacesMakeALineBlank() {
+        ResumeSections index = ResumeSections.of("Engineer at Acme\n\t\nLed migration\n  \nShipped v2");
+
+        assertEquals(2, index.paragraphCount());
+        assertEquals("Engineer at Acme\n\t\nLed migration", index.paragraph(0).toString());
+        assertEquals("Shipped v2", index.paragraph(1).toString());
+    }
+}
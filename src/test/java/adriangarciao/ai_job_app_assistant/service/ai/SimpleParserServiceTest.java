@@ -2,10 +2,16 @@ package adriangarciao.ai_job_app_assistant.service.ai;
 
 import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.*;
 
 class SimpleParserServiceTest {
@@ -356,4 +362,97 @@ class SimpleParserServiceTest {
         assertEquals("$130k - $160k + equity", dto.compensationInfo());
         assertTrue(dto.requiredSkills().contains("java"));
     }
+
+    @Test
+    @Timeout(value = 10, unit = SECONDS)
+    void adversarialInputs_finishQuickly() {
+        // each of these took seconds to minutes before the patterns were anchored
+        List<String> inputs = List.of(
+                "Requirements:\n- java" + "\u000B".repeat(19_000) + "x",
+                "Requirements:\n- java" + " ".repeat(19_000) + "x",
+                "Requirements:\n- " + "1".repeat(19_000) + " years",
+                "Requirements:\n- java" + "\t ".repeat(9_000) + "skill x");
+        for (String input : inputs) {
+            long start = System.nanoTime();
+            ParsedJobDTO job = parser.parseJob(input);
+            parser.parseResume(input);
+            assertNotNull(job);
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos(), "slow input of length " + input.length());
+        }
+    }
+
+    @Test
+    void parseJob_overBudget_returnsPartialResult() {
+        SimpleParserService impatient = new SimpleParserService(Duration.ZERO);
+        String job = "Title: Backend Engineer\n\nRequirements:\n- Java\n- Spring\n\nLocation: Remote\n";
+
+        ParsedJobDTO parsed = impatient.parseJob(job);
+
+        assertTrue(parsed.partial());
+        assertEquals(SimpleParserService.safeNormalize(job), parsed.rawText());
+        assertFalse(parser.parseJob(job).partial());
+    }
+
+    @Test
+    void parseResume_overBudget_countsExceededParses() {
+        SimpleParserService impatient = new SimpleParserService(Duration.ZERO);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        impatient.bindTo(registry);
+
+        ParsedResumeDTO parsed = impatient.parseResume("Skills:\nJava, Spring, SQL\n");
+
+        assertTrue(parsed.partial());
+        assertEquals(1.0, registry.get("ai.parse.budget.exceeded").tag("document", "resume").functionCounter().count());
+        assertEquals(0.0, registry.get("ai.parse.budget.exceeded").tag("document", "job").functionCounter().count());
+    }
+
+    @Test
+    void budget_isReleasedAfterParse() {
+        new SimpleParserService(Duration.ZERO).parseJob("Requirements:\n- Java\n");
+
+        // no budget is left open on the thread, so guard() is a no-op again
+        String text = "plain";
+        assertSame(text, ParseBudget.guard(text));
+    }
+
+    @Test
+    void parseResume_usesItsOwnSynonymTable() throws IOException {
+        SkillCanonicalizer custom = SkillCanonicalizer.load(new StringReader("j2ee = java\n"), "test");
+        SimpleParserService customParser = new SimpleParserService(SimpleParserService.DEFAULT_PARSE_BUDGET, custom);
+        String resume = "Skills:\nJ2EE, Docker";
+
+        assertEquals(List.of("docker", "java"),
+                SkillVocabulary.names(customParser.parseResume(resume).coreSkills(), 10));
+        // Other parsers keep the default table
+        assertEquals(List.of("docker"), SkillVocabulary.names(parser.parseResume(resume).coreSkills(), 10));
+    }
+
+    @Test
+    void parseJob_withMemo_onlyRecomputesChangedLines() {
+        StringBuilder job = new StringBuilder("Title: Platform Engineer\n\nRequirements:\n");
+        for (int i = 0; i < 200; i++) job.append("- Java, Spring, Kafka item ").append(i).append('\n');
+        String original = job.toString();
+        String edited = original.replace("- Java, Spring, Kafka item 100\n", "- Java, Spring, Kafka, Rust item 100\n");
+        LineMemo memo = LineMemo.create();
+
+        parser.parseJob(original, memo);
+        long missesBefore = memo.misses();
+        ParsedJobDTO incremental = parser.parseJob(edited, memo);
+
+        // one new line: its classification and its skills
+        assertEquals(2, memo.misses() - missesBefore);
+        assertEquals(parser.parseJob(edited), incremental);
+    }
+
+    @Test
+    void parseResume_withMemo_matchesFullParse() {
+        String resume = "Skills:\nJava, SQL\n\nBuilt APIs in Go and TypeScript on AWS\nLed the C++ rewrite";
+        LineMemo memo = LineMemo.create();
+
+        parser.parseResume(resume, memo);
+        String edited = resume + "\nShipped Node.js services with GraphQL";
+
+        assertEquals(parser.parseResume(edited), parser.parseResume(edited, memo));
+        assertEquals(parser.parseResume(resume), parser.parseResume(resume, memo));
+    }
 }
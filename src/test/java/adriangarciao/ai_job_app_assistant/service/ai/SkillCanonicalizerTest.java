@@ -0,0 +1,82 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillCanonicalizerTest {
+
+    private final SkillCanonicalizer canonicalizer = SkillCanonicalizer.fromClasspath();
+
+    @Test
+    void canonicalize_appliesBundledSynonyms() {
+        assertEquals("kubernetes", canonicalizer.canonicalize("K8s"));
+        assertEquals("spring boot", canonicalizer.canonicalize("Spring-Boot"));
+        assertEquals("spring boot starter", canonicalizer.canonicalize("SpringBoot (starter)"));
+        assertEquals("full stack developer", canonicalizer.canonicalize("Full-Stack developer"));
+        assertEquals("ci/cd pipelines", canonicalizer.canonicalize("CI-CD pipelines"));
+        assertEquals("postgres and kubernetes", canonicalizer.canonicalize("PostgreSQL, and k8s!"));
+        assertEquals("k8sx postgresql2", canonicalizer.canonicalize("k8sx postgresql2"));
+        assertEquals("", canonicalizer.canonicalize(null));
+    }
+
+    @Test
+    void canonicalize_matchesPreviousRegexRules() {
+        // the replaceAll chain this table replaced, kept here as the reference
+        String alphabet = "abcdeikloprstuqABKS8 -+#./_,\t\nİKé";
+        String[] fragments = {"k8s", "spring-boot", "springboot", "spring boot", "fullstack", "full-stack", "ci-cd",
+                "cicd", "ci/cd", "postgresql", "PostgreSQL", "K8S", "c++", "node.js"};
+        Random random = new Random(11);
+        for (int n = 0; n < 20000; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int k = random.nextInt(12); k > 0; k--) {
+                if (random.nextInt(3) == 0) sb.append(fragments[random.nextInt(fragments.length)]);
+                else sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String phrase = sb.toString();
+            assertEquals(regexReference(phrase), canonicalizer.canonicalize(phrase), () -> "phrase: " + phrase);
+        }
+    }
+
+    @Test
+    void load_customTable_prefersLongestVariant() throws IOException {
+        SkillCanonicalizer custom = SkillCanonicalizer.load(new StringReader("""
+                # comment
+                js = javascript
+                js frameworks = frontend
+
+                Node.JS = node
+                """), "test");
+
+        assertEquals(3, custom.size());
+        assertEquals("javascript and node", custom.canonicalize("JS and node.js"));
+        assertEquals("frontend", custom.canonicalize("JS frameworks"));
+        assertEquals("jsx", custom.canonicalize("JSX"));
+    }
+
+    @Test
+    void load_rejectsMalformedLines() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> SkillCanonicalizer.load(new StringReader("k8s = kubernetes\nnot a rule\n"), "synonyms.txt"));
+        assertTrue(e.getMessage().startsWith("synonyms.txt:2:"));
+        assertThrows(IllegalStateException.class, () -> SkillCanonicalizer.load(new StringReader("!!! = x"), "t"));
+    }
+
+    private static String regexReference(String skill) {
+        String normalized = skill.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9+#.\\s-]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        normalized = normalized.replaceAll("\\bk8s\\b", "kubernetes");
+        normalized = normalized.replaceAll("\\bspring-?boot\\b", "spring boot");
+        normalized = normalized.replaceAll("\\bfull-?stack\\b", "full stack");
+        normalized = normalized.replaceAll("\\bci-?cd\\b", "ci/cd");
+        normalized = normalized.replaceAll("\\bpostgresql\\b", "postgres");
+        return normalized;
+    }
+}
@@ -0,0 +1,53 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.SkillMask;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillVocabularyTest {
+
+    @Test
+    void ids_followAlphabeticalOrder() {
+        List<String> names = new ArrayList<>();
+        for (int id = 0; id < SkillVocabulary.size(); id++) names.add(SkillVocabulary.skill(id));
+
+        assertEquals(names.stream().sorted().toList(), names);
+        assertTrue(SkillVocabulary.size() <= SkillMask.CAPACITY);
+    }
+
+    @Test
+    void coreSkillsOf_findsKeywordsInsidePhrases() {
+        SkillMask mask = SkillVocabulary.coreSkillsOf(List.of("AWS experience", "Spring-Boot", "k8s", "PostgreSQL", "go"));
+
+        assertEquals(List.of("aws", "kubernetes", "postgres", "spring"), SkillVocabulary.names(mask, 10));
+    }
+
+    @Test
+    void maskAlgebra_matchesSetSemantics() {
+        SkillMask resume = SkillVocabulary.coreSkillsOf(List.of("java", "spring", "docker", "scala"));
+        SkillMask job = SkillVocabulary.coreSkillsOf(List.of("java", "aws", "spring", "kubernetes"));
+
+        assertEquals(List.of("java", "spring"), SkillVocabulary.names(resume.and(job), 10));
+        assertEquals(List.of("aws", "kubernetes"), SkillVocabulary.names(job.andNot(resume), 10));
+        assertEquals(2, resume.and(job).count());
+        assertEquals(List.of("aws"), SkillVocabulary.names(job.andNot(resume), 1));
+    }
+
+    @Test
+    void skillMask_usesBothWords() {
+        SkillMask mask = SkillMask.EMPTY.with(3).with(64).with(127);
+
+        assertTrue(mask.contains(3) && mask.contains(64) && mask.contains(127));
+        assertFalse(mask.contains(4));
+        assertEquals(3, mask.count());
+        List<Integer> ids = new ArrayList<>();
+        mask.forEach(ids::add);
+        assertEquals(List.of(3, 64, 127), ids);
+        assertTrue(mask.andNot(mask).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> mask.with(128));
+    }
+}
@@ -0,0 +1,81 @@
+package adriangarciao.ai_job_app_assistant.service.ai;
+
+import adriangarciao.ai_job_app_assistant.dto.TokenSpans;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextNormalizerTest {
+
+    // The multi-pass implementation TextNormalizer replaced
+    private static String reference(String text) {
+        if (text == null) return "";
+        String t = text.replace("\r\n", "\n").replace('\r', '\n').trim();
+        t = t.replaceAll("\n{3,}", "\n\n");
+        return t.replaceAll("[ \t]{2,}", " ");
+    }
+
+    private static List<String> tokens(String text, TokenSpans spans) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < spans.count(); i++) {
+            tokens.add(text.substring(spans.start(i), spans.end(i)));
+        }
+        return tokens;
+    }
+
+    @Test
+    void normalize_foldsLineEndingsAndCollapsesWhitespace() {
+        TextNormalizer.Normalized result = TextNormalizer.normalize("  Skills:\r\nJava,\t\tSpring\r\r\n\n\n\nSQL \t ");
+
+        assertEquals("Skills:\nJava, Spring\n\nSQL", result.text());
+        assertEquals(List.of("Skills:", "Java,", "Spring", "SQL"), tokens(result.text(), result.tokens()));
+    }
+
+    @Test
+    void normalize_returnsSameInstanceWhenAlreadyNormalized() {
+        String text = "Title: Engineer\n\nJava\tSpring";
+
+        assertSame(text, TextNormalizer.normalize(text).text());
+        assertSame(text, TextNormalizer.normalizeText(text));
+    }
+
+    @Test
+    void normalize_handlesNullAndBlank() {
+        assertEquals("", TextNormalizer.normalizeText(null));
+        assertEquals("", TextNormalizer.normalize(" \r\n\t ").text());
+        assertEquals(0, TextNormalizer.normalize(" \r\n\t ").tokens().count());
+    }
+
+    @Test
+    void normalize_agreesWithRegexImplementationOnRandomInput() {
+        Random random = new Random(11);
+        String alphabet = "ab \t\r\n\f\u000B,İ";
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(60);
+            for (int j = 0; j < len; j++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String text = sb.toString();
+
+            TextNormalizer.Normalized result = TextNormalizer.normalize(text);
+
+            assertEquals(reference(text), result.text(), text);
+            assertEquals(TokenSpans.scan(result.text()), result.tokens(), text);
+            assertEquals(result.text(), TextNormalizer.normalize(result.text()).text(), "idempotent");
+        }
+    }
+
+    @Test
+    void normalize_largeInputBeyondPooledBuffer() {
+        String text = "word  ".repeat(20_000);
+
+        TextNormalizer.Normalized result = TextNormalizer.normalize(text);
+
+        assertEquals(reference(text), result.text());
+        assertEquals(20_000, result.tokens().count());
+    }
+}
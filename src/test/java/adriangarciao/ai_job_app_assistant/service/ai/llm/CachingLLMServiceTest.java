@@ -0,0 +1,232 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.TextHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingLLMServiceTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<CachingLLMService> opened = new ArrayList<>();
+
+    @TempDir
+    Path dir;
+
+    private final ParsedResumeDTO resume = new ParsedResumeDTO("Jane", List.of("java"), List.of(), "java spring docker");
+    private final ParsedJobDTO job = new ParsedJobDTO("Backend Engineer", List.of("java"), List.of(),
+            "Remote", null, "backend engineer java kubernetes");
+
+    /** Backend answering with a score that counts its calls, so a cached answer is recognizable. */
+    private final LLMService backend = new LLMService() {
+        @Override
+        public FeedbackDTO generateFeedback(ParsedResumeDTO r, ParsedJobDTO j, boolean c) {
+            int n = calls.incrementAndGet();
+            return new FeedbackDTO(n, List.of("s" + n), List.of(), List.of(), "answer " + n, j.jobLocation(), null);
+        }
+
+        @Override
+        public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO r, List<ParsedJobDTO> jobs) {
+            batchSizes.add(jobs.size());
+            return LLMService.super.generateFeedbackBatch(r, jobs);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(CachingLLMService::shutdown);
+    }
+
+    private CachingLLMService cache(LLMService delegate, String namespace) throws IOException {
+        LlmResponseStore store = LlmResponseStore.open(dir.resolve("llm.bin"), TextHash.hash64(namespace),
+                1 << 20, TTL, json, now::get);
+        CachingLLMService service = new CachingLLMService(delegate, store, 100, TTL, registry, now::get);
+        opened.add(service);
+        return service;
+    }
+
+    private double gets(String result) {
+        return registry.get("ai.llm.cache.gets").tag("result", result).counter().count();
+    }
+
+    @Test
+    void repeatedRequest_isAnsweredFromMemory() throws IOException {
+        CachingLLMService service = cache(backend, "ns");
+
+        FeedbackDTO first = service.generateFeedback(resume, job, false);
+        FeedbackDTO second = service.generateFeedback(resume, job, false);
+
+        assertEquals(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(1, gets("memory"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    void keyIsTheCanonicalInput() throws IOException {
+        CachingLLMService service = cache(backend, "ns");
+
+        service.generateFeedback(resume, job, false);
+        // Same texts under a different display name: same key
+        service.generateFeedback(new ParsedResumeDTO("John", List.of("java"), List.of(), "java spring docker"), job, false);
+        assertEquals(1, calls.get());
+
+        service.generateFeedback(resume, job, true);
+        service.generateFeedback(resume, new ParsedJobDTO("Platform Engineer", List.of("java"), List.of(),
+                "Remote", null, "backend engineer java kubernetes"), false);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void responseSurvivesRestartThroughTheFile() throws IOException {
+        FeedbackDTO first = cache(backend, "ns").generateFeedback(resume, job, false);
+        opened.remove(0).shutdown();
+
+        FeedbackDTO again = cache(backend, "ns").generateFeedback(resume, job, false);
+
+        assertEquals(first, again);
+        assertEquals(1, calls.get());
+        assertEquals(1, gets("disk"));
+    }
+
+    @Test
+    void namespaceChange_startsTheFileOver() throws IOException {
+        cache(backend, "prompt v1").generateFeedback(resume, job, false);
+        opened.remove(0).shutdown();
+
+        FeedbackDTO answer = cache(backend, "prompt v2").generateFeedback(resume, job, false);
+
+        assertEquals(2, answer.matchScore());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void entriesExpireAfterTtl_inMemoryAndOnDisk() throws IOException {
+        CachingLLMService service = cache(backend, "ns");
+        service.generateFeedback(resume, job, false);
+
+        now.addAndGet(TTL.toMillis() - 1);
+        service.generateFeedback(resume, job, false);
+        assertEquals(1, calls.get());
+
+        now.addAndGet(1);
+        service.generateFeedback(resume, job, false);
+        opened.remove(0).shutdown();
+        // The refreshed answer is still valid after a restart; the expired one is gone
+        now.addAndGet(10);
+        assertEquals(2, cache(backend, "ns").generateFeedback(resume, job, false).matchScore());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void fallbackAndPartialAnswers_areNotCached() throws IOException {
+        LLMService degraded = (r, j, c) -> calls.incrementAndGet() == 1
+                ? new FeedbackDTO(40, List.of(), List.of(), List.of(), "local", null, null).asFallback()
+                : new FeedbackDTO(50, List.of(), List.of(), List.of(), "cut", null, null, true, false);
+        CachingLLMService service = cache(degraded, "ns");
+
+        assertTrue(service.generateFeedback(resume, job, false).fallback());
+        assertTrue(service.generateFeedback(resume, job, false).partial());
+        service.generateFeedback(resume, job, false);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void partialInput_bypassesTheCache() throws IOException {
+        CachingLLMService service = cache(backend, "ns");
+        ParsedJobDTO partial = new ParsedJobDTO(job.title(), job.requiredSkills(), job.niceToHaveSkills(),
+                job.jobLocation(), null, job.rawText(), null, null, true);
+
+        service.generateFeedback(resume, partial, false);
+        service.generateFeedback(resume, partial, false);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, gets("miss"));
+    }
+
+    @Test
+    void batch_sendsOnlyTheMissesToTheBackend() throws IOException {
+        CachingLLMService service = cache(backend, "ns");
+        ParsedJobDTO austin = new ParsedJobDTO("Data Engineer", List.of(), List.of(), "Austin", null, "spark airflow");
+        ParsedJobDTO boston = new ParsedJobDTO("ML Engineer", List.of(), List.of(), "Boston", null, "pytorch");
+        service.generateFeedback(resume, job, false);
+
+        List<FeedbackDTO> feedback = service.generateFeedbackBatch(resume, List.of(austin, job, boston));
+
+        assertEquals(List.of("Austin", "Remote", "Boston"), feedback.stream().map(FeedbackDTO::jobLocation).toList());
+        assertEquals(1, feedback.get(1).matchScore());
+        assertEquals(List.of(2), batchSizes);
+        assertEquals(feedback, service.generateFeedbackBatch(resume, List.of(austin, job, boston)));
+        assertEquals(List.of(2), batchSizes);
+    }
+
+    @Test
+    void invalidateAll_dropsBothTiers() throws IOException {
+        CachingLLMService service = cache(backend, "ns");
+        service.generateFeedback(resume, job, false);
+
+        service.invalidateAll();
+        service.generateFeedback(resume, job, false);
+        assertEquals(2, calls.get());
+
+        opened.remove(0).shutdown();
+        assertEquals(2, cache(backend, "ns").generateFeedback(resume, job, false).matchScore());
+    }
+
+    @Test
+    void tornTail_isCutOnOpen() throws IOException {
+        ParsedJobDTO other = new ParsedJobDTO("Data Engineer", List.of(), List.of(), "Austin", null, "spark airflow");
+        CachingLLMService service = cache(backend, "ns");
+        service.generateFeedback(resume, job, false);
+        service.generateFeedback(resume, other, false);
+        opened.remove(0).shutdown();
+
+        Path file = dir.resolve("llm.bin");
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        CachingLLMService reopened = cache(backend, "ns");
+        assertEquals(1, reopened.generateFeedback(resume, job, false).matchScore());
+        assertEquals(3, reopened.generateFeedback(resume, other, false).matchScore());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void unusableFile_fallsBackToMemory() throws IOException {
+        Path notAFile = Files.createDirectory(dir.resolve("taken"));
+        CachingLLMService service = new CachingLLMService(backend, notAFile, "ns", 1 << 20, 100, TTL, json, registry);
+        opened.add(service);
+
+        service.generateFeedback(resume, job, false);
+        service.generateFeedback(resume, job, false);
+
+        assertEquals(1, calls.get());
+    }
+}
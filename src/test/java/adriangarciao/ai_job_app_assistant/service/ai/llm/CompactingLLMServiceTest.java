@@ -0,0 +1,123 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.PromptCompactor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactingLLMServiceTest {
+
+    private static final FeedbackDTO ANSWER = new FeedbackDTO(70, List.of(), List.of(), List.of(), "ok", null, null);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> sentJobs = new CopyOnWriteArrayList<>();
+    private final List<ParsedResumeDTO> sentResumes = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    private final ParsedResumeDTO resume = new ParsedResumeDTO("Jane", List.of("java"), List.of(), "Java\n\n\nSpring");
+    private final ParsedJobDTO job = new ParsedJobDTO("Engineer", List.of("java"), List.of(), null, null,
+            "Requirements:\n- Java\n\nBENEFITS\n- Free lunch\n- Gym");
+
+    private final LLMService backend = new LLMService() {
+        @Override
+        public FeedbackDTO generateFeedback(ParsedResumeDTO r, ParsedJobDTO j, boolean c) {
+            sentJobs.add(j.rawText());
+            sentResumes.add(r);
+            return ANSWER;
+        }
+
+        @Override
+        public List<FeedbackDTO> generateFeedbackBatch(ParsedResumeDTO r, List<ParsedJobDTO> jobs) {
+            batchSizes.add(jobs.size());
+            return LLMService.super.generateFeedbackBatch(r, jobs);
+        }
+    };
+
+    private final CompactingLLMService service = new CompactingLLMService(backend, new PromptCompactor(4000), registry);
+
+    @Test
+    void generateFeedback_sendsCompactedDocumentsAndRecordsSizes() {
+        assertEquals(ANSWER, service.generateFeedback(resume, job, false));
+
+        assertEquals(List.of("Requirements:\n- Java"), sentJobs);
+        double original = registry.get("ai.llm.prompt.tokens").tag("stage", "original").summary().totalAmount();
+        double compacted = registry.get("ai.llm.prompt.tokens").tag("stage", "compacted").summary().totalAmount();
+        assertTrue(compacted < original, compacted + " vs " + original);
+    }
+
+    @Test
+    void generateFeedback_cutDocumentsAreCountedButNotPartial() {
+        List<ParsedJobDTO> sent = new ArrayList<>();
+        LLMService recording = (r, j, c) -> {
+            sent.add(j);
+            return ANSWER;
+        };
+        ParsedJobDTO longJob = new ParsedJobDTO("Engineer", List.of(), List.of(), null, null,
+                "Requirements:\n" + String.join("\n", IntStream.range(0, 200).mapToObj(i -> "- Kafka cluster " + i).toList()));
+
+        new CompactingLLMService(recording, new PromptCompactor(100), registry).generateFeedback(resume, longJob, false);
+
+        assertEquals(1, registry.get("ai.llm.prompt.truncated").counter().count());
+        assertFalse(sent.get(0).partial());
+    }
+
+    @Test
+    void generateFeedback_forwardsTokens() {
+        LLMService streaming = new LLMService() {
+            @Override
+            public FeedbackDTO generateFeedback(ParsedResumeDTO r, ParsedJobDTO j, boolean c) {
+                return ANSWER;
+            }
+
+            @Override
+            public FeedbackDTO generateFeedback(ParsedResumeDTO r, ParsedJobDTO j, boolean c,
+                                                Consumer<String> onToken) {
+                onToken.accept("{");
+                return ANSWER;
+            }
+        };
+        List<String> tokens = new ArrayList<>();
+
+        new CompactingLLMService(streaming, new PromptCompactor(4000), registry).generateFeedback(resume, job, false, tokens::add);
+
+        assertEquals(List.of("{"), tokens);
+    }
+
+    @Test
+    void generateFeedbackBatch_staysOneBatchWhenTheResumeIsNotCut() {
+        List<FeedbackDTO> feedback = service.generateFeedbackBatch(resume, List.of(job, job));
+
+        assertEquals(2, feedback.size());
+        assertEquals(List.of(2), batchSizes);
+        assertEquals(2, registry.get("ai.llm.prompt.tokens").tag("stage", "compacted").summary().count());
+    }
+
+    @Test
+    void generateFeedbackBatch_longResumeStaysOneBatchForPostingsOfEveryLength() {
+        // ~20k chars of distinct lines, far over the 500-token budget
+        ParsedResumeDTO longResume = new ParsedResumeDTO("Jane", List.of("java"), List.of(), "Experience\n"
+                + String.join("\n", IntStream.range(0, 400).mapToObj(i -> "- built a ledger service in Java " + i).toList()));
+        List<ParsedJobDTO> jobs = IntStream.of(2, 20, 60, 200).mapToObj(lines -> new ParsedJobDTO("Engineer",
+                List.of("java"), List.of(), null, null, "Requirements:\n"
+                + String.join("\n", IntStream.range(0, lines).mapToObj(i -> "- Kafka " + i).toList()))).toList();
+
+        List<FeedbackDTO> feedback = new CompactingLLMService(backend, new PromptCompactor(500), registry)
+                .generateFeedbackBatch(longResume, jobs);
+
+        assertEquals(4, feedback.size());
+        assertEquals(List.of(4), batchSizes);
+        assertEquals(1, sentResumes.stream().distinct().count());
+        assertTrue(sentResumes.get(0).rawText().length() < longResume.rawText().length());
+        assertEquals(4, registry.get("ai.llm.prompt.truncated").counter().count());
+    }
+}
@@ -3,6 +3,7 @@ package adriangarciao.ai_job_app_assistant.service.ai.llm;
 import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
 import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.service.ai.SimpleParserService;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -284,5 +285,25 @@ class FakeLLMServiceTest {
         assertNull(fb.jobLocation());
         assertNull(fb.compensationInfo());
     }
-}
 
+    @Test
+    void generateFeedbackBatch_matchesScoringEachPostingAlone() {
+        SimpleParserService parser = new SimpleParserService();
+        ParsedResumeDTO resume = parser.parseResume("""
+                Jane Doe
+                Skills: Java, Spring Boot, PostgreSQL, Docker, AWS
+                Experience: Built REST APIs and CI/CD pipelines for payment services""");
+        List<ParsedJobDTO> jobs = List.of(
+                parser.parseJob("Backend Engineer\nRequired: Java, Spring Boot, Kubernetes\nBuild payment APIs"),
+                parser.parseJob("Data Engineer\nRequired: Python, Spark, AWS"),
+                parser.parseJob("Frontend Developer\nRequired: React, TypeScript"));
+
+        List<FeedbackDTO> batch = llm.generateFeedbackBatch(resume, jobs);
+
+        assertEquals(jobs.size(), batch.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            // A fresh service has no memoized resume profile, so this is the uncached path
+            assertEquals(new FakeLLMService().generateFeedback(resume, jobs.get(i), false), batch.get(i));
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.exception.AnalysisTimeoutException;
+import adriangarciao.ai_job_app_assistant.exception.LlmBackendException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiLLMServiceTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private StubLlmServer stub;
+
+    private final ParsedResumeDTO resume = new ParsedResumeDTO("Jane", List.of("java"), List.of(), "java spring docker");
+    private final ParsedJobDTO job = new ParsedJobDTO("Backend Engineer", List.of("java"), List.of(),
+            "Remote", "$120k", "backend engineer java kubernetes");
+
+    @BeforeEach
+    void setUp() {
+        stub = StubLlmServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private OpenAiLLMService service(Duration timeout, int maxInputTokens, boolean stream) {
+        return new OpenAiLLMService(http, json, new OpenAiLLMService.Settings(
+                stub.baseUri(), "test-key", "test-model", timeout, maxInputTokens, 300, stream));
+    }
+
+    @Test
+    void generateFeedback_mapsAnswerAndKeepsJobMetadata() throws Exception {
+        FeedbackDTO feedback = service(Duration.ofSeconds(5), 2000, false).generateFeedback(resume, job, true);
+
+        assertEquals(72, feedback.matchScore());
+        assertEquals(List.of("Java", "Spring"), feedback.strengths());
+        assertEquals(List.of("Kubernetes"), feedback.weaknesses());
+        assertEquals(List.of("Mention your Docker work"), feedback.suggestions());
+        assertEquals("Good fit.", feedback.summary());
+        assertEquals("Remote", feedback.jobLocation());
+        assertEquals("$120k", feedback.compensationInfo());
+        assertFalse(feedback.partial());
+
+        JsonNode request = json.readTree(stub.requests().get(0));
+        assertEquals("test-model", request.path("model").asText());
+        assertEquals(300, request.path("max_tokens").asInt());
+        String user = request.path("messages").path(1).path("content").asText();
+        assertTrue(user.contains("backend engineer java kubernetes"));
+        assertTrue(user.contains("java spring docker"));
+        assertTrue(user.contains("cover letter"));
+    }
+
+    @Test
+    void generateFeedback_streamedAnswerIsReassembled() {
+        stub.streamChunks(5, Duration.ofMillis(1));
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        FeedbackDTO feedback = service(Duration.ofSeconds(5), 2000, true).generateFeedback(resume, job, false, tokens::add);
+
+        assertEquals(72, feedback.matchScore());
+        assertEquals("Good fit.", feedback.summary());
+        assertTrue(tokens.size() > 1);
+        assertEquals(StubLlmServer.DEFAULT_ANSWER, String.join("", tokens));
+    }
+
+    @Test
+    void generateFeedback_fencedAnswerAndOutOfRangeScore() {
+        stub.answer("```json\n{\"matchScore\": 140.6, \"summary\": \"x\"}\n```");
+
+        FeedbackDTO feedback = service(Duration.ofSeconds(5), 2000, false).generateFeedback(resume, job, false);
+
+        assertEquals(100, feedback.matchScore());
+        assertTrue(feedback.strengths().isEmpty());
+    }
+
+    @Test
+    void generateFeedback_inputOverBudgetIsCutAndFlaggedPartial() throws Exception {
+        ParsedResumeDTO longResume = new ParsedResumeDTO("Jane", List.of(), List.of(), "r".repeat(50_000));
+        ParsedJobDTO longJob = new ParsedJobDTO("Engineer", List.of(), List.of(), null, null, "j".repeat(50_000));
+
+        FeedbackDTO feedback = service(Duration.ofSeconds(5), 1000, false).generateFeedback(longResume, longJob, false);
+
+        assertTrue(feedback.partial());
+        String user = json.readTree(stub.requests().get(0)).path("messages").path(1).path("content").asText();
+        String system = json.readTree(stub.requests().get(0)).path("messages").path(0).path("content").asText();
+        assertTrue(user.length() + system.length() <= 1000 * OpenAiLLMService.CHARS_PER_TOKEN);
+        // Both documents too long: each gets half of what is left
+        long rs = user.chars().filter(c -> c == 'r').count();
+        long js = user.chars().filter(c -> c == 'j').count();
+        assertTrue(Math.abs(rs - js) <= 4, rs + " vs " + js);
+    }
+
+    @Test
+    void generateFeedback_httpErrorBecomesBackendException() {
+        stub.failNext(500, 1);
+
+        LlmBackendException ex = assertThrows(LlmBackendException.class,
+                () -> service(Duration.ofSeconds(5), 2000, false).generateFeedback(resume, job, false));
+        assertTrue(ex.getMessage().contains("500"));
+    }
+
+    @Test
+    void generateFeedback_streamingHttpErrorBecomesBackendException() {
+        stub.failNext(429, 1);
+
+        assertThrows(LlmBackendException.class,
+                () -> service(Duration.ofSeconds(5), 2000, true).generateFeedback(resume, job, false));
+    }
+
+    @Test
+    void generateFeedback_streamingHttpErrorReadsOnlyTheStartOfTheBody() throws Exception {
+        stub.failNextWithLongBody(502, 512L << 20);
+
+        LlmBackendException ex = assertThrows(LlmBackendException.class,
+                () -> service(Duration.ofSeconds(5), 2000, true).generateFeedback(resume, job, false));
+        assertTrue(ex.getMessage().contains("502"));
+        awaitTrue(() -> stub.inFlightRequests() == 0, "error body still being sent");
+        // socket buffers hold a few MB at most; the rest of the 512 MB page is never sent
+        assertTrue(stub.errorBytesSent() < (64L << 20), stub.errorBytesSent() + " bytes sent");
+    }
+
+    @Test
+    void generateFeedback_malformedAnswerBecomesBackendException() {
+        stub.answer("I think it is a good match!");
+
+        assertThrows(LlmBackendException.class,
+                () -> service(Duration.ofSeconds(5), 2000, false).generateFeedback(resume, job, false));
+    }
+
+    @Test
+    void generateFeedback_slowBackendTimesOut() {
+        stub.latency(Duration.ofSeconds(2));
+
+        assertThrows(AnalysisTimeoutException.class,
+                () -> service(Duration.ofMillis(200), 2000, false).generateFeedback(resume, job, false));
+    }
+
+    @Test
+    void generateFeedbackBatch_callsConcurrentlyAndKeepsOrder() {
+        stub.latency(Duration.ofMillis(200));
+        List<ParsedJobDTO> jobs = List.of(
+                new ParsedJobDTO("A", List.of(), List.of(), "Austin", null, "posting a"),
+                new ParsedJobDTO("B", List.of(), List.of(), "Boston", null, "posting b"),
+                new ParsedJobDTO("C", List.of(), List.of(), "Chicago", null, "posting c"));
+
+        List<FeedbackDTO> feedback = service(Duration.ofSeconds(5), 2000, false).generateFeedbackBatch(resume, jobs);
+
+        assertEquals(List.of("Austin", "Boston", "Chicago"), feedback.stream().map(FeedbackDTO::jobLocation).toList());
+        assertTrue(stub.maxConcurrentRequests() > 1);
+    }
+
+    @Test
+    void generateFeedback_interruptAbortsTheExchange() throws Exception {
+        // About 150 one-char deltas, 50 ms apart: several seconds unless the exchange is aborted
+        stub.streamChunks(1, Duration.ofMillis(50));
+        List<String> tokens = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        OpenAiLLMService service = service(Duration.ofSeconds(30), 2000, true);
+
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                service.generateFeedback(resume, job, false, tokens::add);
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        awaitTrue(() -> tokens.size() >= 2, "no tokens streamed");
+        caller.interrupt();
+        caller.join(5000);
+
+        assertInstanceOf(CancellationException.class, failure.get());
+        awaitTrue(() -> stub.inFlightRequests() == 0, "aborted request still streaming");
+        assertTrue(tokens.size() < 40, tokens.size() + " tokens");
+    }
+
+    @Test
+    void generateFeedback_timeoutAbortsTheExchange() throws Exception {
+        stub.streamChunks(1, Duration.ofMillis(50));
+
+        assertThrows(AnalysisTimeoutException.class,
+                () -> service(Duration.ofMillis(300), 2000, true).generateFeedback(resume, job, false));
+
+        awaitTrue(() -> stub.inFlightRequests() == 0, "timed-out request still streaming");
+    }
+
+    @Test
+    void generateFeedbackBatch_limitsRequestsInFlight() {
+        stub.latency(Duration.ofMillis(50));
+        List<ParsedJobDTO> jobs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) jobs.add(new ParsedJobDTO("Job " + i, List.of(), List.of(), "City " + i, null, "posting " + i));
+        OpenAiLLMService service = new OpenAiLLMService(http, json, new OpenAiLLMService.Settings(
+                stub.baseUri(), "test-key", "test-model", Duration.ofSeconds(5), 2000, 300, false, 3));
+
+        List<FeedbackDTO> feedback = service.generateFeedbackBatch(resume, jobs);
+
+        assertEquals(jobs.stream().map(ParsedJobDTO::jobLocation).toList(),
+                feedback.stream().map(FeedbackDTO::jobLocation).toList());
+        assertTrue(stub.maxConcurrentRequests() <= 3, stub.maxConcurrentRequests() + " concurrent");
+        assertTrue(stub.maxConcurrentRequests() > 1);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void settings_rejectInputBudgetWithoutRoomForDocuments() {
+        assertThrows(IllegalArgumentException.class, () -> new OpenAiLLMService.Settings(
+                stub.baseUri(), "", "m", Duration.ofSeconds(1), 10, 100, false));
+    }
+}
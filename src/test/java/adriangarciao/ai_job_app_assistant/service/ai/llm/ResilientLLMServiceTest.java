@@ -0,0 +1,240 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.FeedbackDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedJobDTO;
+import adriangarciao.ai_job_app_assistant.dto.ParsedResumeDTO;
+import adriangarciao.ai_job_app_assistant.exception.LlmBackendException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientLLMServiceTest {
+
+    private static final FeedbackDTO REMOTE = new FeedbackDTO(88, List.of("remote"), List.of(), List.of(), "remote", null, null);
+    private static final FeedbackDTO LOCAL = new FeedbackDTO(40, List.of("local"), List.of(), List.of(), "local", null, null);
+
+    private final ParsedResumeDTO resume = new ParsedResumeDTO("Jane", List.of("java"), List.of(), "java");
+    private final ParsedJobDTO job = new ParsedJobDTO("Engineer", List.of("java"), List.of(), null, null, "java");
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private ResilientLLMService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    private ResilientLLMService resilient(LLMService delegate, Duration deadline, boolean hedge, int maxConcurrent,
+                                          int failureThreshold) {
+        service = new ResilientLLMService(delegate, (r, j, c) -> LOCAL,
+                new ResilientLLMService.Settings(deadline, hedge, Duration.ofMillis(100), maxConcurrent,
+                        failureThreshold, Duration.ofMinutes(1)),
+                registry);
+        return service;
+    }
+
+    /** Backend whose n-th call (0-based) sleeps {@code delays[n]} ms, the last delay repeating. */
+    private LLMService backend(long... delays) {
+        return (r, j, c) -> {
+            int n = calls.getAndIncrement();
+            sleep(delays[Math.min(n, delays.length - 1)]);
+            return REMOTE;
+        };
+    }
+
+    private double fallbacks(String reason) {
+        return registry.get("ai.llm.fallbacks").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void fastBackend_answersDirectly() {
+        FeedbackDTO feedback = resilient(backend(0), Duration.ofSeconds(2), true, 4, 5).generateFeedback(resume, job, false);
+
+        assertEquals(REMOTE, feedback);
+        assertFalse(feedback.fallback());
+        assertEquals(1, calls.get());
+        assertEquals(0, registry.get("ai.llm.hedges").counter().count());
+        assertEquals(1, registry.get("ai.llm.latency").timer().count());
+    }
+
+    @Test
+    void tokensFromBackendAreForwarded() {
+        LLMService streaming = new LLMService() {
+            @Override
+            public FeedbackDTO generateFeedback(ParsedResumeDTO r, ParsedJobDTO j, boolean c) {
+                return REMOTE;
+            }
+
+            @Override
+            public FeedbackDTO generateFeedback(ParsedResumeDTO r, ParsedJobDTO j, boolean c, Consumer<String> onToken) {
+                onToken.accept("a");
+                onToken.accept("b");
+                return REMOTE;
+            }
+        };
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        FeedbackDTO feedback = resilient(streaming, Duration.ofSeconds(2), true, 4, 5)
+                .generateFeedback(resume, job, false, tokens::add);
+
+        assertEquals(REMOTE, feedback);
+        assertEquals(List.of("a", "b"), tokens);
+    }
+
+    @Test
+    void slowBackend_fallsBackAtDeadline() {
+        long start = System.nanoTime();
+        FeedbackDTO feedback = resilient(backend(5_000), Duration.ofMillis(300), false, 4, 5)
+                .generateFeedback(resume, job, false);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(feedback.fallback());
+        assertEquals(LOCAL.matchScore(), feedback.matchScore());
+        assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + " ms");
+        assertEquals(1, fallbacks("deadline"));
+    }
+
+    @Test
+    void slowFirstAttempt_isHedgedAndHedgeWins() {
+        FeedbackDTO feedback = resilient(backend(5_000, 0), Duration.ofSeconds(3), true, 4, 5)
+                .generateFeedback(resume, job, false);
+
+        assertEquals(REMOTE, feedback);
+        assertFalse(feedback.fallback());
+        assertEquals(2, calls.get());
+        assertEquals(1, registry.get("ai.llm.hedges").counter().count());
+    }
+
+    @Test
+    void failingBackend_fallsBackAndOpensBreaker() {
+        LLMService failing = (r, j, c) -> {
+            calls.incrementAndGet();
+            throw new LlmBackendException("boom");
+        };
+        ResilientLLMService llm = resilient(failing, Duration.ofSeconds(2), false, 4, 2);
+
+        assertTrue(llm.generateFeedback(resume, job, false).fallback());
+        assertTrue(llm.generateFeedback(resume, job, false).fallback());
+        assertEquals(CircuitBreaker.State.OPEN, llm.circuitState());
+        assertTrue(llm.generateFeedback(resume, job, false).fallback());
+
+        assertEquals(2, calls.get());
+        assertEquals(2, fallbacks("error"));
+        assertEquals(1, fallbacks("circuit_open"));
+        assertEquals(1, registry.get("ai.llm.circuit.open").gauge().value());
+    }
+
+    @Test
+    void fullBulkhead_fallsBackWithoutCallingBackend() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        // Ignores the cancel at the first call's deadline, so its slot stays taken until released
+        LLMService blocking = (r, j, c) -> {
+            calls.incrementAndGet();
+            started.countDown();
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+            return REMOTE;
+        };
+        ResilientLLMService llm = resilient(blocking, Duration.ofMillis(300), false, 1, 5);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<FeedbackDTO> first = caller.submit(() -> llm.generateFeedback(resume, job, false));
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+
+            FeedbackDTO second = llm.generateFeedback(resume, job, false);
+
+            assertTrue(second.fallback());
+            assertEquals(1, fallbacks("bulkhead_full"));
+            assertEquals(1, calls.get());
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void deadline_abortsBackendRequestsBeforeFreeingTheirSlots() throws Exception {
+        // A streamed answer of about 150 one-char deltas, 50 ms apart: seconds unless aborted
+        try (StubLlmServer stub = StubLlmServer.start().streamChunks(1, Duration.ofMillis(50))) {
+            HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            OpenAiLLMService remote = new OpenAiLLMService(http, new ObjectMapper(), new OpenAiLLMService.Settings(
+                    stub.baseUri(), "", "test-model", Duration.ofSeconds(30), 2000, 300, true));
+            ResilientLLMService llm = resilient(remote, Duration.ofMillis(300), false, 2, 5);
+            ExecutorService callers = Executors.newFixedThreadPool(2);
+            try {
+                List<Future<FeedbackDTO>> answers = List.of(
+                        callers.submit(() -> llm.generateFeedback(resume, job, false)),
+                        callers.submit(() -> llm.generateFeedback(resume, job, false)));
+                for (Future<FeedbackDTO> answer : answers) assertTrue(answer.get(5, TimeUnit.SECONDS).fallback());
+                assertEquals(2, stub.requests().size());
+
+                // Both requests were aborted: the backend sees them end long before the stream would have
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+                while (stub.inFlightRequests() > 0 || llm.availableSlots() < 2) {
+                    assertTrue(System.nanoTime() < deadline, stub.inFlightRequests() + " backend requests still in flight, "
+                            + llm.availableSlots() + " slots free");
+                    Thread.sleep(10);
+                }
+                assertEquals(2, fallbacks("deadline"));
+            } finally {
+                callers.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void batch_keepsOrderAndRunsConcurrently() {
+        ResilientLLMService llm = resilient(backend(200), Duration.ofSeconds(5), false, 8, 5);
+        List<ParsedJobDTO> jobs = List.of(job, job, job, job);
+
+        long start = System.nanoTime();
+        List<FeedbackDTO> feedback = llm.generateFeedbackBatch(resume, jobs);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(4, feedback.size());
+        assertTrue(feedback.stream().noneMatch(FeedbackDTO::fallback));
+        assertTrue(elapsedMillis < 700, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void hedgeDelay_followsRollingP95WithFloor() {
+        ResilientLLMService llm = resilient(backend(0), Duration.ofSeconds(2), true, 4, 5);
+        assertEquals(Duration.ofMillis(100).toNanos(), llm.hedgeDelayNanos());
+
+        // Keeps the last 64 of 128 samples (65..128); p95 is refreshed every 16 samples
+        ResilientLLMService.LatencyWindow window = new ResilientLLMService.LatencyWindow(64);
+        for (int i = 1; i <= 128; i++) window.record(i);
+        assertEquals(125, window.p95());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmBackendException("interrupted");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for an OpenAI-compatible chat completions server, for tests and benchmarks.
+ *
+ * Answers {@code POST /v1/chat/completions} with a fixed assistant message, either as one JSON
+ * response or, when the request asks for {@code "stream": true}, as server-sent deltas. Latency
+ * (before the response starts and between streamed chunks) and failures (an HTTP status for the
+ * next n calls) can be set while it runs. Each request is handled on its own virtual thread.
+ */
+public final class StubLlmServer implements AutoCloseable {
+
+    public static final String DEFAULT_ANSWER =
+            "{\"matchScore\": 72, \"strengths\": [\"Java\", \"Spring\"], \"weaknesses\": [\"Kubernetes\"],"
+                    + " \"suggestions\": [\"Mention your Docker work\"], \"summary\": \"Good fit.\"}";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile String answer = DEFAULT_ANSWER;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration chunkDelay = Duration.ZERO;
+    private volatile int chunkChars = 16;
+    private final Queue<Long> longFailures = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errorBytesSent = new AtomicLong();
+
+    private StubLlmServer(HttpServer server) {
+        this.server = server;
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /** Starts on a free loopback port. */
+    public static StubLlmServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            StubLlmServer stub = new StubLlmServer(server);
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Base URL to configure the client with, e.g. {@code http://127.0.0.1:port/v1}. */
+    public URI baseUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1");
+    }
+
+    /** Assistant message content returned from now on. */
+    public StubLlmServer answer(String content) {
+        this.answer = content;
+        return this;
+    }
+
+    /** Delay before each response starts. */
+    public StubLlmServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Size of and delay between streamed deltas. */
+    public StubLlmServer streamChunks(int chars, Duration delay) {
+        this.chunkChars = chars;
+        this.chunkDelay = delay;
+        return this;
+    }
+
+    /** The next {@code times} calls fail with {@code status}. */
+    public StubLlmServer failNext(int status, int times) {
+        for (int i = 0; i < times; i++) failures.add(status);
+        return this;
+    }
+
+    /** The next call fails with {@code status} and an error body of {@code bytes} bytes, sent in chunks. */
+    public StubLlmServer failNextWithLongBody(int status, long bytes) {
+        failures.add(status);
+        longFailures.add(bytes);
+        return this;
+    }
+
+    /** Bytes of long error bodies written so far; writing stops when the client closes the body. */
+    public long errorBytesSent() {
+        return errorBytesSent.get();
+    }
+
+    /** Request bodies received so far. */
+    public List<String> requests() {
+        return List.copyOf(requests);
+    }
+
+    /** Requests being handled right now; an aborted request counts until the stub notices it. */
+    public int inFlightRequests() {
+        return inFlight.get();
+    }
+
+    /** Most requests handled at the same time so far. */
+    public int maxConcurrentRequests() {
+        return maxInFlight.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(body);
+            sleep(latency);
+
+            Integer failure = failures.poll();
+            Long longBody = failure == null ? null : longFailures.poll();
+            if (longBody != null) {
+                sendLong(exchange, failure, longBody);
+                return;
+            }
+            if (failure != null) {
+                send(exchange, failure, "application/json", "{\"error\":{\"message\":\"stub failure\"}}");
+                return;
+            }
+            if (JSON.readTree(body).path("stream").asBoolean(false)) {
+                stream(exchange);
+            } else {
+                ObjectNode response = JSON.createObjectNode();
+                response.putArray("choices").addObject().putObject("message")
+                        .put("role", "assistant").put("content", answer);
+                send(exchange, 200, "application/json", JSON.writeValueAsString(response));
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String content = answer;
+        for (int i = 0; i < content.length(); i += chunkChars) {
+            ObjectNode chunk = JSON.createObjectNode();
+            chunk.putArray("choices").addObject().putObject("delta")
+                    .put("content", content.substring(i, Math.min(content.length(), i + chunkChars)));
+            out.write(("data: " + JSON.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            sleep(chunkDelay);
+        }
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void sendLong(HttpExchange exchange, int status, long bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/html");
+        exchange.sendResponseHeaders(status, 0);
+        byte[] chunk = "<p>error</p>".repeat(1024).getBytes(StandardCharsets.UTF_8);
+        OutputStream out = exchange.getResponseBody();
+        // Written from a platform thread: on a single core, a virtual thread pushing this much data
+        // keeps the only carrier busy and starves the client's virtual threads
+        Thread writer = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                for (long sent = 0; sent < bytes; sent += chunk.length) {
+                    out.write(chunk);
+                    errorBytesSent.addAndGet(chunk.length);
+                }
+            } catch (IOException e) {
+                // the client stopped reading
+            }
+        });
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) return;
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package adriangarciao.ai_job_app_assistant.service.ai.llm;
+
+import adriangarciao.ai_job_app_assistant.dto.TokenSpans;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenOverlapTest {
+
+    private static final String[] WORDS = {
+            "Java", "java,", "Spring-Boot", "C++", "C#", "node.js", "AWS", "aws.", "the", "THE", "and", "of",
+            "Kubernetes", "k8s", "go", "SQL", "(PostgreSQL)", "REST/GraphQL", "team", "teams", "2019", "İstanbul",
+            "5+", "years", "experience", "Experience:", "should", "would", "being", "-", "...", "ci/cd", "über"
+    };
+
+    /** The string-set pipeline the hashed sets replace. */
+    private static Set<String> reference(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\s+"))
+                .map(token -> token.replaceAll("[^a-z0-9+#.-]", ""))
+                .filter(token -> token.length() >= 3)
+                .filter(token -> !TokenOverlap.STOPWORDS.contains(token))
+                .collect(Collectors.toSet());
+    }
+
+    private static LongHashSet hashed(String text) {
+        return TokenOverlap.distinctTokens(text, TokenSpans.scan(text));
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int n = random.nextInt(200);
+        for (int i = 0; i < n; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+            if (random.nextInt(4) == 0) sb.append(random.nextInt(50));
+            sb.append(random.nextInt(10) == 0 ? "\n" : " ");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void distinctTokens_matchesStringPipelineOnRandomText() {
+        Random random = new Random(7);
+        for (int round = 0; round < 2000; round++) {
+            String resume = randomText(random);
+            String job = randomText(random);
+            Set<String> resumeRef = reference(resume);
+            Set<String> jobRef = reference(job);
+            Set<String> sharedRef = new HashSet<>(resumeRef);
+            sharedRef.retainAll(jobRef);
+
+            LongHashSet resumeHashed = hashed(resume);
+            LongHashSet jobHashed = hashed(job);
+
+            assertEquals(resumeRef.size(), resumeHashed.size(), resume);
+            assertEquals(jobRef.size(), jobHashed.size(), job);
+            assertEquals(sharedRef.size(), resumeHashed.countShared(jobHashed));
+            assertEquals(sharedRef.size(), jobHashed.countShared(resumeHashed));
+        }
+    }
+
+    @Test
+    void distinctTokens_skipsShortTokensAndStopwords() {
+        LongHashSet tokens = hashed("The Java and JAVA go to java!! with Spring");
+
+        assertEquals(2, tokens.size()); // java, spring
+    }
+
+    @Test
+    void distinctTokens_blankTextIsEmpty() {
+        assertTrue(hashed("   \n ").isEmpty());
+        assertTrue(TokenOverlap.distinctTokens(null, TokenSpans.EMPTY).isEmpty());
+    }
+
+    @Test
+    void longHashSet_handlesZeroAndCollidingSlots() {
+        LongHashSet set = new LongHashSet(4);
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        // Same low bits, so they probe the same slot chain
+        assertTrue(set.add(1L << 40));
+        assertTrue(set.add(2L << 40));
+        assertFalse(set.add(1L << 40));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(2L << 40));
+        assertFalse(set.contains(3L << 40));
+
+        LongHashSet other = new LongHashSet(2);
+        other.add(0);
+        other.add(2L << 40);
+        assertEquals(2, set.countShared(other));
+        assertThrows(UnsupportedOperationException.class, () -> LongHashSet.EMPTY.add(1));
+    }
+}